@@ -0,0 +1,99 @@
+package com.savantlabs.adapters;
+
+import com.savantlabs.adapters.business.SyncIssuesAdapterFactory;
+import com.savantlabs.adapters.enums.SyncIssueAdapterType;
+import com.savantlabs.adapters.model.SyncIssuesRequest;
+import com.savantlabs.adapters.model.SyncIssuesResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.CommandLinePropertySource;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Headless entry point for one-off syncs, e.g. nightly jobs: runs one sync and exits, without the web server.
+ * <pre>
+ *   java -cp adapters.jar com.savantlabs.adapters.BatchSyncApplication owner repository limit
+ *       [--type=GIT_HUB_REPOSITORY_FIRESTORE] [--incremental]
+ * </pre>
+ * Beans are created lazily, so the controllers, scheduler, job and webhook services of the web app are never
+ * created, and the GitHub clients only once the sync starts. The Firestore client is only built when Firestore is
+ * first called, which a {@code GIT_HUB_REPOSITORY_LOCAL_STORE} sync never does. Any other {@code --name=value}
+ * argument overrides the configuration as usual.
+ * <p>
+ * The {@link #BATCH_DEFAULTS} take precedence over the configuration files, but not over the arguments. They disable
+ * the issue spool, whose drainer would otherwise still be writing when the process exits, so Firestore syncs write
+ * every page before returning. With {@code --sync.spool.enabled=true} the pages left in the spool are written by the
+ * next run using the same spool directory.
+ * <p>
+ * Exits with 0 once every fetched issue is stored, 1 if some failed or are still spooled, and 2 for invalid
+ * arguments.
+ */
+public class BatchSyncApplication {
+    private static final Logger log = LoggerFactory.getLogger(BatchSyncApplication.class);
+
+    static final Map<String, Object> BATCH_DEFAULTS = Map.of("sync.spool.enabled", false);
+
+    private static final String USAGE = "Usage: BatchSyncApplication <owner> <repository> <limit>"
+            + " [--type=GIT_HUB_REPOSITORY_FIRESTORE] [--incremental]";
+
+    public static void main(String[] args) throws Exception {
+        System.exit(run(args));
+    }
+
+    /**
+     * Runs the sync described by {@code args}.
+     *
+     * @return the exit status
+     */
+    static int run(String... args) throws Exception {
+        DefaultApplicationArguments arguments = new DefaultApplicationArguments(args);
+        List<String> positional = arguments.getNonOptionArgs();
+        if (positional.size() != 3 || !positional.get(2).matches("\\d+")) {
+            System.err.println(USAGE);
+            return 2;
+        }
+        SyncIssuesRequest syncIssuesRequest = new SyncIssuesRequest();
+        syncIssuesRequest.setOwner(positional.get(0));
+        syncIssuesRequest.setRepository(positional.get(1));
+        syncIssuesRequest.setLimit(Integer.parseInt(positional.get(2)));
+        syncIssuesRequest.setSyncIssuesType(arguments.containsOption("type")
+                ? arguments.getOptionValues("type").get(0)
+                : SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE.name());
+        syncIssuesRequest.setIncremental(arguments.containsOption("incremental"));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AdaptersApplication.class)
+                .main(BatchSyncApplication.class)
+                .web(WebApplicationType.NONE)
+                .lazyInitialization(true)
+                .bannerMode(Banner.Mode.OFF)
+                .initializers(BatchSyncApplication::addBatchDefaults)
+                .run(args)) {
+            SyncIssuesResponse syncIssuesResponse = context.getBean(SyncIssuesAdapterFactory.class)
+                    .getAdapterService(syncIssuesRequest.getSyncIssuesType())
+                    .syncIssues(syncIssuesRequest);
+            log.info("Synced {}/{}: {} saved, {} skipped, {} failed, {} pending", syncIssuesResponse.getOwner(),
+                    syncIssuesResponse.getRepository(), syncIssuesResponse.getSaved(), syncIssuesResponse.getSkipped(),
+                    syncIssuesResponse.getFailed(), syncIssuesResponse.getPending());
+            return syncIssuesResponse.getFailed() == 0 && syncIssuesResponse.getPending() == 0 ? 0 : 1;
+        }
+    }
+
+    private static void addBatchDefaults(ConfigurableApplicationContext context) {
+        MutablePropertySources propertySources = context.getEnvironment().getPropertySources();
+        MapPropertySource batchDefaults = new MapPropertySource("batchSyncDefaults", BATCH_DEFAULTS);
+        if (propertySources.contains(CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME)) {
+            propertySources.addAfter(CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME, batchDefaults);
+        } else {
+            propertySources.addFirst(batchDefaults);
+        }
+    }
+}
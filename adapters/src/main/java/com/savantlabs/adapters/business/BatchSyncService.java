@@ -0,0 +1,211 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.helpers.DaemonThreadFactory;
+import com.savantlabs.adapters.helpers.GitHubClient;
+import com.savantlabs.adapters.helpers.LruCache;
+import com.savantlabs.adapters.model.BatchSyncIssuesRequest;
+import com.savantlabs.adapters.model.BatchSyncIssuesResponse;
+import com.savantlabs.adapters.model.RepositoryRef;
+import com.savantlabs.adapters.model.RepositorySyncResult;
+import com.savantlabs.adapters.model.SyncIssuesRequest;
+import com.savantlabs.adapters.model.SyncJob;
+import com.savantlabs.adapters.service.SyncIssueAdapterService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Syncs many repositories with one request. Each repository runs as a {@link SyncJobService} job, so a batch
+ * shares the job workers, the merging of duplicate syncs and the single {@link GitHubClient} (and with it the
+ * GitHub request cap and rate-limit budget) with every other sync in the process.
+ * <p>
+ * A batch runs in the background: its next repository is submitted when one of its jobs finishes, so no thread
+ * waits for it, and its progress is kept for {@code sync.batch.history-size} batches. The repositories of an
+ * organization are listed in the background too, and join the batch once the listing is done.
+ */
+@Service
+public class BatchSyncService {
+    private final SyncJobService syncJobService;
+    private final GitHubClient gitHubClient;
+    private final int maxConcurrentRepositories;
+    // recent batches by id, kept for status queries after they finish
+    private final LruCache<String, BatchSync> batches;
+    private final ExecutorService organizationListings = Executors.newCachedThreadPool(
+            new DaemonThreadFactory("batch-sync-"));
+
+    public BatchSyncService(SyncJobService syncJobService, GitHubClient gitHubClient,
+                            @Value("${sync.batch.max-concurrent-repositories}") int maxConcurrentRepositories,
+                            @Value("${sync.batch.history-size}") int historySize) {
+        this.syncJobService = syncJobService;
+        this.gitHubClient = gitHubClient;
+        this.maxConcurrentRepositories = maxConcurrentRepositories;
+        this.batches = new LruCache<>(historySize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        organizationListings.shutdownNow();
+    }
+
+    /**
+     * Starts syncing every repository of the batch, keeping at most {@code sync.batch.max-concurrent-repositories}
+     * of them queued or running at once, and returns without waiting for them or for the organization listing.
+     *
+     * @return the batch as it stands right after the first listed repositories were submitted
+     * @throws CustomException with 400 Bad Request for a repository without owner or name, or if the batch names
+     *                         neither repositories nor an organization
+     */
+    public BatchSyncIssuesResponse submitAll(SyncIssueAdapterService adapterService,
+                                             BatchSyncIssuesRequest batchRequest) {
+        List<RepositoryRef> listed = listedRepositories(batchRequest);
+        String organization = batchRequest.getOrganization();
+        boolean listOrganization = !isBlank(organization);
+        if (listed.isEmpty() && !listOrganization) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "No repositories to sync");
+        }
+        BatchSync batch = new BatchSync(UUID.randomUUID().toString(), adapterService, batchRequest, listOrganization);
+        batches.put(batch.id, batch);
+        batch.add(listed);
+        if (listOrganization) {
+            organizationListings.execute(() -> {
+                try {
+                    batch.organizationListed(gitHubClient.listOrganizationRepositories(organization).stream()
+                            .map(name -> new RepositoryRef(organization, name))
+                            .toList());
+                } catch (RuntimeException ex) {
+                    batch.organizationListingFailed(organization, ex);
+                }
+            });
+        }
+        return batch.toResponse();
+    }
+
+    /**
+     * @return per-repository results in request order, followed by the enumerated organization repositories
+     */
+    public Optional<BatchSyncIssuesResponse> getBatch(String id) {
+        return Optional.ofNullable(batches.get(id)).map(BatchSync::toResponse);
+    }
+
+    private List<RepositoryRef> listedRepositories(BatchSyncIssuesRequest batchRequest) {
+        List<RepositoryRef> repositories = Objects.requireNonNullElse(batchRequest.getRepositories(), List.of());
+        for (RepositoryRef repository : repositories) {
+            if (repository == null || isBlank(repository.getOwner()) || isBlank(repository.getRepository())) {
+                throw new CustomException(HttpStatus.BAD_REQUEST, "Every repository needs an owner and a repository");
+            }
+        }
+        return repositories;
+    }
+
+    private SyncIssuesRequest toSyncRequest(BatchSyncIssuesRequest batchRequest, RepositoryRef repository) {
+        SyncIssuesRequest syncIssuesRequest = new SyncIssuesRequest();
+        syncIssuesRequest.setOwner(repository.getOwner());
+        syncIssuesRequest.setRepository(repository.getRepository());
+        syncIssuesRequest.setSyncIssuesType(batchRequest.getSyncIssuesType());
+        syncIssuesRequest.setLimit(batchRequest.getLimit());
+        syncIssuesRequest.setIncremental(batchRequest.getIncremental());
+        syncIssuesRequest.setResumable(batchRequest.getResumable());
+        return syncIssuesRequest;
+    }
+
+    private String key(RepositoryRef repository) {
+        return (repository.getOwner() + "/" + repository.getRepository()).toLowerCase(Locale.ROOT);
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private final class BatchSync {
+        private final String id;
+        private final SyncIssueAdapterService adapterService;
+        private final BatchSyncIssuesRequest batchRequest;
+        // all guarded by this; index i of jobs and rejected holds the job or the rejection of repository i once it
+        // was submitted
+        private final List<RepositoryRef> repositories = new ArrayList<>();
+        // GitHub owner and repository names are case-insensitive, so the same repository is only synced once
+        private final Set<String> keys = new HashSet<>();
+        private final List<SyncJob> jobs = new ArrayList<>();
+        private final List<RepositorySyncResult> rejected = new ArrayList<>();
+        private boolean listingOrganization;
+        private String error;
+        private int next;
+        private int active;
+
+        private BatchSync(String id, SyncIssueAdapterService adapterService, BatchSyncIssuesRequest batchRequest,
+                          boolean listingOrganization) {
+            this.id = id;
+            this.adapterService = adapterService;
+            this.batchRequest = batchRequest;
+            this.listingOrganization = listingOrganization;
+        }
+
+        /**
+         * Adds repositories not in the batch yet and submits as many as there are free slots.
+         */
+        private synchronized void add(List<RepositoryRef> added) {
+            for (RepositoryRef repository : added) {
+                if (keys.add(key(repository))) {
+                    repositories.add(repository);
+                    jobs.add(null);
+                    rejected.add(null);
+                }
+            }
+            submitNext();
+        }
+
+        private synchronized void organizationListed(List<RepositoryRef> organizationRepositories) {
+            listingOrganization = false;
+            add(organizationRepositories);
+        }
+
+        private synchronized void organizationListingFailed(String organization, RuntimeException ex) {
+            listingOrganization = false;
+            error = "Could not list the repositories of " + organization + ": " + ex.getMessage();
+        }
+
+        private synchronized void submitNext() {
+            while (active < maxConcurrentRepositories && next < repositories.size()) {
+                int index = next++;
+                RepositoryRef repository = repositories.get(index);
+                try {
+                    SyncJob job = syncJobService.submit(adapterService, toSyncRequest(batchRequest, repository));
+                    jobs.set(index, job);
+                    active++;
+                    // a job that already finished completes this right away, on this thread
+                    job.completion().whenComplete((finished, failure) -> onFinished());
+                } catch (CustomException ex) {
+                    rejected.set(index, RepositorySyncResult.rejected(repository, ex.getMessage()));
+                }
+            }
+        }
+
+        private synchronized void onFinished() {
+            active--;
+            submitNext();
+        }
+
+        private synchronized BatchSyncIssuesResponse toResponse() {
+            List<RepositorySyncResult> results = new ArrayList<>(repositories.size());
+            for (int i = 0; i < repositories.size(); i++) {
+                results.add(rejected.get(i) != null ? rejected.get(i)
+                        : jobs.get(i) != null ? RepositorySyncResult.of(jobs.get(i))
+                        : RepositorySyncResult.queued(repositories.get(i)));
+            }
+            return BatchSyncIssuesResponse.of(id, results, listingOrganization, error);
+        }
+    }
+}
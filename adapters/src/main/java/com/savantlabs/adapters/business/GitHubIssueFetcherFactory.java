@@ -0,0 +1,31 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.enums.GitHubFetchStrategy;
+import com.savantlabs.adapters.service.GitHubIssueFetcher;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Factory class for providing the GitHubIssueFetcher of a fetch strategy.
+ **/
+@Service
+public class GitHubIssueFetcherFactory {
+    private final Map<GitHubFetchStrategy, GitHubIssueFetcher> fetcherMap;
+
+    public GitHubIssueFetcherFactory(List<GitHubIssueFetcher> gitHubIssueFetcherList) {
+        fetcherMap = gitHubIssueFetcherList.stream()
+                .collect(Collectors.toUnmodifiableMap(GitHubIssueFetcher::getStrategy, Function.identity()));
+    }
+
+    /**
+     * Returns the issue fetcher for the given strategy.
+     */
+    public Optional<GitHubIssueFetcher> getFetcher(GitHubFetchStrategy fetchStrategy) {
+        return Optional.ofNullable(fetcherMap.get(fetchStrategy));
+    }
+}
@@ -1,49 +1,293 @@
 package com.savantlabs.adapters.business;
 
+import com.savantlabs.adapters.enums.GitHubFetchStrategy;
 import com.savantlabs.adapters.enums.SyncIssueAdapterType;
+import com.savantlabs.adapters.enums.SyncWriteMode;
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.helpers.DaemonThreadFactory;
 import com.savantlabs.adapters.helpers.FirestoreClient;
-import com.savantlabs.adapters.helpers.GitHubClient;
+import com.savantlabs.adapters.helpers.IssueSpool;
 import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.PagingCursor;
+import com.savantlabs.adapters.model.ResumableIssuePage;
 import com.savantlabs.adapters.model.SyncIssuesRequest;
 import com.savantlabs.adapters.model.SyncIssuesResponse;
+import com.savantlabs.adapters.model.UpsertResult;
+import com.savantlabs.adapters.service.GitHubIssueFetcher;
 import com.savantlabs.adapters.service.SyncIssueAdapterService;
+import com.savantlabs.adapters.service.SyncProgressListener;
+import io.micrometer.observation.Observation;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 /**
- * Service implementation for synchronizing GitHub issues into Firestore.
+ * Service implementation for synchronizing GitHub issues into Firestore, observed by the {@link SyncRunObserver}.
  **/
 @Service
 public class GitHubIssueToFirestoreSyncAdapterImpl implements SyncIssueAdapterService {
-  private final GitHubClient gitHubClient;
+  // marks the end of the fetched pages in the pipeline queue; compared by identity
+  private static final List<Issue> END_OF_PAGES = new ArrayList<>(0);
+
+  private final GitHubIssueFetcher issueFetcher;
   private final FirestoreClient firestoreClient;
+  private final IssueSpool issueSpool;
+  // how runs that are not resumable write their pages
+  private final SyncWriteMode writeMode;
+  private final int pipelineQueueCapacity;
+  private final long spoolAwaitTimeoutSeconds;
+  private final SyncRunObserver syncRunObserver;
+  private final ExecutorService pageProducers = Executors.newCachedThreadPool(
+      new DaemonThreadFactory("sync-pipeline-"));
 
-  public GitHubIssueToFirestoreSyncAdapterImpl(GitHubClient gitHubClient, FirestoreClient firestoreClient) {
-    this.gitHubClient = gitHubClient;
+  public GitHubIssueToFirestoreSyncAdapterImpl(GitHubIssueFetcherFactory issueFetcherFactory,
+                                               @Value("${github.fetch.strategy}") GitHubFetchStrategy fetchStrategy,
+                                               FirestoreClient firestoreClient,
+                                               IssueSpool issueSpool,
+                                               @Value("${sync.pipeline.enabled}") boolean pipelineEnabled,
+                                               @Value("${sync.pipeline.queue-capacity}") int pipelineQueueCapacity,
+                                               @Value("${sync.spool.await-timeout-seconds}")
+                                               long spoolAwaitTimeoutSeconds,
+                                               SyncRunObserver syncRunObserver) {
+    this.issueFetcher = issueFetcherFactory.getFetcher(fetchStrategy)
+        .orElseThrow(() -> new IllegalStateException("No GitHub issue fetcher for strategy " + fetchStrategy));
     this.firestoreClient = firestoreClient;
+    this.issueSpool = issueSpool;
+    if (issueSpool.isEnabled() && pipelineEnabled) {
+      throw new IllegalStateException("sync.spool.enabled and sync.pipeline.enabled are mutually exclusive; "
+          + "disable the pipeline to use the spool");
+    }
+    this.writeMode = issueSpool.isEnabled() ? SyncWriteMode.SPOOLED
+        : pipelineEnabled ? SyncWriteMode.PIPELINED : SyncWriteMode.MATERIALIZED;
+    this.pipelineQueueCapacity = pipelineQueueCapacity;
+    this.spoolAwaitTimeoutSeconds = spoolAwaitTimeoutSeconds;
+    this.syncRunObserver = syncRunObserver;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    pageProducers.shutdownNow();
   }
 
   @Override
   public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest) throws Exception {
+    return syncIssues(syncIssuesRequest, SyncProgressListener.NONE);
+  }
+
+  /**
+   * @throws CustomException with 400 Bad Request if {@code limit} is missing or not positive
+   */
+  @Override
+  public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest, SyncProgressListener listener)
+      throws Exception {
     String owner = syncIssuesRequest.getOwner();
     String repo = syncIssuesRequest.getRepository();
     Integer limit = syncIssuesRequest.getLimit();
-    Map<String, Issue> issueMap = gitHubClient.fetchTopIssues(owner, repo, limit);
-    for (Issue issue : issueMap.values()) {
-      firestoreClient.upsert(issue);
+    if (limit == null || limit <= 0) {
+      throw new CustomException(HttpStatus.BAD_REQUEST, "limit must be a positive number");
+    }
+    boolean incremental = Boolean.TRUE.equals(syncIssuesRequest.getIncremental());
+    boolean resumable = Boolean.TRUE.equals(syncIssuesRequest.getResumable());
+    SyncWriteMode mode = resumable ? SyncWriteMode.RESUMABLE : writeMode;
+
+    SyncTotals totals = syncRunObserver.observe(issueFetcher.getStrategy().name(), mode, incremental, owner, repo,
+        sync -> {
+          if (mode == SyncWriteMode.RESUMABLE) {
+            return syncResumable(sync, owner, repo, incremental, limit, listener);
+          }
+          // incremental syncs only fetch issues changed since the last checkpoint; the first one fetches everything
+          Optional<Instant> since = incremental ? firestoreClient.getLastUpdatedAt(owner, repo) : Optional.empty();
+          return switch (mode) {
+            case SPOOLED -> syncSpooled(sync, owner, repo, since, limit, listener);
+            case PIPELINED -> syncPipelined(sync, owner, repo, since, limit, listener);
+            case MATERIALIZED -> syncMaterialized(sync, owner, repo, since, limit, listener);
+            default -> throw new IllegalStateException("Unsupported write mode " + mode);
+          };
+        });
+
+    Instant checkpoint = totals.getCheckpoint();
+    if (incremental && !resumable && checkpoint != null) {
+      firestoreClient.saveLastUpdatedAt(owner, repo, checkpoint);
     }
-    SyncIssuesResponse syncIssuesResponse = new SyncIssuesResponse();
-    syncIssuesResponse.setOwner(owner);
-    syncIssuesResponse.setRepository(repo);
-    syncIssuesResponse.setRequested(limit);
-    syncIssuesResponse.setSaved(issueMap.values().size());
+    return totals.toResponse(owner, repo, limit);
+  }
 
-    return syncIssuesResponse;
+  /**
+   * Fetches every issue into memory first and then writes them in one bulk upsert.
+   */
+  private SyncTotals syncMaterialized(Observation sync, String owner, String repo, Optional<Instant> since,
+                                      int limit, SyncProgressListener listener) throws InterruptedException {
+    Map<String, Issue> issueMap = stage(sync, "fetch", () -> since.isPresent()
+        ? issueFetcher.fetchIssuesUpdatedSince(owner, repo, since.get(), limit, listener::onPageFetched)
+        : issueFetcher.fetchTopIssues(owner, repo, limit, listener::onPageFetched));
+    SyncTotals totals = new SyncTotals(since.orElse(null));
+    UpsertResult upsertResult = stage(sync, "write", () -> firestoreClient.upsertAll(issueMap.values()));
+    totals.add(issueMap.values(), upsertResult, listener);
+    return totals;
+  }
+
+  /**
+   * Fetches pages on a producer thread while the calling thread writes the pages already fetched, so GitHub
+   * and Firestore are busy at the same time. The bounded queue between them applies backpressure: the producer
+   * blocks once {@code pipelineQueueCapacity} pages are waiting, which keeps heap use flat for any limit.
+   */
+  private SyncTotals syncPipelined(Observation sync, String owner, String repo, Optional<Instant> since, int limit,
+                                   SyncProgressListener listener) throws Exception {
+    BlockingQueue<List<Issue>> pages = new ArrayBlockingQueue<>(pipelineQueueCapacity);
+    Future<?> producer = pageProducers.submit(() -> {
+      try (Stream<List<Issue>> pageStream = since.isPresent()
+          ? issueFetcher.streamIssuesUpdatedSince(owner, repo, since.get(), limit)
+          : issueFetcher.streamTopIssues(owner, repo, limit)) {
+        Iterator<List<Issue>> pageIterator = pageStream.iterator();
+        // hasNext fetches the next page
+        while (stage(sync, "fetch", pageIterator::hasNext)) {
+          listener.onPageFetched();
+          put(pages, pageIterator.next());
+        }
+      } finally {
+        put(pages, END_OF_PAGES);
+      }
+    });
+
+    SyncTotals totals = new SyncTotals(since.orElse(null));
+    try {
+      for (List<Issue> page = pages.take(); page != END_OF_PAGES; page = pages.take()) {
+        List<Issue> fetchedPage = page;
+        totals.add(fetchedPage, stage(sync, "write", () -> firestoreClient.upsertAll(fetchedPage)), listener);
+      }
+      producer.get(); // surfaces a failed page fetch
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof Exception cause) throw cause;
+      throw ex;
+    } finally {
+      producer.cancel(true);
+    }
+    return totals;
+  }
+
+  /**
+   * Appends every fetched page to the durable {@link IssueSpool} as soon as it arrives, then waits up to
+   * {@code sync.spool.await-timeout-seconds} for the spool drainer to write them. Pages that are still waiting are
+   * reported as pending; the drainer writes them later, also after a restart, without fetching them again. Only the
+   * size, newest update and future of each page are kept here, so memory stays flat for any limit.
+   */
+  private SyncTotals syncSpooled(Observation sync, String owner, String repo, Optional<Instant> since, int limit,
+                                 SyncProgressListener listener) throws InterruptedException {
+    SyncTotals totals = new SyncTotals(since.orElse(null));
+    List<SpooledPage> spooledPages = new ArrayList<>();
+    try (Stream<List<Issue>> pageStream = since.isPresent()
+        ? issueFetcher.streamIssuesUpdatedSince(owner, repo, since.get(), limit)
+        : issueFetcher.streamTopIssues(owner, repo, limit)) {
+      Iterator<List<Issue>> pageIterator = pageStream.iterator();
+      while (stage(sync, "fetch", pageIterator::hasNext)) {
+        listener.onPageFetched();
+        List<Issue> page = pageIterator.next();
+        spooledPages.add(new SpooledPage(page.size(), totals.changedIn(page), SyncTotals.newestUpdatedAt(page),
+            stage(sync, "spool", () -> issueSpool.append(page))));
+      }
+    }
+
+    // the write stage is the time spent waiting for the drainer to catch up
+    return stage(sync, "write", () -> {
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(spoolAwaitTimeoutSeconds);
+      for (SpooledPage spooledPage : spooledPages) {
+        try {
+          UpsertResult upsertResult = spooledPage.written().get(Math.max(0, deadline - System.nanoTime()),
+              TimeUnit.NANOSECONDS);
+          totals.add(spooledPage.newestUpdatedAt(), spooledPage.changed(), upsertResult, listener);
+        } catch (TimeoutException | ExecutionException ex) {
+          // still queued, or the drainer failed and starts over; either way the page stays in the spool
+          totals.addPending(spooledPage.issues(), spooledPage.changed(), spooledPage.newestUpdatedAt());
+        }
+      }
+      return totals;
+    });
+  }
+
+  /**
+   * Pages through the repository with a {@link PagingCursor}, least recently updated issues first, and stores the
+   * cursor in Firestore after each page is written. A run that is interrupted, stops at {@code limit} or fails to
+   * write a page leaves its cursor behind, and the next resumable run continues from there without fetching the
+   * stored pages again. A run that reaches the end removes the cursor and moves the incremental checkpoint to it.
+   * <p>
+   * Without a cursor to resume from, an incremental run starts at the incremental checkpoint and any other run
+   * at the oldest issue.
+   */
+  private SyncTotals syncResumable(Observation sync, String owner, String repo, boolean incremental, int limit,
+                                   SyncProgressListener listener) throws Exception {
+    Optional<PagingCursor> savedCursor = firestoreClient.getPagingCursor(owner, repo);
+    PagingCursor cursor = savedCursor.isPresent() ? savedCursor.get() : PagingCursor.startingAt(incremental
+        ? firestoreClient.getLastUpdatedAt(owner, repo).orElse(Instant.EPOCH) : Instant.EPOCH);
+
+    SyncTotals totals = new SyncTotals();
+    int fetched = 0;
+    try (Stream<ResumableIssuePage> pageStream = issueFetcher.streamIssuesFrom(owner, repo, cursor, limit)) {
+      Iterator<ResumableIssuePage> pageIterator = pageStream.iterator();
+      while (stage(sync, "fetch", pageIterator::hasNext)) {
+        listener.onPageFetched();
+        ResumableIssuePage page = pageIterator.next();
+        UpsertResult upsertResult = stage(sync, "write", () -> firestoreClient.upsertAll(page.getIssues()));
+        totals.add(page.getIssues(), upsertResult, listener);
+        fetched += page.getIssues().size();
+        if (upsertResult.getFailed() > 0) {
+          // the cursor stays in front of this page, so the next run fetches it again
+          return totals;
+        }
+        cursor = page.getCursor();
+        firestoreClient.savePagingCursor(owner, repo, cursor);
+      }
+    }
+
+    // fewer issues than the limit means the listing ran out
+    if (fetched < limit) {
+      firestoreClient.completePagingCursor(owner, repo, cursor.getSince());
+    }
+    return totals;
+  }
+
+  private <T, E extends Throwable> T stage(Observation sync, String stage, Observation.CheckedCallable<T, E> work)
+      throws E {
+    return syncRunObserver.stage(sync, stage, work);
+  }
+
+  private void put(BlockingQueue<List<Issue>> pages, List<Issue> page) {
+    try {
+      pages.put(page);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while queueing fetched issues", ex);
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> whenStored(String owner, String repository) {
+    return issueSpool.isEnabled() ? issueSpool.whenDrained(owner, repository) : CompletableFuture.completedFuture(null);
   }
 
   @Override
   public SyncIssueAdapterType getRepository() {
     return SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE;
   }
-}
\ No newline at end of file
+
+  private record SpooledPage(int issues, int changed, Instant newestUpdatedAt,
+                             CompletableFuture<UpsertResult> written) {
+  }
+}
@@ -0,0 +1,107 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.enums.GitHubFetchStrategy;
+import com.savantlabs.adapters.enums.SyncIssueAdapterType;
+import com.savantlabs.adapters.enums.SyncWriteMode;
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.helpers.LocalIssueStore;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.SyncIssuesRequest;
+import com.savantlabs.adapters.model.SyncIssuesResponse;
+import com.savantlabs.adapters.service.GitHubIssueFetcher;
+import com.savantlabs.adapters.service.SyncIssueAdapterService;
+import com.savantlabs.adapters.service.SyncProgressListener;
+import io.micrometer.observation.Observation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Service implementation for synchronizing GitHub issues into the {@link LocalIssueStore} on local disk.
+ * <p>
+ * Each fetched page is written as soon as it arrives. Pages of concurrent syncs are committed to disk together,
+ * so many repositories can be synced at once without one fsync per page each. Runs are observed by the
+ * {@link SyncRunObserver} like those of the Firestore adapter, with {@code mode=local-store}.
+ */
+@Service
+public class GitHubIssueToLocalStoreSyncAdapterImpl implements SyncIssueAdapterService {
+    private final GitHubIssueFetcher issueFetcher;
+    private final LocalIssueStore localIssueStore;
+    private final SyncRunObserver syncRunObserver;
+
+    public GitHubIssueToLocalStoreSyncAdapterImpl(GitHubIssueFetcherFactory issueFetcherFactory,
+                                                  @Value("${github.fetch.strategy}") GitHubFetchStrategy fetchStrategy,
+                                                  LocalIssueStore localIssueStore,
+                                                  SyncRunObserver syncRunObserver) {
+        this.issueFetcher = issueFetcherFactory.getFetcher(fetchStrategy)
+                .orElseThrow(() -> new IllegalStateException("No GitHub issue fetcher for strategy " + fetchStrategy));
+        this.localIssueStore = localIssueStore;
+        this.syncRunObserver = syncRunObserver;
+    }
+
+    @Override
+    public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest) throws Exception {
+        return syncIssues(syncIssuesRequest, SyncProgressListener.NONE);
+    }
+
+    /**
+     * @throws CustomException with 400 Bad Request for resumable syncs, which need the Firestore paging cursors, and
+     *                         if {@code limit} is missing or not positive
+     */
+    @Override
+    public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest, SyncProgressListener listener)
+            throws Exception {
+        if (Boolean.TRUE.equals(syncIssuesRequest.getResumable())) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "Resumable syncs are only supported by "
+                    + SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE);
+        }
+        String owner = syncIssuesRequest.getOwner();
+        String repo = syncIssuesRequest.getRepository();
+        Integer limit = syncIssuesRequest.getLimit();
+        if (limit == null || limit <= 0) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "limit must be a positive number");
+        }
+        boolean incremental = Boolean.TRUE.equals(syncIssuesRequest.getIncremental());
+
+        SyncTotals totals = syncRunObserver.observe(issueFetcher.getStrategy().name(), SyncWriteMode.LOCAL_STORE,
+                incremental, owner, repo, sync -> syncPages(sync, owner, repo, incremental, limit, listener));
+
+        // only move the checkpoint forward once every fetched issue is stored, so failed ones are fetched again
+        Instant checkpoint = totals.getCheckpoint();
+        if (incremental && checkpoint != null) {
+            localIssueStore.saveLastUpdatedAt(owner, repo, checkpoint);
+        }
+        return totals.toResponse(owner, repo, limit);
+    }
+
+    /**
+     * Writes each page as soon as it is fetched.
+     */
+    private SyncTotals syncPages(Observation sync, String owner, String repo, boolean incremental, int limit,
+                                 SyncProgressListener listener) throws Exception {
+        Optional<Instant> since = incremental ? localIssueStore.getLastUpdatedAt(owner, repo) : Optional.empty();
+        SyncTotals totals = new SyncTotals(since.orElse(null));
+        try (Stream<List<Issue>> pageStream = since.isPresent()
+                ? issueFetcher.streamIssuesUpdatedSince(owner, repo, since.get(), limit)
+                : issueFetcher.streamTopIssues(owner, repo, limit)) {
+            Iterator<List<Issue>> pageIterator = pageStream.iterator();
+            while (syncRunObserver.stage(sync, "fetch", pageIterator::hasNext)) {
+                listener.onPageFetched();
+                List<Issue> page = pageIterator.next();
+                totals.add(page, syncRunObserver.stage(sync, "write", () -> localIssueStore.upsertAll(page)), listener);
+            }
+        }
+        return totals;
+    }
+
+    @Override
+    public SyncIssueAdapterType getRepository() {
+        return SyncIssueAdapterType.GIT_HUB_REPOSITORY_LOCAL_STORE;
+    }
+}
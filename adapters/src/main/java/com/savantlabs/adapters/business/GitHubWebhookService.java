@@ -0,0 +1,203 @@
+package com.savantlabs.adapters.business;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.helpers.DaemonThreadFactory;
+import com.savantlabs.adapters.helpers.FirestoreClient;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.IssueMapper;
+import com.savantlabs.adapters.model.UpsertResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingests GitHub {@code issues} webhook events.
+ * <p>
+ * Each delivery is authenticated with its {@code X-Hub-Signature-256} HMAC and mapped through {@link IssueMapper}.
+ * Issues are then held for {@code github.webhook.coalesce-window-ms}, so that a burst of events is written to
+ * Firestore as one bulk upsert and an issue edited several times within the window is written once, in its latest
+ * state. A window is flushed early once {@code github.webhook.max-batch-size} issues are pending.
+ * <p>
+ * Deliveries can arrive out of order and be redelivered, also after their window was flushed, so before writing,
+ * every issue is compared with its stored document and left out if that was updated later.
+ * <p>
+ * Writes that fail are logged and not retried. An incremental sync only fetches such an issue again if it is newer
+ * than the sync's checkpoint; a full sync always does.
+ */
+@Service
+public class GitHubWebhookService {
+    private static final Logger log = LoggerFactory.getLogger(GitHubWebhookService.class);
+
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    // deleted and transferred issues no longer exist in the repository, so there is nothing to upsert for them
+    private static final Set<String> IGNORED_ACTIONS = Set.of("deleted", "transferred");
+
+    private final FirestoreClient firestoreClient;
+    private final ObjectMapper objectMapper;
+    private final byte[] secret;
+    private final long coalesceWindowMillis;
+    private final int maxBatchSize;
+    private final Counter acceptedEvents;
+    private final Counter ignoredEvents;
+    private final Counter rejectedEvents;
+    private final ScheduledExecutorService flusher =
+            Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("github-webhook-"));
+    // latest state of each issue received in the current window, by owner/repository/id
+    private Map<String, Issue> pending = new LinkedHashMap<>();
+
+    public GitHubWebhookService(FirestoreClient firestoreClient, ObjectMapper objectMapper,
+                                @Value("${github.webhook.secret}") String secret,
+                                @Value("${github.webhook.coalesce-window-ms}") long coalesceWindowMillis,
+                                @Value("${github.webhook.max-batch-size}") int maxBatchSize,
+                                MeterRegistry meterRegistry) {
+        this.firestoreClient = firestoreClient;
+        this.objectMapper = objectMapper;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.coalesceWindowMillis = coalesceWindowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.acceptedEvents = eventCounter(meterRegistry, "accepted");
+        this.ignoredEvents = eventCounter(meterRegistry, "ignored");
+        this.rejectedEvents = eventCounter(meterRegistry, "rejected");
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("github.webhook.events")
+                .description("GitHub webhook deliveries received")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Writes the issues still pending before shutting down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flush();
+    }
+
+    /**
+     * Authenticates a delivery and queues the issue it carries.
+     *
+     * @param event     {@code X-GitHub-Event} header
+     * @param signature {@code X-Hub-Signature-256} header
+     * @param body      raw request body, exactly as signed by GitHub
+     * @return whether the delivery was queued; deliveries of other events and actions are ignored
+     * @throws CustomException with 503 Service Unavailable when no webhook secret is configured, 401 Unauthorized
+     *                         for a missing or wrong signature, and 400 Bad Request for a malformed payload
+     */
+    public boolean handle(String event, String signature, byte[] body) {
+        if (secret.length == 0) {
+            throw new CustomException(HttpStatus.SERVICE_UNAVAILABLE, "GitHub webhook secret is not configured");
+        }
+        if (signature == null || !MessageDigest.isEqual(
+                signature.getBytes(StandardCharsets.UTF_8), sign(secret, body).getBytes(StandardCharsets.UTF_8))) {
+            rejectedEvents.increment();
+            throw new CustomException(HttpStatus.UNAUTHORIZED, "Invalid webhook signature");
+        }
+        if (!"issues".equals(event)) {
+            ignoredEvents.increment();
+            return false;
+        }
+
+        JsonNode payload;
+        try {
+            payload = objectMapper.readTree(body);
+        } catch (IOException ex) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "Malformed webhook payload: " + ex.getMessage());
+        }
+        JsonNode issueNode = payload.path("issue");
+        JsonNode repository = payload.path("repository");
+        if (!issueNode.hasNonNull("id") || !repository.hasNonNull("name")
+                || !repository.path("owner").hasNonNull("login")) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "Malformed webhook payload: missing issue or repository");
+        }
+        if (IGNORED_ACTIONS.contains(payload.path("action").asText())) {
+            ignoredEvents.increment();
+            return false;
+        }
+
+        Issue issue = IssueMapper.toIssue(issueNode)
+                .withOwnerRepo(repository.get("owner").get("login").asText(), repository.get("name").asText());
+        acceptedEvents.increment();
+        enqueue(issue);
+        return true;
+    }
+
+    /**
+     * @return the {@code X-Hub-Signature-256} value GitHub sends for {@code body}
+     */
+    static String sign(byte[] secret, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
+            return SIGNATURE_PREFIX + HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", ex);
+        }
+    }
+
+    private synchronized void enqueue(Issue issue) {
+        String key = issue.owner + "/" + issue.repo + "/" + issue.id;
+        Issue queued = pending.get(key);
+        // deliveries can arrive out of order and be redelivered; keep the most recently updated state
+        if (queued != null && queued.updatedAt != null && issue.updatedAt != null
+                && issue.updatedAt.isBefore(queued.updatedAt)) {
+            return;
+        }
+        pending.put(key, issue);
+        if (pending.size() == 1) {
+            flusher.schedule(this::flush, coalesceWindowMillis, TimeUnit.MILLISECONDS);
+        } else if (pending.size() == maxBatchSize) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    private synchronized Map<String, Issue> drain() {
+        Map<String, Issue> issues = pending;
+        pending = new LinkedHashMap<>();
+        return issues;
+    }
+
+    private void flush() {
+        Map<String, Issue> issues = drain();
+        if (issues.isEmpty()) return;
+        try {
+            List<Issue> current = firestoreClient.notOlderThanStored(issues.values());
+            UpsertResult result = firestoreClient.upsertAll(current);
+            log.info("Wrote {} issues from webhooks ({} unchanged, {} older than stored, {} failed)",
+                    result.getWritten(), result.getSkipped(), issues.size() - current.size(), result.getFailed());
+            if (result.getFailed() > 0) {
+                log.warn("Webhook issue writes failed: {}", result.getFailures());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while writing {} issues from webhooks", issues.size());
+        } catch (Exception ex) {
+            log.error("Writing {} issues from webhooks failed: {}", issues.size(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.helpers.FirestoreClient;
+import com.savantlabs.adapters.helpers.IssueQueryCache;
+import com.savantlabs.adapters.helpers.IssueSnapshot;
+import com.savantlabs.adapters.model.Issue;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Answers issue queries from the {@link IssueQueryCache}, reading a repository's issues from Firestore once when
+ * it is not cached. Concurrent queries of a repository that is being loaded wait for that load instead of starting
+ * their own. Repositories too large for the cache, as counted before the load, and every repository while the cache
+ * is disabled, are queried in Firestore with the filters, order and limit applied there.
+ */
+@Service
+public class IssueQueryService {
+    private final FirestoreClient firestoreClient;
+    private final IssueQueryCache queryCache;
+    private final Map<String, CompletableFuture<IssueQueryCache.RepositoryIssues>> loads = new ConcurrentHashMap<>();
+
+    public IssueQueryService(FirestoreClient firestoreClient, IssueQueryCache queryCache) {
+        this.firestoreClient = firestoreClient;
+        this.queryCache = queryCache;
+    }
+
+    /**
+     * Finds the synced issues of a repository matching every given filter, newest first.
+     *
+     * @throws CustomException with 404 Not Found if no issue of the repository was synced
+     */
+    public IssueSnapshot.QueryResult query(String owner, String repo, String state, Instant createdFrom,
+                                           Instant createdTo, int limit) throws Exception {
+        IssueQueryCache.RepositoryIssues issues = queryCache.get(owner, repo).orElse(null);
+        if (issues == null && queryCache.isEnabled() && !queryCache.isOversized(owner, repo)) {
+            issues = load(owner, repo);
+        }
+        if (issues == null) {
+            return firestoreClient.queryIssues(owner, repo, state, createdFrom, createdTo, limit)
+                    .orElseThrow(() -> notSynced(owner, repo));
+        }
+        return issues.query(state, createdFrom, createdTo, limit);
+    }
+
+    /**
+     * @return the issues of the repository, or null if it is too large to load into the cache
+     */
+    private IssueQueryCache.RepositoryIssues load(String owner, String repo) throws Exception {
+        String key = (owner + "/" + repo).toLowerCase(Locale.ROOT);
+        CompletableFuture<IssueQueryCache.RepositoryIssues> load = new CompletableFuture<>();
+        CompletableFuture<IssueQueryCache.RepositoryIssues> running = loads.putIfAbsent(key, load);
+        if (running != null) {
+            try {
+                return running.get();
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof Exception cause) throw cause;
+                throw ex;
+            }
+        }
+        try {
+            long token = queryCache.beginLoad(owner, repo);
+            long count = firestoreClient.countIssues(owner, repo);
+            if (count == 0) {
+                // not cached, so the first sync of the repository needs no invalidation
+                throw notSynced(owner, repo);
+            }
+            if (!queryCache.admits(owner, repo, count)) {
+                load.complete(null);
+                return null;
+            }
+            List<Issue> stored = firestoreClient.findIssues(owner, repo);
+            IssueQueryCache.RepositoryIssues issues = queryCache.put(owner, repo, stored, token);
+            load.complete(issues);
+            return issues;
+        } catch (Exception ex) {
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    private static CustomException notSynced(String owner, String repo) {
+        return new CustomException(HttpStatus.NOT_FOUND, "No synced issues for " + owner + "/" + repo);
+    }
+}
@@ -0,0 +1,78 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.enums.SyncIssueAdapterType;
+import com.savantlabs.adapters.model.SyncIssuesRequest;
+import com.savantlabs.adapters.model.SyncIssuesResponse;
+import com.savantlabs.adapters.service.SyncIssueAdapterService;
+import com.savantlabs.adapters.service.SyncProgressListener;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs the syncs of an adapter only while holding the repository's {@link SyncCoordinator} lease. A sync that loses
+ * the lease stops before its next page and fails with 409 Conflict. The lease of a sync that left issues to be written
+ * in the background is held until they are stored.
+ */
+class LeasedSyncIssueAdapterService implements SyncIssueAdapterService {
+    private final SyncIssueAdapterService adapterService;
+    private final SyncCoordinator syncCoordinator;
+
+    LeasedSyncIssueAdapterService(SyncIssueAdapterService adapterService, SyncCoordinator syncCoordinator) {
+        this.adapterService = adapterService;
+        this.syncCoordinator = syncCoordinator;
+    }
+
+    @Override
+    public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest) throws Exception {
+        return syncIssues(syncIssuesRequest, SyncProgressListener.NONE);
+    }
+
+    @Override
+    public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest, SyncProgressListener listener)
+            throws Exception {
+        String owner = syncIssuesRequest.getOwner();
+        String repository = syncIssuesRequest.getRepository();
+        SyncCoordinator.Lease lease = syncCoordinator.acquire(owner, repository);
+        boolean release = true;
+        try {
+            SyncIssuesResponse response = adapterService.syncIssues(syncIssuesRequest, new SyncProgressListener() {
+                @Override
+                public void onPageFetched() {
+                    // fences the writes of the page against a sync that took the lease over
+                    lease.checkHeld();
+                    listener.onPageFetched();
+                }
+
+                @Override
+                public void onIssuesWritten(int written, int failed) {
+                    listener.onIssuesWritten(written, failed);
+                }
+            });
+            lease.checkHeld();
+            if (response.getPending() != null && response.getPending() > 0) {
+                lease.closeWhen(adapterService.whenStored(owner, repository));
+                release = false;
+            }
+            return response;
+        } catch (Exception ex) {
+            // the sync most likely failed because losing the lease interrupted it
+            lease.checkHeld();
+            throw ex;
+        } finally {
+            lease.detach();
+            if (release) {
+                lease.close();
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> whenStored(String owner, String repository) {
+        return adapterService.whenStored(owner, repository);
+    }
+
+    @Override
+    public SyncIssueAdapterType getRepository() {
+        return adapterService.getRepository();
+    }
+}
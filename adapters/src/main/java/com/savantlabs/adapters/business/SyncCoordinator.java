@@ -0,0 +1,340 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.helpers.ConsistentHashRing;
+import com.savantlabs.adapters.helpers.DaemonThreadFactory;
+import com.savantlabs.adapters.helpers.FirestoreCoordinationClient;
+import com.savantlabs.adapters.model.SyncScheduleRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinates the instances of the service that share one Firestore database.
+ * <p>
+ * Every instance heartbeats a member document and places the live members on a {@link ConsistentHashRing}, which
+ * gives each instance its share of the scheduled repositories. A sync of a repository only runs while its instance
+ * holds the repository's lease, so two instances never sync the same repository at once, whoever triggered it.
+ * Leases are renewed with every heartbeat while the sync runs, and until the issues it left to be written in the
+ * background are stored. A sync whose lease could not be renewed in time and was taken over is interrupted and stops
+ * before writing its next page. When an instance stops heartbeating, it drops off
+ * the ring after {@code sync.coordination.lease-ttl-ms}, its repositories move to the remaining instances, and its
+ * leases expire and can be taken over. An instance that shuts down cleanly leaves the ring and releases its leases
+ * right away.
+ * <p>
+ * Disabled (the default), every repository belongs to this instance and leases are not used.
+ */
+@Service
+public class SyncCoordinator implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(SyncCoordinator.class);
+
+    private final FirestoreCoordinationClient coordinationClient;
+    private final boolean enabled;
+    private final String instanceId;
+    private final Duration leaseTtl;
+    private final int virtualNodes;
+    private final ScheduledExecutorService heartbeats;
+    // the leases this instance holds, by repository key
+    private final Map<String, Lease> heldLeases = new ConcurrentHashMap<>();
+    private final List<Runnable> refreshListeners = new CopyOnWriteArrayList<>();
+    private volatile ConsistentHashRing ring;
+    private volatile Instant lastHeartbeatAt = Instant.MIN;
+
+    public SyncCoordinator(FirestoreCoordinationClient coordinationClient,
+                           @Value("${sync.coordination.enabled}") boolean enabled,
+                           @Value("${sync.coordination.instance-id}") String instanceId,
+                           @Value("${sync.coordination.lease-ttl-ms}") long leaseTtlMillis,
+                           @Value("${sync.coordination.heartbeat-interval-ms}") long heartbeatIntervalMillis,
+                           @Value("${sync.coordination.virtual-nodes}") int virtualNodes) {
+        this.coordinationClient = coordinationClient;
+        this.enabled = enabled;
+        this.instanceId = instanceId == null || instanceId.isBlank() ? defaultInstanceId() : instanceId;
+        this.leaseTtl = Duration.ofMillis(leaseTtlMillis);
+        this.virtualNodes = virtualNodes;
+        this.ring = new ConsistentHashRing(Set.of(), virtualNodes);
+        if (enabled) {
+            this.heartbeats = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("sync-coordinator-"));
+            heartbeats.scheduleWithFixedDelay(this::heartbeat, 0, heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.heartbeats = null;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sync.coordination.members", this, coordinator -> coordinator.getMembers().size())
+                .description("Live instances sharing the repositories, as seen by this instance")
+                .register(registry);
+        Gauge.builder("sync.coordination.leases", heldLeases, Map::size)
+                .description("Repository leases held by this instance")
+                .register(registry);
+    }
+
+    /**
+     * Leaves the ring and releases the leases this instance still holds, so other instances take over right away.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) return;
+        heartbeats.shutdownNow();
+        for (String key : heldLeases.keySet()) {
+            try {
+                coordinationClient.releaseLease(key, instanceId);
+            } catch (Exception ex) {
+                log.warn("Failed to release the lease of {}: {}", key, ex.getMessage());
+            }
+        }
+        heldLeases.clear();
+        try {
+            coordinationClient.leave(instanceId);
+        } catch (Exception ex) {
+            log.warn("Failed to leave the sync ring: {}", ex.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * @return the live instances, this one included once its first heartbeat went through
+     */
+    public Set<String> getMembers() {
+        return enabled ? ring.getMembers() : Set.of(instanceId);
+    }
+
+    /**
+     * @return whether this instance is the one to run the scheduled syncs of a repository. An instance whose
+     * heartbeats have been failing for longer than the lease TTL owns nothing, since the others took over.
+     */
+    public boolean isOwner(String owner, String repository) {
+        if (!enabled) return true;
+        if (lastHeartbeatAt.plus(leaseTtl).isBefore(Instant.now())) return false;
+        ConsistentHashRing current = ring;
+        return !current.getMembers().isEmpty() && instanceId.equals(current.ownerOf(key(owner, repository)));
+    }
+
+    /**
+     * Takes the lease of a repository for a sync run by the calling thread; close the returned lease once the sync is
+     * done. The thread is interrupted if the lease is lost to another instance meanwhile.
+     *
+     * @throws CustomException with 409 Conflict while another sync, on this or another instance, holds the lease,
+     *                         or 503 Service Unavailable if the lease could not be read
+     */
+    public Lease acquire(String owner, String repository) {
+        if (!enabled) return new Lease(null);
+        String key = key(owner, repository);
+        Lease lease = new Lease(key);
+        if (heldLeases.putIfAbsent(key, lease) != null) {
+            throw new CustomException(HttpStatus.CONFLICT, owner + "/" + repository
+                    + " is being synced by this instance");
+        }
+        String holder;
+        try {
+            holder = coordinationClient.acquireLease(key, instanceId, leaseTtl);
+        } catch (Exception ex) {
+            heldLeases.remove(key, lease);
+            throw new CustomException(HttpStatus.SERVICE_UNAVAILABLE, "Failed to acquire the sync lease of "
+                    + owner + "/" + repository + ": " + ex.getMessage());
+        }
+        if (!instanceId.equals(holder)) {
+            heldLeases.remove(key, lease);
+            throw new CustomException(HttpStatus.CONFLICT, owner + "/" + repository
+                    + " is being synced by instance " + holder);
+        }
+        lease.taken();
+        return lease;
+    }
+
+    /**
+     * Runs {@code listener} on the heartbeat thread after every successful heartbeat.
+     */
+    public void addRefreshListener(Runnable listener) {
+        refreshListeners.add(listener);
+    }
+
+    /**
+     * Stores a schedule for every instance to pick up.
+     *
+     * @throws CustomException with 503 Service Unavailable if it could not be stored
+     */
+    public void publishSchedule(SyncScheduleRequest request) {
+        try {
+            coordinationClient.saveSchedule(key(request.getOwner(), request.getRepository()), request);
+        } catch (Exception ex) {
+            throw new CustomException(HttpStatus.SERVICE_UNAVAILABLE, "Failed to store the schedule: "
+                    + ex.getMessage());
+        }
+    }
+
+    /**
+     * @throws CustomException with 503 Service Unavailable if the schedule could not be removed
+     */
+    public void withdrawSchedule(String owner, String repository) {
+        try {
+            coordinationClient.deleteSchedule(key(owner, repository));
+        } catch (Exception ex) {
+            throw new CustomException(HttpStatus.SERVICE_UNAVAILABLE, "Failed to remove the schedule: "
+                    + ex.getMessage());
+        }
+    }
+
+    public List<SyncScheduleRequest> getPublishedSchedules() throws Exception {
+        return coordinationClient.getSchedules();
+    }
+
+    private void heartbeat() {
+        try {
+            Instant now = Instant.now();
+            coordinationClient.heartbeat(instanceId, now.plus(leaseTtl));
+            List<String> members = coordinationClient.getLiveMembers();
+            lastHeartbeatAt = now;
+            if (!ring.getMembers().equals(Set.copyOf(members))) {
+                log.info("Sync ring changed: {} -> {}", ring.getMembers(), members);
+                ring = new ConsistentHashRing(members, virtualNodes);
+            }
+            renewLeases();
+        } catch (Exception ex) {
+            log.warn("Sync coordination heartbeat failed: {}", ex.getMessage());
+            return;
+        }
+        for (Runnable listener : refreshListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException ex) {
+                log.warn("Sync coordination listener failed: {}", ex.getMessage());
+            }
+        }
+    }
+
+    private void renewLeases() throws Exception {
+        for (Lease lease : heldLeases.values()) {
+            lease.renew();
+        }
+    }
+
+    /**
+     * Stops heartbeating without leaving the ring or releasing leases, as if the instance had crashed.
+     */
+    void halt() {
+        heartbeats.shutdownNow();
+    }
+
+    private static String key(String owner, String repository) {
+        // GitHub names are case-insensitive and cannot contain ':', which Firestore document ids may
+        return (owner + ":" + repository).toLowerCase(Locale.ROOT);
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception ex) {
+            host = "instance";
+        }
+        // unique per process, so a restarted instance does not inherit the leases of its previous run
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * The lease of one repository, held until closed.
+     */
+    public final class Lease implements AutoCloseable {
+        private final String key;
+        // the thread running the sync, interrupted when the lease is lost; guarded by this
+        private Thread holder;
+        private volatile boolean lost;
+        // guarded by this, so that a renewal racing the release cannot take the lease again
+        private boolean closed;
+        // guarded by this; until then another instance may hold the lease and a renewal would count it as lost
+        private boolean acquired;
+
+        private Lease(String key) {
+            this.key = key;
+            this.holder = Thread.currentThread();
+        }
+
+        /**
+         * @throws CustomException with 409 Conflict if the lease was lost to another instance
+         */
+        public void checkHeld() {
+            if (lost) {
+                throw new CustomException(HttpStatus.CONFLICT, "Lost the sync lease of " + key
+                        + " to another instance");
+            }
+        }
+
+        /**
+         * Stops interrupting the thread that took the lease, clearing an interrupt that losing the lease left behind.
+         * Call it from that thread once the sync returned.
+         */
+        public synchronized void detach() {
+            if (holder == Thread.currentThread() && lost) {
+                Thread.interrupted();
+            }
+            holder = null;
+        }
+
+        /**
+         * Detaches the lease from the sync and keeps renewing it until {@code done} completes, then releases it.
+         */
+        public void closeWhen(CompletionStage<?> done) {
+            detach();
+            done.whenComplete((result, ex) -> close());
+        }
+
+        private synchronized void taken() {
+            acquired = true;
+        }
+
+        private synchronized void renew() throws Exception {
+            if (closed || !acquired || coordinationClient.renewLease(key, instanceId, leaseTtl)) return;
+            // the lease expired while this instance could not renew it, and another sync may be running now
+            closed = true;
+            heldLeases.remove(key, this);
+            log.warn("Lost the sync lease of {} to another instance; stopping its sync", key);
+            lost = true;
+            if (holder != null) {
+                holder.interrupt();
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            if (key == null || closed) return;
+            closed = true;
+            heldLeases.remove(key, this);
+            try {
+                coordinationClient.releaseLease(key, instanceId);
+            } catch (Exception ex) {
+                // the lease expires on its own after the TTL
+                log.warn("Failed to release the sync lease of {}: {}", key, ex.getMessage());
+            }
+        }
+    }
+}
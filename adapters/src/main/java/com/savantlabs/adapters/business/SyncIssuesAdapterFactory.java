@@ -1,7 +1,10 @@
 package com.savantlabs.adapters.business;
 
 import com.savantlabs.adapters.enums.SyncIssueAdapterType;
+import com.savantlabs.adapters.exception.CustomException;
 import com.savantlabs.adapters.service.SyncIssueAdapterService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,10 +21,15 @@ public class SyncIssuesAdapterFactory {
     private final Map<SyncIssueAdapterType, SyncIssueAdapterService> adapterServiceMap;
 
     /**
-     * Initializes the factory with a list of available repository adapter services.
+     * Initializes the factory with a list of available repository adapter services. With sync coordination
+     * enabled, each of them only syncs a repository while holding its lease.
      */
-    public SyncIssuesAdapterFactory(List<SyncIssueAdapterService> syncIssueAdapterServiceList) {
+    public SyncIssuesAdapterFactory(List<SyncIssueAdapterService> syncIssueAdapterServiceList,
+                                    SyncCoordinator syncCoordinator) {
         adapterServiceMap = syncIssueAdapterServiceList.stream()
+                .map(adapterService -> syncCoordinator.isEnabled()
+                        ? new LeasedSyncIssueAdapterService(adapterService, syncCoordinator)
+                        : adapterService)
                 .collect(Collectors.toUnmodifiableMap(SyncIssueAdapterService::getRepository, Function.identity()));
     }
 
@@ -31,4 +39,22 @@ public class SyncIssuesAdapterFactory {
     public Optional<SyncIssueAdapterService> getRepositoryAdapterService(SyncIssueAdapterType syncIssueAdapterType) {
         return Optional.ofNullable(adapterServiceMap.get(syncIssueAdapterType));
     }
+
+    /**
+     * Returns the repository adapter service for the adapter type named in a request.
+     *
+     * @throws CustomException with 400 Bad Request for an unknown or unimplemented adapter type
+     */
+    public SyncIssueAdapterService getAdapterService(String syncIssuesType) {
+        SyncIssueAdapterType syncIssueAdapterType;
+        try {
+            syncIssueAdapterType = SyncIssueAdapterType.valueOf(syncIssuesType);
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "Invalid syncIssueAdapterType: " + syncIssuesType);
+        }
+
+        return getRepositoryAdapterService(syncIssueAdapterType)
+                .orElseThrow(() -> new CustomException(HttpStatusCode.valueOf(400),
+                        "syncIssueAdapterType: is not implemented"));
+    }
 }
@@ -0,0 +1,107 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.helpers.DaemonThreadFactory;
+import com.savantlabs.adapters.helpers.LruCache;
+import com.savantlabs.adapters.model.SyncIssuesRequest;
+import com.savantlabs.adapters.model.SyncJob;
+import com.savantlabs.adapters.service.SyncIssueAdapterService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs syncs as background jobs on a bounded worker pool. A sync requested while the same sync (adapter,
+ * owner/repository, limit, incremental and resumable) is still queued or running is merged into that job instead of
+ * starting a new one; a different sync of that repository is rejected until the active one has finished.
+ */
+@Service
+public class SyncJobService {
+    private static final Logger log = LoggerFactory.getLogger(SyncJobService.class);
+
+    private final ThreadPoolExecutor workers;
+    // queued or running job per adapter/owner/repository
+    private final Map<String, SyncJob> activeJobs = new ConcurrentHashMap<>();
+    // recent jobs by id, kept for status queries after they finish
+    private final LruCache<String, SyncJob> jobs;
+
+    public SyncJobService(@Value("${sync.jobs.workers}") int workerCount,
+                          @Value("${sync.jobs.queue-capacity}") int queueCapacity,
+                          @Value("${sync.jobs.history-size}") int historySize) {
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new DaemonThreadFactory("sync-job-"));
+        this.jobs = new LruCache<>(historySize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Queues a sync, or returns the job already queued or running the same sync of the repository.
+     *
+     * @throws CustomException with 409 Conflict when a sync of the repository with other settings is queued or
+     *                         running, and with 503 Service Unavailable when the job queue is full
+     */
+    public SyncJob submit(SyncIssueAdapterService adapterService, SyncIssuesRequest syncIssuesRequest) {
+        String key = jobKey(syncIssuesRequest);
+        SyncJob candidate = new SyncJob(UUID.randomUUID().toString(), syncIssuesRequest);
+        SyncJob job = activeJobs.merge(key, candidate,
+                (existing, ignored) -> existing.getStatus().isFinished() ? candidate : existing);
+        if (job != candidate) {
+            if (!job.runsSameSyncAs(syncIssuesRequest)) {
+                throw new CustomException(HttpStatus.CONFLICT, "Sync job " + job.getId() + " with other settings is "
+                        + "already " + job.getStatus().name().toLowerCase(Locale.ROOT) + " for " + key);
+            }
+            log.info("Merged sync request for {} into job {}", key, job.getId());
+            return job;
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            workers.execute(() -> run(key, job, adapterService, syncIssuesRequest));
+        } catch (RejectedExecutionException ex) {
+            activeJobs.remove(key, job);
+            jobs.remove(job.getId());
+            throw new CustomException(HttpStatus.SERVICE_UNAVAILABLE, "Sync job queue is full, retry later");
+        }
+        return job;
+    }
+
+    public Optional<SyncJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void run(String key, SyncJob job, SyncIssueAdapterService adapterService,
+                     SyncIssuesRequest syncIssuesRequest) {
+        job.markRunning();
+        try {
+            job.markCompleted(adapterService.syncIssues(syncIssuesRequest, job));
+        } catch (Exception ex) {
+            log.error("Sync job {} for {} failed: {}", job.getId(), key, ex.getMessage());
+            job.markFailed(ex.getMessage());
+        } finally {
+            activeJobs.remove(key, job);
+        }
+    }
+
+    private String jobKey(SyncIssuesRequest syncIssuesRequest) {
+        // GitHub owner and repository names are case-insensitive
+        return (syncIssuesRequest.getSyncIssuesType() + ":" + syncIssuesRequest.getOwner() + "/"
+                + syncIssuesRequest.getRepository()).toLowerCase(Locale.ROOT);
+    }
+}
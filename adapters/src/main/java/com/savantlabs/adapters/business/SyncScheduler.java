@@ -0,0 +1,331 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.enums.SyncJobStatus;
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.helpers.ConsistentHashRing;
+import com.savantlabs.adapters.helpers.DaemonThreadFactory;
+import com.savantlabs.adapters.model.SyncIssuesRequest;
+import com.savantlabs.adapters.model.SyncIssuesResponse;
+import com.savantlabs.adapters.model.SyncJob;
+import com.savantlabs.adapters.model.SyncSchedule;
+import com.savantlabs.adapters.model.SyncScheduleRequest;
+import com.savantlabs.adapters.service.SyncIssueAdapterService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Syncs registered repositories in the background, incrementally, through {@link SyncJobService}.
+ * <p>
+ * Each repository's first run is offset by a phase derived from its name, so repositories registered together are
+ * spread over their interval instead of all hitting GitHub at once, and every delay gets a random jitter on top.
+ * A run that comes due while the previous one is still queued or running is skipped. Adaptive schedules halve
+ * their interval after a run that fetched changed issues and double it after a run that found nothing new, within
+ * the configured bounds.
+ * <p>
+ * Schedules are kept in memory and have to be registered again after a restart, unless {@link SyncCoordinator}
+ * is enabled: then they are stored in Firestore and every instance picks them up with its next heartbeat, but only
+ * runs the repositories the coordination ring assigns to it.
+ */
+@Service
+public class SyncScheduler {
+    private static final Logger log = LoggerFactory.getLogger(SyncScheduler.class);
+
+    private final SyncIssuesAdapterFactory syncIssuesAdapterFactory;
+    private final SyncJobService syncJobService;
+    private final SyncCoordinator syncCoordinator;
+    private final long minIntervalSeconds;
+    private final long maxIntervalSeconds;
+    private final double jitterRatio;
+    private final ScheduledExecutorService timer =
+            Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("sync-scheduler-"));
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public SyncScheduler(SyncIssuesAdapterFactory syncIssuesAdapterFactory, SyncJobService syncJobService,
+                         SyncCoordinator syncCoordinator,
+                         @Value("${sync.schedule.min-interval-seconds}") long minIntervalSeconds,
+                         @Value("${sync.schedule.max-interval-seconds}") long maxIntervalSeconds,
+                         @Value("${sync.schedule.jitter-ratio}") double jitterRatio) {
+        this.syncIssuesAdapterFactory = syncIssuesAdapterFactory;
+        this.syncJobService = syncJobService;
+        this.syncCoordinator = syncCoordinator;
+        this.minIntervalSeconds = minIntervalSeconds;
+        this.maxIntervalSeconds = maxIntervalSeconds;
+        this.jitterRatio = jitterRatio;
+        if (syncCoordinator.isEnabled()) {
+            syncCoordinator.addRefreshListener(this::reconcile);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Schedules a repository, replacing its current schedule if it already has one.
+     *
+     * @throws CustomException with 400 Bad Request for a missing repository or limit, an unknown adapter type, or
+     *                         an interval outside of the configured bounds
+     */
+    public SyncSchedule register(SyncScheduleRequest request) {
+        if (isBlank(request.getOwner()) || isBlank(request.getRepository())) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "owner and repository are required");
+        }
+        if (request.getLimit() == null || request.getLimit() <= 0) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "limit must be a positive number");
+        }
+        if (request.getIntervalSeconds() == null || request.getIntervalSeconds() < minIntervalSeconds
+                || request.getIntervalSeconds() > maxIntervalSeconds) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "intervalSeconds must be between "
+                    + minIntervalSeconds + " and " + maxIntervalSeconds);
+        }
+        SyncIssueAdapterService adapterService =
+                syncIssuesAdapterFactory.getAdapterService(request.getSyncIssuesType());
+        if (syncCoordinator.isEnabled()) {
+            syncCoordinator.publishSchedule(request);
+        }
+        return schedule(request, adapterService);
+    }
+
+    private SyncSchedule schedule(SyncScheduleRequest request, SyncIssueAdapterService adapterService) {
+        String key = scheduleKey(request.getOwner(), request.getRepository());
+        SyncSchedule schedule = new SyncSchedule(request.getOwner(), request.getRepository(),
+                request.getSyncIssuesType(), request.getLimit(), request.getIntervalSeconds(),
+                request.getAdaptive() == null || request.getAdaptive());
+        Entry entry = new Entry(schedule, adapterService);
+        Entry replaced = entries.put(key, entry);
+        if (replaced != null) {
+            replaced.cancel();
+        }
+
+        long intervalMillis = TimeUnit.SECONDS.toMillis(schedule.getIntervalSeconds());
+        scheduleNext(key, entry, Math.floorMod(phase(key), intervalMillis) + jitter(intervalMillis));
+        log.info("Scheduled {} every {}s, first run at {}", key, schedule.getIntervalSeconds(),
+                schedule.getNextRunAt());
+        return schedule;
+    }
+
+    public List<SyncSchedule> list() {
+        return entries.values().stream()
+                .map(entry -> entry.schedule)
+                .sorted(Comparator.comparing(SyncSchedule::getNextRunAt))
+                .toList();
+    }
+
+    public Optional<SyncSchedule> get(String owner, String repository) {
+        return Optional.ofNullable(entries.get(scheduleKey(owner, repository))).map(entry -> entry.schedule);
+    }
+
+    /**
+     * Stops scheduling a repository. A run already started is left to finish.
+     */
+    public Optional<SyncSchedule> remove(String owner, String repository) {
+        if (syncCoordinator.isEnabled()) {
+            syncCoordinator.withdrawSchedule(owner, repository);
+        }
+        Entry entry = entries.remove(scheduleKey(owner, repository));
+        if (entry == null) {
+            return Optional.empty();
+        }
+        entry.cancel();
+        return Optional.of(entry.schedule);
+    }
+
+    /**
+     * Runs a scheduled repository now, unless its previous run is still queued or running. The next scheduled run
+     * is left where it is.
+     */
+    public Optional<SyncSchedule> trigger(String owner, String repository) {
+        Entry entry = entries.get(scheduleKey(owner, repository));
+        if (entry == null) {
+            return Optional.empty();
+        }
+        run(entry);
+        return Optional.of(entry.schedule);
+    }
+
+    private void tick(String key, Entry entry) {
+        // schedule the next run first, so that a slow or failing run does not shift the ones after it
+        long intervalMillis = TimeUnit.SECONDS.toMillis(entry.schedule.getCurrentIntervalSeconds());
+        scheduleNext(key, entry, intervalMillis + jitter(intervalMillis));
+        if (!syncCoordinator.isOwner(entry.schedule.getOwner(), entry.schedule.getRepository())) {
+            log.debug("Scheduled sync of {} is left to the instance owning it", key);
+            return;
+        }
+        try {
+            run(entry);
+        } catch (Exception ex) {
+            log.error("Scheduled sync of {} failed to start: {}", key, ex.getMessage());
+        }
+    }
+
+    private void run(Entry entry) {
+        SyncSchedule schedule = entry.schedule;
+        synchronized (entry) {
+            if (entry.lastJob != null && !entry.lastJob.getStatus().isFinished()) {
+                schedule.recordSkipped();
+                log.info("Skipped scheduled sync of {}/{}, job {} is still {}", schedule.getOwner(),
+                        schedule.getRepository(), entry.lastJob.getId(), entry.lastJob.getStatus());
+                return;
+            }
+            SyncIssuesRequest syncIssuesRequest = new SyncIssuesRequest();
+            syncIssuesRequest.setOwner(schedule.getOwner());
+            syncIssuesRequest.setRepository(schedule.getRepository());
+            syncIssuesRequest.setSyncIssuesType(schedule.getSyncIssuesType());
+            syncIssuesRequest.setLimit(schedule.getLimit());
+            syncIssuesRequest.setIncremental(true);
+            SyncJob job;
+            try {
+                job = syncJobService.submit(entry.adapterService, syncIssuesRequest);
+            } catch (CustomException ex) {
+                // the job queue is full: count it as skipped and try again at the next run
+                schedule.recordSkipped();
+                log.warn("Skipped scheduled sync of {}/{}: {}", schedule.getOwner(), schedule.getRepository(),
+                        ex.getMessage());
+                return;
+            }
+            entry.lastJob = job;
+            schedule.recordRun(job);
+            job.completion().thenAccept(finished -> onFinished(schedule, finished));
+        }
+    }
+
+    private void onFinished(SyncSchedule schedule, SyncJob job) {
+        Integer changed = job.getStatus() == SyncJobStatus.COMPLETED && job.getResult() != null
+                ? changedIssues(job.getResult()) : null;
+        if (schedule.isAdaptive() && changed != null) {
+            long interval = schedule.getCurrentIntervalSeconds();
+            schedule.setCurrentIntervalSeconds(changed > 0
+                    ? Math.max(minIntervalSeconds, interval / 2)
+                    : Math.min(maxIntervalSeconds, interval * 2));
+        }
+        schedule.recordFinished(job, changed);
+    }
+
+    /**
+     * Counts the issues updated after the checkpoint of the run, not the one at the checkpoint that every incremental
+     * run fetches again, so a repository without changes counts none. Adapters that do not report it count the
+     * issues they wrote or left pending.
+     */
+    private static int changedIssues(SyncIssuesResponse result) {
+        if (result.getChanged() != null) return result.getChanged();
+        return count(result.getSaved()) + count(result.getPending());
+    }
+
+    private static int count(Integer issues) {
+        return issues == null ? 0 : issues;
+    }
+
+    /**
+     * Applies the schedules stored by any instance: adds new and changed ones and drops removed ones.
+     */
+    private void reconcile() {
+        Instant readAt = Instant.now();
+        List<SyncScheduleRequest> published;
+        try {
+            published = syncCoordinator.getPublishedSchedules();
+        } catch (Exception ex) {
+            log.warn("Failed to read the stored schedules: {}", ex.getMessage());
+            return;
+        }
+        Set<String> keys = new HashSet<>();
+        for (SyncScheduleRequest request : published) {
+            String key = scheduleKey(request.getOwner(), request.getRepository());
+            keys.add(key);
+            Entry entry = entries.get(key);
+            if (entry != null && entry.hasSettingsOf(request)) continue;
+            try {
+                schedule(request, syncIssuesAdapterFactory.getAdapterService(request.getSyncIssuesType()));
+            } catch (CustomException ex) {
+                log.warn("Ignored stored schedule of {}: {}", key, ex.getMessage());
+            }
+        }
+        // a schedule registered here after the read is not stored yet in what was read
+        entries.forEach((key, entry) -> {
+            if (!keys.contains(key) && entry.registeredAt.isBefore(readAt) && entries.remove(key, entry)) {
+                entry.cancel();
+                log.info("Removed schedule of {}, it was removed on another instance", key);
+            }
+        });
+    }
+
+    private void scheduleNext(String key, Entry entry, long delayMillis) {
+        synchronized (entry) {
+            if (entry.cancelled) {
+                return;
+            }
+            entry.schedule.setNextRunAt(Instant.now().plusMillis(delayMillis));
+            entry.future = timer.schedule(() -> tick(key, entry), delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private long jitter(long intervalMillis) {
+        long bound = (long) (intervalMillis * jitterRatio);
+        return bound > 0 ? ThreadLocalRandom.current().nextLong(-bound, bound + 1) : 0;
+    }
+
+    /**
+     * @return a well-mixed hash of the schedule key, the one {@link ConsistentHashRing} places it with, so that
+     * similar repository names still land on distant phases
+     */
+    static long phase(String key) {
+        return ConsistentHashRing.hash(key);
+    }
+
+    private static String scheduleKey(String owner, String repository) {
+        // GitHub owner and repository names are case-insensitive
+        return (owner + "/" + repository).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static final class Entry {
+        private final SyncSchedule schedule;
+        private final SyncIssueAdapterService adapterService;
+        private final Instant registeredAt = Instant.now();
+        private ScheduledFuture<?> future;
+        private SyncJob lastJob;
+        private boolean cancelled;
+
+        private Entry(SyncSchedule schedule, SyncIssueAdapterService adapterService) {
+            this.schedule = schedule;
+            this.adapterService = adapterService;
+        }
+
+        private boolean hasSettingsOf(SyncScheduleRequest request) {
+            return Objects.equals(schedule.getSyncIssuesType(), request.getSyncIssuesType())
+                    && Objects.equals(schedule.getLimit(), request.getLimit())
+                    && Objects.equals(schedule.getIntervalSeconds(), request.getIntervalSeconds())
+                    && schedule.isAdaptive() == (request.getAdaptive() == null || request.getAdaptive());
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
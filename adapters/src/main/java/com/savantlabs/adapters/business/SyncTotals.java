@@ -0,0 +1,122 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.SyncIssuesResponse;
+import com.savantlabs.adapters.model.UpsertResult;
+import com.savantlabs.adapters.service.SyncProgressListener;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * The issue counts of one sync run and the newest {@code updatedAt} among its issues, which becomes the incremental
+ * checkpoint once every issue is stored.
+ * <p>
+ * An incremental run fetches the issues updated at or after its checkpoint, so it fetches the issue at the
+ * checkpoint again every time. Only issues updated after the checkpoint count as {@code changed}.
+ */
+class SyncTotals {
+    // the checkpoint the run started from, or null if it fetched everything
+    private final Instant since;
+    private int written;
+    private int skipped;
+    private int failed;
+    private int pending;
+    private int changed;
+    private Instant newestUpdatedAt;
+
+    SyncTotals() {
+        this(null);
+    }
+
+    SyncTotals(Instant since) {
+        this.since = since;
+    }
+
+    /**
+     * Adds a written page and reports it to {@code listener}.
+     */
+    void add(Collection<Issue> page, UpsertResult upsertResult, SyncProgressListener listener) {
+        add(newestUpdatedAt(page), changedIn(page), upsertResult, listener);
+    }
+
+    /**
+     * Adds a written page of {@code pageChanged} changed issues, as counted by {@link #changedIn}.
+     */
+    void add(Instant pageNewestUpdatedAt, int pageChanged, UpsertResult upsertResult, SyncProgressListener listener) {
+        changed += pageChanged;
+        written += upsertResult.getWritten();
+        skipped += upsertResult.getSkipped();
+        failed += upsertResult.getFailed();
+        listener.onIssuesWritten(upsertResult.getWritten(), upsertResult.getFailed());
+        trackNewest(pageNewestUpdatedAt);
+    }
+
+    /**
+     * Adds a page that is still to be written in the background.
+     */
+    void addPending(int issues, int pageChanged, Instant pageNewestUpdatedAt) {
+        pending += issues;
+        changed += pageChanged;
+        trackNewest(pageNewestUpdatedAt);
+    }
+
+    int getWritten() {
+        return written;
+    }
+
+    int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * @return the issues of a page updated after the checkpoint the run started from; all of them without one
+     */
+    int changedIn(Collection<Issue> page) {
+        if (since == null) return page.size();
+        return (int) page.stream().filter(issue -> issue.updatedAt != null && issue.updatedAt.isAfter(since)).count();
+    }
+
+    /**
+     * @return the issues fetched, whether written, skipped, failed or left pending
+     */
+    int getFetched() {
+        return written + skipped + failed + pending;
+    }
+
+    /**
+     * @return the checkpoint an incremental sync may move to: the newest {@code updatedAt}, once every issue is
+     * stored, so failed and pending ones are fetched again by the next run
+     */
+    Instant getCheckpoint() {
+        return failed == 0 && pending == 0 ? newestUpdatedAt : null;
+    }
+
+    SyncIssuesResponse toResponse(String owner, String repo, Integer limit) {
+        SyncIssuesResponse syncIssuesResponse = new SyncIssuesResponse();
+        syncIssuesResponse.setOwner(owner);
+        syncIssuesResponse.setRepository(repo);
+        syncIssuesResponse.setRequested(limit);
+        syncIssuesResponse.setSaved(written);
+        syncIssuesResponse.setSkipped(skipped);
+        syncIssuesResponse.setFailed(failed);
+        syncIssuesResponse.setPending(pending);
+        syncIssuesResponse.setChanged(changed);
+        return syncIssuesResponse;
+    }
+
+    static Instant newestUpdatedAt(Collection<Issue> issues) {
+        return issues.stream()
+                .map(issue -> issue.updatedAt)
+                .filter(Objects::nonNull)
+                .max(Instant::compareTo)
+                .orElse(null);
+    }
+
+    private void trackNewest(Instant updatedAt) {
+        if (updatedAt != null && (newestUpdatedAt == null || updatedAt.isAfter(newestUpdatedAt))) {
+            newestUpdatedAt = updatedAt;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.google.cloud.firestore.FirestoreOptions;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 import java.io.FileInputStream;
 import java.util.Objects;
@@ -18,7 +19,12 @@ public class FirestoreConfig {
         this.credentialPath = credentialPath;
     }
 
+    /**
+     * Built on first use: the clients get a lazy proxy, so reading the credentials and opening the channel stay out
+     * of startup, and runs that never call Firestore never pay for them.
+     */
     @Bean
+    @Lazy
     public Firestore firestore() throws Exception {
         if (Objects.isNull(credentialPath)) {
             throw new IllegalStateException("GOOGLE_APPLICATION_CREDENTIALS not set");
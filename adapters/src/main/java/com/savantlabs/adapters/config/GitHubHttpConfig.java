@@ -0,0 +1,77 @@
+package com.savantlabs.adapters.config;
+
+import com.savantlabs.adapters.enums.GitHubHttpTransport;
+import com.savantlabs.adapters.helpers.GitHubHttpMetrics;
+import com.savantlabs.adapters.helpers.GzipResponseInterceptor;
+import com.savantlabs.adapters.helpers.IssuePageHttpMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * HTTP transport and message converters of the GitHub RestTemplate.
+ */
+@Configuration
+public class GitHubHttpConfig {
+    private final GitHubHttpTransport transport;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final boolean gzip;
+
+    public GitHubHttpConfig(@Value("${github.http.transport}") GitHubHttpTransport transport,
+                            @Value("${github.http.connect-timeout-ms}") long connectTimeoutMs,
+                            @Value("${github.http.read-timeout-ms}") long readTimeoutMs,
+                            @Value("${github.http.gzip}") boolean gzip) {
+        this.transport = transport;
+        this.connectTimeout = Duration.ofMillis(connectTimeoutMs);
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.gzip = gzip;
+    }
+
+    @Bean
+    public RestTemplate gitHubRestTemplate(GitHubHttpMetrics gitHubHttpMetrics) {
+        return restTemplate(transport, connectTimeout, readTimeout, gzip, gitHubHttpMetrics);
+    }
+
+    /**
+     * Builds a RestTemplate on the given transport that reads issue pages with {@link IssuePageHttpMessageConverter};
+     * the GitHub client gets one from the bean above, tests and benchmarks call this directly.
+     */
+    public static RestTemplate restTemplate(GitHubHttpTransport transport, Duration connectTimeout,
+                                            Duration readTimeout, boolean gzip, GitHubHttpMetrics metrics) {
+        RestTemplate restTemplate = new RestTemplate(requestFactory(transport, connectTimeout, readTimeout));
+        // parse issue pages straight from the response stream instead of through a JsonNode tree
+        restTemplate.getMessageConverters().add(0, new IssuePageHttpMessageConverter());
+        // gzip is outermost so the metrics see the response as it came off the wire
+        if (gzip) restTemplate.getInterceptors().add(new GzipResponseInterceptor());
+        restTemplate.getInterceptors().add(metrics);
+        return restTemplate;
+    }
+
+    private static ClientHttpRequestFactory requestFactory(GitHubHttpTransport transport, Duration connectTimeout,
+                                                           Duration readTimeout) {
+        if (transport == GitHubHttpTransport.SIMPLE) {
+            SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+            requestFactory.setConnectTimeout(connectTimeout);
+            requestFactory.setReadTimeout(readTimeout);
+            return requestFactory;
+        }
+        // one client for the whole process: it keeps connections alive between requests and, over TLS,
+        // multiplexes concurrent requests on a single HTTP/2 connection to api.github.com
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return requestFactory;
+    }
+}
@@ -0,0 +1,102 @@
+package com.savantlabs.adapters.controller;
+
+import com.savantlabs.adapters.business.IssueQueryService;
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.helpers.IssueSnapshot;
+import com.savantlabs.adapters.helpers.IssueSnapshotStore;
+import com.savantlabs.adapters.helpers.RepositorySnapshot;
+import com.savantlabs.adapters.model.IssueQueryResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * Controller to read synced issues, from memory or from the local issue snapshots.
+ */
+@RestController
+@RequestMapping("/api/v1/issues")
+public class IssueController {
+    private static final int MAX_LIMIT = 1000;
+
+    private final IssueSnapshotStore snapshotStore;
+    private final IssueQueryService issueQueryService;
+
+    public IssueController(IssueSnapshotStore snapshotStore, IssueQueryService issueQueryService) {
+        this.snapshotStore = snapshotStore;
+        this.issueQueryService = issueQueryService;
+    }
+
+    /**
+     * Lists the synced issues of a repository, newest first, from the in-memory cache; a repository that is not
+     * cached is read from Firestore once.
+     *
+     * @param createdFrom ISO-8601 instant, inclusive
+     * @param createdTo   ISO-8601 instant, exclusive
+     */
+    @GetMapping
+    public ResponseEntity<IssueQueryResponse> query(@RequestParam String owner, @RequestParam String repo,
+                                                    @RequestParam(required = false) String state,
+                                                    @RequestParam(required = false) String createdFrom,
+                                                    @RequestParam(required = false) String createdTo,
+                                                    @RequestParam(defaultValue = "100") int limit) throws Exception {
+        checkLimit(limit);
+        IssueSnapshot.QueryResult result = issueQueryService.query(owner, repo, state,
+                instant("createdFrom", createdFrom), instant("createdTo", createdTo), limit);
+        return ResponseEntity.ok(response(owner, repo, result));
+    }
+
+    /**
+     * Lists the synced issues of a repository, newest first, from its local snapshot without Firestore reads.
+     * Snapshots only hold the issues this instance stored, so a repository without one, e.g. one synced by another
+     * shard, is queried like {@link #query} instead.
+     */
+    @GetMapping("/{owner}/{repository}")
+    public ResponseEntity<IssueQueryResponse> querySnapshot(@PathVariable String owner,
+                                                            @PathVariable String repository,
+                                                            @RequestParam(required = false) String state,
+                                                            @RequestParam(required = false) String createdFrom,
+                                                            @RequestParam(required = false) String createdTo,
+                                                            @RequestParam(defaultValue = "100") int limit)
+            throws Exception {
+        checkLimit(limit);
+        Instant from = instant("createdFrom", createdFrom);
+        Instant to = instant("createdTo", createdTo);
+        Optional<RepositorySnapshot> snapshot = snapshotStore.get(owner, repository);
+        IssueSnapshot.QueryResult result = snapshot.isPresent()
+                ? snapshot.get().query(state, from, to, limit)
+                : issueQueryService.query(owner, repository, state, from, to, limit);
+        return ResponseEntity.ok(response(owner, repository, result));
+    }
+
+    private static IssueQueryResponse response(String owner, String repository, IssueSnapshot.QueryResult result) {
+        IssueQueryResponse response = new IssueQueryResponse();
+        response.setOwner(owner);
+        response.setRepository(repository);
+        response.setMatched(result.matched());
+        response.setIssues(result.issues());
+        return response;
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+
+    private static Instant instant(String name, String value) {
+        if (value == null) return null;
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, name + " must be an ISO-8601 instant");
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.savantlabs.adapters.controller;
+
+import com.savantlabs.adapters.business.SyncScheduler;
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.model.SyncSchedule;
+import com.savantlabs.adapters.model.SyncScheduleRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller to manage the repositories synced in the background.
+ */
+@RestController
+@RequestMapping("/api/v1/schedules")
+public class ScheduleController {
+    private final SyncScheduler syncScheduler;
+
+    public ScheduleController(SyncScheduler syncScheduler) {
+        this.syncScheduler = syncScheduler;
+    }
+
+    /**
+     * Schedules a repository, replacing its current schedule if it already has one.
+     */
+    @PostMapping
+    public ResponseEntity<SyncSchedule> register(@RequestBody SyncScheduleRequest syncScheduleRequest) {
+        return ResponseEntity.ok(syncScheduler.register(syncScheduleRequest));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<SyncSchedule>> list() {
+        return ResponseEntity.ok(syncScheduler.list());
+    }
+
+    @GetMapping("/{owner}/{repository}")
+    public ResponseEntity<SyncSchedule> get(@PathVariable String owner, @PathVariable String repository) {
+        return syncScheduler.get(owner, repository)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> notFound(owner, repository));
+    }
+
+    @DeleteMapping("/{owner}/{repository}")
+    public ResponseEntity<SyncSchedule> remove(@PathVariable String owner, @PathVariable String repository) {
+        return syncScheduler.remove(owner, repository)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> notFound(owner, repository));
+    }
+
+    /**
+     * Runs a scheduled repository now, unless its previous run is still queued or running.
+     */
+    @PostMapping("/{owner}/{repository}/run")
+    public ResponseEntity<SyncSchedule> run(@PathVariable String owner, @PathVariable String repository) {
+        return syncScheduler.trigger(owner, repository)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> notFound(owner, repository));
+    }
+
+    private static CustomException notFound(String owner, String repository) {
+        return new CustomException(HttpStatus.NOT_FOUND, "Sync schedule not found: " + owner + "/" + repository);
+    }
+}
@@ -1,16 +1,22 @@
 package com.savantlabs.adapters.controller;
 
+import com.savantlabs.adapters.business.BatchSyncService;
 import com.savantlabs.adapters.business.SyncIssuesAdapterFactory;
-import com.savantlabs.adapters.enums.SyncIssueAdapterType;
+import com.savantlabs.adapters.business.SyncJobService;
 import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.model.BatchSyncIssuesRequest;
+import com.savantlabs.adapters.model.BatchSyncIssuesResponse;
 import com.savantlabs.adapters.model.SyncIssuesRequest;
-import com.savantlabs.adapters.model.SyncIssuesResponse;
+import com.savantlabs.adapters.model.SyncJob;
+import com.savantlabs.adapters.service.SyncIssueAdapterService;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -20,26 +26,55 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/v1/sync")
 public class SyncController {
     private final SyncIssuesAdapterFactory syncIssuesAdapterFactory;
+    private final SyncJobService syncJobService;
+    private final BatchSyncService batchSyncService;
 
-    public SyncController(SyncIssuesAdapterFactory syncIssuesAdapterFactory) {
+    public SyncController(SyncIssuesAdapterFactory syncIssuesAdapterFactory, SyncJobService syncJobService,
+                          BatchSyncService batchSyncService) {
         this.syncIssuesAdapterFactory = syncIssuesAdapterFactory;
+        this.syncJobService = syncJobService;
+        this.batchSyncService = batchSyncService;
     }
 
+    /**
+     * Syncs issues on the request thread, or with {@code async=true} queues a sync job and returns it
+     * right away with 202 Accepted.
+     */
     @PostMapping("/issues")
-    public ResponseEntity<SyncIssuesResponse> syncIssues(@RequestBody SyncIssuesRequest syncIssuesRequest)
-            throws Exception {
-        SyncIssueAdapterType syncIssueAdapterType;
-        try {
-            syncIssueAdapterType = SyncIssueAdapterType.valueOf(syncIssuesRequest.getSyncIssuesType());
-        } catch (IllegalArgumentException ex) {
-            throw new CustomException(HttpStatus.BAD_REQUEST,
-                    "Invalid syncIssueAdapterType: " + syncIssuesRequest.getSyncIssuesType());
-        }
-        if (syncIssuesAdapterFactory.getRepositoryAdapterService(syncIssueAdapterType).isPresent()) {
-            return ResponseEntity.ok(syncIssuesAdapterFactory
-                    .getRepositoryAdapterService(syncIssueAdapterType).get().syncIssues(syncIssuesRequest));
+    public ResponseEntity<?> syncIssues(@RequestBody SyncIssuesRequest syncIssuesRequest,
+                                        @RequestParam(defaultValue = "false") boolean async) throws Exception {
+        SyncIssueAdapterService adapterService = getAdapterService(syncIssuesRequest.getSyncIssuesType());
+        if (async) {
+            return ResponseEntity.accepted().body(syncJobService.submit(adapterService, syncIssuesRequest));
         }
+        return ResponseEntity.ok(adapterService.syncIssues(syncIssuesRequest));
+    }
+
+    /**
+     * Starts syncing a list of repositories and/or every repository of an organization and returns the batch right
+     * away with 202 Accepted. Each repository also shows up as a sync job.
+     */
+    @PostMapping("/issues/batch")
+    public ResponseEntity<BatchSyncIssuesResponse> syncIssuesBatch(@RequestBody BatchSyncIssuesRequest batchRequest) {
+        SyncIssueAdapterService adapterService = getAdapterService(batchRequest.getSyncIssuesType());
+        return ResponseEntity.accepted().body(batchSyncService.submitAll(adapterService, batchRequest));
+    }
+
+    @GetMapping("/batches/{id}")
+    public ResponseEntity<BatchSyncIssuesResponse> getBatch(@PathVariable String id) {
+        return batchSyncService.getBatch(id)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND, "Batch sync not found: " + id));
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<SyncJob> getJob(@PathVariable String id) {
+        return syncJobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new CustomException(HttpStatus.NOT_FOUND, "Sync job not found: " + id));
+    }
 
-        throw new CustomException(HttpStatusCode.valueOf(400), "syncIssueAdapterType: is not implemented");
+    private SyncIssueAdapterService getAdapterService(String syncIssuesType) {
+        return syncIssuesAdapterFactory.getAdapterService(syncIssuesType);
     }
-}
\ No newline at end of file
+}
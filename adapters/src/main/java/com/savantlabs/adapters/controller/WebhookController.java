@@ -0,0 +1,37 @@
+package com.savantlabs.adapters.controller;
+
+import com.savantlabs.adapters.business.GitHubWebhookService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Controller to receive GitHub webhook deliveries.
+ */
+@RestController
+@RequestMapping("/api/v1/webhooks")
+public class WebhookController {
+    private final GitHubWebhookService gitHubWebhookService;
+
+    public WebhookController(GitHubWebhookService gitHubWebhookService) {
+        this.gitHubWebhookService = gitHubWebhookService;
+    }
+
+    /**
+     * Queues the issue of an {@code issues} event for the next batched Firestore write and answers 202 Accepted.
+     * Other events, such as the {@code ping} sent when the webhook is created, are acknowledged and ignored.
+     */
+    @PostMapping("/github")
+    public ResponseEntity<Map<String, Object>> receive(
+            @RequestHeader("X-GitHub-Event") String event,
+            @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature,
+            @RequestBody byte[] body) {
+        boolean queued = gitHubWebhookService.handle(event, signature, body);
+        return ResponseEntity.accepted().body(Map.of("event", event, "queued", queued));
+    }
+}
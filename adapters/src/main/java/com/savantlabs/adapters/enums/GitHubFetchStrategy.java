@@ -0,0 +1,15 @@
+package com.savantlabs.adapters.enums;
+
+/**
+ * How issues are read from GitHub, chosen with {@code github.fetch.strategy}.
+ */
+public enum GitHubFetchStrategy {
+    /**
+     * REST list-issues endpoint; offset paging that can be fetched in parallel, pull requests dropped client-side.
+     */
+    REST,
+    /**
+     * GraphQL {@code repository.issues} connection; cursor paging over issues only, selecting just the mapped fields.
+     */
+    GRAPHQL
+}
@@ -0,0 +1,15 @@
+package com.savantlabs.adapters.enums;
+
+/**
+ * HTTP client behind the GitHub RestTemplate, chosen with {@code github.http.transport}.
+ */
+public enum GitHubHttpTransport {
+    /**
+     * JDK {@code HttpClient}: pooled keep-alive connections, HTTP/2 negotiated over TLS.
+     */
+    JDK,
+    /**
+     * {@code HttpURLConnection} through Spring's SimpleClientHttpRequestFactory, HTTP/1.1 only.
+     */
+    SIMPLE
+}
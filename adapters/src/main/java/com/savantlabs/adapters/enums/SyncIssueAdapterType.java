@@ -4,5 +4,6 @@ package com.savantlabs.adapters.enums;
  * Enum to handle different Syncs (GIT_HUB_REPOSITORY_MONGO, BIT_BUCKET_REPOSITORY_FIRESTORE etc.)
  */
 public enum SyncIssueAdapterType {
-    GIT_HUB_REPOSITORY_FIRESTORE
+    GIT_HUB_REPOSITORY_FIRESTORE,
+    GIT_HUB_REPOSITORY_LOCAL_STORE
 }
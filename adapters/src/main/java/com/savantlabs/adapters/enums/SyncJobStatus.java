@@ -0,0 +1,15 @@
+package com.savantlabs.adapters.enums;
+
+/**
+ * Lifecycle of an asynchronous sync job.
+ */
+public enum SyncJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
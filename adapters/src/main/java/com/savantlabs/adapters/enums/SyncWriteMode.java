@@ -0,0 +1,36 @@
+package com.savantlabs.adapters.enums;
+
+import java.util.Locale;
+
+/**
+ * How a sync run stores the pages it fetches, reported as the {@code mode} tag of its observation.
+ */
+public enum SyncWriteMode {
+    /**
+     * Fetches every issue into memory, then writes them to Firestore in one bulk upsert.
+     */
+    MATERIALIZED,
+    /**
+     * Writes each page to Firestore while the next one is fetched ({@code sync.pipeline.enabled}).
+     */
+    PIPELINED,
+    /**
+     * Appends each page to the durable issue spool, which writes it to Firestore ({@code sync.spool.enabled}).
+     */
+    SPOOLED,
+    /**
+     * Writes page by page and keeps a paging cursor to resume from ({@code "resumable": true}).
+     */
+    RESUMABLE,
+    /**
+     * Writes each page to the local log-structured store instead of Firestore.
+     */
+    LOCAL_STORE;
+
+    /**
+     * @return the value of the {@code mode} tag, e.g. {@code local-store}
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,62 @@
+package com.savantlabs.adapters.helpers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring that assigns keys to members. Each member is placed on the ring at
+ * {@code virtualNodes} points, so keys are spread evenly and adding or removing a member only moves the keys of
+ * about one member's share.
+ */
+public class ConsistentHashRing {
+    private final Set<String> members;
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes must be positive: " + virtualNodes);
+        }
+        this.members = Set.copyOf(new TreeSet<>(members));
+        for (String member : this.members) {
+            for (int node = 0; node < virtualNodes; node++) {
+                // on the rare collision the point goes to the smaller member name, on every instance alike
+                points.merge(hash(member + "#" + node), member, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+    }
+
+    /**
+     * @return the member owning {@code key}: the first member point at or after the key's hash, wrapping around
+     * @throws IllegalStateException if the ring has no members
+     */
+    public String ownerOf(String key) {
+        if (points.isEmpty()) {
+            throw new IllegalStateException("The ring has no members");
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return (point == null ? points.firstEntry() : point).getValue();
+    }
+
+    public Set<String> getMembers() {
+        return members;
+    }
+
+    /**
+     * 64-bit FNV-1a of the UTF-8 bytes, finished with the SplitMix64 mixer so that similar names land far apart.
+     * Unlike {@link String#hashCode()} it is 64 bits wide, which keeps virtual nodes from colliding.
+     */
+    public static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
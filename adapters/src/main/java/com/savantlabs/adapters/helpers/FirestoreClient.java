@@ -1,25 +1,123 @@
 package com.savantlabs.adapters.helpers;
 
 import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.BulkWriterException;
+import com.google.cloud.firestore.BulkWriterOptions;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
 import com.google.cloud.firestore.SetOptions;
 import com.google.cloud.firestore.WriteResult;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.PagingCursor;
+import com.savantlabs.adapters.model.UpsertResult;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Component
 public class FirestoreClient {
+    private static final Logger log = LoggerFactory.getLogger(FirestoreClient.class);
+
+    // Firestore "500/50/5" ramp-up rule: start at 500 ops/sec and let BulkWriter grow from there
+    private static final int INITIAL_OPS_PER_SECOND = 500;
+    private static final String LAST_UPDATED_AT = "lastUpdatedAt";
+    private static final String RESUME_SINCE = "resumeSince";
+    private static final String RESUME_PAGE = "resumePage";
+    private static final String RESUME_SEEN_IDS = "resumeSeenIds";
+    private static final String CONTENT_HASH = "contentHash";
+    // lowercased owner/repo, since GitHub names are case-insensitive; queries match on it
+    private static final String REPOSITORY_KEY = "repositoryKey";
+    // 128 bits of SHA-256 are plenty to tell versions of one issue apart
+    private static final int CONTENT_HASH_BYTES = 16;
+
+    // status codes Firestore uses for throttled or transiently unavailable writes
+    private static final Set<Status.Code> RETRYABLE_CODES = Set.of(
+            Status.Code.RESOURCE_EXHAUSTED,
+            Status.Code.UNAVAILABLE,
+            Status.Code.ABORTED,
+            Status.Code.DEADLINE_EXCEEDED);
+
     private final Firestore firestore;
     private final String collection;
+    private final String checkpointCollection;
+    private final int maxInFlight;
+    private final int maxOpsPerSecond;
+    private final int maxRetries;
+    private final IssueContentHashCache contentHashCache;
+    private final IssueSnapshotStore snapshotStore;
+    private final IssueQueryCache queryCache;
+    private final Timer writeTimer;
+    private final Counter writtenDocuments;
+    private final Counter skippedDocuments;
+    private final Counter failedDocuments;
+    private final MeterRegistry meterRegistry;
 
-    public FirestoreClient(Firestore db, Firestore firestore,
-                           @Value("${firestore.collection}") String collection) {
+    public FirestoreClient(@Lazy Firestore db, @Lazy Firestore firestore,
+                           @Value("${firestore.collection}") String collection,
+                           @Value("${firestore.checkpoint-collection}") String checkpointCollection,
+                           @Value("${firestore.bulk-writer.max-in-flight}") int maxInFlight,
+                           @Value("${firestore.bulk-writer.max-ops-per-second}") int maxOpsPerSecond,
+                           @Value("${firestore.bulk-writer.max-retries}") int maxRetries,
+                           IssueContentHashCache contentHashCache,
+                           IssueSnapshotStore snapshotStore,
+                           IssueQueryCache queryCache,
+                           MeterRegistry meterRegistry) {
         this.firestore = firestore;
         this.collection = collection;
+        this.checkpointCollection = checkpointCollection;
+        this.maxInFlight = maxInFlight;
+        this.maxOpsPerSecond = maxOpsPerSecond;
+        this.maxRetries = maxRetries;
+        this.contentHashCache = contentHashCache;
+        this.snapshotStore = snapshotStore;
+        this.queryCache = queryCache;
+        this.meterRegistry = meterRegistry;
+        this.writeTimer = Timer.builder("firestore.write")
+                .description("Time to write one batch of issues, from the first write until every write completed")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.writtenDocuments = documentCounter("written");
+        this.skippedDocuments = documentCounter("skipped");
+        this.failedDocuments = documentCounter("failed");
+    }
+
+    private Counter documentCounter(String result) {
+        return Counter.builder("firestore.documents")
+                .description("Issue documents handled by bulk upserts")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     public void upsert(Issue issue) throws Exception {
@@ -31,16 +129,316 @@ public class FirestoreClient {
         future.get();
     }
 
-    private Map<String, Object> issueToMap(Issue issue) {
-        return Map.of(
-                "id", issue.id,
-                "owner", issue.owner,
-                "repo", issue.repo,
-                "title", issue.title,
-                "state", issue.state,
-                "htmlUrl", issue.htmlUrl,
-                "createdAt", issue.createdAt.toString(),
-                "syncedAt", issue.syncedAt.toString()
-        );
+    /**
+     * Upserts all issues through a single BulkWriter, keeping at most {@code maxInFlight} writes outstanding.
+     * Throttled and transiently failing writes are retried up to {@code maxRetries} times; any write that
+     * still fails is recorded in the returned result instead of aborting the remaining writes.
+     * <p>
+     * Issues whose content hash matches the one last written are skipped; their documents keep their
+     * {@code syncedAt}. Written and skipped issues are recorded in their repository's {@link IssueSnapshotStore}
+     * and {@link IssueQueryCache}.
+     *
+     * @param issues issues to write, keyed in Firestore by issue id
+     * @return number of written and skipped documents and the failure reason for each document that was not written
+     */
+    public UpsertResult upsertAll(Collection<Issue> issues) throws InterruptedException {
+        UpsertResult result = new UpsertResult();
+        if (issues.isEmpty()) return result;
+
+        long start = System.nanoTime();
+        Instant syncedAt = Instant.now();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        List<PendingWrite> pendingWrites = new ArrayList<>(issues.size());
+        List<Issue> stored = new ArrayList<>(issues.size());
+
+        BulkWriter bulkWriter = firestore.bulkWriter(bulkWriterOptions());
+        bulkWriter.addWriteErrorListener(this::shouldRetry);
+        try {
+            for (Issue issue : issues) {
+                if (!inFlight.tryAcquire()) {
+                    // send whatever is buffered so completions can free up permits
+                    bulkWriter.flush();
+                    inFlight.acquire();
+                }
+                issue.syncedAt = syncedAt;
+                Map<String, Object> data = issueToMap(issue);
+                String contentHash = (String) data.get(CONTENT_HASH);
+                if (contentHashCache.isUnchanged(issue, contentHash)) {
+                    inFlight.release();
+                    result.recordSkipped();
+                    stored.add(issue);
+                    continue;
+                }
+                ApiFuture<WriteResult> future = bulkWriter.set(
+                        firestore.collection(collection).document(issue.id), data, SetOptions.merge());
+                future.addListener(inFlight::release, MoreExecutors.directExecutor());
+                pendingWrites.add(new PendingWrite(issue, contentHash, future));
+            }
+        } finally {
+            closeQuietly(bulkWriter);
+        }
+
+        for (PendingWrite pendingWrite : pendingWrites) {
+            try {
+                pendingWrite.future().get();
+                contentHashCache.put(pendingWrite.issue(), pendingWrite.contentHash());
+                result.recordWritten();
+                stored.add(pendingWrite.issue());
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+                String id = pendingWrite.issue().id;
+                log.error("Failed to write issue {} to Firestore: {}", id, cause.getMessage());
+                result.recordFailure(id, cause.getMessage());
+            }
+        }
+        writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        writtenDocuments.increment(result.getWritten());
+        skippedDocuments.increment(result.getSkipped());
+        failedDocuments.increment(result.getFailed());
+        snapshotStore.record(stored);
+        queryCache.update(stored);
+        return result;
+    }
+
+    /**
+     * Reads the stored documents of {@code issues} in one batch and leaves out the issues their document was updated
+     * after, which are older versions arriving late.
+     *
+     * @return the issues without a stored document, or at least as recently updated as it; an issue or document
+     * without {@code updatedAt} is kept
+     */
+    public List<Issue> notOlderThanStored(Collection<Issue> issues) throws Exception {
+        if (issues.isEmpty()) return List.of();
+        DocumentReference[] documents = issues.stream()
+                .map(issue -> firestore.collection(collection).document(issue.id))
+                .toArray(DocumentReference[]::new);
+        Map<String, Instant> storedUpdatedAt = new HashMap<>();
+        for (DocumentSnapshot snapshot : firestore.getAll(documents).get()) {
+            String updatedAt = snapshot.exists() ? snapshot.getString("updatedAt") : null;
+            if (updatedAt != null) storedUpdatedAt.put(snapshot.getId(), Instant.parse(updatedAt));
+        }
+        return issues.stream()
+                .filter(issue -> {
+                    Instant stored = storedUpdatedAt.get(issue.id);
+                    return stored == null || issue.updatedAt == null || !issue.updatedAt.isBefore(stored);
+                })
+                .toList();
+    }
+
+    /**
+     * Reads every issue document of a repository.
+     */
+    public List<Issue> findIssues(String owner, String repo) throws Exception {
+        List<Issue> issues = new ArrayList<>();
+        for (QueryDocumentSnapshot document : repositoryQuery(owner, repo).get().get().getDocuments()) {
+            issues.add(documentToIssue(document));
+        }
+        return issues;
+    }
+
+    /**
+     * Counts the issue documents of a repository with a count aggregation, without reading them.
+     */
+    public long countIssues(String owner, String repo) throws Exception {
+        return repositoryQuery(owner, repo).count().get().get().getCount();
+    }
+
+    /**
+     * Finds the issues of a repository matching every given filter, newest first, like {@link IssueSnapshot#query},
+     * with the filters, order and limit applied by Firestore. Only the returned issues and one count aggregation are
+     * read, which needs the composite indexes of {@code firestore.indexes.json}.
+     * <p>
+     * {@code createdAt} is compared as text, which orders like time for the whole-second timestamps of GitHub but not
+     * once a fraction of a second is involved, so the bounds are rounded up to whole seconds; that keeps the same
+     * whole-second timestamps in range.
+     *
+     * @return the matching issues, or empty if no issue of the repository is stored at all
+     */
+    public Optional<IssueSnapshot.QueryResult> queryIssues(String owner, String repo, String state,
+                                                           Instant createdFrom, Instant createdTo, int limit)
+            throws Exception {
+        Query query = repositoryQuery(owner, repo);
+        Query repositoryQuery = query;
+        if (state != null) query = query.whereEqualTo("state", state);
+        if (createdFrom != null) query = query.whereGreaterThanOrEqualTo("createdAt", wholeSeconds(createdFrom));
+        if (createdTo != null) query = query.whereLessThan("createdAt", wholeSeconds(createdTo));
+
+        long matched = query.count().get().get().getCount();
+        if (matched == 0) {
+            boolean synced = !repositoryQuery.limit(1).get().get().isEmpty();
+            return synced ? Optional.of(new IssueSnapshot.QueryResult(0, List.of())) : Optional.empty();
+        }
+        List<Issue> issues = new ArrayList<>();
+        for (QueryDocumentSnapshot document : query.orderBy("createdAt", Query.Direction.DESCENDING)
+                .limit(limit)
+                .get().get().getDocuments()) {
+            issues.add(documentToIssue(document));
+        }
+        return Optional.of(new IssueSnapshot.QueryResult((int) matched, issues));
+    }
+
+    /**
+     * Reads the high-water mark of the last successful incremental sync of a repository.
+     *
+     * @return the newest updated_at written by that sync, or empty if the repository was never synced incrementally
+     */
+    public Optional<Instant> getLastUpdatedAt(String owner, String repo) throws Exception {
+        DocumentSnapshot snapshot = checkpointDocument(owner, repo).get().get();
+        String lastUpdatedAt = snapshot.exists() ? snapshot.getString(LAST_UPDATED_AT) : null;
+        return Optional.ofNullable(lastUpdatedAt).map(Instant::parse);
+    }
+
+    public void saveLastUpdatedAt(String owner, String repo, Instant lastUpdatedAt) throws Exception {
+        checkpointDocument(owner, repo)
+                .set(Map.of("owner", owner, "repo", repo, LAST_UPDATED_AT, lastUpdatedAt.toString()),
+                        SetOptions.merge())
+                .get();
+    }
+
+    /**
+     * Reads where the unfinished resumable sync of a repository stopped.
+     *
+     * @return the cursor after the last page that sync stored, or empty if no resumable sync is unfinished
+     */
+    public Optional<PagingCursor> getPagingCursor(String owner, String repo) throws Exception {
+        DocumentSnapshot snapshot = checkpointDocument(owner, repo).get().get();
+        String since = snapshot.exists() ? snapshot.getString(RESUME_SINCE) : null;
+        if (since == null) return Optional.empty();
+        Long page = snapshot.getLong(RESUME_PAGE);
+        List<?> seenIds = (List<?>) snapshot.get(RESUME_SEEN_IDS);
+        return Optional.of(new PagingCursor(Instant.parse(since), page == null ? 1 : page.intValue(),
+                seenIds == null ? Set.of() : seenIds.stream().map(String::valueOf).collect(Collectors.toSet())));
+    }
+
+    public void savePagingCursor(String owner, String repo, PagingCursor cursor) throws Exception {
+        checkpointDocument(owner, repo)
+                .set(Map.of("owner", owner, "repo", repo, RESUME_SINCE, cursor.getSince().toString(),
+                        RESUME_PAGE, (long) cursor.getPage(), RESUME_SEEN_IDS, List.copyOf(cursor.getSeenIds())),
+                        SetOptions.merge())
+                .get();
+    }
+
+    /**
+     * Marks the resumable sync of a repository as finished: removes its cursor and moves the incremental
+     * checkpoint to where it stopped, in one write.
+     */
+    public void completePagingCursor(String owner, String repo, Instant lastUpdatedAt) throws Exception {
+        checkpointDocument(owner, repo)
+                .set(Map.of("owner", owner, "repo", repo, LAST_UPDATED_AT, lastUpdatedAt.toString(),
+                        RESUME_SINCE, FieldValue.delete(), RESUME_PAGE, FieldValue.delete(),
+                        RESUME_SEEN_IDS, FieldValue.delete()), SetOptions.merge())
+                .get();
+    }
+
+    private Query repositoryQuery(String owner, String repo) {
+        return firestore.collection(collection).whereEqualTo(REPOSITORY_KEY, repositoryKey(owner, repo));
+    }
+
+    private DocumentReference checkpointDocument(String owner, String repo) {
+        // owner and repository names cannot contain ':', so the pair maps to exactly one document
+        return firestore.collection(checkpointCollection).document(owner + ":" + repo);
+    }
+
+    private boolean shouldRetry(BulkWriterException error) {
+        boolean retry = RETRYABLE_CODES.contains(error.getStatus().getCode())
+                && error.getFailedAttempts() < maxRetries;
+        if (retry) {
+            meterRegistry.counter("firestore.write.retries", "code", error.getStatus().getCode().name()).increment();
+            log.warn("Retrying write of {} after {} (attempt {} of {})", error.getDocumentReference().getId(),
+                    error.getStatus().getCode(), error.getFailedAttempts(), maxRetries);
+        }
+        return retry;
+    }
+
+    private BulkWriterOptions bulkWriterOptions() {
+        return BulkWriterOptions.builder()
+                .setThrottlingEnabled(true)
+                .setInitialOpsPerSecond(Math.min(INITIAL_OPS_PER_SECOND, maxOpsPerSecond))
+                .setMaxOpsPerSecond(maxOpsPerSecond)
+                .build();
+    }
+
+    private void closeQuietly(BulkWriter bulkWriter) throws InterruptedException {
+        try {
+            bulkWriter.close();
+        } catch (ExecutionException ex) {
+            // individual write failures are reported through their own futures
+            log.warn("BulkWriter closed with errors: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Maps an issue to the fields of its Firestore document, including a hash of every field but {@code syncedAt}.
+     */
+    public Map<String, Object> issueToMap(Issue issue) {
+        Map<String, Object> data = new LinkedHashMap<>(16);
+        data.put("id", issue.id);
+        data.put("owner", issue.owner);
+        data.put("repo", issue.repo);
+        data.put(REPOSITORY_KEY, repositoryKey(issue.owner, issue.repo));
+        data.put("title", issue.title);
+        data.put("state", issue.state);
+        data.put("htmlUrl", issue.htmlUrl);
+        data.put("createdAt", text(issue.createdAt));
+        data.put("updatedAt", text(issue.updatedAt));
+        data.put(CONTENT_HASH, contentHash(data));
+        data.put("syncedAt", text(issue.syncedAt));
+        return data;
+    }
+
+    private static Issue documentToIssue(DocumentSnapshot document) {
+        Issue issue = new Issue();
+        issue.id = document.getString("id");
+        issue.owner = document.getString("owner");
+        issue.repo = document.getString("repo");
+        issue.title = document.getString("title");
+        issue.state = document.getString("state");
+        issue.htmlUrl = document.getString("htmlUrl");
+        issue.createdAt = instant(document.getString("createdAt"));
+        issue.updatedAt = instant(document.getString("updatedAt"));
+        issue.syncedAt = instant(document.getString("syncedAt"));
+        return issue;
+    }
+
+    private static Instant instant(String value) {
+        return value == null ? null : Instant.parse(value);
+    }
+
+    private static String text(Instant value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static String repositoryKey(String owner, String repo) {
+        return (owner + "/" + repo).toLowerCase(Locale.ROOT);
+    }
+
+    private static String wholeSeconds(Instant bound) {
+        Instant seconds = bound.truncatedTo(ChronoUnit.SECONDS);
+        return (seconds.equals(bound) ? seconds : seconds.plusSeconds(1)).toString();
+    }
+
+    /**
+     * Hashes the field values in map order. Each value is followed by a 0 byte, which cannot occur in the text
+     * itself, so moving characters from one field to the next changes the hash.
+     */
+    private static String contentHash(Map<String, Object> fields) {
+        MessageDigest digest = sha256();
+        for (Object value : fields.values()) {
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, CONTENT_HASH_BYTES);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private record PendingWrite(Issue issue, String contentHash, ApiFuture<WriteResult> future) {
     }
-}
\ No newline at end of file
+}
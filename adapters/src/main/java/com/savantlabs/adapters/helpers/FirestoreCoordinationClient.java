@@ -0,0 +1,153 @@
+package com.savantlabs.adapters.helpers;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.savantlabs.adapters.model.SyncScheduleRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Firestore documents through which the instances of the service coordinate: one member document per live
+ * instance, one lease document per repository being synced, and the repositories scheduled for background syncs.
+ * <p>
+ * Members and leases expire at an instant written by their holder and compared against the reader's clock, so the
+ * lease TTL has to be well above the clock skew between instances.
+ */
+@Component
+public class FirestoreCoordinationClient {
+    private static final String INSTANCE_ID = "instanceId";
+    private static final String HOLDER = "holder";
+    private static final String EXPIRES_AT = "expiresAt";
+
+    private final Firestore firestore;
+    private final String memberCollection;
+    private final String leaseCollection;
+    private final String scheduleCollection;
+
+    public FirestoreCoordinationClient(@Lazy Firestore firestore,
+                                       @Value("${firestore.member-collection}") String memberCollection,
+                                       @Value("${firestore.lease-collection}") String leaseCollection,
+                                       @Value("${firestore.schedule-collection}") String scheduleCollection) {
+        this.firestore = firestore;
+        this.memberCollection = memberCollection;
+        this.leaseCollection = leaseCollection;
+        this.scheduleCollection = scheduleCollection;
+    }
+
+    /**
+     * Announces that an instance is alive until {@code expiresAt}.
+     */
+    public void heartbeat(String instanceId, Instant expiresAt) throws Exception {
+        firestore.collection(memberCollection).document(instanceId)
+                .set(Map.of(INSTANCE_ID, instanceId, EXPIRES_AT, expiresAt.toString()), SetOptions.merge())
+                .get();
+    }
+
+    /**
+     * @return the instances whose last heartbeat has not expired yet
+     */
+    public List<String> getLiveMembers() throws Exception {
+        Instant now = Instant.now();
+        List<String> members = new ArrayList<>();
+        for (QueryDocumentSnapshot member : firestore.collection(memberCollection).get().get().getDocuments()) {
+            String expiresAt = member.getString(EXPIRES_AT);
+            if (expiresAt != null && now.isBefore(Instant.parse(expiresAt))) {
+                members.add(member.getString(INSTANCE_ID));
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Removes an instance from the members right away, instead of letting its heartbeat expire.
+     */
+    public void leave(String instanceId) throws Exception {
+        firestore.collection(memberCollection).document(instanceId).delete().get();
+    }
+
+    /**
+     * Takes the lease of a repository for {@code ttl}, unless another holder's lease has not expired yet. A holder
+     * taking its own lease again extends it.
+     *
+     * @return the holder of the lease after the attempt; the attempt succeeded if that is {@code holder}
+     */
+    public String acquireLease(String key, String holder, Duration ttl) throws Exception {
+        DocumentReference lease = firestore.collection(leaseCollection).document(key);
+        return firestore.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(lease).get();
+            Instant now = Instant.now();
+            String current = snapshot.exists() ? snapshot.getString(HOLDER) : null;
+            if (current != null && !current.equals(holder)
+                    && now.isBefore(Instant.parse(snapshot.getString(EXPIRES_AT)))) {
+                return current;
+            }
+            transaction.set(lease, Map.of(HOLDER, holder, EXPIRES_AT, now.plus(ttl).toString()));
+            return holder;
+        }).get();
+    }
+
+    /**
+     * Extends a lease that {@code holder} still holds.
+     *
+     * @return false if the lease expired and was taken by another holder in the meantime
+     */
+    public boolean renewLease(String key, String holder, Duration ttl) throws Exception {
+        return holder.equals(acquireLease(key, holder, ttl));
+    }
+
+    /**
+     * Gives up a lease, if {@code holder} still holds it.
+     */
+    public void releaseLease(String key, String holder) throws Exception {
+        DocumentReference lease = firestore.collection(leaseCollection).document(key);
+        firestore.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(lease).get();
+            if (snapshot.exists() && holder.equals(snapshot.getString(HOLDER))) {
+                transaction.delete(lease);
+            }
+            return null;
+        }).get();
+    }
+
+    public void saveSchedule(String key, SyncScheduleRequest request) throws Exception {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("owner", request.getOwner());
+        data.put("repository", request.getRepository());
+        data.put("syncIssuesType", request.getSyncIssuesType());
+        data.put("limit", request.getLimit().longValue());
+        data.put("intervalSeconds", request.getIntervalSeconds());
+        data.put("adaptive", request.getAdaptive() == null || request.getAdaptive());
+        firestore.collection(scheduleCollection).document(key).set(data, SetOptions.merge()).get();
+    }
+
+    public void deleteSchedule(String key) throws Exception {
+        firestore.collection(scheduleCollection).document(key).delete().get();
+    }
+
+    public List<SyncScheduleRequest> getSchedules() throws Exception {
+        List<SyncScheduleRequest> schedules = new ArrayList<>();
+        for (QueryDocumentSnapshot schedule : firestore.collection(scheduleCollection).get().get().getDocuments()) {
+            SyncScheduleRequest request = new SyncScheduleRequest();
+            request.setOwner(schedule.getString("owner"));
+            request.setRepository(schedule.getString("repository"));
+            request.setSyncIssuesType(schedule.getString("syncIssuesType"));
+            Long limit = schedule.getLong("limit");
+            request.setLimit(limit == null ? null : limit.intValue());
+            request.setIntervalSeconds(schedule.getLong("intervalSeconds"));
+            request.setAdaptive(schedule.getBoolean("adaptive"));
+            schedules.add(request);
+        }
+        return schedules;
+    }
+}
@@ -1,9 +1,17 @@
 package com.savantlabs.adapters.helpers;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.savantlabs.adapters.enums.GitHubFetchStrategy;
 import com.savantlabs.adapters.exception.CustomException;
 import com.savantlabs.adapters.model.Issue;
-import com.savantlabs.adapters.model.IssueMapper;
+import com.savantlabs.adapters.model.IssuePage;
+import com.savantlabs.adapters.model.PagingCursor;
+import com.savantlabs.adapters.model.ResumableIssuePage;
+import com.savantlabs.adapters.service.GitHubIssueFetcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,11 +21,24 @@ import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Component
-public class GitHubClient {
+public class GitHubClient implements GitHubIssueFetcher {
     private static final Logger log = LoggerFactory.getLogger(GitHubClient.class);
 
     private static final int MAX_PAGE_SIZE = 100;
@@ -26,18 +47,81 @@ public class GitHubClient {
 
     private static final String ACCEPT_HEADER = "application/vnd.github+json";
     private static final String USER_AGENT = "gh-issues-sync/1.0";
+    private static final Pattern LAST_PAGE_LINK = Pattern.compile("<([^>]*)>;\\s*rel=\"last\"");
+    private static final Runnable NO_PAGE_LISTENER = () -> { };
+    private static final Pattern PAGE_PARAM = Pattern.compile("[?&]page=(\\d+)");
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
     private final String token;
     private final String baseUrl;
     private final String issueUrl;
+    private final String issuesSinceUrl;
+    private final String orgReposUrl;
+    private final GitHubResponseCache responseCache;
+    private final int fetchParallelism;
+    private final int lowQuotaThreshold;
+    private final ExecutorService fetchExecutor;
+    private final Semaphore requestPermits;
+    private final GitHubRateLimiter rateLimiter;
+    private final Timer pageFetchTimer;
+    private final Timer rateLimitWaitTimer;
+    private final Counter rateLimitedRetries;
+    private final Counter networkRetries;
 
-    public GitHubClient(@Value("${github.token}") String token,
+    public GitHubClient(RestTemplate gitHubRestTemplate,
+                        @Value("${github.token}") String token,
                         @Value("${github.base-url}") String baseUrl,
-                        @Value("${github.issues-url}") String issueUrl) {
+                        @Value("${github.issues-url}") String issueUrl,
+                        @Value("${github.issues-since-url}") String issuesSinceUrl,
+                        @Value("${github.org-repos-url}") String orgReposUrl,
+                        GitHubResponseCache responseCache,
+                        GitHubRateLimiter rateLimiter,
+                        @Value("${github.fetch.parallelism}") int fetchParallelism,
+                        @Value("${github.fetch.low-quota-threshold}") int lowQuotaThreshold,
+                        @Value("${github.max-concurrent-requests}") int maxConcurrentRequests,
+                        MeterRegistry meterRegistry) {
+        this.restTemplate = gitHubRestTemplate;
         this.token = token;
         this.baseUrl = baseUrl;
         this.issueUrl = issueUrl;
+        this.issuesSinceUrl = issuesSinceUrl;
+        this.orgReposUrl = orgReposUrl;
+        this.responseCache = responseCache;
+        this.rateLimiter = rateLimiter;
+        this.fetchParallelism = Math.max(1, fetchParallelism);
+        this.lowQuotaThreshold = lowQuotaThreshold;
+        this.requestPermits = new Semaphore(maxConcurrentRequests);
+        this.fetchExecutor = Executors.newFixedThreadPool(this.fetchParallelism,
+                new DaemonThreadFactory("github-fetch-"));
+        this.pageFetchTimer = pageFetchTimer(meterRegistry, GitHubFetchStrategy.REST);
+        this.rateLimitWaitTimer = Timer.builder("github.ratelimit.wait")
+                .description("Time requests spent waiting for the client-side rate limiter")
+                .register(meterRegistry);
+        this.rateLimitedRetries = retryCounter(meterRegistry, "rate_limited");
+        this.networkRetries = retryCounter(meterRegistry, "network");
+    }
+
+    /**
+     * Times whole page fetches: rate-limit waits, retries and parsing included.
+     */
+    static Timer pageFetchTimer(MeterRegistry meterRegistry, GitHubFetchStrategy strategy) {
+        return Timer.builder("github.page.fetch")
+                .description("Time to fetch one page of issues, including rate-limit waits and retries")
+                .tag("api", strategy.name().toLowerCase(Locale.ROOT))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    static Counter retryCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("github.retries")
+                .description("GitHub requests sent again after a rate limit or a network error")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
     }
 
     /**
@@ -49,51 +133,420 @@ public class GitHubClient {
      * @return map of unique issue keys to Issue objects
      */
     public Map<String, Issue> fetchTopIssues(String owner, String repo, int limit) {
+        return fetchTopIssues(owner, repo, limit, NO_PAGE_LISTENER);
+    }
+
+    /**
+     * Same as {@link #fetchTopIssues(String, String, int)}, calling {@code onPageFetched} after each page.
+     */
+    @Override
+    public Map<String, Issue> fetchTopIssues(String owner, String repo, int limit, Runnable onPageFetched) {
+        return fetchIssues(owner, repo, limit, topIssuesUrl(owner, repo), onPageFetched);
+    }
+
+    /**
+     * Fetches issues updated at or after the given instant, least recently updated first, so that a
+     * sync cut short by the limit can continue from the last issue it saw.
+     *
+     * @param owner repo owner
+     * @param repo  repository name
+     * @param since only issues updated at or after this instant are returned
+     * @param limit max number of issues to fetch
+     * @return map of unique issue keys to Issue objects, ordered by updated_at ascending
+     */
+    public Map<String, Issue> fetchIssuesUpdatedSince(String owner, String repo, Instant since, int limit) {
+        return fetchIssuesUpdatedSince(owner, repo, since, limit, NO_PAGE_LISTENER);
+    }
+
+    /**
+     * Same as {@link #fetchIssuesUpdatedSince(String, String, Instant, int)}, calling {@code onPageFetched}
+     * after each page.
+     */
+    @Override
+    public Map<String, Issue> fetchIssuesUpdatedSince(String owner, String repo, Instant since, int limit,
+                                                      Runnable onPageFetched) {
+        return fetchIssues(owner, repo, limit, issuesSinceUrl(owner, repo, since), onPageFetched);
+    }
+
+    /**
+     * Streams the top N issues page by page, newest first, fetching the next page only when the
+     * previous one has been consumed. Memory stays bounded by one page regardless of the limit.
+     *
+     * @param owner repo owner
+     * @param repo  repository name
+     * @param limit max number of issues to emit
+     * @return lazy stream of non-empty pages of issues, pull requests excluded
+     */
+    @Override
+    public Stream<List<Issue>> streamTopIssues(String owner, String repo, int limit) {
+        return streamIssues(owner, repo, limit, topIssuesUrl(owner, repo));
+    }
+
+    /**
+     * Streams issues updated at or after the given instant page by page, least recently updated first.
+     *
+     * @see #fetchIssuesUpdatedSince(String, String, Instant, int)
+     */
+    @Override
+    public Stream<List<Issue>> streamIssuesUpdatedSince(String owner, String repo, Instant since, int limit) {
+        return streamIssues(owner, repo, limit, issuesSinceUrl(owner, repo, since));
+    }
+
+    /**
+     * Streams issues from a paging cursor with keyset paging: every request lists the issues updated since the
+     * cursor, sorted by update time, and the cursor moves to the last issue read. Unlike page numbers over a fixed
+     * listing, this neither skips nor repeats issues when issues change during a long sync.
+     */
+    @Override
+    public Stream<ResumableIssuePage> streamIssuesFrom(String owner, String repo, PagingCursor cursor, int limit) {
+        CursorPageIterator pages = new CursorPageIterator(owner, repo, cursor, limit);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public GitHubFetchStrategy getStrategy() {
+        return GitHubFetchStrategy.REST;
+    }
+
+    /**
+     * POSTs a JSON body, going through the same rate limiting, retries and error handling as the GET requests.
+     * Used for GraphQL queries, which are never cached.
+     *
+     * @return the response body
+     */
+    public <T> T post(String url, Object requestBody, Class<T> responseType) {
+        ResponseEntity<T> response = restTemplateExchange(HttpMethod.POST, url, requestBody, responseType);
+        return handleRateLimitAndErrors(response, url).getBody();
+    }
+
+    /**
+     * Lists the names of an organization's repositories that can have issues, skipping archived repositories
+     * and repositories with issues disabled.
+     *
+     * @param organization organization login
+     * @return repository names in the order GitHub lists them
+     */
+    public List<String> listOrganizationRepositories(String organization) {
+        List<String> repositories = new ArrayList<>();
+        for (int page = 1; ; page++) {
+            JsonNode jsonArray = get(String.format(orgReposUrl, baseUrl, organization, MAX_PAGE_SIZE, page),
+                    JsonNode.class).getBody();
+            if (jsonArray == null || !jsonArray.isArray() || jsonArray.isEmpty()) break;
+
+            for (JsonNode repository : jsonArray) {
+                if (repository.path("archived").asBoolean(false)) continue;
+                if (!repository.path("has_issues").asBoolean(true)) continue;
+                repositories.add(repository.get("name").asText());
+            }
+            if (jsonArray.size() < MAX_PAGE_SIZE) break;
+        }
+        return repositories;
+    }
+
+    private BiFunction<Integer, Integer, String> topIssuesUrl(String owner, String repo) {
+        return (pageSize, page) -> String.format(issueUrl, baseUrl, owner, repo, pageSize, page);
+    }
+
+    private BiFunction<Integer, Integer, String> issuesSinceUrl(String owner, String repo, Instant since) {
+        String sinceParam = since.truncatedTo(ChronoUnit.SECONDS).toString();
+        return (pageSize, page) -> String.format(issuesSinceUrl, baseUrl, owner, repo, sinceParam, pageSize, page);
+    }
+
+    private Stream<List<Issue>> streamIssues(String owner, String repo, int limit,
+                                             BiFunction<Integer, Integer, String> pageUrl) {
+        IssuePageIterator pages = new IssuePageIterator(owner, repo, limit, pageUrl);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private Map<String, Issue> fetchIssues(String owner, String repo, int limit,
+                                           BiFunction<Integer, Integer, String> pageUrl, Runnable onPageFetched) {
+        return fetchParallelism > 1
+                ? fetchIssuesInParallel(owner, repo, limit, pageUrl, onPageFetched)
+                : fetchIssuesSerially(owner, repo, limit, pageUrl, onPageFetched);
+    }
+
+    private Map<String, Issue> fetchIssuesSerially(String owner, String repo, int limit,
+                                                   BiFunction<Integer, Integer, String> pageUrl,
+                                                   Runnable onPageFetched) {
         int remaining = limit;
         int page = 1;
+        // page numbers are offsets in units of the page size, so it must not change between pages
+        int pageSize = Math.min(MAX_PAGE_SIZE, limit);
         Map<String, Issue> issueMap = new LinkedHashMap<>();
 
         while (remaining > 0) {
-            int pageSize = Math.min(MAX_PAGE_SIZE, remaining);
-            String url = String.format(issueUrl, baseUrl, owner, repo, pageSize, page);
+            String url = pageUrl.apply(pageSize, page);
 
-            ResponseEntity<JsonNode> response = restTemplateExchangeGet(url);
-            response = handleRateLimitAndErrors(response, url);
+            IssuePage issuePage = fetchPage(url).getBody();
+            onPageFetched.run();
+            if (isEmptyPage(issuePage)) break;
 
-            JsonNode jsonArray = response.getBody();
-            if (jsonArray == null || !jsonArray.isArray() || jsonArray.isEmpty()) break;
+            remaining = collectIssues(issuePage, issueMap, owner, repo, remaining);
+            page++;
+        }
 
-            for (JsonNode jsonNode : jsonArray) {
-                if (IssueMapper.isPullRequest(jsonNode)) continue; // skip PRs
-                if (!issueMap.containsKey(jsonNode.get("id").asText())) {
-                    issueMap.put(jsonNode.get("id").asText(), IssueMapper.toIssue(jsonNode).withOwnerRepo(owner, repo));
-                    remaining--;
-                }
+        return issueMap;
+    }
+
+    /**
+     * Fetches the first page, reads the total page count from its {@code Link: rel="last"} header and then
+     * fetches the following pages in waves of up to {@code fetchParallelism} concurrent requests. Each wave
+     * only asks for as many pages as the remaining limit needs, and pages are merged in page order, so the
+     * result has the same order and de-duplication as a serial fetch. While the rate-limit quota is low,
+     * waves shrink to a single page.
+     */
+    private Map<String, Issue> fetchIssuesInParallel(String owner, String repo, int limit,
+                                                     BiFunction<Integer, Integer, String> pageUrl,
+                                                     Runnable onPageFetched) {
+        // a fixed page size keeps page boundaries stable, which concurrent page numbers rely on
+        int pageSize = Math.min(MAX_PAGE_SIZE, limit);
+        Map<String, Issue> issueMap = new LinkedHashMap<>();
+
+        ResponseEntity<IssuePage> firstPage = fetchPage(pageUrl.apply(pageSize, 1));
+        onPageFetched.run();
+        if (isEmptyPage(firstPage.getBody())) return issueMap;
+        int remaining = collectIssues(firstPage.getBody(), issueMap, owner, repo, limit);
+        int lastPage = lastPage(firstPage.getHeaders());
 
+        int page = 2;
+        while (remaining > 0 && page <= lastPage) {
+            int pagesNeeded = (remaining + pageSize - 1) / pageSize;
+            int concurrency = isQuotaLow() ? 1 : fetchParallelism;
+            int waveSize = Math.min(Math.min(pagesNeeded, concurrency), lastPage - page + 1);
+
+            List<CompletableFuture<ResponseEntity<IssuePage>>> wave = new ArrayList<>(waveSize);
+            for (int i = 0; i < waveSize; i++) {
+                String url = pageUrl.apply(pageSize, page + i);
+                wave.add(CompletableFuture.supplyAsync(() -> fetchPage(url), fetchExecutor));
+            }
+            for (CompletableFuture<ResponseEntity<IssuePage>> future : wave) {
+                IssuePage issuePage = joinPage(future).getBody();
+                onPageFetched.run();
+                if (isEmptyPage(issuePage)) return issueMap;
+                remaining = collectIssues(issuePage, issueMap, owner, repo, remaining);
                 if (remaining == 0) break;
             }
-            page++;
+            page += waveSize;
         }
 
         return issueMap;
     }
 
-    private ResponseEntity<JsonNode> restTemplateExchangeGet(String url) {
+    private int collectIssues(IssuePage issuePage, Map<String, Issue> issueMap, String owner, String repo,
+                              int remaining) {
+        for (Issue issue : issuePage.getIssues()) { // PRs are already skipped by the converter
+            if (!issueMap.containsKey(issue.id)) {
+                issueMap.put(issue.id, issue.withOwnerRepo(owner, repo));
+                remaining--;
+            }
+
+            if (remaining == 0) break;
+        }
+        return remaining;
+    }
+
+    private boolean isEmptyPage(IssuePage issuePage) {
+        return issuePage == null || issuePage.isEmpty();
+    }
+
+    private ResponseEntity<IssuePage> fetchPage(String url) {
+        return pageFetchTimer.record(() -> get(url, IssuePage.class));
+    }
+
+    private <T> ResponseEntity<T> get(String url, Class<T> responseType) {
+        ResponseEntity<T> response = restTemplateExchange(HttpMethod.GET, url, null, responseType);
+        response = handleRateLimitAndErrors(response, url);
+        responseCache.put(url, response);
+        return response;
+    }
+
+    private ResponseEntity<IssuePage> joinPage(CompletableFuture<ResponseEntity<IssuePage>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof CustomException customException) throw customException;
+            throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Page fetch failed: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Lazily walks the pages of an issue listing. Only the ids of the previous page are remembered for
+     * de-duplication: offset paging can only repeat entries across a page boundary, and this keeps memory
+     * flat however many issues are streamed.
+     */
+    private class IssuePageIterator implements Iterator<List<Issue>> {
+        private final String owner;
+        private final String repo;
+        private final BiFunction<Integer, Integer, String> pageUrl;
+        private final int pageSize;
+        private int remaining;
+        private int page = 1;
+        private boolean exhausted;
+        private Set<String> previousPageIds = Set.of();
+        private List<Issue> nextPage;
+
+        private IssuePageIterator(String owner, String repo, int limit, BiFunction<Integer, Integer, String> pageUrl) {
+            this.owner = owner;
+            this.repo = repo;
+            this.pageUrl = pageUrl;
+            this.pageSize = Math.min(MAX_PAGE_SIZE, limit);
+            this.remaining = limit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextPage == null && !exhausted) nextPage = fetchNextPage();
+            return nextPage != null;
+        }
+
+        @Override
+        public List<Issue> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            List<Issue> page = nextPage;
+            nextPage = null;
+            return page;
+        }
+
+        private List<Issue> fetchNextPage() {
+            while (remaining > 0) {
+                IssuePage issuePage = fetchPage(pageUrl.apply(pageSize, page++)).getBody();
+                if (isEmptyPage(issuePage)) break;
+
+                List<Issue> issues = new ArrayList<>(issuePage.getIssues().size());
+                Set<String> pageIds = new HashSet<>();
+                for (Issue issue : issuePage.getIssues()) {
+                    pageIds.add(issue.id);
+                    if (previousPageIds.contains(issue.id)) continue;
+                    issues.add(issue.withOwnerRepo(owner, repo));
+                    if (--remaining == 0) break;
+                }
+                previousPageIds = pageIds;
+                if (!issues.isEmpty()) return issues;
+            }
+            exhausted = true;
+            return null;
+        }
+    }
+
+    /**
+     * Walks the pages of a keyset listing, always with the full page size so that page numbers within a second of
+     * the cursor stay valid across runs.
+     */
+    private class CursorPageIterator implements Iterator<ResumableIssuePage> {
+        private final String owner;
+        private final String repo;
+        private PagingCursor cursor;
+        private int remaining;
+        private boolean exhausted;
+        private ResumableIssuePage nextPage;
+
+        private CursorPageIterator(String owner, String repo, PagingCursor cursor, int limit) {
+            this.owner = owner;
+            this.repo = repo;
+            this.cursor = cursor;
+            this.remaining = limit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextPage == null && !exhausted) nextPage = fetchNextPage();
+            return nextPage != null;
+        }
+
+        @Override
+        public ResumableIssuePage next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            ResumableIssuePage page = nextPage;
+            nextPage = null;
+            return page;
+        }
+
+        private ResumableIssuePage fetchNextPage() {
+            while (remaining > 0) {
+                String url = issuesSinceUrl(owner, repo, cursor.getSince()).apply(MAX_PAGE_SIZE, cursor.getPage());
+                IssuePage issuePage = fetchPage(url).getBody();
+                if (isEmptyPage(issuePage) || issuePage.getLastUpdatedAt() == null) break;
+
+                List<Issue> issues = new ArrayList<>(issuePage.getIssues().size());
+                boolean truncated = false;
+                for (Issue issue : issuePage.getIssues()) {
+                    if (cursor.isSeen(issue)) continue;
+                    if (remaining == 0) {
+                        truncated = true;
+                        break;
+                    }
+                    issues.add(issue.withOwnerRepo(owner, repo));
+                    remaining--;
+                }
+                // pull requests are dropped but still move the cursor, so a page of them is not listed again
+                cursor = truncated
+                        ? cursor.afterIssues(issues)
+                        : cursor.afterPage(issues, issuePage.getLastUpdatedAt());
+                if (!truncated && issuePage.getEntryCount() < MAX_PAGE_SIZE) exhausted = true;
+                if (!issues.isEmpty()) return new ResumableIssuePage(issues, cursor);
+                if (exhausted) return null;
+            }
+            exhausted = true;
+            return null;
+        }
+    }
+
+    private boolean isQuotaLow() {
+        int remaining = rateLimiter.getRemaining();
+        return remaining >= 0 && remaining < lowQuotaThreshold;
+    }
+
+    /**
+     * Reads the page number of the {@code rel="last"} link; GitHub omits it when there is only one page.
+     */
+    private int lastPage(HttpHeaders headers) {
+        String link = headers.getFirst(HttpHeaders.LINK);
+        if (link == null) return 1;
+        Matcher lastLink = LAST_PAGE_LINK.matcher(link);
+        if (!lastLink.find()) return 1;
+        Matcher pageParam = PAGE_PARAM.matcher(lastLink.group(1));
+        return pageParam.find() ? Integer.parseInt(pageParam.group(1)) : 1;
+    }
+
+    /**
+     * Performs a request; a GET is conditional on the cached ETag / Last-Modified of the same URL if there is one.
+     * A 304 Not Modified answer is turned into a 200 carrying the cached body. Rate-limited answers are retried
+     * once the rate limiter lets requests through again.
+     */
+    private <T> ResponseEntity<T> restTemplateExchange(HttpMethod method, String url, Object requestBody,
+                                                       Class<T> responseType) {
         long backoff = INITIAL_BACKOFF_MS;
+        boolean cacheable = HttpMethod.GET.equals(method);
+        GitHubResponseCache.CachedPage cachedPage = cacheable ? responseCache.get(url) : null;
+        int rateLimitedAttempts = 0;
 
-        for (int attempt = 1; attempt <= MAX_NETWORK_RETRIES; attempt++) {
+        for (int attempt = 1; attempt <= MAX_NETWORK_RETRIES; ) {
             try {
-                return restTemplate.exchange(
-                        URI.create(url),
-                        HttpMethod.GET,
-                        new HttpEntity<>(headers(token)),
-                        JsonNode.class
-                );
+                ResponseEntity<T> response = exchange(method, url, requestBody, responseType, cachedPage);
+                if (cachedPage != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                    responseCache.recordHit();
+                    return ResponseEntity.ok().headers(response.getHeaders())
+                            .body(responseType.cast(cachedPage.body()));
+                }
+                if (cacheable) responseCache.recordMiss();
+                return response;
             } catch (HttpStatusCodeException ex) {
                 HttpStatusCode status = ex.getStatusCode();
+                if (rateLimiter.isRateLimited(status, ex.getResponseHeaders(), ex.getResponseBodyAsString())
+                        && rateLimitedAttempts++ < rateLimiter.getMaxRetries()) {
+                    rateLimitedRetries.increment();
+                    Duration wait = rateLimiter.onRateLimited();
+                    log.warn("Rate limited [{}] on {} (retry {} of {}), retrying in {} s", status, url,
+                            rateLimitedAttempts, rateLimiter.getMaxRetries(), wait.toSeconds());
+                    continue;
+                }
                 log.error("GitHub API error [{}] on {} → {}", status, url, ex.getResponseBodyAsString());
-                return ResponseEntity.status(status).headers(ex.getResponseHeaders())
-                        .body(ex.getResponseBodyAs(JsonNode.class));
+                throw error(status, ex.getResponseHeaders(), ex.getResponseBodyAsString(), url);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Interrupted while calling " + url);
             } catch (Exception ex) {
                 if (attempt == MAX_NETWORK_RETRIES) {
                     log.error("Failed after {} attempts to call {}. Cause: {}", attempt, url, ex.getMessage());
@@ -102,13 +555,42 @@ public class GitHubClient {
                 }
                 log.warn("Network error calling {} (attempt {} of {}), retrying in {} ms", url, attempt,
                         MAX_NETWORK_RETRIES, backoff);
+                networkRetries.increment();
                 sleep(backoff);
                 backoff *= 2;
+                attempt++;
             }
         }
         throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error: retry loop exited for " + url);
     }
 
+    /**
+     * Sends the request once the shared rate limiter allows it, holding one of the
+     * {@code github.max-concurrent-requests} permits, which every sync in this process shares.
+     */
+    private <T> ResponseEntity<T> exchange(HttpMethod method, String url, Object requestBody, Class<T> responseType,
+                                           GitHubResponseCache.CachedPage cachedPage) throws InterruptedException {
+        long waitStart = System.nanoTime();
+        rateLimiter.acquire();
+        rateLimitWaitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+        requestPermits.acquire();
+        try {
+            ResponseEntity<T> response = restTemplate.exchange(
+                    URI.create(url),
+                    method,
+                    new HttpEntity<>(requestBody, headers(token, cachedPage)),
+                    responseType
+            );
+            rateLimiter.update(response.getHeaders());
+            return response;
+        } catch (HttpStatusCodeException ex) {
+            rateLimiter.update(ex.getResponseHeaders());
+            throw ex;
+        } finally {
+            requestPermits.release();
+        }
+    }
+
     private void sleep(long ms) {
         try {
             Thread.sleep(ms);
@@ -118,62 +600,53 @@ public class GitHubClient {
         }
     }
 
-    private ResponseEntity<JsonNode> handleRateLimitAndErrors(ResponseEntity<JsonNode> response, String url) {
-        HttpStatusCode status = response.getStatusCode();
+    private <T> ResponseEntity<T> handleRateLimitAndErrors(ResponseEntity<T> response, String url) {
+        if (response.getStatusCode().is2xxSuccessful()) return response;
+        throw error(response.getStatusCode(), response.getHeaders(), null, url);
+    }
+
+    /**
+     * Maps an error answer to the exception reported to the caller, keeping GitHub's error body in the message.
+     */
+    private CustomException error(HttpStatusCode status, HttpHeaders headers, String body, String url) {
+        String detail = body == null || body.isBlank() ? "" : " → " + body.strip();
 
         if (status.equals(HttpStatus.UNAUTHORIZED)) {
             log.error("Unauthorized: missing or invalid GitHub token");
-            throw new CustomException(status, "Unauthorized: missing or invalid GitHub token");
+            return new CustomException(status, "Unauthorized: missing or invalid GitHub token" + detail);
         }
 
-        if (status.equals(HttpStatus.FORBIDDEN)) {
-            HttpHeaders headers = response.getHeaders();
-            String remaining = headers.getFirst("X-RateLimit-Remaining");
-            // X-RateLimit-Reset -> the UNIX epoch timestamp (in seconds) when your current quota window resets
-            String reset = headers.getFirst("X-RateLimit-Reset");
-
-            if ("0".equals(remaining) && reset != null) {
-                long resetEpoch = Long.parseLong(reset);
-                long waitMs = (resetEpoch - Instant.now().getEpochSecond()) * 1000L;
-                if (waitMs > 0 && waitMs <= 10_000) { // near reset perform retry
-                    log.warn("Rate limited. Waiting {} sec before retry...", waitMs / 1000);
-                    try {
-                        Thread.sleep(waitMs);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Retry interrupted"
-                                + e.getMessage());
-                    }
-                    return restTemplateExchangeGet(url);
-                }
-
-                // reset too far perform fail fast
-                throw new CustomException(status,
-                        "Rate limit exceeded. Retry after " + (waitMs / 1000) + " seconds");
-            }
-
-            log.error("Forbidden: rate-limit exceeded");
-            throw new CustomException(status, "Forbidden: rate-limit exceeded");
+        // rate-limited answers only get here once the rate limiter retries are used up
+        if (rateLimiter.isRateLimited(status, headers, body)) {
+            return new CustomException(status,
+                    "Rate limit exceeded. Retry after " + rateLimiter.getBlockedFor().toSeconds() + " seconds");
         }
 
-        if (status == HttpStatus.NOT_FOUND) {
-            System.err.println("Not found: " + url);
-            throw new CustomException(status, "Not found: " + url);
+        if (status.equals(HttpStatus.FORBIDDEN)) {
+            log.error("Forbidden: {}", url);
+            return new CustomException(status, "Forbidden: " + url + detail);
         }
 
-        if (!status.is2xxSuccessful()) {
-            System.err.println("GitHub error: " + status);
-            throw new CustomException(status, "GitHub error: " + status);
+        if (status.equals(HttpStatus.NOT_FOUND)) {
+            log.error("Not found: {}", url);
+            return new CustomException(status, "Not found: " + url + detail);
         }
 
-        return response;
+        log.error("GitHub error [{}] on {}", status, url);
+        return new CustomException(status, "GitHub error: " + status + detail);
     }
 
-    private HttpHeaders headers(String token) {
+    private HttpHeaders headers(String token, GitHubResponseCache.CachedPage cachedPage) {
         HttpHeaders headers = new HttpHeaders();
         headers.set(HttpHeaders.ACCEPT, ACCEPT_HEADER);
         headers.set(HttpHeaders.USER_AGENT, USER_AGENT);
         if (token != null && !token.isBlank()) headers.setBearerAuth(token);
+        if (cachedPage != null) {
+            if (cachedPage.eTag() != null) headers.setIfNoneMatch(cachedPage.eTag());
+            if (cachedPage.lastModified() != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, cachedPage.lastModified());
+            }
+        }
         return headers;
     }
 
@@ -0,0 +1,299 @@
+package com.savantlabs.adapters.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.savantlabs.adapters.enums.GitHubFetchStrategy;
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.IssueMapper;
+import com.savantlabs.adapters.model.PagingCursor;
+import com.savantlabs.adapters.model.ResumableIssuePage;
+import com.savantlabs.adapters.service.GitHubIssueFetcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads issues through the GraphQL API. The {@code repository.issues} connection only contains issues, so no
+ * page slots are spent on pull requests, and the query selects just the fields {@link IssueMapper} keeps.
+ * Requests go through {@link GitHubClient#post}, sharing its rate limiter, request cap and retries.
+ */
+@Component
+public class GitHubGraphQLClient implements GitHubIssueFetcher {
+    private static final Logger log = LoggerFactory.getLogger(GitHubGraphQLClient.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final long RESET_SKEW_MS = 1_000;
+    private static final String ISSUES_QUERY = """
+            query($owner: String!, $name: String!, $first: Int!, $after: String, $orderBy: IssueOrder!,
+                  $since: DateTime) {
+              rateLimit { cost remaining resetAt }
+              repository(owner: $owner, name: $name) {
+                issues(first: $first, after: $after, orderBy: $orderBy, filterBy: {since: $since}) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes { databaseId title state url createdAt updatedAt }
+                }
+              }
+            }""";
+
+    private final GitHubClient gitHubClient;
+    private final String graphqlUrl;
+    private final int maxRetries;
+    private final Timer pageFetchTimer;
+    private final Counter rateLimitedRetries;
+    // GraphQL quota in points, from the rateLimit field of the last response; -1 until the first response
+    private volatile int remainingPoints = -1;
+    private volatile int lastCost = 1;
+    private volatile Instant resetAt;
+
+    public GitHubGraphQLClient(GitHubClient gitHubClient,
+                               @Value("${github.base-url}") String baseUrl,
+                               @Value("${github.graphql-url}") String graphqlUrl,
+                               @Value("${github.rate-limit.max-retries}") int maxRetries,
+                               MeterRegistry meterRegistry) {
+        this.gitHubClient = gitHubClient;
+        this.graphqlUrl = String.format(graphqlUrl, baseUrl);
+        this.maxRetries = maxRetries;
+        this.pageFetchTimer = GitHubClient.pageFetchTimer(meterRegistry, GitHubFetchStrategy.GRAPHQL);
+        this.rateLimitedRetries = GitHubClient.retryCounter(meterRegistry, "rate_limited");
+    }
+
+    @Override
+    public Map<String, Issue> fetchTopIssues(String owner, String repo, int limit, Runnable onPageFetched) {
+        return collect(new IssueConnectionIterator(owner, repo, limit, null), onPageFetched);
+    }
+
+    @Override
+    public Map<String, Issue> fetchIssuesUpdatedSince(String owner, String repo, Instant since, int limit,
+                                                      Runnable onPageFetched) {
+        return collect(new IssueConnectionIterator(owner, repo, limit, since), onPageFetched);
+    }
+
+    @Override
+    public Stream<List<Issue>> streamTopIssues(String owner, String repo, int limit) {
+        return stream(new IssueConnectionIterator(owner, repo, limit, null));
+    }
+
+    @Override
+    public Stream<List<Issue>> streamIssuesUpdatedSince(String owner, String repo, Instant since, int limit) {
+        return stream(new IssueConnectionIterator(owner, repo, limit, since));
+    }
+
+    /**
+     * Walks the connection from the second of the paging cursor. GraphQL cursors already keep their position
+     * while issues change, so the paging cursor only serves to resume another run and to drop the issues of that
+     * second that were already read.
+     */
+    @Override
+    public Stream<ResumableIssuePage> streamIssuesFrom(String owner, String repo, PagingCursor cursor, int limit) {
+        CursorPageIterator pages = new CursorPageIterator(owner, repo, cursor, limit);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public GitHubFetchStrategy getStrategy() {
+        return GitHubFetchStrategy.GRAPHQL;
+    }
+
+    private Map<String, Issue> collect(IssueConnectionIterator pages, Runnable onPageFetched) {
+        Map<String, Issue> issueMap = new LinkedHashMap<>();
+        while (pages.hasNext()) {
+            onPageFetched.run();
+            for (Issue issue : pages.next()) {
+                issueMap.putIfAbsent(issue.id, issue);
+            }
+        }
+        return issueMap;
+    }
+
+    private Stream<List<Issue>> stream(IssueConnectionIterator pages) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private JsonNode queryIssues(String owner, String repo, int first, String after, Instant since) {
+        Map<String, Object> variables = new HashMap<>(); // after and since may be null
+        variables.put("owner", owner);
+        variables.put("name", repo);
+        variables.put("first", first);
+        variables.put("after", after);
+        variables.put("since", since == null ? null : since.truncatedTo(ChronoUnit.SECONDS).toString());
+        variables.put("orderBy", since == null
+                ? Map.of("field", "CREATED_AT", "direction", "DESC")
+                : Map.of("field", "UPDATED_AT", "direction", "ASC"));
+        Map<String, Object> request = Map.of("query", ISSUES_QUERY, "variables", variables);
+
+        for (int attempt = 0; ; attempt++) {
+            awaitPoints();
+            JsonNode response = gitHubClient.post(graphqlUrl, request, JsonNode.class);
+            if (response == null) {
+                throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Empty GraphQL response");
+            }
+            trackPoints(response.path("data").path("rateLimit"));
+
+            JsonNode error = response.path("errors").path(0);
+            if (error.isMissingNode()) {
+                return response.path("data").path("repository").path("issues");
+            }
+            String type = error.path("type").asText();
+            if ("RATE_LIMITED".equals(type) && attempt < maxRetries) {
+                log.warn("GraphQL rate limit reached for {}/{} (retry {} of {})", owner, repo, attempt + 1, maxRetries);
+                remainingPoints = 0;
+                rateLimitedRetries.increment();
+                continue;
+            }
+            if ("NOT_FOUND".equals(type)) {
+                throw new CustomException(HttpStatus.NOT_FOUND, "Not found: " + owner + "/" + repo);
+            }
+            throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "GitHub GraphQL error: " + error.path("message").asText());
+        }
+    }
+
+    private void trackPoints(JsonNode rateLimit) {
+        if (rateLimit.isMissingNode() || rateLimit.isNull()) return;
+        lastCost = Math.max(1, rateLimit.path("cost").asInt(1));
+        remainingPoints = rateLimit.path("remaining").asInt(-1);
+        if (rateLimit.hasNonNull("resetAt")) resetAt = Instant.parse(rateLimit.get("resetAt").asText());
+    }
+
+    /**
+     * Waits for the GraphQL quota to reset when it cannot pay for another query of the last query's cost.
+     */
+    private void awaitPoints() {
+        Instant reset = resetAt;
+        if (remainingPoints < 0 || remainingPoints >= lastCost || reset == null) return;
+        long waitMs = Duration.between(Instant.now(), reset).toMillis() + RESET_SKEW_MS;
+        if (waitMs <= 0) return;
+        log.warn("GraphQL quota used up, waiting {} s for it to reset", waitMs / 1000);
+        try {
+            Thread.sleep(waitMs);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new CustomException(HttpStatus.INTERNAL_SERVER_ERROR, "Retry interrupted" + ie);
+        }
+    }
+
+    private class CursorPageIterator implements Iterator<ResumableIssuePage> {
+        private final IssueConnectionIterator pages;
+        private PagingCursor cursor;
+        private int remaining;
+        private ResumableIssuePage nextPage;
+
+        private CursorPageIterator(String owner, String repo, PagingCursor cursor, int limit) {
+            // the seen issues are listed again before they are dropped
+            this.pages = new IssueConnectionIterator(owner, repo, limit + cursor.getSeenIds().size(),
+                    cursor.getSince());
+            this.cursor = cursor;
+            this.remaining = limit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextPage == null) nextPage = fetchNextPage();
+            return nextPage != null;
+        }
+
+        @Override
+        public ResumableIssuePage next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            ResumableIssuePage page = nextPage;
+            nextPage = null;
+            return page;
+        }
+
+        private ResumableIssuePage fetchNextPage() {
+            while (remaining > 0 && pages.hasNext()) {
+                List<Issue> issues = new ArrayList<>();
+                for (Issue issue : pages.next()) {
+                    if (cursor.isSeen(issue)) continue;
+                    issues.add(issue);
+                    if (--remaining == 0) break;
+                }
+                if (!issues.isEmpty()) {
+                    cursor = cursor.afterIssues(issues);
+                    return new ResumableIssuePage(issues, cursor);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Walks the issue connection with its cursor, one query per page.
+     */
+    private class IssueConnectionIterator implements Iterator<List<Issue>> {
+        private final String owner;
+        private final String repo;
+        private final Instant since;
+        private int remaining;
+        private String cursor;
+        private boolean exhausted;
+        private List<Issue> nextPage;
+
+        private IssueConnectionIterator(String owner, String repo, int limit, Instant since) {
+            this.owner = owner;
+            this.repo = repo;
+            this.since = since;
+            this.remaining = limit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextPage == null && !exhausted) nextPage = fetchNextPage();
+            return nextPage != null;
+        }
+
+        @Override
+        public List<Issue> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            List<Issue> page = nextPage;
+            nextPage = null;
+            return page;
+        }
+
+        private List<Issue> fetchNextPage() {
+            if (remaining <= 0) {
+                exhausted = true;
+                return null;
+            }
+            JsonNode connection = pageFetchTimer.record(
+                    () -> queryIssues(owner, repo, Math.min(MAX_PAGE_SIZE, remaining), cursor, since));
+            List<Issue> issues = new ArrayList<>();
+            for (JsonNode node : connection.path("nodes")) {
+                if (node.isNull()) continue;
+                issues.add(IssueMapper.fromGraphQLNode(node).withOwnerRepo(owner, repo));
+                if (--remaining == 0) break;
+            }
+
+            JsonNode pageInfo = connection.path("pageInfo");
+            cursor = pageInfo.path("endCursor").asText(null);
+            if (!pageInfo.path("hasNextPage").asBoolean(false) || cursor == null) exhausted = true;
+            if (issues.isEmpty()) {
+                exhausted = true;
+                return null;
+            }
+            return issues;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.savantlabs.adapters.helpers;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the HTTP requests sent to GitHub. The JDK {@code HttpClient} does not expose its connection pool, so the
+ * number of requests in flight stands in for the connections (HTTP/1.1) or streams (HTTP/2) in use.
+ * Latency is measured up to the response headers. The counts are published to Micrometer as
+ * {@code github.http.*} meters.
+ */
+@Component
+public class GitHubHttpMetrics implements ClientHttpRequestInterceptor, MeterBinder {
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong compressedResponses = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        requests.incrementAndGet();
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        long start = System.nanoTime();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            if (response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) compressedResponses.incrementAndGet();
+            return response;
+        } catch (IOException | RuntimeException ex) {
+            failures.incrementAndGet();
+            throw ex;
+        } finally {
+            long latency = System.nanoTime() - start;
+            totalLatencyNanos.addAndGet(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer.builder("github.http.requests", this, GitHubHttpMetrics::getRequests,
+                        metrics -> metrics.totalLatencyNanos.get(), TimeUnit.NANOSECONDS)
+                .description("HTTP requests sent to GitHub, timed up to the response headers")
+                .register(registry);
+        FunctionCounter.builder("github.http.failures", this, GitHubHttpMetrics::getFailures)
+                .description("HTTP requests to GitHub that got no response")
+                .register(registry);
+        FunctionCounter.builder("github.http.compressed.responses", this, GitHubHttpMetrics::getCompressedResponses)
+                .register(registry);
+        Gauge.builder("github.http.in.flight", this, GitHubHttpMetrics::getInFlight)
+                .description("HTTP requests to GitHub awaiting their response")
+                .register(registry);
+        Gauge.builder("github.http.in.flight.peak", this, GitHubHttpMetrics::getPeakInFlight).register(registry);
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return requests that got no response at all (connect or read timeouts, resets)
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getCompressedResponses() {
+        return compressedResponses.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    public Duration getAverageLatency() {
+        long count = requests.get();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalLatencyNanos.get() / count);
+    }
+
+    public Duration getMaxLatency() {
+        return Duration.ofNanos(maxLatencyNanos.get());
+    }
+}
@@ -0,0 +1,198 @@
+package com.savantlabs.adapters.helpers;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Client-side rate limiter shared by every GitHub request of the process.
+ * <p>
+ * Requests are spaced by a token bucket refilled at {@code github.rate-limit.max-requests-per-second}. Once the
+ * {@code X-RateLimit-Remaining} quota drops below {@code github.rate-limit.pacing-threshold}, the refill rate is
+ * lowered so that the remaining quota lasts until {@code X-RateLimit-Reset}. {@code Retry-After}, an exhausted
+ * quota and secondary rate limits stop all requests until GitHub accepts them again.
+ * <p>
+ * A caller reserves its slot under the lock and then parks outside of it, so waiting callers hold no monitor and
+ * never delay callers whose slot is already due.
+ */
+@Component
+public class GitHubRateLimiter implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(GitHubRateLimiter.class);
+
+    // allows for clock skew between this host and GitHub when waiting for X-RateLimit-Reset
+    private static final long RESET_SKEW_MS = 1_000;
+    private static final String CORE_RESOURCE = "core";
+
+    private final double maxRequestsPerSecond;
+    private final int burst;
+    private final int pacingThreshold;
+    private final Duration secondaryBackoff;
+    private final int maxRetries;
+
+    // guarded by this
+    private double storedPermits;
+    private long nextFreeNanos = System.nanoTime();
+    private long blockedUntilNanos = System.nanoTime();
+    private int remaining = -1;
+    private long resetEpochMillis;
+
+    public GitHubRateLimiter(@Value("${github.rate-limit.max-requests-per-second}") double maxRequestsPerSecond,
+                             @Value("${github.rate-limit.burst}") int burst,
+                             @Value("${github.rate-limit.pacing-threshold}") int pacingThreshold,
+                             @Value("${github.rate-limit.secondary-backoff-seconds}") long secondaryBackoffSeconds,
+                             @Value("${github.rate-limit.max-retries}") int maxRetries) {
+        this.maxRequestsPerSecond = maxRequestsPerSecond;
+        this.burst = Math.max(1, burst);
+        this.pacingThreshold = pacingThreshold;
+        this.secondaryBackoff = Duration.ofSeconds(secondaryBackoffSeconds);
+        this.maxRetries = maxRetries;
+        this.storedPermits = this.burst;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("github.ratelimit.remaining", this, GitHubRateLimiter::getRemaining)
+                .description("Remaining GitHub REST quota; -1 before the first response")
+                .register(registry);
+        Gauge.builder("github.ratelimit.blocked", this, limiter -> limiter.getBlockedFor().toMillis() / 1000.0)
+                .description("How long requests are held back by a rate limit")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    /**
+     * Waits until the next request may be sent.
+     */
+    public void acquire() throws InterruptedException {
+        long deadline = System.nanoTime() + reserve();
+        for (long waitNanos = deadline - System.nanoTime(); waitNanos > 0; waitNanos = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(this, waitNanos);
+            if (Thread.interrupted()) throw new InterruptedException("Interrupted while waiting for GitHub rate limit");
+        }
+    }
+
+    /**
+     * Records the quota reported on a response. Called for every response, successful or not.
+     */
+    public synchronized void update(HttpHeaders headers) {
+        if (headers == null) return;
+        // GraphQL and search have quotas of their own; only the REST ("core") quota is paced here
+        String resource = headers.getFirst("X-RateLimit-Resource");
+        if (resource == null || CORE_RESOURCE.equals(resource)) {
+            Long reportedRemaining = parseLong(headers.getFirst("X-RateLimit-Remaining"));
+            Long reset = parseLong(headers.getFirst("X-RateLimit-Reset"));
+            if (reportedRemaining != null) remaining = reportedRemaining.intValue();
+            // X-RateLimit-Reset is the UNIX epoch second at which the quota window resets
+            if (reset != null) resetEpochMillis = reset * 1000L;
+        }
+        Long retryAfter = parseLong(headers.getFirst(HttpHeaders.RETRY_AFTER));
+        if (retryAfter != null) blockFor(Duration.ofSeconds(retryAfter));
+    }
+
+    /**
+     * Tells whether a failed response was caused by a primary or secondary rate limit rather than missing access.
+     */
+    public boolean isRateLimited(HttpStatusCode status, HttpHeaders headers, String body) {
+        if (status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) return true;
+        if (!status.isSameCodeAs(HttpStatus.FORBIDDEN)) return false;
+        return headers != null && ("0".equals(headers.getFirst("X-RateLimit-Remaining"))
+                || headers.getFirst(HttpHeaders.RETRY_AFTER) != null)
+                || body != null && body.contains("rate limit");
+    }
+
+    /**
+     * Stops all requests after a rate-limited response: for the {@code Retry-After} delay if GitHub sent one,
+     * until the quota resets if it is exhausted, and for {@code github.rate-limit.secondary-backoff-seconds}
+     * otherwise. The response headers must already have been passed to {@link #update(HttpHeaders)}.
+     *
+     * @return how long requests are held back
+     */
+    public synchronized Duration onRateLimited() {
+        long now = System.nanoTime();
+        if (blockedUntilNanos <= now) {
+            if (remaining == 0 && resetEpochMillis > 0) {
+                blockFor(Duration.ofMillis(resetEpochMillis - System.currentTimeMillis() + RESET_SKEW_MS));
+            } else {
+                blockFor(secondaryBackoff);
+            }
+        }
+        // no burst right after being limited
+        storedPermits = 0;
+        return Duration.ofNanos(Math.max(0, blockedUntilNanos - now));
+    }
+
+    /**
+     * @return the last reported remaining quota, lowered by the requests sent since; -1 before the first response
+     */
+    public synchronized int getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * @return how long requests are currently held back by a rate limit
+     */
+    public synchronized Duration getBlockedFor() {
+        return Duration.ofNanos(Math.max(0, blockedUntilNanos - System.nanoTime()));
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        long interval = intervalNanos();
+        // permits build up while idle, up to the burst size, so occasional requests are not delayed
+        if (now > nextFreeNanos) {
+            storedPermits = Math.min(burst, storedPermits + (now - nextFreeNanos) / (double) interval);
+            nextFreeNanos = now;
+        }
+        long slot = Math.max(now, Math.max(nextFreeNanos, blockedUntilNanos));
+        if (slot == now && storedPermits >= 1) {
+            storedPermits -= 1;
+        } else {
+            nextFreeNanos = slot + interval;
+        }
+        // count the request against the quota until the response reports the real value
+        if (remaining > 0) remaining--;
+        return slot - now;
+    }
+
+    private long intervalNanos() {
+        double requestsPerSecond = maxRequestsPerSecond;
+        long millisToReset = resetEpochMillis - System.currentTimeMillis();
+        if (remaining >= 0 && remaining < pacingThreshold && millisToReset > 0) {
+            // spread what is left of the quota evenly over the rest of the window
+            requestsPerSecond = Math.min(requestsPerSecond, Math.max(remaining, 1) * 1000.0 / millisToReset);
+        }
+        return (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+    }
+
+    private void blockFor(Duration duration) {
+        long until = System.nanoTime() + duration.toNanos();
+        if (until > blockedUntilNanos) {
+            blockedUntilNanos = until;
+            log.warn("GitHub rate limit reached, holding requests back for {} s", duration.toSeconds());
+        }
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null) return null;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
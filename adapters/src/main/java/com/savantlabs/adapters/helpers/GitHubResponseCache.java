@@ -0,0 +1,106 @@
+package com.savantlabs.adapters.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.savantlabs.adapters.model.IssuePage;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches GitHub page responses by URL together with their validators (ETag / Last-Modified), so repeated
+ * requests can be sent conditionally. A 304 Not Modified answer is served from here and, as long as the
+ * request is authorized, is not counted against the GitHub rate limit.
+ * <p>
+ * Callers change the issues they are handed (owner, repository, sync time), so the cache keeps its own copy of each
+ * body and hands out a fresh copy on every hit.
+ */
+@Component
+public class GitHubResponseCache implements MeterBinder {
+    private final LruCache<String, CachedPage> pages;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public GitHubResponseCache(@Value("${github.cache.max-entries}") int maxEntries) {
+        this.pages = new LruCache<>(maxEntries);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("github.cache.requests", this, GitHubResponseCache::getHits)
+                .description("Conditional GitHub requests answered with 304 Not Modified")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("github.cache.requests", this, GitHubResponseCache::getMisses)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("github.cache.size", this, GitHubResponseCache::size).register(registry);
+    }
+
+    public CachedPage get(String url) {
+        return pages.get(url);
+    }
+
+    /**
+     * Stores a successful response if GitHub sent a validator for it; responses without one cannot be revalidated.
+     */
+    public void put(String url, ResponseEntity<?> response) {
+        HttpHeaders headers = response.getHeaders();
+        String eTag = headers.getETag();
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        if (eTag == null && lastModified == null) return;
+        pages.put(url, new CachedPage(eTag, lastModified, copyOf(response.getBody())));
+    }
+
+    public void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    public void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Number of requests GitHub answered with 304 Not Modified, i.e. requests that did not use up rate-limit quota.
+     */
+    public long getQuotaSaved() {
+        return hits.get();
+    }
+
+    public int size() {
+        return pages.size();
+    }
+
+    /**
+     * Copies the mutable bodies the client requests with GET: issue pages and JSON trees.
+     */
+    private static Object copyOf(Object body) {
+        if (body instanceof IssuePage issuePage) return issuePage.copy();
+        if (body instanceof JsonNode jsonNode) return jsonNode.deepCopy();
+        return body;
+    }
+
+    public record CachedPage(String eTag, String lastModified, Object body) {
+        /**
+         * @return a copy of the cached body, which the caller may change
+         */
+        @Override
+        public Object body() {
+            return copyOf(body);
+        }
+    }
+}
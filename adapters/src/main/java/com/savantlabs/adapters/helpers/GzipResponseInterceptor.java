@@ -0,0 +1,83 @@
+package com.savantlabs.adapters.helpers;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Asks for gzip-compressed responses and decompresses them. Neither the JDK {@code HttpClient} nor
+ * {@code HttpURLConnection} does this on its own, and issue pages compress to a fraction of their size.
+ */
+public class GzipResponseInterceptor implements ClientHttpRequestInterceptor {
+    private static final String GZIP = "gzip";
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, GZIP);
+        ClientHttpResponse response = execution.execute(request, body);
+        return GZIP.equalsIgnoreCase(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))
+                ? new GzipClientHttpResponse(response)
+                : response;
+    }
+
+    private static class GzipClientHttpResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final HttpHeaders headers;
+        private InputStream body;
+
+        private GzipClientHttpResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+            // the headers describe the compressed body, not the decompressed one readers get
+            HttpHeaders decodedHeaders = new HttpHeaders();
+            decodedHeaders.putAll(delegate.getHeaders());
+            decodedHeaders.remove(HttpHeaders.CONTENT_ENCODING);
+            decodedHeaders.remove(HttpHeaders.CONTENT_LENGTH);
+            this.headers = HttpHeaders.readOnlyHttpHeaders(decodedHeaders);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                // 304s and other bodiless answers may still be labelled gzip
+                PushbackInputStream in = new PushbackInputStream(delegate.getBody(), 1);
+                int first = in.read();
+                if (first == -1) {
+                    body = InputStream.nullInputStream();
+                } else {
+                    in.unread(first);
+                    body = new GZIPInputStream(in);
+                }
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.savantlabs.adapters.helpers;
+
+import com.savantlabs.adapters.model.Issue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Remembers the content hash last written to Firestore for each issue, per repository, so that re-syncing an
+ * unchanged issue does not cost a write. Both the repositories and the issues of each repository are LRU-bounded.
+ * <p>
+ * The cache only knows about writes made by this process: after a restart every issue is written once more, and
+ * a document changed or deleted outside of the sync is only rewritten once its issue changes on GitHub.
+ */
+@Component
+public class IssueContentHashCache {
+    private final boolean enabled;
+    private final int maxEntriesPerRepository;
+    private final LruCache<String, LruCache<String, String>> repositories;
+
+    public IssueContentHashCache(@Value("${firestore.content-hash.enabled}") boolean enabled,
+                                 @Value("${firestore.content-hash.max-repositories}") int maxRepositories,
+                                 @Value("${firestore.content-hash.max-entries-per-repository}")
+                                 int maxEntriesPerRepository) {
+        this.enabled = enabled;
+        this.maxEntriesPerRepository = maxEntriesPerRepository;
+        this.repositories = new LruCache<>(maxRepositories);
+    }
+
+    /**
+     * @return whether {@code contentHash} is the hash last written for the issue
+     */
+    public boolean isUnchanged(Issue issue, String contentHash) {
+        if (!enabled) return false;
+        LruCache<String, String> hashes = repositories.get(repositoryKey(issue));
+        return hashes != null && contentHash.equals(hashes.get(issue.id));
+    }
+
+    /**
+     * Records the hash of a document that was written successfully.
+     */
+    public void put(Issue issue, String contentHash) {
+        if (!enabled) return;
+        hashesOf(repositoryKey(issue)).put(issue.id, contentHash);
+    }
+
+    private synchronized LruCache<String, String> hashesOf(String repositoryKey) {
+        LruCache<String, String> hashes = repositories.get(repositoryKey);
+        if (hashes == null) {
+            hashes = new LruCache<>(maxEntriesPerRepository);
+            repositories.put(repositoryKey, hashes);
+        }
+        return hashes;
+    }
+
+    private static String repositoryKey(Issue issue) {
+        // owner and repository names cannot contain ':', so the pair maps to exactly one key; GitHub names are
+        // case-insensitive
+        return (issue.owner + ":" + issue.repo).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,49 @@
+package com.savantlabs.adapters.helpers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.savantlabs.adapters.model.IssueMapper;
+import com.savantlabs.adapters.model.IssuePage;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+
+/**
+ * Reads GitHub list-issues responses straight from the response stream into an {@link IssuePage}, so no
+ * {@code JsonNode} tree is built for the large parts of each issue that are never synced.
+ */
+public class IssuePageHttpMessageConverter extends AbstractHttpMessageConverter<IssuePage> {
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public IssuePageHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return IssuePage.class.equals(clazz);
+    }
+
+    @Override
+    protected IssuePage readInternal(Class<? extends IssuePage> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(inputMessage.getBody())) {
+            return IssueMapper.readPage(parser);
+        }
+    }
+
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(IssuePage issuePage, HttpOutputMessage outputMessage)
+            throws HttpMessageNotWritableException {
+        throw new HttpMessageNotWritableException("IssuePage is read-only");
+    }
+}
@@ -0,0 +1,240 @@
+package com.savantlabs.adapters.helpers;
+
+import com.savantlabs.adapters.model.Issue;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the issues of recently queried repositories in memory, indexed by state and {@code createdAt}, so repeated
+ * queries of a hot repository do not read Firestore again. The repositories are LRU-bounded, and a repository with
+ * more than {@code firestore.query-cache.max-issues-per-repository} issues is not cached at all; it is remembered as
+ * oversized instead, so its queries go to Firestore with their filters rather than loading it again. Its size is
+ * checked with {@link #admits} before it is loaded, so not even its first query reads every issue.
+ * <p>
+ * Issues written to Firestore by this process update the cached repositories in place. Documents changed outside
+ * of it are only seen once their repository is evicted and loaded again.
+ */
+@Component
+public class IssueQueryCache implements MeterBinder {
+    // newest first; ids only break ties between issues created in the same instant
+    private static final Comparator<Issue> NEWEST_FIRST = Comparator.comparing((Issue issue) -> issue.createdAt)
+            .thenComparing(issue -> issue.id)
+            .reversed();
+    private static final int VERSION_STRIPES = 64;
+
+    private final boolean enabled;
+    private final int maxIssuesPerRepository;
+    private final LruCache<String, RepositoryIssues> repositories;
+    private final LruCache<String, Boolean> oversized;
+    // bumped by every write to a repository hashing to the stripe, so a load that overlapped a write is not cached
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public IssueQueryCache(@Value("${firestore.query-cache.enabled}") boolean enabled,
+                           @Value("${firestore.query-cache.max-repositories}") int maxRepositories,
+                           @Value("${firestore.query-cache.max-issues-per-repository}") int maxIssuesPerRepository) {
+        this.enabled = enabled;
+        this.maxIssuesPerRepository = maxIssuesPerRepository;
+        this.repositories = new LruCache<>(maxRepositories);
+        this.oversized = new LruCache<>(maxRepositories);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("firestore.query-cache.requests", hits, AtomicLong::get)
+                .description("Issue queries answered from memory (hit) or from Firestore (miss)")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("firestore.query-cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("firestore.query-cache.size", repositories, LruCache::size).register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the cached issues of a repository, or empty if it has to be loaded from Firestore
+     */
+    public Optional<RepositoryIssues> get(String owner, String repo) {
+        RepositoryIssues issues = enabled ? repositories.get(repositoryKey(owner, repo)) : null;
+        (issues == null ? misses : hits).incrementAndGet();
+        return Optional.ofNullable(issues);
+    }
+
+    /**
+     * @return whether the repository has too many issues to be cached
+     */
+    public boolean isOversized(String owner, String repo) {
+        return enabled && oversized.get(repositoryKey(owner, repo)) != null;
+    }
+
+    /**
+     * Checks the size of a repository before it is loaded, remembering it as oversized if it is too large to cache.
+     *
+     * @return whether a repository of {@code issues} issues may be loaded into the cache
+     */
+    public boolean admits(String owner, String repo, long issues) {
+        if (!enabled) return false;
+        if (issues <= maxIssuesPerRepository) return true;
+        oversized.put(repositoryKey(owner, repo), Boolean.TRUE);
+        return false;
+    }
+
+    /**
+     * Marks the start of loading a repository from Firestore.
+     *
+     * @return the token to hand to {@link #put} once the load finished
+     */
+    public long beginLoad(String owner, String repo) {
+        return versions.get(stripe(repositoryKey(owner, repo)));
+    }
+
+    /**
+     * Caches every issue of a repository, as read from Firestore, unless a write to it may have been missed by the
+     * load that started with {@code token}.
+     *
+     * @return the indexed issues, cached or not
+     */
+    public RepositoryIssues put(String owner, String repo, Collection<Issue> issues, long token) {
+        RepositoryIssues repositoryIssues = new RepositoryIssues();
+        repositoryIssues.putAll(issues);
+        String key = repositoryKey(owner, repo);
+        if (!enabled) return repositoryIssues;
+        if (issues.size() > maxIssuesPerRepository) {
+            oversized.put(key, Boolean.TRUE);
+            return repositoryIssues;
+        }
+        synchronized (this) {
+            if (versions.get(stripe(key)) == token) {
+                repositories.put(key, repositoryIssues);
+            }
+        }
+        return repositoryIssues;
+    }
+
+    /**
+     * Updates the cached repositories of issues that were stored in Firestore.
+     */
+    public void update(Collection<Issue> issues) {
+        if (!enabled || issues.isEmpty()) return;
+        Map<String, List<Issue>> byRepository = new HashMap<>();
+        for (Issue issue : issues) {
+            byRepository.computeIfAbsent(repositoryKey(issue.owner, issue.repo), key -> new ArrayList<>()).add(issue);
+        }
+        synchronized (this) {
+            byRepository.forEach((key, written) -> {
+                versions.incrementAndGet(stripe(key));
+                RepositoryIssues cached = repositories.get(key);
+                if (cached == null) return;
+                cached.putAll(written);
+                if (cached.size() > maxIssuesPerRepository) {
+                    repositories.remove(key);
+                    oversized.put(key, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    private static int stripe(String key) {
+        return Math.floorMod(key.hashCode(), VERSION_STRIPES);
+    }
+
+    private static String repositoryKey(String owner, String repo) {
+        // owner and repository names cannot contain ':', so the pair maps to exactly one key; GitHub names are
+        // case-insensitive
+        return (owner + ":" + repo).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Issues of one repository, indexed by id, and by {@code createdAt} both overall and per state.
+     */
+    public static class RepositoryIssues {
+        private final Map<String, Issue> byId = new HashMap<>();
+        private final NavigableSet<Issue> all = new TreeSet<>(NEWEST_FIRST);
+        private final Map<String, NavigableSet<Issue>> byState = new HashMap<>();
+
+        /**
+         * Finds the issues matching every given filter, newest first, like {@link IssueSnapshot#query}.
+         */
+        public synchronized IssueSnapshot.QueryResult query(String state, Instant createdFrom, Instant createdTo,
+                                                            int limit) {
+            NavigableSet<Issue> issues = state == null ? all : byState.getOrDefault(state, new TreeSet<>(NEWEST_FIRST));
+            if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+                return new IssueSnapshot.QueryResult(0, List.of());
+            }
+            // an empty id sorts after every issue created in the same instant
+            if (createdTo != null) issues = issues.tailSet(probe(createdTo), false);
+            if (createdFrom != null) issues = issues.headSet(probe(createdFrom), false);
+
+            List<Issue> page = new ArrayList<>(Math.min(limit, issues.size()));
+            for (Issue issue : issues) {
+                if (page.size() == limit) break;
+                page.add(issue);
+            }
+            return new IssueSnapshot.QueryResult(issues.size(), page);
+        }
+
+        public synchronized int size() {
+            return byId.size();
+        }
+
+        private synchronized void putAll(Collection<Issue> issues) {
+            for (Issue issue : issues) {
+                Issue copy = copy(issue);
+                Issue previous = byId.put(copy.id, copy);
+                if (previous != null) {
+                    all.remove(previous);
+                    NavigableSet<Issue> previousState = byState.get(previous.state);
+                    previousState.remove(previous);
+                    if (previousState.isEmpty()) byState.remove(previous.state);
+                }
+                all.add(copy);
+                byState.computeIfAbsent(copy.state, state -> new TreeSet<>(NEWEST_FIRST)).add(copy);
+            }
+        }
+
+        private static Issue probe(Instant createdAt) {
+            Issue probe = new Issue();
+            probe.id = "";
+            probe.createdAt = createdAt;
+            return probe;
+        }
+
+        // the caller may keep modifying the issues it wrote, e.g. setting syncedAt on the next sync
+        private static Issue copy(Issue issue) {
+            Issue copy = new Issue();
+            copy.id = issue.id;
+            copy.owner = issue.owner;
+            copy.repo = issue.repo;
+            copy.title = issue.title;
+            copy.state = issue.state;
+            copy.htmlUrl = issue.htmlUrl;
+            copy.createdAt = issue.createdAt;
+            copy.updatedAt = issue.updatedAt;
+            copy.syncedAt = issue.syncedAt;
+            return copy;
+        }
+    }
+}
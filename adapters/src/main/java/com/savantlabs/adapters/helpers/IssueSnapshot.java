@@ -0,0 +1,377 @@
+package com.savantlabs.adapters.helpers;
+
+import com.savantlabs.adapters.model.Issue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only, memory-mapped columnar snapshot of the issues of one repository.
+ * <p>
+ * Rows are sorted by {@code createdAt}, oldest first, and every field is stored as its own column, so a query
+ * only reads the columns it filters on and decodes the other columns of the rows it returns:
+ * <ul>
+ *   <li>{@code id}: 8-byte longs.</li>
+ *   <li>{@code state}, {@code owner}, {@code repo}: 2-byte codes into one dictionary of distinct strings.</li>
+ *   <li>{@code createdAt}: epoch seconds, each as the varint delta from the row before; {@code updatedAt}: varint
+ *   seconds after {@code createdAt}.</li>
+ *   <li>{@code title}, {@code htmlUrl}: UTF-8 data with an int offset per row.</li>
+ *   <li>blocks: per {@value #BLOCK_ROWS} rows, the {@code createdAt} of the row before the block and the positions
+ *   of the block in both timestamp columns, so a query starts decoding at the block its range begins in.</li>
+ * </ul>
+ * Timestamps keep the second precision GitHub returns; {@code syncedAt} is not stored.
+ * <p>
+ * File layout: {@code [magic][version][rows][dictionary size]([short length][UTF-8])*[column offsets]} followed by
+ * the columns in the order above, all big-endian.
+ */
+public class IssueSnapshot {
+    private static final int MAGIC = 0x49534E50; // "ISNP"
+    private static final int VERSION = 2;
+    private static final short NULL_CODE = -1;
+    private static final int BLOCK_ROWS = 256;
+    private static final int BLOCK_BYTES = Long.BYTES + 2 * Integer.BYTES;
+    private static final int COLUMN_COUNT = 10;
+    private static final int ID = 0;
+    private static final int STATE = 1;
+    private static final int OWNER = 2;
+    private static final int REPO = 3;
+    private static final int CREATED_AT = 4;
+    private static final int UPDATED_AT = 5;
+    private static final int TITLE = 6;
+    private static final int HTML_URL = 7;
+    private static final int BLOCKS = 8;
+    private static final int END = 9;
+
+    private final ByteBuffer buffer;
+    private final int rows;
+    private final String[] dictionary;
+    private final int[] columns = new int[COLUMN_COUNT];
+
+    private IssueSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not an issue snapshot of version " + VERSION);
+        }
+        this.rows = buffer.getInt(8);
+        ByteBuffer header = buffer.duplicate().position(12);
+        this.dictionary = new String[header.getInt()];
+        for (int code = 0; code < dictionary.length; code++) {
+            byte[] value = new byte[header.getShort()];
+            header.get(value);
+            dictionary[code] = new String(value, StandardCharsets.UTF_8);
+        }
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            columns[column] = header.getInt();
+        }
+    }
+
+    /**
+     * Maps a snapshot file; the mapping stays valid after the file is replaced.
+     */
+    public static IssueSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new IssueSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes {@code issues} as a snapshot, replacing {@code file} atomically. Issues without an id or
+     * {@code createdAt} have no place in the sorted columns and are left out.
+     */
+    public static void write(Path file, Collection<Issue> issues) throws IOException {
+        List<Issue> sorted = new ArrayList<>(issues.size());
+        for (Issue issue : issues) {
+            if (issue.id != null && issue.createdAt != null) sorted.add(issue);
+        }
+        sorted.sort(Comparator.comparing((Issue issue) -> issue.createdAt.getEpochSecond())
+                .thenComparing(issue -> Long.parseLong(issue.id)));
+
+        Map<String, Short> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        ByteArrayOutputStream[] columnBytes = new ByteArrayOutputStream[END];
+        DataOutputStream[] columnData = new DataOutputStream[END];
+        for (int column = 0; column < END; column++) {
+            columnBytes[column] = new ByteArrayOutputStream();
+            columnData[column] = new DataOutputStream(columnBytes[column]);
+        }
+        ByteArrayOutputStream titles = new ByteArrayOutputStream();
+        ByteArrayOutputStream htmlUrls = new ByteArrayOutputStream();
+
+        long previousCreatedAt = 0;
+        for (int row = 0; row < sorted.size(); row++) {
+            Issue issue = sorted.get(row);
+            if (row % BLOCK_ROWS == 0) {
+                columnData[BLOCKS].writeLong(previousCreatedAt);
+                columnData[BLOCKS].writeInt(columnBytes[CREATED_AT].size());
+                columnData[BLOCKS].writeInt(columnBytes[UPDATED_AT].size());
+            }
+            columnData[ID].writeLong(Long.parseLong(issue.id));
+            columnData[STATE].writeShort(code(issue.state, codes, dictionary));
+            columnData[OWNER].writeShort(code(issue.owner, codes, dictionary));
+            columnData[REPO].writeShort(code(issue.repo, codes, dictionary));
+            long createdAt = issue.createdAt.getEpochSecond();
+            writeVarLong(columnData[CREATED_AT], createdAt - previousCreatedAt);
+            previousCreatedAt = createdAt;
+            long updatedAt = issue.updatedAt == null ? createdAt : issue.updatedAt.getEpochSecond();
+            writeVarLong(columnData[UPDATED_AT], Math.max(0, updatedAt - createdAt));
+            columnData[TITLE].writeInt(titles.size());
+            titles.writeBytes(utf8(issue.title));
+            columnData[HTML_URL].writeInt(htmlUrls.size());
+            htmlUrls.writeBytes(utf8(issue.htmlUrl));
+        }
+        // one offset past the last row, so row i spans offsets i and i + 1
+        columnData[TITLE].writeInt(titles.size());
+        columnData[HTML_URL].writeInt(htmlUrls.size());
+        titles.writeTo(columnData[TITLE]);
+        htmlUrls.writeTo(columnData[HTML_URL]);
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerData = new DataOutputStream(header);
+        headerData.writeInt(MAGIC);
+        headerData.writeInt(VERSION);
+        headerData.writeInt(sorted.size());
+        headerData.writeInt(dictionary.size());
+        for (String value : dictionary) {
+            byte[] bytes = utf8(value);
+            headerData.writeShort(bytes.length);
+            headerData.write(bytes);
+        }
+        int offset = header.size() + COLUMN_COUNT * Integer.BYTES;
+        for (int column = 0; column < END; column++) {
+            headerData.writeInt(offset);
+            offset += columnBytes[column].size();
+        }
+        headerData.writeInt(offset);
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(header.toByteArray()));
+            for (ByteArrayOutputStream column : columnBytes) {
+                channel.write(ByteBuffer.wrap(column.toByteArray()));
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * Finds the issues matching every given filter, newest first.
+     *
+     * @param state       issue state, or null for any
+     * @param createdFrom lower bound of {@code createdAt}, inclusive, or null
+     * @param createdTo   upper bound of {@code createdAt}, exclusive, or null
+     * @param limit       maximum number of issues to return
+     */
+    public QueryResult query(String state, Instant createdFrom, Instant createdTo, int limit) {
+        List<Match> matches = new ArrayList<>();
+        collect(state, createdFrom, createdTo, Set.of(), matches);
+        return QueryResult.of(matches, limit);
+    }
+
+    /**
+     * Adds the rows matching every given filter to {@code matches}, oldest first, leaving out the issues whose id
+     * is in {@code shadowed}.
+     */
+    void collect(String state, Instant createdFrom, Instant createdTo, Set<Long> shadowed, List<Match> matches) {
+        int stateCode = state == null ? NULL_CODE : indexOf(state);
+        if (state != null && stateCode == NULL_CODE) return;
+
+        // createdAt is sorted, so the scan starts at the block the range begins in and stops at its end
+        long from = createdFrom == null ? Long.MIN_VALUE : createdFrom.getEpochSecond();
+        long to = createdTo == null ? Long.MAX_VALUE : createdTo.getEpochSecond();
+        int block = firstBlock(from);
+        Timestamps timestamps = new Timestamps(block);
+        for (int row = block * BLOCK_ROWS; row < rows; row++) {
+            timestamps.next();
+            if (timestamps.createdAt < from) continue;
+            if (timestamps.createdAt >= to) break;
+            if (state != null && buffer.getShort(columns[STATE] + row * Short.BYTES) != stateCode) continue;
+            long id = id(row);
+            if (!shadowed.isEmpty() && shadowed.contains(id)) continue;
+            matches.add(new Match(this, row, id, timestamps.createdAt, timestamps.updatedAt));
+        }
+    }
+
+    /**
+     * @return the ids of every row
+     */
+    Set<Long> ids() {
+        Set<Long> ids = new HashSet<>(rows * 2);
+        for (int row = 0; row < rows; row++) {
+            ids.add(id(row));
+        }
+        return ids;
+    }
+
+    /**
+     * @return the last block whose rows before it were all created before {@code from}
+     */
+    private int firstBlock(long from) {
+        int low = 0;
+        int high = (rows + BLOCK_ROWS - 1) / BLOCK_ROWS - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (buffer.getLong(columns[BLOCKS] + middle * BLOCK_BYTES) < from) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return Math.max(low, 0);
+    }
+
+    /**
+     * @return every issue of the snapshot, oldest first
+     */
+    public List<Issue> readAll() {
+        List<Issue> issues = new ArrayList<>(rows);
+        Timestamps timestamps = new Timestamps(0);
+        for (int row = 0; row < rows; row++) {
+            timestamps.next();
+            issues.add(row(row, timestamps.createdAt, timestamps.updatedAt));
+        }
+        return issues;
+    }
+
+    private long id(int row) {
+        return buffer.getLong(columns[ID] + row * Long.BYTES);
+    }
+
+    private Issue row(int row, long createdAt, long updatedAt) {
+        Issue issue = new Issue();
+        issue.id = String.valueOf(id(row));
+        issue.state = string(buffer.getShort(columns[STATE] + row * Short.BYTES));
+        issue.owner = string(buffer.getShort(columns[OWNER] + row * Short.BYTES));
+        issue.repo = string(buffer.getShort(columns[REPO] + row * Short.BYTES));
+        issue.title = utf8(TITLE, row);
+        issue.htmlUrl = utf8(HTML_URL, row);
+        issue.createdAt = Instant.ofEpochSecond(createdAt);
+        issue.updatedAt = Instant.ofEpochSecond(updatedAt);
+        return issue;
+    }
+
+    private String utf8(int column, int row) {
+        int offsets = columns[column];
+        int start = buffer.getInt(offsets + row * Integer.BYTES);
+        int end = buffer.getInt(offsets + (row + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(offsets + (rows + 1) * Integer.BYTES + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String string(short code) {
+        return code == NULL_CODE ? null : dictionary[code];
+    }
+
+    private int indexOf(String value) {
+        for (int code = 0; code < dictionary.length; code++) {
+            if (dictionary[code].equals(value)) return code;
+        }
+        return NULL_CODE;
+    }
+
+    private static short code(String value, Map<String, Short> codes, List<String> dictionary) {
+        if (value == null) return NULL_CODE;
+        return codes.computeIfAbsent(value, key -> {
+            if (dictionary.size() == Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many distinct values for the snapshot dictionary");
+            }
+            dictionary.add(key);
+            return (short) (dictionary.size() - 1);
+        });
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes the varint timestamp columns row by row from the start of a block; a row's values depend on every row
+     * before it.
+     */
+    private class Timestamps {
+        private int createdPosition;
+        private int updatedPosition;
+        private long createdAt;
+        private long updatedAt;
+
+        private Timestamps(int block) {
+            int entry = columns[BLOCKS] + block * BLOCK_BYTES;
+            createdAt = rows == 0 ? 0 : buffer.getLong(entry);
+            createdPosition = columns[CREATED_AT] + (rows == 0 ? 0 : buffer.getInt(entry + Long.BYTES));
+            updatedPosition = columns[UPDATED_AT] + (rows == 0 ? 0 : buffer.getInt(entry + Long.BYTES + Integer.BYTES));
+        }
+
+        private void next() {
+            long createdDelta = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buffer.get(createdPosition++);
+                createdDelta |= (long) (b & 0x7F) << shift;
+                if (b >= 0) break;
+            }
+            long updatedDelta = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buffer.get(updatedPosition++);
+                updatedDelta |= (long) (b & 0x7F) << shift;
+                if (b >= 0) break;
+            }
+            createdAt += createdDelta;
+            updatedAt = createdAt + updatedDelta;
+        }
+    }
+
+    /**
+     * A row matching a query, decoded into an issue only if it makes the limit.
+     */
+    record Match(IssueSnapshot snapshot, int row, long id, long createdAt, long updatedAt) {
+        private Issue issue() {
+            return snapshot.row(row, createdAt, updatedAt);
+        }
+    }
+
+    /**
+     * Issues returned by a query, and how many issues matched before the limit was applied.
+     */
+    public record QueryResult(int matched, List<Issue> issues) {
+        /**
+         * @param matches matching rows, oldest first
+         */
+        static QueryResult of(List<Match> matches, int limit) {
+            List<Issue> issues = new ArrayList<>(Math.min(limit, matches.size()));
+            for (int index = matches.size() - 1; index >= 0 && issues.size() < limit; index--) {
+                issues.add(matches.get(index).issue());
+            }
+            return new QueryResult(matches.size(), issues);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.savantlabs.adapters.helpers;
+
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.model.Issue;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a {@link RepositorySnapshot} of the synced issues of every repository under
+ * {@code sync.snapshot.directory}, so issues can be read without Firestore document reads.
+ * <p>
+ * Issues stored in Firestore are recorded here and flushed by a background thread
+ * {@code sync.snapshot.flush-delay-ms} later, so a burst of pages is flushed once instead of once per page. A flush
+ * writes the recorded issues of a repository as a new delta snapshot next to its base snapshot, which costs as much
+ * as the issues recorded rather than the whole repository. Once a repository has
+ * {@code sync.snapshot.compact-after-deltas} deltas, or its deltas hold more rows than its base, they are compacted
+ * into a new base that atomically replaces the old one. Readers always see whole files.
+ */
+@Component
+public class IssueSnapshotStore {
+    private static final Logger log = LoggerFactory.getLogger(IssueSnapshotStore.class);
+
+    // GitHub owner and repository names; also keeps them from escaping the snapshot directory
+    private static final Pattern NAME = Pattern.compile("(?!\\.+$)[A-Za-z0-9_.-]+");
+    private static final String SUFFIX = ".snapshot";
+    private static final String DELTAS_SUFFIX = ".deltas";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long flushDelayMillis;
+    private final int compactAfterDeltas;
+    private final ScheduledExecutorService flusher;
+    // issues recorded since the last merge, by repository key and issue id
+    private Map<String, Map<String, Issue>> pending = new HashMap<>();
+    private final Map<String, RepositorySnapshot> snapshots = new ConcurrentHashMap<>();
+    // merges write and reopen snapshot files, so they must not interleave
+    private final Object mergeLock = new Object();
+
+    public IssueSnapshotStore(@Value("${sync.snapshot.enabled}") boolean enabled,
+                              @Value("${sync.snapshot.directory}") String directory,
+                              @Value("${sync.snapshot.flush-delay-ms}") long flushDelayMillis,
+                              @Value("${sync.snapshot.compact-after-deltas}") int compactAfterDeltas) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.flushDelayMillis = flushDelayMillis;
+        this.compactAfterDeltas = compactAfterDeltas;
+        this.flusher = enabled
+                ? Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("issue-snapshot-"))
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Merges the pending issues into their snapshots before shutting down.
+     */
+    @PreDestroy
+    public void close() {
+        if (!enabled) return;
+        flusher.shutdown();
+        flush();
+    }
+
+    /**
+     * Records issues that were stored in Firestore, to be merged into their snapshots shortly.
+     */
+    public void record(Collection<Issue> issues) {
+        if (!enabled || issues.isEmpty()) return;
+        synchronized (this) {
+            boolean wasEmpty = pending.isEmpty();
+            for (Issue issue : issues) {
+                pending.computeIfAbsent(repositoryKey(issue.owner, issue.repo), key -> new LinkedHashMap<>())
+                        .put(issue.id, issue);
+            }
+            if (wasEmpty) {
+                flusher.schedule(this::flush, flushDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * @return the snapshot of a repository, or empty if none of its issues were synced yet
+     * @throws CustomException with 400 Bad Request for names GitHub would not accept
+     */
+    public Optional<RepositorySnapshot> get(String owner, String repo) {
+        if (!NAME.matcher(owner).matches() || !NAME.matcher(repo).matches()) {
+            throw new CustomException(HttpStatus.BAD_REQUEST, "Invalid owner or repository name");
+        }
+        if (!enabled) return Optional.empty();
+        String key = repositoryKey(owner, repo);
+        RepositorySnapshot snapshot = snapshots.get(key);
+        if (snapshot != null) return Optional.of(snapshot);
+
+        try {
+            // a concurrent merge may have opened a newer snapshot in the meantime
+            synchronized (mergeLock) {
+                snapshot = snapshots.get(key);
+                if (snapshot == null) {
+                    snapshot = load(key);
+                    if (snapshot != null) snapshots.put(key, snapshot);
+                }
+            }
+            return Optional.ofNullable(snapshot);
+        } catch (IOException ex) {
+            log.error("Failed to read issue snapshot {}: {}", file(key), ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Merges every pending issue into its repository's snapshot now.
+     */
+    public void flush() {
+        Map<String, Map<String, Issue>> repositories;
+        synchronized (this) {
+            repositories = pending;
+            pending = new HashMap<>();
+        }
+        repositories.forEach(this::merge);
+    }
+
+    private void merge(String key, Map<String, Issue> issues) {
+        Path file = file(key);
+        synchronized (mergeLock) {
+            try {
+                Path deltas = deltaDirectory(key);
+                Files.createDirectories(deltas);
+                List<Long> sequences = deltaSequences(deltas);
+                long sequence = sequences.isEmpty() ? 1 : sequences.get(sequences.size() - 1) + 1;
+                Path delta = deltas.resolve(String.format("%016d%s", sequence, SUFFIX));
+                IssueSnapshot.write(delta, issues.values());
+
+                RepositorySnapshot merged = load(key);
+                if (merged.deltaCount() >= compactAfterDeltas || merged.deltaRows() > merged.baseRows()) {
+                    compact(file, deltas, merged);
+                    merged = load(key);
+                }
+                snapshots.put(key, merged);
+                log.debug("Merged {} issues into snapshot {}", issues.size(), file);
+            } catch (IOException | RuntimeException ex) {
+                // the issues are recorded again the next time they are synced
+                log.error("Failed to update issue snapshot {}: {}", file, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rewrites the base snapshot with the newest version of every issue and deletes the deltas it took in.
+     */
+    private void compact(Path file, Path deltas, RepositorySnapshot snapshot) throws IOException {
+        List<Long> sequences = deltaSequences(deltas);
+        List<Issue> issues = snapshot.readAll();
+        IssueSnapshot.write(file, issues);
+        // a crash before the deltas are gone applies them to the new base once more, which changes nothing
+        for (long sequence : sequences) {
+            Files.deleteIfExists(deltas.resolve(String.format("%016d%s", sequence, SUFFIX)));
+        }
+        log.debug("Compacted {} deltas into snapshot {} ({} issues)", sequences.size(), file, issues.size());
+    }
+
+    /**
+     * @return the snapshot on disk, or null if the repository has none
+     */
+    private RepositorySnapshot load(String key) throws IOException {
+        Path file = file(key);
+        Path deltas = deltaDirectory(key);
+        List<IssueSnapshot> deltaSnapshots = new ArrayList<>();
+        if (Files.isDirectory(deltas)) {
+            for (long sequence : deltaSequences(deltas)) {
+                deltaSnapshots.add(IssueSnapshot.open(deltas.resolve(String.format("%016d%s", sequence, SUFFIX))));
+            }
+        }
+        IssueSnapshot base = null;
+        if (Files.exists(file)) {
+            try {
+                base = IssueSnapshot.open(file);
+            } catch (IOException ex) {
+                // e.g. written by an older version; the next compaction replaces it
+                log.warn("Ignoring issue snapshot {}: {}", file, ex.getMessage());
+            }
+        }
+        if (base == null && deltaSnapshots.isEmpty()) return null;
+        return new RepositorySnapshot(base, deltaSnapshots);
+    }
+
+    private static List<Long> deltaSequences(Path deltas) throws IOException {
+        try (Stream<Path> files = Files.list(deltas)) {
+            return files.map(delta -> delta.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path deltaDirectory(String key) {
+        int separator = key.indexOf('/');
+        return directory.resolve(key.substring(0, separator)).resolve(key.substring(separator + 1) + DELTAS_SUFFIX);
+    }
+
+    private Path file(String key) {
+        int separator = key.indexOf('/');
+        return directory.resolve(key.substring(0, separator)).resolve(key.substring(separator + 1) + SUFFIX);
+    }
+
+    private static String repositoryKey(String owner, String repo) {
+        // GitHub owner and repository names are case-insensitive
+        return (owner + "/" + repo).toLowerCase(Locale.ROOT);
+    }
+}
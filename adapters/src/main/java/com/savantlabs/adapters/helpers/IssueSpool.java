@@ -0,0 +1,654 @@
+package com.savantlabs.adapters.helpers;
+
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.UpsertResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable write-ahead spool between fetching issues from GitHub and writing them to Firestore.
+ * <p>
+ * Fetched pages are appended to memory-mapped segment files of {@code sync.spool.segment-size-kb} and flushed to
+ * disk before {@link #append} returns. A background drainer writes the pages to Firestore and persists the position
+ * of the oldest page it has not written yet. After a restart the drainer resumes from that position, so pages fetched
+ * before a Firestore outage or a crash are written without being fetched again.
+ * <p>
+ * A page that fails to write is set aside and retried with growing pauses, together with the later pages of the same
+ * repository, which keeps the pages of one repository in order without holding up the others. After
+ * {@code sync.spool.max-attempts} attempts its future completes with the failures, but the page stays in the spool
+ * and is retried until it is written.
+ * <p>
+ * Pages are delivered at least once: a page whose write was interrupted is written again. Within one process the
+ * content hash check of {@link FirestoreClient#upsertAll} turns that into skips; after a restart the hashes are gone
+ * and the page is merged into Firestore again. If the drainer itself fails, for example on a disk error, it fails the
+ * futures of the pages in flight and starts over from the persisted position.
+ * <p>
+ * Record layout: {@code [int length][int crc32][payload]}; a zero length marks the end of the written part of a
+ * segment, which is preallocated with zeros. A record with a bad checksum (a torn write) ends the segment too.
+ * <p>
+ * The spool is off unless {@code sync.spool.enabled} is set, and then needs an absolute {@code sync.spool.directory}
+ * that outlives the process.
+ */
+@Component
+public class IssueSpool implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(IssueSpool.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String OFFSET_FILE = "drained.offset";
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_BACKOFF_MULTIPLIER = 64;
+    // sun.misc.Unsafe#invokeCleaner bound to the Unsafe instance, or null if this JVM does not offer it
+    private static final MethodHandle UNMAP = unmapHandle();
+
+    private final FirestoreClient firestoreClient;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    // guarded by this
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private final Map<SpoolPosition, CompletableFuture<UpsertResult>> pendingPages = new HashMap<>();
+    // pages set aside after a failed write, by repository, oldest first
+    private final Map<String, ArrayDeque<DrainingPage>> retrying = new HashMap<>();
+    // the newest page appended per repository until it is written, and who waits for that
+    private final Map<String, SpoolPosition> lastAppended = new HashMap<>();
+    private final Map<String, List<CompletableFuture<Void>>> drainWaiters = new HashMap<>();
+    private long writeSegment;
+    private int writeOffset;
+    // oldest position not written yet; persisted, and the drainer resumes from here after a restart
+    private SpoolPosition drained;
+    // position of the next page the drainer reads
+    private SpoolPosition next;
+    private boolean closed;
+
+    private Thread drainer;
+
+    public IssueSpool(FirestoreClient firestoreClient,
+                      @Value("${sync.spool.enabled}") boolean enabled,
+                      @Value("${sync.spool.directory}") String directory,
+                      @Value("${sync.spool.segment-size-kb}") int segmentSizeKb,
+                      @Value("${sync.spool.max-attempts}") int maxAttempts,
+                      @Value("${sync.spool.retry-backoff-ms}") long retryBackoffMs) throws IOException {
+        this.firestoreClient = firestoreClient;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        if (enabled && !this.directory.isAbsolute()) {
+            throw new IllegalStateException("sync.spool.directory must be an absolute path, not '" + directory + "'");
+        }
+        this.segmentSize = segmentSizeKb * 1024;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        if (enabled) {
+            recover();
+            drainer = new DaemonThreadFactory("issue-spool-drainer-").newThread(this::drain);
+            drainer.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) return;
+        Gauge.builder("sync.spool.backlog", this, IssueSpool::getBacklogBytes)
+                .description("Spooled pages not yet written to Firestore")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("sync.spool.retrying", this, IssueSpool::getRetryingPages)
+                .description("Spooled pages set aside after a failed write")
+                .register(registry);
+    }
+
+    /**
+     * Appends a page of issues and flushes it to disk.
+     *
+     * @return completes with the outcome of the Firestore writes once the drainer has written the page, or with the
+     * failures once it has tried {@code sync.spool.max-attempts} times; completes exceptionally if the drainer fails
+     * and starts over, and never completes if the process stops first. In every case a page not written yet stays
+     * in the spool and is written later.
+     */
+    public synchronized CompletableFuture<UpsertResult> append(List<Issue> page) {
+        if (!enabled || closed) throw new IllegalStateException("Issue spool is not running");
+        byte[] payload = encode(page);
+        int recordSize = RECORD_HEADER_BYTES + payload.length;
+        // leave room for the zero length that ends the segment
+        if (recordSize + Integer.BYTES > segmentSize) {
+            throw new IllegalArgumentException("Page of " + recordSize + " bytes does not fit in a spool segment");
+        }
+        if (writeOffset + recordSize + Integer.BYTES > segmentSize) {
+            try {
+                segments.put(writeSegment + 1, map(writeSegment + 1));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not create spool segment", ex);
+            }
+            writeSegment++;
+            writeOffset = 0;
+        }
+
+        MappedByteBuffer segment = segments.get(writeSegment);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        // write the payload before the length, so a crash in between leaves the record looking unwritten
+        segment.put(writeOffset + RECORD_HEADER_BYTES, payload);
+        segment.putInt(writeOffset + Integer.BYTES, (int) crc.getValue());
+        segment.putInt(writeOffset, payload.length);
+        segment.force(writeOffset, recordSize);
+
+        SpoolPosition position = new SpoolPosition(writeSegment, writeOffset);
+        lastAppended.put(page.isEmpty() ? "" : repositoryKey(page.get(0).owner, page.get(0).repo), position);
+        writeOffset += recordSize;
+        CompletableFuture<UpsertResult> written = new CompletableFuture<>();
+        pendingPages.put(position, written);
+        notifyAll();
+        return written;
+    }
+
+    /**
+     * @return completes once every page of the repository appended so far is written to Firestore; never completes
+     * if the process stops first
+     */
+    public synchronized CompletableFuture<Void> whenDrained(String owner, String repo) {
+        String repository = repositoryKey(owner, repo);
+        if (!lastAppended.containsKey(repository)) return CompletableFuture.completedFuture(null);
+        CompletableFuture<Void> drained = new CompletableFuture<>();
+        drainWaiters.computeIfAbsent(repository, key -> new ArrayList<>()).add(drained);
+        return drained;
+    }
+
+    /**
+     * @return number of bytes appended but not yet written to Firestore
+     */
+    public synchronized long getBacklogBytes() {
+        if (!enabled) return 0;
+        long backlog = 0;
+        for (long segment = drained.segment(); segment <= writeSegment; segment++) {
+            int from = segment == drained.segment() ? drained.offset() : 0;
+            int to = segment == writeSegment ? writeOffset : endOfRecords(segments.get(segment));
+            backlog += to - from;
+        }
+        return backlog;
+    }
+
+    /**
+     * @return number of pages set aside after a failed write, including the later pages of their repositories
+     */
+    public synchronized int getRetryingPages() {
+        return retrying.values().stream().mapToInt(ArrayDeque::size).sum();
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        Thread running;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            running = drainer;
+            notifyAll();
+        }
+        if (running != null) {
+            running.interrupt();
+            running.join();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            try {
+                drainUntilClosed();
+                return;
+            } catch (InterruptedException ex) {
+                // closing; the pages not written yet are written after the restart
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException ex) {
+                log.error("Issue spool drainer failed, starting over from {}: {}", drained, ex.getMessage(), ex);
+                if (!startOver(ex)) return;
+            }
+        }
+    }
+
+    private void drainUntilClosed() throws InterruptedException, IOException {
+        while (true) {
+            DrainingPage page;
+            List<Issue> issues;
+            synchronized (this) {
+                page = nextPage();
+                if (page == null) return;
+                issues = decode(readPayload(segments.get(page.position.segment()), page.position.offset()));
+            }
+
+            UpsertResult result = write(page, issues);
+
+            synchronized (this) {
+                settle(page, result);
+            }
+        }
+    }
+
+    /**
+     * Waits for the next page to write: a set-aside page whose pause is over, or else the next page in the spool.
+     * A page of a repository with set-aside pages queues up behind them.
+     *
+     * @return the page, or null once the spool is closed
+     */
+    private DrainingPage nextPage() throws InterruptedException, IOException {
+        while (!closed) {
+            long now = System.nanoTime();
+            long pauseNanos = Long.MAX_VALUE;
+            for (ArrayDeque<DrainingPage> queue : retrying.values()) {
+                DrainingPage head = queue.getFirst();
+                if (head.dueNanos - now <= 0) return head;
+                pauseNanos = Math.min(pauseNanos, head.dueNanos - now);
+            }
+            byte[] payload = readPayloadAt(next);
+            if (payload != null) {
+                DrainingPage page = new DrainingPage(next, repositoryOf(payload));
+                next = new SpoolPosition(next.segment(), next.offset() + RECORD_HEADER_BYTES + payload.length);
+                ArrayDeque<DrainingPage> queue = retrying.get(page.repository);
+                if (queue == null) return page;
+                queue.addLast(page);
+            } else if (next.segment() < writeSegment) {
+                next = new SpoolPosition(next.segment() + 1, 0);
+                release();
+            } else if (pauseNanos == Long.MAX_VALUE) {
+                wait();
+            } else {
+                TimeUnit.NANOSECONDS.timedWait(this, pauseNanos);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Makes one attempt at the issues of a page that are not written yet.
+     */
+    private UpsertResult write(DrainingPage page, List<Issue> issues) throws InterruptedException {
+        List<Issue> remaining = page.failures == null ? issues
+                : issues.stream().filter(issue -> page.failures.containsKey(issue.id)).toList();
+        try {
+            return firestoreClient.upsertAll(remaining);
+        } catch (RuntimeException ex) {
+            log.warn("Spooled page {} could not be written: {}", page.position, ex.getMessage());
+            UpsertResult result = new UpsertResult();
+            for (Issue issue : remaining) result.recordFailure(issue.id, ex.getMessage());
+            return result;
+        }
+    }
+
+    private void settle(DrainingPage page, UpsertResult result) throws IOException {
+        page.attempts++;
+        for (int i = 0; i < result.getWritten(); i++) page.total.recordWritten();
+        for (int i = 0; i < result.getSkipped(); i++) page.total.recordSkipped();
+        ArrayDeque<DrainingPage> queue = retrying.get(page.repository);
+
+        if (result.getFailed() == 0) {
+            complete(page.position, page.total);
+            // pages of a repository are written in append order, so this was the last one to wait for
+            if (lastAppended.remove(page.repository, page.position)) {
+                List<CompletableFuture<Void>> waiters = drainWaiters.remove(page.repository);
+                if (waiters != null) waiters.forEach(waiter -> waiter.complete(null));
+            }
+            if (queue != null) {
+                queue.removeFirst();
+                if (queue.isEmpty()) {
+                    retrying.remove(page.repository);
+                } else {
+                    // the next page of the repository was waiting behind this one
+                    queue.getFirst().dueNanos = System.nanoTime();
+                }
+            }
+            release();
+            return;
+        }
+
+        page.failures = result.getFailures();
+        if (page.attempts == maxAttempts) {
+            log.error("{} issues of spooled page {} still fail after {} attempts; retrying them in the background",
+                    result.getFailed(), page.position, page.attempts);
+            UpsertResult reported = new UpsertResult();
+            for (int i = 0; i < page.total.getWritten(); i++) reported.recordWritten();
+            for (int i = 0; i < page.total.getSkipped(); i++) reported.recordSkipped();
+            page.failures.forEach(reported::recordFailure);
+            complete(page.position, reported);
+        }
+        long backoffMs = retryBackoffMs * Math.min(MAX_BACKOFF_MULTIPLIER, 1L << Math.min(page.attempts - 1, 30));
+        page.dueNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs);
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            queue.add(page);
+            retrying.put(page.repository, queue);
+        }
+    }
+
+    private void complete(SpoolPosition position, UpsertResult result) {
+        CompletableFuture<UpsertResult> written = pendingPages.remove(position);
+        if (written != null) written.complete(result);
+    }
+
+    /**
+     * Persists the oldest position that still has a page to write, which lets go of the segments before it.
+     */
+    private void release() throws IOException {
+        SpoolPosition oldest = next;
+        for (ArrayDeque<DrainingPage> queue : retrying.values()) {
+            if (queue.getFirst().position.compareTo(oldest) < 0) oldest = queue.getFirst().position;
+        }
+        if (oldest.compareTo(drained) > 0) advanceTo(oldest);
+    }
+
+    /**
+     * Fails the futures of the pages in flight and rewinds to the persisted position after a pause.
+     *
+     * @return false if the spool was closed meanwhile
+     */
+    private boolean startOver(Exception cause) {
+        synchronized (this) {
+            pendingPages.values().forEach(written -> written.completeExceptionally(cause));
+            pendingPages.clear();
+            retrying.clear();
+            next = drained;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(retryBackoffMs * MAX_BACKOFF_MULTIPLIER);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        synchronized (this) {
+            return !closed;
+        }
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    long segment = Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(segment, map(segment));
+                }
+            }
+        }
+        drained = readDrainedPosition();
+        next = drained;
+        // segments before the drained position were fully written; they are normally deleted already
+        while (!segments.isEmpty() && segments.firstKey() < drained.segment()) {
+            deleteSegment(segments.pollFirstEntry());
+        }
+        if (segments.isEmpty()) {
+            segments.put(drained.segment(), map(drained.segment()));
+        }
+        writeSegment = segments.lastKey();
+        writeOffset = endOfRecords(segments.get(writeSegment));
+        // the pages left from before the restart are still to be written, so whenDrained waits for them too
+        SpoolPosition position = drained;
+        while (true) {
+            byte[] payload = readPayloadAt(position);
+            if (payload != null) {
+                lastAppended.put(repositoryOf(payload), position);
+                position = new SpoolPosition(position.segment(),
+                        position.offset() + RECORD_HEADER_BYTES + payload.length);
+            } else if (position.segment() < writeSegment) {
+                position = new SpoolPosition(position.segment() + 1, 0);
+            } else {
+                break;
+            }
+        }
+        if (writeSegment > drained.segment() || writeOffset > drained.offset()) {
+            log.info("Resuming issue spool at {}, {} bytes to write", drained, getBacklogBytes());
+        }
+    }
+
+    private void advanceTo(SpoolPosition position) throws IOException {
+        // persist the position first: a segment must not be deleted while a restart could still read it
+        Path tmp = directory.resolve(OFFSET_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(
+                    (position.segment() + " " + position.offset()).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(tmp, directory.resolve(OFFSET_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        drained = position;
+        while (segments.firstKey() < position.segment()) {
+            deleteSegment(segments.pollFirstEntry());
+        }
+    }
+
+    /**
+     * Deletes a segment that was removed from {@link #segments} and unmaps it, which nothing reads any more.
+     */
+    private void deleteSegment(Map.Entry<Long, MappedByteBuffer> segment) throws IOException {
+        Files.deleteIfExists(segmentFile(segment.getKey()));
+        // without this the mapping, and with it the disk space of the deleted file, lasts until the buffer is
+        // garbage collected
+        if (UNMAP != null) {
+            try {
+                UNMAP.invokeExact((ByteBuffer) segment.getValue());
+            } catch (Throwable ex) {
+                log.debug("Could not unmap spool segment {}: {}", segment.getKey(), ex.getMessage());
+            }
+        }
+    }
+
+    private SpoolPosition readDrainedPosition() throws IOException {
+        Path offsetFile = directory.resolve(OFFSET_FILE);
+        if (!Files.exists(offsetFile)) {
+            return new SpoolPosition(segments.isEmpty() ? 0 : segments.firstKey(), 0);
+        }
+        String[] parts = Files.readString(offsetFile, StandardCharsets.US_ASCII).trim().split(" ");
+        return new SpoolPosition(Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+    }
+
+    /**
+     * @return the payload of the record at {@code position}, or null if nothing has been appended there yet
+     */
+    private byte[] readPayloadAt(SpoolPosition position) {
+        if (position.segment() == writeSegment && position.offset() >= writeOffset) return null;
+        return readPayload(segments.get(position.segment()), position.offset());
+    }
+
+    private MappedByteBuffer map(long segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentFile(segment), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private Path segmentFile(long segment) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * @return offset just past the last intact record of a segment
+     */
+    private int endOfRecords(MappedByteBuffer segment) {
+        int offset = 0;
+        for (byte[] payload = readPayload(segment, offset); payload != null; payload = readPayload(segment, offset)) {
+            offset += RECORD_HEADER_BYTES + payload.length;
+        }
+        return offset;
+    }
+
+    /**
+     * @return the payload of the record at {@code offset}, or null if there is no intact record there
+     */
+    private byte[] readPayload(MappedByteBuffer segment, int offset) {
+        if (offset + RECORD_HEADER_BYTES > segment.capacity()) return null;
+        int length = segment.getInt(offset);
+        if (length <= 0 || offset + RECORD_HEADER_BYTES + length > segment.capacity()) return null;
+        byte[] payload = new byte[length];
+        segment.get(offset + RECORD_HEADER_BYTES, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == segment.getInt(offset + Integer.BYTES) ? payload : null;
+    }
+
+    private static MethodHandle unmapHandle() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            log.info("Spool segments are unmapped by the garbage collector: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] encode(List<Issue> page) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(page.size() * 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(page.size());
+            for (Issue issue : page) {
+                writeString(out, issue.id);
+                writeString(out, issue.owner);
+                writeString(out, issue.repo);
+                writeString(out, issue.title);
+                writeString(out, issue.state);
+                writeString(out, issue.htmlUrl);
+                writeInstant(out, issue.createdAt);
+                writeInstant(out, issue.updatedAt);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Issue> decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int count = in.readInt();
+            List<Issue> page = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Issue issue = new Issue();
+                issue.id = readString(in);
+                issue.owner = readString(in);
+                issue.repo = readString(in);
+                issue.title = readString(in);
+                issue.state = readString(in);
+                issue.htmlUrl = readString(in);
+                issue.createdAt = readInstant(in);
+                issue.updatedAt = readInstant(in);
+                page.add(issue);
+            }
+            return page;
+        }
+    }
+
+    /**
+     * @return {@code owner/repo} of the first issue of an encoded page, without decoding the rest
+     */
+    private static String repositoryOf(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            if (in.readInt() == 0) return "";
+            readString(in);
+            return repositoryKey(readString(in), readString(in));
+        }
+    }
+
+    private static String repositoryKey(String owner, String repo) {
+        return (owner + "/" + repo).toLowerCase(Locale.ROOT);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getEpochSecond());
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+    }
+
+    private record SpoolPosition(long segment, int offset) implements Comparable<SpoolPosition> {
+        @Override
+        public int compareTo(SpoolPosition other) {
+            return segment != other.segment ? Long.compare(segment, other.segment)
+                    : Integer.compare(offset, other.offset);
+        }
+
+        @Override
+        public String toString() {
+            return segment + ":" + offset;
+        }
+    }
+
+    /**
+     * A page the drainer is writing, with what its attempts so far achieved.
+     */
+    private static class DrainingPage {
+        private final SpoolPosition position;
+        private final String repository;
+        private final UpsertResult total = new UpsertResult();
+        // issues still to write after a failed attempt, null before the first attempt
+        private Map<String, String> failures;
+        private int attempts;
+        private long dueNanos;
+
+        private DrainingPage(SpoolPosition position, String repository) {
+            this.position = position;
+            this.repository = repository;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.savantlabs.adapters.helpers;
+
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.UpsertResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.ToLongFunction;
+
+/**
+ * Issues and incremental checkpoints of the {@code GIT_HUB_REPOSITORY_LOCAL_STORE} adapter, kept in a
+ * {@link LogStructuredStore} under {@code sync.local-store.directory}.
+ * <p>
+ * Issues are keyed by their id, so syncing an issue again overwrites it. Issues whose fields other than
+ * {@code syncedAt} did not change are skipped, like in {@link FirestoreClient#upsertAll}. The store is opened on
+ * first use, so instances that only sync to Firestore never create the directory.
+ */
+@Component
+public class LocalIssueStore implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(LocalIssueStore.class);
+
+    private static final String ISSUE_PREFIX = "issue:";
+    private static final String CHECKPOINT_PREFIX = "checkpoint:";
+    // syncedAt, appended to the encoded content: epoch seconds and nanos
+    private static final int SYNCED_AT_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final boolean fsync;
+    private final long maxBatchBytes;
+    private final long commitTimeoutMillis;
+    private volatile LogStructuredStore store;
+
+    public LocalIssueStore(@Value("${sync.local-store.directory}") String directory,
+                           @Value("${sync.local-store.segment-size-kb}") int segmentSizeKb,
+                           @Value("${sync.local-store.fsync}") boolean fsync,
+                           @Value("${sync.local-store.max-batch-kb}") int maxBatchKb,
+                           @Value("${sync.local-store.commit-timeout-ms}") long commitTimeoutMillis) {
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSizeKb * 1024L;
+        this.fsync = fsync;
+        this.maxBatchBytes = maxBatchKb * 1024L;
+        this.commitTimeoutMillis = commitTimeoutMillis;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("sync.local-store.commits", this, s -> s.stat(LogStructuredStore::getGroupCommits))
+                .description("Group commits to the local issue store")
+                .register(registry);
+        FunctionCounter.builder("sync.local-store.syncs", this, s -> s.stat(LogStructuredStore::getSyncs))
+                .description("Group commits forced to disk")
+                .register(registry);
+        Gauge.builder("sync.local-store.size", this, s -> s.stat(LogStructuredStore::getDiskBytes))
+                .description("Bytes in the segment files of the local issue store")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Writes the issues, sets their {@code syncedAt} and waits up to {@code sync.local-store.commit-timeout-ms} until
+     * they are committed together with the writes of concurrent syncs.
+     *
+     * @return number of written and skipped issues; if the commit fails or times out, every changed issue is a
+     * failure, even though a late commit may still store it
+     */
+    public UpsertResult upsertAll(Collection<Issue> issues) throws IOException, InterruptedException {
+        UpsertResult result = new UpsertResult();
+        if (issues.isEmpty()) return result;
+
+        LogStructuredStore opened = store();
+        Instant syncedAt = Instant.now();
+        Map<String, byte[]> changed = new LinkedHashMap<>();
+        for (Issue issue : issues) {
+            issue.syncedAt = syncedAt;
+            byte[] content = encode(issue);
+            byte[] stored = opened.get(ISSUE_PREFIX + issue.id);
+            if (stored != null && stored.length == content.length + SYNCED_AT_BYTES
+                    && Arrays.equals(stored, 0, content.length, content, 0, content.length)) {
+                result.recordSkipped();
+            } else if (changed.put(ISSUE_PREFIX + issue.id, withSyncedAt(content, syncedAt)) != null) {
+                // the same issue twice in one batch; only its last state is written
+                result.recordSkipped();
+            }
+        }
+
+        try {
+            opened.putAll(changed).get(commitTimeoutMillis, TimeUnit.MILLISECONDS);
+            changed.forEach((key, value) -> result.recordWritten());
+        } catch (ExecutionException | TimeoutException ex) {
+            String reason = ex instanceof TimeoutException ? "Commit timed out after " + commitTimeoutMillis + " ms"
+                    : String.valueOf((ex.getCause() == null ? ex : ex.getCause()).getMessage());
+            log.error("Failed to write {} issues to the local store: {}", changed.size(), reason);
+            changed.keySet().forEach(key -> result.recordFailure(key.substring(ISSUE_PREFIX.length()), reason));
+        }
+        return result;
+    }
+
+    public Optional<Issue> get(String id) throws IOException {
+        byte[] stored = store().get(ISSUE_PREFIX + id);
+        return stored == null ? Optional.empty() : Optional.of(decode(stored));
+    }
+
+    /**
+     * Reads the high-water mark of the last successful incremental sync of a repository.
+     */
+    public Optional<Instant> getLastUpdatedAt(String owner, String repo) throws IOException {
+        byte[] stored = store().get(CHECKPOINT_PREFIX + owner + ":" + repo);
+        return stored == null ? Optional.empty()
+                : Optional.of(Instant.parse(new String(stored, StandardCharsets.US_ASCII)));
+    }
+
+    public void saveLastUpdatedAt(String owner, String repo, Instant lastUpdatedAt) throws Exception {
+        store().putAll(Map.of(CHECKPOINT_PREFIX + owner + ":" + repo,
+                        lastUpdatedAt.toString().getBytes(StandardCharsets.US_ASCII)))
+                .get(commitTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException, InterruptedException {
+        if (store != null) {
+            store.close();
+            store = null;
+        }
+    }
+
+    private LogStructuredStore store() throws IOException {
+        LogStructuredStore opened = store;
+        if (opened == null) {
+            synchronized (this) {
+                if (store == null) {
+                    store = LogStructuredStore.open(directory, segmentSize, fsync, maxBatchBytes);
+                }
+                opened = store;
+            }
+        }
+        return opened;
+    }
+
+    private long stat(ToLongFunction<LogStructuredStore> statistic) {
+        LogStructuredStore opened = store;
+        return opened == null ? 0 : statistic.applyAsLong(opened);
+    }
+
+    /**
+     * Encodes every field but {@code syncedAt}, so equal content encodes to equal bytes.
+     */
+    private static byte[] encode(Issue issue) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, issue.id);
+            writeString(out, issue.owner);
+            writeString(out, issue.repo);
+            writeString(out, issue.title);
+            writeString(out, issue.state);
+            writeString(out, issue.htmlUrl);
+            writeInstant(out, issue.createdAt);
+            writeInstant(out, issue.updatedAt);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] withSyncedAt(byte[] content, Instant syncedAt) {
+        byte[] value = Arrays.copyOf(content, content.length + SYNCED_AT_BYTES);
+        ByteBuffer.wrap(value, content.length, SYNCED_AT_BYTES)
+                .putLong(syncedAt.getEpochSecond())
+                .putInt(syncedAt.getNano());
+        return value;
+    }
+
+    private static Issue decode(byte[] value) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value))) {
+            Issue issue = new Issue();
+            issue.id = readString(in);
+            issue.owner = readString(in);
+            issue.repo = readString(in);
+            issue.title = readString(in);
+            issue.state = readString(in);
+            issue.htmlUrl = readString(in);
+            issue.createdAt = readInstant(in);
+            issue.updatedAt = readInstant(in);
+            issue.syncedAt = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            return issue;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getEpochSecond());
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+    }
+}
@@ -0,0 +1,460 @@
+package com.savantlabs.adapters.helpers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded, log-structured key-value store on local disk.
+ * <p>
+ * Every put is appended to the active segment file and an in-memory index maps each key to its latest record, so
+ * an upsert is one sequential write and a read is one positional read. Writers hand their entries to a single
+ * committer thread and wait; the committer takes every batch queued in the meantime, up to {@code maxBatchBytes},
+ * writes them with one gathering write and forces them to disk with one fsync, then completes them all. Concurrent
+ * writers thereby share the cost of an fsync (group commit). Entries become readable once they are on disk.
+ * <p>
+ * The active segment is sealed at {@code segmentSize} bytes. A sealed segment in which less than half of the bytes
+ * still hold the latest record of their key is compacted: its live records are appended again and the file is
+ * deleted. On open, the index is rebuilt by scanning the segments in order; a torn record cuts its segment off.
+ * <p>
+ * Record layout: {@code [int length][int crc32][short key length][key UTF-8][value]}; the length and the checksum
+ * cover everything after the header.
+ */
+public class LogStructuredStore implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(LogStructuredStore.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_READ_ATTEMPTS = 3;
+    // tells the committer to stop; compared by identity
+    private static final Commit CLOSE = new Commit(Map.of());
+
+    private final Path directory;
+    private final long segmentSize;
+    private final boolean fsync;
+    private final long maxBatchBytes;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    // changed by the committer only, once it runs
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final BlockingQueue<Commit> commits = new LinkedBlockingQueue<>();
+    private final AtomicLong groupCommits = new AtomicLong();
+    private final AtomicLong syncs = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private final Thread committer;
+    private Segment active;
+    private boolean closed;
+
+    private LogStructuredStore(Path directory, long segmentSize, boolean fsync, long maxBatchBytes)
+            throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        this.maxBatchBytes = maxBatchBytes;
+        recover();
+        this.committer = new DaemonThreadFactory("log-store-committer-").newThread(this::commitLoop);
+        committer.start();
+    }
+
+    /**
+     * Opens the store in {@code directory}, creating it if needed, and rebuilds the index from its segments.
+     *
+     * @param fsync whether each group commit is forced to disk; without it a crash can lose the latest commits
+     */
+    public static LogStructuredStore open(Path directory, long segmentSize, boolean fsync, long maxBatchBytes)
+            throws IOException {
+        return new LogStructuredStore(directory, segmentSize, fsync, maxBatchBytes);
+    }
+
+    /**
+     * Queues entries for the next group commit.
+     *
+     * @return completes once every entry is written, and forced to disk if enabled, or exceptionally if the write
+     * failed, in which case none of the entries is readable
+     */
+    public CompletableFuture<Void> putAll(Map<String, byte[]> entries) {
+        Commit commit = new Commit(entries);
+        if (entries.isEmpty()) {
+            commit.done.complete(null);
+            return commit.done;
+        }
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("Log-structured store is closed");
+            commits.add(commit);
+        }
+        return commit.done;
+    }
+
+    /**
+     * @return the latest value of {@code key}, or null if it was never put
+     */
+    public byte[] get(String key) throws IOException {
+        for (int attempt = 1; attempt <= MAX_READ_ATTEMPTS; attempt++) {
+            Location location = index.get(key);
+            if (location == null) return null;
+            Segment segment = segments.get(location.segment());
+            if (segment != null) {
+                try {
+                    return value(segment.read(location));
+                } catch (IOException ex) {
+                    // the segment was compacted and closed meanwhile, unless the index still points at it
+                    if (index.get(key) == location) throw ex;
+                }
+            }
+        }
+        throw new IOException("Record of " + key + " kept moving while it was read");
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public long getGroupCommits() {
+        return groupCommits.get();
+    }
+
+    public long getSyncs() {
+        return syncs.get();
+    }
+
+    public long getCompactions() {
+        return compactions.get();
+    }
+
+    /**
+     * @return bytes held by the segment files, including records that were overwritten since
+     */
+    public long getDiskBytes() {
+        return segments.values().stream().mapToLong(segment -> segment.size).sum();
+    }
+
+    /**
+     * Writes the commits queued so far and closes the segment files. Later puts fail.
+     */
+    @Override
+    public void close() throws IOException, InterruptedException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            commits.add(CLOSE);
+        }
+        committer.join();
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+    }
+
+    private void commitLoop() {
+        List<Commit> group = new ArrayList<>();
+        try {
+            while (true) {
+                Commit commit = commits.take();
+                if (commit == CLOSE) return;
+                long bytes = 0;
+                boolean closing = false;
+                while (commit != null) {
+                    if (commit == CLOSE) {
+                        closing = true;
+                        break;
+                    }
+                    group.add(commit);
+                    bytes += commit.bytes;
+                    commit = bytes < maxBatchBytes ? commits.poll() : null;
+                }
+                commit(group);
+                group.clear();
+                if (closing) return;
+                compactSealedSegments();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void commit(List<Commit> group) {
+        List<Record> records = new ArrayList<>();
+        for (Commit commit : group) {
+            records.addAll(commit.records);
+        }
+        try {
+            List<Location> locations = append(records, fsync);
+            for (int i = 0; i < records.size(); i++) {
+                track(records.get(i).key(), locations.get(i));
+            }
+            groupCommits.incrementAndGet();
+            group.forEach(commit -> commit.done.complete(null));
+        } catch (IOException | RuntimeException ex) {
+            // fails the group, and only the group, so the committer keeps serving later commits
+            log.error("Failed to write {} records to the log-structured store: {}", records.size(), ex.getMessage());
+            group.forEach(commit -> commit.done.completeExceptionally(ex));
+        }
+    }
+
+    /**
+     * Appends records to the active segment, sealing it and starting the next one when it is full.
+     */
+    private List<Location> append(List<Record> records, boolean force) throws IOException {
+        List<Location> locations = new ArrayList<>(records.size());
+        List<ByteBuffer> buffers = new ArrayList<>(records.size());
+        long offset = active.size;
+        for (Record record : records) {
+            int length = record.bytes().length;
+            if (offset > 0 && offset + length > segmentSize) {
+                active.write(buffers, force);
+                buffers.clear();
+                active = openSegment(active.id + 1);
+                segments.put(active.id, active);
+                offset = 0;
+            }
+            locations.add(new Location(active.id, offset, length));
+            buffers.add(ByteBuffer.wrap(record.bytes()));
+            offset += length;
+        }
+        active.write(buffers, force);
+        return locations;
+    }
+
+    /**
+     * Points a key at its latest record and moves the record it replaces out of its segment's live bytes.
+     */
+    private void track(String key, Location location) {
+        Location previous = index.put(key, location);
+        segments.get(location.segment()).liveBytes += location.length();
+        if (previous != null) {
+            segments.get(previous.segment()).liveBytes -= previous.length();
+        }
+    }
+
+    private void compactSealedSegments() {
+        for (Segment segment : segments.values()) {
+            if (segment != active && segment.liveBytes * 2 < segment.size) {
+                try {
+                    compact(segment);
+                } catch (IOException | RuntimeException ex) {
+                    log.warn("Failed to compact log-structured store segment {}: {}", segment.id, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private void compact(Segment segment) throws IOException {
+        List<Record> live = new ArrayList<>();
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            if (entry.getValue().segment() == segment.id) {
+                live.add(new Record(entry.getKey(), segment.read(entry.getValue())));
+            }
+        }
+        // the copies must be on disk before the originals are deleted
+        List<Location> locations = append(live, true);
+        for (int i = 0; i < live.size(); i++) {
+            track(live.get(i).key(), locations.get(i));
+        }
+        segments.remove(segment.id);
+        segment.close();
+        Files.deleteIfExists(segmentFile(segment.id));
+        compactions.incrementAndGet();
+        log.debug("Compacted log-structured store segment {} into {} live records", segment.id, live.size());
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        TreeSet<Long> ids = new TreeSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    ids.add(Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                }
+            }
+        }
+        for (long id : ids) {
+            Segment segment = openSegment(id);
+            segments.put(id, segment);
+            long fileSize = segment.writer.size();
+            long end = scan(segment, fileSize);
+            if (end < fileSize) {
+                log.warn("Cutting off {} bytes after the last intact record of log-structured store segment {}",
+                        fileSize - end, id);
+                segment.writer.truncate(end);
+                segment.writer.force(true);
+            }
+            segment.size = end;
+        }
+        if (segments.isEmpty()) {
+            segments.put(0L, openSegment(0));
+        }
+        active = segments.lastEntry().getValue();
+        if (!index.isEmpty()) {
+            log.info("Opened log-structured store {} with {} keys in {} segments", directory, index.size(),
+                    segments.size());
+        }
+    }
+
+    /**
+     * Indexes the records of a segment.
+     *
+     * @return offset just past the last intact record
+     */
+    private long scan(Segment segment, long fileSize) throws IOException {
+        long offset = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(segmentFile(segment.id))))) {
+            while (offset + RECORD_HEADER_BYTES <= fileSize) {
+                int length = in.readInt();
+                int crc = in.readInt();
+                if (length < Short.BYTES || offset + RECORD_HEADER_BYTES + length > fileSize) break;
+                byte[] record = new byte[RECORD_HEADER_BYTES + length];
+                in.readFully(record, RECORD_HEADER_BYTES, length);
+                if (crc(record) != crc) break;
+                track(key(record), new Location(segment.id, offset, record.length));
+                offset += record.length;
+            }
+        } catch (EOFException ex) {
+            // a record cut short by a crash
+        }
+        return offset;
+    }
+
+    private Segment openSegment(long id) throws IOException {
+        Path file = segmentFile(id);
+        FileChannel writer = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        // a separate descriptor keeps readers off the writer's file position
+        return new Segment(id, writer, new RandomAccessFile(file.toFile(), "r"));
+    }
+
+    private Path segmentFile(long id) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private static byte[] encode(String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Key of " + keyBytes.length + " bytes is too long");
+        }
+        int length = Short.BYTES + keyBytes.length + value.length;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + length);
+        record.putInt(length).putInt(0).putShort((short) keyBytes.length).put(keyBytes).put(value);
+        byte[] bytes = record.array();
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES, crc(bytes));
+        return bytes;
+    }
+
+    private static int crc(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, RECORD_HEADER_BYTES, record.length - RECORD_HEADER_BYTES);
+        return (int) crc.getValue();
+    }
+
+    private static String key(byte[] record) {
+        int keyLength = ByteBuffer.wrap(record).getShort(RECORD_HEADER_BYTES);
+        return new String(record, RECORD_HEADER_BYTES + Short.BYTES, keyLength, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] value(byte[] record) throws IOException {
+        if (crc(record) != ByteBuffer.wrap(record).getInt(Integer.BYTES)) {
+            throw new IOException("Corrupt record in the log-structured store");
+        }
+        int from = RECORD_HEADER_BYTES + Short.BYTES + ByteBuffer.wrap(record).getShort(RECORD_HEADER_BYTES);
+        byte[] value = new byte[record.length - from];
+        System.arraycopy(record, from, value, 0, value.length);
+        return value;
+    }
+
+    private record Location(long segment, long offset, int length) {
+    }
+
+    private record Record(String key, byte[] bytes) {
+    }
+
+    private static class Commit {
+        private final List<Record> records = new ArrayList<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private long bytes;
+
+        private Commit(Map<String, byte[]> entries) {
+            // encoded and checksummed by the writer, so the committer only does I/O
+            entries.forEach((key, value) -> {
+                Record record = new Record(key, encode(key, value));
+                records.add(record);
+                bytes += record.bytes().length;
+            });
+        }
+    }
+
+    private class Segment {
+        private final long id;
+        private final FileChannel writer;
+        private final RandomAccessFile reader;
+        private volatile long size;
+        private volatile long liveBytes;
+
+        private Segment(long id, FileChannel writer, RandomAccessFile reader) {
+            this.id = id;
+            this.writer = writer;
+            this.reader = reader;
+        }
+
+        private void write(List<ByteBuffer> buffers, boolean force) throws IOException {
+            if (buffers.isEmpty()) return;
+            ByteBuffer[] sources = buffers.toArray(ByteBuffer[]::new);
+            long length = 0;
+            for (ByteBuffer source : sources) {
+                length += source.remaining();
+            }
+            try {
+                writer.position(size);
+                for (long written = 0; written < length; ) {
+                    written += writer.write(sources);
+                }
+                if (force) {
+                    writer.force(false);
+                    syncs.incrementAndGet();
+                }
+            } catch (IOException ex) {
+                // drop a partial write, so the next commit does not append behind it
+                writer.truncate(size);
+                throw ex;
+            }
+            size += length;
+        }
+
+        private byte[] read(Location location) throws IOException {
+            byte[] record = new byte[location.length()];
+            // java.io reads, unlike channel reads, do not close the file when the reading thread is interrupted
+            synchronized (reader) {
+                reader.seek(location.offset());
+                reader.readFully(record);
+            }
+            return record;
+        }
+
+        private void close() throws IOException {
+            writer.close();
+            reader.close();
+        }
+    }
+}
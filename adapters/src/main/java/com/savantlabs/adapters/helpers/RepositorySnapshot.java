@@ -0,0 +1,104 @@
+package com.savantlabs.adapters.helpers;
+
+import com.savantlabs.adapters.model.Issue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The issues of one repository as a base {@link IssueSnapshot} and the delta snapshots merged since, oldest first.
+ * A delta holds the issues of one flush; where several segments hold an issue, the newest one wins.
+ */
+public class RepositorySnapshot {
+    private static final Comparator<IssueSnapshot.Match> OLDEST_FIRST =
+            Comparator.comparingLong(IssueSnapshot.Match::createdAt).thenComparingLong(IssueSnapshot.Match::id);
+
+    private final IssueSnapshot base;
+    private final List<IssueSnapshot> deltas;
+    // per segment, base first: the ids of the deltas after it, which hide its rows of the same issues
+    private final List<Set<Long>> shadowed;
+    private volatile int size = -1;
+
+    RepositorySnapshot(IssueSnapshot base, List<IssueSnapshot> deltas) {
+        this.base = base;
+        this.deltas = List.copyOf(deltas);
+        List<Set<Long>> newerIds = new ArrayList<>();
+        Set<Long> ids = new HashSet<>();
+        for (int delta = this.deltas.size() - 1; delta >= 0; delta--) {
+            newerIds.add(0, Set.copyOf(ids));
+            ids.addAll(this.deltas.get(delta).ids());
+        }
+        newerIds.add(0, Set.copyOf(ids));
+        this.shadowed = newerIds;
+    }
+
+    /**
+     * @return the number of distinct issues
+     */
+    public int size() {
+        if (size < 0) {
+            size = query(null, null, null, 0).matched();
+        }
+        return size;
+    }
+
+    int deltaCount() {
+        return deltas.size();
+    }
+
+    int deltaRows() {
+        return deltas.stream().mapToInt(IssueSnapshot::size).sum();
+    }
+
+    int baseRows() {
+        return base == null ? 0 : base.size();
+    }
+
+    /**
+     * Finds the issues matching every given filter, newest first, like {@link IssueSnapshot#query}.
+     */
+    public IssueSnapshot.QueryResult query(String state, Instant createdFrom, Instant createdTo, int limit) {
+        List<IssueSnapshot.Match> matches = new ArrayList<>();
+        if (base != null) {
+            base.collect(state, createdFrom, createdTo, shadowed.get(0), matches);
+        }
+        if (deltas.isEmpty()) return IssueSnapshot.QueryResult.of(matches, limit);
+
+        // the base matches come sorted; only the few delta matches need sorting before the two are merged
+        List<IssueSnapshot.Match> deltaMatches = new ArrayList<>();
+        for (int delta = 0; delta < deltas.size(); delta++) {
+            deltas.get(delta).collect(state, createdFrom, createdTo, shadowed.get(delta + 1), deltaMatches);
+        }
+        deltaMatches.sort(OLDEST_FIRST);
+        List<IssueSnapshot.Match> merged = new ArrayList<>(matches.size() + deltaMatches.size());
+        int next = 0;
+        for (IssueSnapshot.Match match : matches) {
+            while (next < deltaMatches.size() && OLDEST_FIRST.compare(deltaMatches.get(next), match) < 0) {
+                merged.add(deltaMatches.get(next++));
+            }
+            merged.add(match);
+        }
+        merged.addAll(deltaMatches.subList(next, deltaMatches.size()));
+        return IssueSnapshot.QueryResult.of(merged, limit);
+    }
+
+    /**
+     * @return the newest version of every issue, for compacting the segments into one
+     */
+    List<Issue> readAll() {
+        Map<String, Issue> issues = new LinkedHashMap<>();
+        if (base != null) {
+            base.readAll().forEach(issue -> issues.put(issue.id, issue));
+        }
+        for (IssueSnapshot delta : deltas) {
+            delta.readAll().forEach(issue -> issues.put(issue.id, issue));
+        }
+        return new ArrayList<>(issues.values());
+    }
+}
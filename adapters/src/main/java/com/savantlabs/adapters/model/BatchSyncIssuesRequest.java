@@ -0,0 +1,63 @@
+package com.savantlabs.adapters.model;
+
+import java.util.List;
+
+/**
+ * Syncs the listed repositories and, when {@code organization} is set, every repository of that organization.
+ */
+public class BatchSyncIssuesRequest {
+    private List<RepositoryRef> repositories;
+    private String organization;
+    private String syncIssuesType;
+    private Integer limit;
+    private Boolean incremental;
+    private Boolean resumable;
+
+    public List<RepositoryRef> getRepositories() {
+        return repositories;
+    }
+
+    public void setRepositories(List<RepositoryRef> repositories) {
+        this.repositories = repositories;
+    }
+
+    public String getOrganization() {
+        return organization;
+    }
+
+    public void setOrganization(String organization) {
+        this.organization = organization;
+    }
+
+    public String getSyncIssuesType() {
+        return syncIssuesType;
+    }
+
+    public void setSyncIssuesType(String syncIssuesType) {
+        this.syncIssuesType = syncIssuesType;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public Boolean getIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(Boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public Boolean getResumable() {
+        return resumable;
+    }
+
+    public void setResumable(Boolean resumable) {
+        this.resumable = resumable;
+    }
+}
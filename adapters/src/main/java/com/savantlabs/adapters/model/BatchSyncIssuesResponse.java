@@ -0,0 +1,122 @@
+package com.savantlabs.adapters.model;
+
+import com.savantlabs.adapters.enums.SyncJobStatus;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Progress of a batch sync: RUNNING while its organization is being listed or any of its repositories is queued or
+ * running, COMPLETED once all of them have finished, whether they succeeded or failed, and FAILED instead if the
+ * organization could not be listed.
+ */
+public class BatchSyncIssuesResponse {
+    private String id;
+    private SyncJobStatus status;
+    private List<RepositorySyncResult> repositories;
+    private int completed;
+    private int failedRepositories;
+    private int saved;
+    private int skipped;
+    private int failed;
+    private String error;
+
+    /**
+     * @param listingOrganization whether the repositories of the organization are still being listed
+     * @param error               why the organization could not be listed, or null
+     */
+    public static BatchSyncIssuesResponse of(String id, List<RepositorySyncResult> repositories,
+                                             boolean listingOrganization, String error) {
+        BatchSyncIssuesResponse response = new BatchSyncIssuesResponse();
+        response.setId(id);
+        response.setRepositories(repositories);
+        response.setError(error);
+        for (RepositorySyncResult result : repositories) {
+            if (result.getStatus() == SyncJobStatus.COMPLETED) {
+                response.completed++;
+            } else if (result.getStatus() == SyncJobStatus.FAILED) {
+                response.failedRepositories++;
+            }
+            response.saved += Objects.requireNonNullElse(result.getSaved(), 0);
+            response.skipped += Objects.requireNonNullElse(result.getSkipped(), 0);
+            response.failed += Objects.requireNonNullElse(result.getFailed(), 0);
+        }
+        boolean finished = !listingOrganization
+                && response.completed + response.failedRepositories == repositories.size();
+        response.setStatus(!finished ? SyncJobStatus.RUNNING
+                : error != null ? SyncJobStatus.FAILED : SyncJobStatus.COMPLETED);
+        return response;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public SyncJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(SyncJobStatus status) {
+        this.status = status;
+    }
+
+    public List<RepositorySyncResult> getRepositories() {
+        return repositories;
+    }
+
+    public void setRepositories(List<RepositorySyncResult> repositories) {
+        this.repositories = repositories;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(int completed) {
+        this.completed = completed;
+    }
+
+    public int getFailedRepositories() {
+        return failedRepositories;
+    }
+
+    public void setFailedRepositories(int failedRepositories) {
+        this.failedRepositories = failedRepositories;
+    }
+
+    public int getSaved() {
+        return saved;
+    }
+
+    public void setSaved(int saved) {
+        this.saved = saved;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
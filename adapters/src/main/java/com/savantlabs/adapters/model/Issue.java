@@ -10,6 +10,7 @@ public class Issue {
     public String state;
     public String htmlUrl;
     public Instant createdAt;
+    public Instant updatedAt;
     public Instant syncedAt;
 
     public Issue withOwnerRepo(String owner, String repo) {
@@ -17,4 +18,18 @@ public class Issue {
         this.repo = repo;
         return this;
     }
+
+    public Issue copy() {
+        Issue copy = new Issue();
+        copy.id = id;
+        copy.owner = owner;
+        copy.repo = repo;
+        copy.title = title;
+        copy.state = state;
+        copy.htmlUrl = htmlUrl;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.syncedAt = syncedAt;
+        return copy;
+    }
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package com.savantlabs.adapters.model;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 public class IssueMapper {
     public static boolean isPullRequest(JsonNode jsonNode) {
@@ -17,10 +23,95 @@ public class IssueMapper {
         issue.htmlUrl = text(jsonNode, "html_url");
         String created = text(jsonNode, "created_at");
         issue.createdAt = created == null ? null : Instant.parse(created);
+        String updated = text(jsonNode, "updated_at");
+        issue.updatedAt = updated == null ? null : Instant.parse(updated);
         return issue;
     }
 
+    /**
+     * Maps a node of the GraphQL {@code repository.issues} connection. {@code databaseId} is the same id the
+     * REST API returns, so both fetch strategies write the same documents.
+     */
+    public static Issue fromGraphQLNode(JsonNode jsonNode) {
+        Issue issue = new Issue();
+        issue.id = jsonNode.get("databaseId").asText();
+        issue.title = text(jsonNode, "title");
+        String state = text(jsonNode, "state");
+        issue.state = state == null ? null : state.toLowerCase(Locale.ROOT); // OPEN/CLOSED, lowercase in REST
+        issue.htmlUrl = text(jsonNode, "url");
+        String created = text(jsonNode, "createdAt");
+        issue.createdAt = created == null ? null : Instant.parse(created);
+        String updated = text(jsonNode, "updatedAt");
+        issue.updatedAt = updated == null ? null : Instant.parse(updated);
+        return issue;
+    }
+
+    /**
+     * Reads a list-issues response array token by token, producing the same issues as {@link #toIssue(JsonNode)}
+     * without building a tree. Unused subtrees such as body, user, labels and reactions are skipped, and
+     * pull requests are dropped once read, after their {@code updated_at} was taken for the last entry of the page.
+     *
+     * @param parser parser positioned before the top-level array
+     * @return the issues of the page and the number of entries it had
+     */
+    public static IssuePage readPage(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token != JsonToken.START_ARRAY) {
+            // error payloads are objects; callers treat a page without entries as the end of the listing
+            parser.skipChildren();
+            return new IssuePage(List.of(), 0, null);
+        }
+
+        List<Issue> issues = new ArrayList<>();
+        int entryCount = 0;
+        Instant lastUpdatedAt = null;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            entryCount++;
+            Issue issue = new Issue();
+            if (!readIssue(parser, issue)) issues.add(issue);
+            lastUpdatedAt = issue.updatedAt;
+        }
+        return new IssuePage(issues, entryCount, lastUpdatedAt);
+    }
+
+    /**
+     * Reads the fields of one entry into {@code issue}, up to the end of its object, whatever the order of its
+     * fields; a pull request is read the same way, so its {@code updated_at} is known as well.
+     *
+     * @return whether the entry is a pull request
+     */
+    private static boolean readIssue(JsonParser parser, Issue issue) throws IOException {
+        boolean pullRequest = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> issue.id = parser.getText();
+                case "title" -> issue.title = text(parser, value);
+                case "state" -> issue.state = text(parser, value);
+                case "html_url" -> issue.htmlUrl = text(parser, value);
+                case "created_at" -> issue.createdAt = instant(parser, value);
+                case "updated_at" -> issue.updatedAt = instant(parser, value);
+                case "pull_request" -> {
+                    pullRequest = true;
+                    parser.skipChildren();
+                }
+                default -> parser.skipChildren(); // no-op for scalars
+            }
+        }
+        return pullRequest;
+    }
+
     private static String text(JsonNode n, String k) {
         return n.hasNonNull(k) ? n.get(k).asText() : null;
     }
-}
\ No newline at end of file
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+
+    private static Instant instant(JsonParser parser, JsonToken value) throws IOException {
+        String text = text(parser, value);
+        return text == null ? null : Instant.parse(text);
+    }
+}
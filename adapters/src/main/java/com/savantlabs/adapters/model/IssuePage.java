@@ -0,0 +1,57 @@
+package com.savantlabs.adapters.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of the GitHub list-issues endpoint, already mapped to issues with pull requests left out.
+ */
+public class IssuePage {
+    private final List<Issue> issues;
+    private final int entryCount;
+    private final Instant lastUpdatedAt;
+
+    public IssuePage(List<Issue> issues, int entryCount, Instant lastUpdatedAt) {
+        this.issues = issues;
+        this.entryCount = entryCount;
+        this.lastUpdatedAt = lastUpdatedAt;
+    }
+
+    /**
+     * Issues on this page in response order, pull requests excluded.
+     */
+    public List<Issue> getIssues() {
+        return issues;
+    }
+
+    /**
+     * Number of entries GitHub returned, including pull requests.
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * {@code updated_at} of the last entry GitHub returned, pull requests included, or null for an empty page.
+     */
+    public Instant getLastUpdatedAt() {
+        return lastUpdatedAt;
+    }
+
+    /**
+     * True when GitHub returned no entries at all, i.e. paging has gone past the last page.
+     */
+    public boolean isEmpty() {
+        return entryCount == 0;
+    }
+
+    /**
+     * Copies this page together with its issues, so changes to either side do not show in the other.
+     */
+    public IssuePage copy() {
+        List<Issue> copies = new ArrayList<>(issues.size());
+        for (Issue issue : issues) copies.add(issue.copy());
+        return new IssuePage(copies, entryCount, lastUpdatedAt);
+    }
+}
@@ -0,0 +1,45 @@
+package com.savantlabs.adapters.model;
+
+import java.util.List;
+
+public class IssueQueryResponse {
+    private String owner;
+    private String repository;
+    private Integer matched;
+    private List<Issue> issues;
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public void setRepository(String repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Number of issues matching the query; {@code issues} holds at most {@code limit} of them.
+     */
+    public Integer getMatched() {
+        return matched;
+    }
+
+    public void setMatched(Integer matched) {
+        this.matched = matched;
+    }
+
+    public List<Issue> getIssues() {
+        return issues;
+    }
+
+    public void setIssues(List<Issue> issues) {
+        this.issues = issues;
+    }
+}
@@ -0,0 +1,93 @@
+package com.savantlabs.adapters.model;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Position in the listing of a repository's issues ordered by {@code updated_at}, least recently updated first.
+ * Reading from it lists the issues updated at or after {@code since}, starting at page {@code page} of that
+ * listing, and drops {@code seenIds}: the issues updated within the second of {@code since} that were already read.
+ * <p>
+ * Unlike a page number over the whole listing, the position does not drift when issues are created, updated or
+ * deleted while it is in use. An issue updated in the meantime moves behind it and is read again in its new state,
+ * and no issue can move in front of it. {@code page} only goes past 1 when more than a page of issues share the
+ * second of {@code since}.
+ */
+public class PagingCursor {
+    private final Instant since;
+    private final int page;
+    private final Set<String> seenIds;
+
+    public PagingCursor(Instant since, int page, Set<String> seenIds) {
+        this.since = since.truncatedTo(ChronoUnit.SECONDS);
+        this.page = page;
+        this.seenIds = Set.copyOf(seenIds);
+    }
+
+    public static PagingCursor startingAt(Instant since) {
+        return new PagingCursor(since, 1, Set.of());
+    }
+
+    /**
+     * @return whether the issue was already read from an earlier position of the same listing
+     */
+    public boolean isSeen(Issue issue) {
+        return seenIds.contains(issue.id);
+    }
+
+    /**
+     * Moves past a page that was read to the end.
+     *
+     * @param read          the unseen issues of the page
+     * @param lastUpdatedAt {@code updated_at} of the last entry of the page, pull requests included
+     */
+    public PagingCursor afterPage(List<Issue> read, Instant lastUpdatedAt) {
+        Instant last = lastUpdatedAt.truncatedTo(ChronoUnit.SECONDS);
+        if (last.equals(since)) {
+            // the whole page shares the second of since: the next page of the same listing follows it
+            return new PagingCursor(since, page + 1, union(seenIds, read, since));
+        }
+        return new PagingCursor(last, 1, union(Set.of(), read, last));
+    }
+
+    /**
+     * Moves past the given issues, the first unseen ones of the listing at this position. Issues without
+     * {@code updatedAt} have no place in the listing and do not move the cursor.
+     */
+    public PagingCursor afterIssues(List<Issue> read) {
+        Instant lastUpdatedAt = null;
+        for (Issue issue : read) {
+            if (issue.updatedAt != null) lastUpdatedAt = issue.updatedAt;
+        }
+        if (lastUpdatedAt == null) return this;
+        Instant last = lastUpdatedAt.truncatedTo(ChronoUnit.SECONDS);
+        return last.equals(since)
+                ? new PagingCursor(since, page, union(seenIds, read, since))
+                : new PagingCursor(last, 1, union(Set.of(), read, last));
+    }
+
+    private static Set<String> union(Set<String> seenIds, List<Issue> read, Instant second) {
+        Set<String> ids = new HashSet<>(seenIds);
+        for (Issue issue : read) {
+            if (issue.updatedAt != null && issue.updatedAt.truncatedTo(ChronoUnit.SECONDS).equals(second)) {
+                ids.add(issue.id);
+            }
+        }
+        return ids;
+    }
+
+    public Instant getSince() {
+        return since;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public Set<String> getSeenIds() {
+        return seenIds;
+    }
+}
@@ -0,0 +1,30 @@
+package com.savantlabs.adapters.model;
+
+public class RepositoryRef {
+    private String owner;
+    private String repository;
+
+    public RepositoryRef() {
+    }
+
+    public RepositoryRef(String owner, String repository) {
+        this.owner = owner;
+        this.repository = repository;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public void setRepository(String repository) {
+        this.repository = repository;
+    }
+}
@@ -0,0 +1,116 @@
+package com.savantlabs.adapters.model;
+
+import com.savantlabs.adapters.enums.SyncJobStatus;
+
+/**
+ * Outcome of one repository of a batch sync.
+ */
+public class RepositorySyncResult {
+    private String owner;
+    private String repository;
+    private String jobId;
+    private SyncJobStatus status;
+    private Integer saved;
+    private Integer skipped;
+    private Integer failed;
+    private String error;
+
+    public static RepositorySyncResult of(SyncJob job) {
+        RepositorySyncResult result = new RepositorySyncResult();
+        result.setOwner(job.getOwner());
+        result.setRepository(job.getRepository());
+        result.setJobId(job.getId());
+        result.setStatus(job.getStatus());
+        result.setError(job.getError());
+        if (job.getResult() != null) {
+            result.setSaved(job.getResult().getSaved());
+            result.setSkipped(job.getResult().getSkipped());
+            result.setFailed(job.getResult().getFailed());
+        }
+        return result;
+    }
+
+    /**
+     * A repository of a batch that waits for a free slot before its job is submitted.
+     */
+    public static RepositorySyncResult queued(RepositoryRef repository) {
+        RepositorySyncResult result = new RepositorySyncResult();
+        result.setOwner(repository.getOwner());
+        result.setRepository(repository.getRepository());
+        result.setStatus(SyncJobStatus.QUEUED);
+        return result;
+    }
+
+    public static RepositorySyncResult rejected(RepositoryRef repository, String error) {
+        RepositorySyncResult result = new RepositorySyncResult();
+        result.setOwner(repository.getOwner());
+        result.setRepository(repository.getRepository());
+        result.setStatus(SyncJobStatus.FAILED);
+        result.setError(error);
+        return result;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public void setRepository(String repository) {
+        this.repository = repository;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public SyncJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(SyncJobStatus status) {
+        this.status = status;
+    }
+
+    public Integer getSaved() {
+        return saved;
+    }
+
+    public void setSaved(Integer saved) {
+        this.saved = saved;
+    }
+
+    public Integer getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(Integer skipped) {
+        this.skipped = skipped;
+    }
+
+    public Integer getFailed() {
+        return failed;
+    }
+
+    public void setFailed(Integer failed) {
+        this.failed = failed;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
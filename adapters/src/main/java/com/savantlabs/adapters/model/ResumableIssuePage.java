@@ -0,0 +1,27 @@
+package com.savantlabs.adapters.model;
+
+import java.util.List;
+
+/**
+ * A page of issues read from a {@link PagingCursor}, together with the cursor that follows it.
+ */
+public class ResumableIssuePage {
+    private final List<Issue> issues;
+    private final PagingCursor cursor;
+
+    public ResumableIssuePage(List<Issue> issues, PagingCursor cursor) {
+        this.issues = issues;
+        this.cursor = cursor;
+    }
+
+    public List<Issue> getIssues() {
+        return issues;
+    }
+
+    /**
+     * Position right after the last issue of this page; resuming from it never reads this page again.
+     */
+    public PagingCursor getCursor() {
+        return cursor;
+    }
+}
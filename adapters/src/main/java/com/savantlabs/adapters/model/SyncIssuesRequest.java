@@ -5,6 +5,8 @@ public class SyncIssuesRequest {
     private String repository;
     private String syncIssuesType;
     private Integer limit;
+    private Boolean incremental;
+    private Boolean resumable;
 
     public Integer getLimit() {
         return limit;
@@ -14,6 +16,26 @@ public class SyncIssuesRequest {
         this.limit = limit;
     }
 
+    public Boolean getIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(Boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * With {@code resumable}, the sync pages with a cursor stored in Firestore after every page, and a sync that
+     * was interrupted or stopped at {@code limit} is continued by the next resumable sync of the repository.
+     */
+    public Boolean getResumable() {
+        return resumable;
+    }
+
+    public void setResumable(Boolean resumable) {
+        this.resumable = resumable;
+    }
+
     public String getOwner() {
         return owner;
     }
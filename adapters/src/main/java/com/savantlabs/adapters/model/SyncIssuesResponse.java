@@ -5,6 +5,10 @@ public class SyncIssuesResponse {
     private String repository;
     private Integer requested;
     private Integer saved;
+    private Integer skipped;
+    private Integer failed;
+    private Integer pending;
+    private Integer changed;
 
     public String getOwner() {
         return owner;
@@ -37,4 +41,40 @@ public class SyncIssuesResponse {
     public void setSaved(Integer saved) {
         this.saved = saved;
     }
+
+    public Integer getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(Integer skipped) {
+        this.skipped = skipped;
+    }
+
+    public Integer getFailed() {
+        return failed;
+    }
+
+    public void setFailed(Integer failed) {
+        this.failed = failed;
+    }
+
+    public Integer getPending() {
+        return pending;
+    }
+
+    public void setPending(Integer pending) {
+        this.pending = pending;
+    }
+
+    /**
+     * @return fetched issues updated on GitHub after the checkpoint the sync started from, whether written, skipped,
+     * failed or pending; every fetched issue for a sync without a checkpoint
+     */
+    public Integer getChanged() {
+        return changed;
+    }
+
+    public void setChanged(Integer changed) {
+        this.changed = changed;
+    }
 }
@@ -0,0 +1,153 @@
+package com.savantlabs.adapters.model;
+
+import com.savantlabs.adapters.enums.SyncJobStatus;
+import com.savantlabs.adapters.service.SyncProgressListener;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An asynchronous sync of one owner/repository, updated by the worker running it.
+ */
+public class SyncJob implements SyncProgressListener {
+    private final String id;
+    private final String owner;
+    private final String repository;
+    private final String syncIssuesType;
+    private final Integer limit;
+    private final boolean incremental;
+    private final boolean resumable;
+    private final Instant createdAt = Instant.now();
+    private final AtomicInteger pagesFetched = new AtomicInteger();
+    private final AtomicInteger issuesWritten = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile SyncJobStatus status = SyncJobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile SyncIssuesResponse result;
+    private final CompletableFuture<SyncJob> completion = new CompletableFuture<>();
+
+    public SyncJob(String id, SyncIssuesRequest syncIssuesRequest) {
+        this.id = id;
+        this.owner = syncIssuesRequest.getOwner();
+        this.repository = syncIssuesRequest.getRepository();
+        this.syncIssuesType = syncIssuesRequest.getSyncIssuesType();
+        this.limit = syncIssuesRequest.getLimit();
+        this.incremental = Boolean.TRUE.equals(syncIssuesRequest.getIncremental());
+        this.resumable = Boolean.TRUE.equals(syncIssuesRequest.getResumable());
+    }
+
+    /**
+     * True if this job runs the sync {@code syncIssuesRequest} asks for: same limit, incremental and resumable
+     * settings. Adapter and repository are matched by the caller.
+     */
+    public boolean runsSameSyncAs(SyncIssuesRequest syncIssuesRequest) {
+        return Objects.equals(limit, syncIssuesRequest.getLimit())
+                && incremental == Boolean.TRUE.equals(syncIssuesRequest.getIncremental())
+                && resumable == Boolean.TRUE.equals(syncIssuesRequest.getResumable());
+    }
+
+    @Override
+    public void onPageFetched() {
+        pagesFetched.incrementAndGet();
+    }
+
+    @Override
+    public void onIssuesWritten(int written, int failed) {
+        issuesWritten.addAndGet(written);
+        failures.addAndGet(failed);
+    }
+
+    public void markRunning() {
+        startedAt = Instant.now();
+        status = SyncJobStatus.RUNNING;
+    }
+
+    public void markCompleted(SyncIssuesResponse syncIssuesResponse) {
+        result = syncIssuesResponse;
+        finishedAt = Instant.now();
+        status = SyncJobStatus.COMPLETED;
+        completion.complete(this);
+    }
+
+    public void markFailed(String message) {
+        error = message;
+        finishedAt = Instant.now();
+        status = SyncJobStatus.FAILED;
+        completion.complete(this);
+    }
+
+    /**
+     * Completes with this job once it has finished, whether it succeeded or failed.
+     */
+    public CompletableFuture<SyncJob> completion() {
+        return completion;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public String getSyncIssuesType() {
+        return syncIssuesType;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public boolean isResumable() {
+        return resumable;
+    }
+
+    public SyncJobStatus getStatus() {
+        return status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public int getPagesFetched() {
+        return pagesFetched.get();
+    }
+
+    public int getIssuesWritten() {
+        return issuesWritten.get();
+    }
+
+    public int getFailures() {
+        return failures.get();
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public SyncIssuesResponse getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,135 @@
+package com.savantlabs.adapters.model;
+
+import com.savantlabs.adapters.enums.SyncJobStatus;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A repository synced in the background, updated by the scheduler as its runs start and finish.
+ */
+public class SyncSchedule {
+    private final String owner;
+    private final String repository;
+    private final String syncIssuesType;
+    private final int limit;
+    private final long intervalSeconds;
+    private final boolean adaptive;
+    private final Instant createdAt = Instant.now();
+    private final AtomicInteger runs = new AtomicInteger();
+    private final AtomicInteger skippedRuns = new AtomicInteger();
+    private volatile long currentIntervalSeconds;
+    private volatile Instant nextRunAt;
+    private volatile Instant lastRunAt;
+    private volatile Instant lastFinishedAt;
+    private volatile String lastJobId;
+    private volatile SyncJobStatus lastStatus;
+    private volatile Integer lastChanged;
+
+    public SyncSchedule(String owner, String repository, String syncIssuesType, int limit, long intervalSeconds,
+                        boolean adaptive) {
+        this.owner = owner;
+        this.repository = repository;
+        this.syncIssuesType = syncIssuesType;
+        this.limit = limit;
+        this.intervalSeconds = intervalSeconds;
+        this.adaptive = adaptive;
+        this.currentIntervalSeconds = intervalSeconds;
+    }
+
+    public void recordRun(SyncJob job) {
+        runs.incrementAndGet();
+        lastRunAt = Instant.now();
+        lastJobId = job.getId();
+        lastStatus = job.getStatus();
+    }
+
+    public void recordSkipped() {
+        skippedRuns.incrementAndGet();
+    }
+
+    public void recordFinished(SyncJob job, Integer changed) {
+        lastStatus = job.getStatus();
+        lastChanged = changed;
+        lastFinishedAt = Instant.now();
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public String getSyncIssuesType() {
+        return syncIssuesType;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public long getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getRuns() {
+        return runs.get();
+    }
+
+    /**
+     * @return runs that were due while the previous run of the repository was still queued or running
+     */
+    public int getSkippedRuns() {
+        return skippedRuns.get();
+    }
+
+    public long getCurrentIntervalSeconds() {
+        return currentIntervalSeconds;
+    }
+
+    public void setCurrentIntervalSeconds(long currentIntervalSeconds) {
+        this.currentIntervalSeconds = currentIntervalSeconds;
+    }
+
+    public Instant getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(Instant nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public Instant getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public Instant getLastFinishedAt() {
+        return lastFinishedAt;
+    }
+
+    public String getLastJobId() {
+        return lastJobId;
+    }
+
+    public SyncJobStatus getLastStatus() {
+        return lastStatus;
+    }
+
+    /**
+     * @return issues the last finished run fetched that were updated after its checkpoint, i.e. that changed since the
+     * run before it
+     */
+    public Integer getLastChanged() {
+        return lastChanged;
+    }
+}
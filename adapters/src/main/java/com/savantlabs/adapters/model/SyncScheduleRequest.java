@@ -0,0 +1,62 @@
+package com.savantlabs.adapters.model;
+
+/**
+ * Registers a repository for background syncs, or replaces its schedule. With {@code adaptive} (the default) the
+ * interval starts at {@code intervalSeconds} and then follows how often the repository changes.
+ */
+public class SyncScheduleRequest {
+    private String owner;
+    private String repository;
+    private String syncIssuesType;
+    private Integer limit;
+    private Long intervalSeconds;
+    private Boolean adaptive;
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public void setRepository(String repository) {
+        this.repository = repository;
+    }
+
+    public String getSyncIssuesType() {
+        return syncIssuesType;
+    }
+
+    public void setSyncIssuesType(String syncIssuesType) {
+        this.syncIssuesType = syncIssuesType;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public Long getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public void setIntervalSeconds(Long intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    public Boolean getAdaptive() {
+        return adaptive;
+    }
+
+    public void setAdaptive(Boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+}
@@ -0,0 +1,43 @@
+package com.savantlabs.adapters.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk upsert: how many documents were written, how many were skipped as unchanged and why each
+ * failed document was not written.
+ */
+public class UpsertResult {
+    private int written;
+    private int skipped;
+    private final Map<String, String> failures = new LinkedHashMap<>();
+
+    public void recordWritten() {
+        written++;
+    }
+
+    public void recordSkipped() {
+        skipped++;
+    }
+
+    public void recordFailure(String id, String reason) {
+        failures.put(id, reason);
+    }
+
+    public int getWritten() {
+        return written;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getFailed() {
+        return failures.size();
+    }
+
+    public Map<String, String> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+}
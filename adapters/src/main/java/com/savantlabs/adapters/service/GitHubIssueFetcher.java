@@ -0,0 +1,47 @@
+package com.savantlabs.adapters.service;
+
+import com.savantlabs.adapters.enums.GitHubFetchStrategy;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.PagingCursor;
+import com.savantlabs.adapters.model.ResumableIssuePage;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Reads the issues of a GitHub repository, pull requests excluded.
+ */
+public interface GitHubIssueFetcher {
+
+    /**
+     * Fetches the top N issues, newest first, calling {@code onPageFetched} after each page.
+     */
+    Map<String, Issue> fetchTopIssues(String owner, String repo, int limit, Runnable onPageFetched);
+
+    /**
+     * Fetches issues updated at or after {@code since}, least recently updated first, calling
+     * {@code onPageFetched} after each page.
+     */
+    Map<String, Issue> fetchIssuesUpdatedSince(String owner, String repo, Instant since, int limit,
+                                               Runnable onPageFetched);
+
+    /**
+     * Streams the top N issues page by page, newest first, fetching a page only when the previous one is consumed.
+     */
+    Stream<List<Issue>> streamTopIssues(String owner, String repo, int limit);
+
+    /**
+     * Streams issues updated at or after {@code since} page by page, least recently updated first.
+     */
+    Stream<List<Issue>> streamIssuesUpdatedSince(String owner, String repo, Instant since, int limit);
+
+    /**
+     * Streams issues page by page from {@code cursor}, least recently updated first. Each page comes with the cursor
+     * that follows it, from which an interrupted sync can resume without fetching the page again.
+     */
+    Stream<ResumableIssuePage> streamIssuesFrom(String owner, String repo, PagingCursor cursor, int limit);
+
+    GitHubFetchStrategy getStrategy();
+}
@@ -4,9 +4,32 @@ import com.savantlabs.adapters.enums.SyncIssueAdapterType;
 import com.savantlabs.adapters.model.SyncIssuesRequest;
 import com.savantlabs.adapters.model.SyncIssuesResponse;
 
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
 public interface SyncIssueAdapterService {
 
     SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest) throws Exception;
 
+    /**
+     * Runs a sync while reporting progress. Adapters that cannot report intermediate progress report the
+     * final counts once the sync is done.
+     */
+    default SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest, SyncProgressListener listener)
+            throws Exception {
+        SyncIssuesResponse syncIssuesResponse = syncIssues(syncIssuesRequest);
+        listener.onIssuesWritten(Objects.requireNonNullElse(syncIssuesResponse.getSaved(), 0),
+                Objects.requireNonNullElse(syncIssuesResponse.getFailed(), 0));
+        return syncIssuesResponse;
+    }
+
+    /**
+     * @return completes once the issues of the repository that syncs left to be written in the background, reported
+     * as {@code pending}, are stored; adapters that write everything before returning complete right away
+     */
+    default CompletableFuture<Void> whenStored(String owner, String repository) {
+        return CompletableFuture.completedFuture(null);
+    }
+
     SyncIssueAdapterType getRepository();
 }
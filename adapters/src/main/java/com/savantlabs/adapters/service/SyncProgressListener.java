@@ -0,0 +1,15 @@
+package com.savantlabs.adapters.service;
+
+/**
+ * Receives progress updates while a sync runs, e.g. to report the state of an asynchronous sync job.
+ */
+public interface SyncProgressListener {
+    SyncProgressListener NONE = new SyncProgressListener() {
+    };
+
+    default void onPageFetched() {
+    }
+
+    default void onIssuesWritten(int written, int failed) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.savantlabs.adapters;
+
+import com.savantlabs.adapters.helpers.LogStructuredStore;
+import com.savantlabs.adapters.support.GitHubStubServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchSyncApplicationTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void syncsOneRepositoryWithoutInitializingFirestore() throws Exception {
+        Path localStore = directory.resolve("local-store");
+        try (GitHubStubServer gitHubStubServer = new GitHubStubServer(250)) {
+            // the credentials do not exist, so the sync would fail if anything built the Firestore client
+            int status = BatchSyncApplication.run("octocat", "hello-world", "150",
+                    "--type=GIT_HUB_REPOSITORY_LOCAL_STORE",
+                    "--github.base-url=" + gitHubStubServer.baseUrl(),
+                    "--github.token=test",
+                    "--firestore.credentials=" + directory.resolve("missing.json"),
+                    "--sync.local-store.directory=" + localStore,
+                    "--sync.spool.directory=" + directory.resolve("spool"),
+                    "--sync.snapshot.directory=" + directory.resolve("snapshots"));
+            assertThat(status).isZero();
+        }
+
+        // one key per issue
+        try (LogStructuredStore store = LogStructuredStore.open(localStore, 1 << 20, true, 1 << 20)) {
+            assertThat(store.size()).isEqualTo(150);
+        }
+    }
+
+    @Test
+    void rejectsMissingArguments() throws Exception {
+        assertThat(BatchSyncApplication.run("octocat", "hello-world")).isEqualTo(2);
+        assertThat(BatchSyncApplication.run("octocat", "hello-world", "many")).isEqualTo(2);
+    }
+}
@@ -0,0 +1,75 @@
+package com.savantlabs.adapters.benchmark;
+
+import com.savantlabs.adapters.config.GitHubHttpConfig;
+import com.savantlabs.adapters.enums.GitHubHttpTransport;
+import com.savantlabs.adapters.helpers.GitHubClient;
+import com.savantlabs.adapters.helpers.GitHubHttpMetrics;
+import com.savantlabs.adapters.helpers.GitHubRateLimiter;
+import com.savantlabs.adapters.helpers.GitHubResponseCache;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.support.GitHubStubServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serial paging latency of {@value #LIMIT} issues (ten pages) per HTTP transport, with and without gzip.
+ * {@code SIMPLE} without gzip is the transport GitHubClient used before it became configurable. The stub is plain
+ * HTTP on localhost, so this measures connection reuse and payload size, not TLS handshakes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GitHubPagingBenchmark {
+    private static final int LIMIT = 1_000;
+
+    @Param({"SIMPLE", "JDK"})
+    public GitHubHttpTransport transport;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private GitHubStubServer gitHubStubServer;
+    private GitHubClient gitHubClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        gitHubStubServer = new GitHubStubServer(1_500);
+        gitHubClient = new GitHubClient(
+                GitHubHttpConfig.restTemplate(transport, Duration.ofSeconds(5), Duration.ofSeconds(30), gzip,
+                        new GitHubHttpMetrics()),
+                "", gitHubStubServer.baseUrl(), GitHubStubServer.ISSUES_URL, GitHubStubServer.ISSUES_SINCE_URL,
+                GitHubStubServer.ORG_REPOS_URL, new GitHubResponseCache(500),
+                new GitHubRateLimiter(1_000_000, 1_000_000, 0, 1, 3), 1, 100, 8, new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        gitHubClient.shutdown();
+        gitHubStubServer.close();
+    }
+
+    @Benchmark
+    public Map<String, Issue> pageTopIssues() {
+        return gitHubClient.fetchTopIssues("octocat", "hello-world", LIMIT);
+    }
+}
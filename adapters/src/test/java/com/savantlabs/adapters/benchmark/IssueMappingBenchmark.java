@@ -0,0 +1,87 @@
+package com.savantlabs.adapters.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.savantlabs.adapters.helpers.FirestoreClient;
+import com.savantlabs.adapters.helpers.IssueContentHashCache;
+import com.savantlabs.adapters.helpers.IssueQueryCache;
+import com.savantlabs.adapters.helpers.IssueSnapshotStore;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.IssueMapper;
+import com.savantlabs.adapters.support.GitHubStubServer;
+import com.savantlabs.adapters.support.InMemoryFirestore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-issue cost of the two mapping steps of a sync: GitHub JSON to {@link Issue} and {@link Issue} to the
+ * Firestore document map. Scores and {@code gc.alloc.rate.norm} are per issue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IssueMappingBenchmark {
+    // issues (entries without a pull_request field) on the recorded fixture page
+    private static final int FIXTURE_ISSUES = 80;
+
+    private final List<JsonNode> issueNodes = new ArrayList<>();
+    private final List<Issue> issues = new ArrayList<>();
+    private FirestoreClient firestoreClient;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream fixture = getClass().getResourceAsStream(GitHubStubServer.FIXTURE)) {
+            for (JsonNode jsonNode : new ObjectMapper().readTree(fixture)) {
+                if (IssueMapper.isPullRequest(jsonNode)) continue;
+                issueNodes.add(jsonNode);
+                Issue issue = IssueMapper.toIssue(jsonNode).withOwnerRepo("octocat", "hello-world");
+                issue.syncedAt = Instant.now();
+                issues.add(issue);
+            }
+        }
+        if (issues.size() != FIXTURE_ISSUES) {
+            throw new IllegalStateException("Fixture has " + issues.size() + " issues, expected " + FIXTURE_ISSUES);
+        }
+        InMemoryFirestore inMemoryFirestore = new InMemoryFirestore();
+        firestoreClient = new FirestoreClient(inMemoryFirestore.firestore(), inMemoryFirestore.firestore(),
+                "github-issues", "github-sync-checkpoints", 500, 1_000, 5, new IssueContentHashCache(false, 1, 1),
+                new IssueSnapshotStore(false, "", 0, 1), new IssueQueryCache(false, 1, 1), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIXTURE_ISSUES)
+    public void toIssue(Blackhole blackhole) {
+        for (JsonNode jsonNode : issueNodes) {
+            blackhole.consume(IssueMapper.toIssue(jsonNode));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FIXTURE_ISSUES)
+    public void issueToMap(Blackhole blackhole) {
+        for (Issue issue : issues) {
+            blackhole.consume(firestoreClient.issueToMap(issue));
+        }
+    }
+}
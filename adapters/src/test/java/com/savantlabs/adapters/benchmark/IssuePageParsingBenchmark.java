@@ -0,0 +1,68 @@
+package com.savantlabs.adapters.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.IssueMapper;
+import com.savantlabs.adapters.model.IssuePage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares mapping one 100-entry list-issues page through a full JsonNode tree with the token-streaming
+ * {@link IssueMapper#readPage(JsonParser)} path. Run with the {@code benchmark} profile; the gc profiler it
+ * enables reports allocation per operation ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IssuePageParsingBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private byte[] payload;
+
+    @Setup
+    public void loadFixture() throws IOException {
+        try (InputStream fixture = getClass().getResourceAsStream("/fixtures/github/issues-page.json")) {
+            payload = fixture.readAllBytes();
+        }
+    }
+
+    @Benchmark
+    public List<Issue> jsonNodeTree() throws IOException {
+        JsonNode jsonArray = objectMapper.readTree(new ByteArrayInputStream(payload));
+        List<Issue> issues = new ArrayList<>();
+        for (JsonNode jsonNode : jsonArray) {
+            if (IssueMapper.isPullRequest(jsonNode)) continue;
+            issues.add(IssueMapper.toIssue(jsonNode));
+        }
+        return issues;
+    }
+
+    @Benchmark
+    public IssuePage streamingParser() throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(new ByteArrayInputStream(payload))) {
+            return IssueMapper.readPage(parser);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.savantlabs.adapters.benchmark;
+
+import com.savantlabs.adapters.AdaptersApplication;
+import com.savantlabs.adapters.BatchSyncApplication;
+import com.savantlabs.adapters.support.GitHubStubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Wall-clock time of one container-style run in a fresh JVM, from launch to exit:
+ * <ul>
+ *   <li>{@code WEB}: the web app, until it is ready to serve requests;</li>
+ *   <li>{@code BATCH}: {@link BatchSyncApplication} syncing {@value #LIMIT} issues from a local GitHub stub into
+ *   the local store;</li>
+ *   <li>{@code BATCH_APPCDS}: the same with the class data archive of {@code mvn -Pappcds package}.</li>
+ * </ul>
+ * All three use the extracted {@code target/batch} layout when it exists, and the test class path otherwise, in
+ * which case {@code BATCH_APPCDS} fails.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupTimeBenchmark {
+    private static final int LIMIT = 100;
+    private static final Path BATCH_LAYOUT = Path.of("target", "batch");
+
+    @Param({"WEB", "BATCH", "BATCH_APPCDS"})
+    public String launch;
+
+    private GitHubStubServer gitHubStubServer;
+    private Path workDirectory;
+    private int run;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (launch.equals("BATCH_APPCDS") && !Files.exists(BATCH_LAYOUT.resolve("adapters.jsa"))) {
+            throw new IllegalStateException("No class data archive in " + BATCH_LAYOUT
+                    + "; build it with mvn -Pappcds package -DskipTests");
+        }
+        gitHubStubServer = new GitHubStubServer(250);
+        workDirectory = Files.createTempDirectory("startup-benchmark");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        gitHubStubServer.close();
+        try (Stream<Path> files = Files.walk(workDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public int launch() throws Exception {
+        // every run starts with empty stores, like a fresh container
+        Path data = workDirectory.resolve("run-" + run++);
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (launch.equals("BATCH_APPCDS")) {
+            command.add("-XX:SharedArchiveFile=adapters.jsa");
+        }
+        command.add("-cp");
+        // the archive only matches the relative class path it was recorded with
+        boolean extracted = Files.exists(BATCH_LAYOUT.resolve("adapters.jar"));
+        command.add(extracted ? "adapters.jar" : System.getProperty("java.class.path"));
+        if (launch.equals("WEB")) {
+            command.add("-Dspring.context.exit=onRefresh");
+            command.add(AdaptersApplication.class.getName());
+            command.add("--server.port=0");
+        } else {
+            command.add(BatchSyncApplication.class.getName());
+            command.addAll(List.of("octocat", "hello-world", String.valueOf(LIMIT),
+                    "--type=GIT_HUB_REPOSITORY_LOCAL_STORE",
+                    "--github.base-url=" + gitHubStubServer.baseUrl(),
+                    "--sync.local-store.directory=" + data.resolve("local-store")));
+        }
+        command.add("--sync.spool.directory=" + data.resolve("issue-spool"));
+        command.add("--sync.snapshot.directory=" + data.resolve("snapshots"));
+
+        Path log = workDirectory.resolve("run.log");
+        ProcessBuilder processBuilder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        if (extracted) {
+            processBuilder.directory(BATCH_LAYOUT.toFile());
+        }
+        processBuilder.environment().put("GITHUB_TOKEN", "benchmark");
+        // never read: neither run calls Firestore
+        processBuilder.environment().put("GOOGLE_APPLICATION_CREDENTIALS",
+                workDirectory.resolve("missing.json").toString());
+        int status = processBuilder.start().waitFor();
+        if (status != 0) {
+            String output = Files.readString(log);
+            throw new IllegalStateException(launch + " run exited with " + status + ":\n"
+                    + output.substring(Math.max(0, output.length() - 2_000)));
+        }
+        return status;
+    }
+}
@@ -0,0 +1,189 @@
+package com.savantlabs.adapters.benchmark;
+
+import com.savantlabs.adapters.business.GitHubIssueFetcherFactory;
+import com.savantlabs.adapters.business.GitHubIssueToFirestoreSyncAdapterImpl;
+import com.savantlabs.adapters.business.GitHubIssueToLocalStoreSyncAdapterImpl;
+import com.savantlabs.adapters.business.SyncRunObserver;
+import com.savantlabs.adapters.config.GitHubHttpConfig;
+import com.savantlabs.adapters.enums.GitHubFetchStrategy;
+import com.savantlabs.adapters.enums.GitHubHttpTransport;
+import com.savantlabs.adapters.enums.SyncIssueAdapterType;
+import com.savantlabs.adapters.helpers.FirestoreClient;
+import com.savantlabs.adapters.helpers.GitHubClient;
+import com.savantlabs.adapters.helpers.GitHubHttpMetrics;
+import com.savantlabs.adapters.helpers.GitHubRateLimiter;
+import com.savantlabs.adapters.helpers.GitHubResponseCache;
+import com.savantlabs.adapters.helpers.IssueContentHashCache;
+import com.savantlabs.adapters.helpers.IssueQueryCache;
+import com.savantlabs.adapters.helpers.IssueSnapshotStore;
+import com.savantlabs.adapters.helpers.IssueSpool;
+import com.savantlabs.adapters.helpers.LocalIssueStore;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.SyncIssuesRequest;
+import com.savantlabs.adapters.model.SyncIssuesResponse;
+import com.savantlabs.adapters.model.UpsertResult;
+import com.savantlabs.adapters.service.SyncIssueAdapterService;
+import com.savantlabs.adapters.support.GitHubStubServer;
+import com.savantlabs.adapters.support.InMemoryFirestore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of the Firestore adapter, writing to the in-memory Firestore fake, against the local-store adapter,
+ * writing to a log-structured store in a temporary directory with fsync on. Both sync the same stub fixture.
+ * <p>
+ * {@code syncIssues} is the end-to-end sync of {@value #LIMIT} issues; after the first invocation both adapters skip
+ * the unchanged issues. {@code writePage} writes pages of changed issues from 4 threads, which is where the group
+ * commit of the local store shares fsyncs. The fake has no network round trips, so the Firestore numbers are an
+ * upper bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SyncAdapterThroughputBenchmark {
+    private static final int LIMIT = 1_000;
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"GIT_HUB_REPOSITORY_FIRESTORE", "GIT_HUB_REPOSITORY_LOCAL_STORE"})
+    public SyncIssueAdapterType adapterType;
+
+    private GitHubStubServer gitHubStubServer;
+    private GitHubClient gitHubClient;
+    private GitHubIssueToFirestoreSyncAdapterImpl firestoreAdapter;
+    private LocalIssueStore localIssueStore;
+    private Path localStoreDirectory;
+    private SyncIssueAdapterService syncAdapter;
+    private IssueWriter issueWriter;
+    private List<List<Issue>> pages;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        gitHubStubServer = new GitHubStubServer(1_500);
+        RestTemplate restTemplate = GitHubHttpConfig.restTemplate(GitHubHttpTransport.JDK, Duration.ofSeconds(5),
+                Duration.ofSeconds(30), true, new GitHubHttpMetrics());
+        gitHubClient = new GitHubClient(restTemplate, "", gitHubStubServer.baseUrl(), GitHubStubServer.ISSUES_URL,
+                GitHubStubServer.ISSUES_SINCE_URL, GitHubStubServer.ORG_REPOS_URL, new GitHubResponseCache(500),
+                new GitHubRateLimiter(1_000_000, 1_000_000, 0, 1, 3), 4, 100, 8, new SimpleMeterRegistry());
+        GitHubIssueFetcherFactory issueFetcherFactory = new GitHubIssueFetcherFactory(List.of(gitHubClient));
+
+        List<Issue> fixture = new ArrayList<>(gitHubClient.fetchTopIssues("octocat", "hello-world", LIMIT).values());
+        pages = new ArrayList<>();
+        for (int from = 0; from < fixture.size(); from += PAGE_SIZE) {
+            pages.add(fixture.subList(from, Math.min(from + PAGE_SIZE, fixture.size())));
+        }
+
+        if (adapterType == SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE) {
+            InMemoryFirestore inMemoryFirestore = new InMemoryFirestore();
+            FirestoreClient firestoreClient = new FirestoreClient(inMemoryFirestore.firestore(),
+                    inMemoryFirestore.firestore(), "github-issues", "github-sync-checkpoints", 500, 1_000, 5,
+                    new IssueContentHashCache(true, 10, 10_000), new IssueSnapshotStore(false, "", 0, 1),
+                    new IssueQueryCache(false, 1, 1), new SimpleMeterRegistry());
+            firestoreAdapter = new GitHubIssueToFirestoreSyncAdapterImpl(issueFetcherFactory, GitHubFetchStrategy.REST,
+                    firestoreClient, new IssueSpool(firestoreClient, false, "", 1, 1, 0), true, 4, 0,
+                    new SyncRunObserver(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+            syncAdapter = firestoreAdapter;
+            issueWriter = firestoreClient::upsertAll;
+        } else {
+            localStoreDirectory = Files.createTempDirectory("local-store-benchmark");
+            localIssueStore = new LocalIssueStore(localStoreDirectory.toString(), 65_536, true, 4_096, 30_000);
+            syncAdapter = new GitHubIssueToLocalStoreSyncAdapterImpl(issueFetcherFactory, GitHubFetchStrategy.REST,
+                    localIssueStore, new SyncRunObserver(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+            issueWriter = localIssueStore::upsertAll;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (firestoreAdapter != null) firestoreAdapter.shutdown();
+        if (localIssueStore != null) {
+            localIssueStore.close();
+            try (Stream<Path> files = Files.walk(localStoreDirectory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+        gitHubClient.shutdown();
+        gitHubStubServer.close();
+    }
+
+    @Benchmark
+    public SyncIssuesResponse syncIssues() throws Exception {
+        SyncIssuesRequest syncIssuesRequest = new SyncIssuesRequest();
+        syncIssuesRequest.setOwner("octocat");
+        syncIssuesRequest.setRepository("hello-world");
+        syncIssuesRequest.setSyncIssuesType(adapterType.name());
+        syncIssuesRequest.setLimit(LIMIT);
+        return syncAdapter.syncIssues(syncIssuesRequest);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UpsertResult writePage(PageCursor cursor) throws Exception {
+        return issueWriter.upsertAll(cursor.nextPage(pages));
+    }
+
+    /**
+     * Walks through the fixture pages, changing every issue's title so that no write is skipped as unchanged.
+     */
+    @State(Scope.Thread)
+    public static class PageCursor {
+        private static final AtomicLong THREADS = new AtomicLong();
+
+        // threads start far apart, so no two of them write the same title
+        private long round = THREADS.getAndIncrement() << 32;
+
+        List<Issue> nextPage(List<List<Issue>> pages) {
+            List<Issue> page = pages.get((int) (round % pages.size()));
+            List<Issue> changed = new ArrayList<>(page.size());
+            for (Issue issue : page) {
+                Issue copy = new Issue();
+                copy.id = issue.id;
+                copy.owner = issue.owner;
+                copy.repo = issue.repo;
+                copy.title = issue.title + " #" + round;
+                copy.state = issue.state;
+                copy.htmlUrl = issue.htmlUrl;
+                copy.createdAt = issue.createdAt;
+                copy.updatedAt = issue.updatedAt;
+                changed.add(copy);
+            }
+            round++;
+            return changed;
+        }
+    }
+
+    private interface IssueWriter {
+        UpsertResult upsertAll(Collection<Issue> issues) throws Exception;
+    }
+}
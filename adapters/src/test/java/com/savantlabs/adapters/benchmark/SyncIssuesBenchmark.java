@@ -0,0 +1,113 @@
+package com.savantlabs.adapters.benchmark;
+
+import com.savantlabs.adapters.business.GitHubIssueFetcherFactory;
+import com.savantlabs.adapters.business.GitHubIssueToFirestoreSyncAdapterImpl;
+import com.savantlabs.adapters.business.SyncRunObserver;
+import com.savantlabs.adapters.config.GitHubHttpConfig;
+import com.savantlabs.adapters.enums.GitHubFetchStrategy;
+import com.savantlabs.adapters.enums.GitHubHttpTransport;
+import com.savantlabs.adapters.enums.SyncIssueAdapterType;
+import com.savantlabs.adapters.helpers.FirestoreClient;
+import com.savantlabs.adapters.helpers.GitHubClient;
+import com.savantlabs.adapters.helpers.GitHubHttpMetrics;
+import com.savantlabs.adapters.helpers.GitHubRateLimiter;
+import com.savantlabs.adapters.helpers.GitHubResponseCache;
+import com.savantlabs.adapters.helpers.IssueContentHashCache;
+import com.savantlabs.adapters.helpers.IssueQueryCache;
+import com.savantlabs.adapters.helpers.IssueSnapshotStore;
+import com.savantlabs.adapters.helpers.IssueSpool;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.SyncIssuesRequest;
+import com.savantlabs.adapters.model.SyncIssuesResponse;
+import com.savantlabs.adapters.support.GitHubStubServer;
+import com.savantlabs.adapters.support.InMemoryFirestore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end sync of {@value #LIMIT} issues from a local GitHub stub into the in-memory Firestore fake, plus the
+ * GitHub paging loop on its own. Nothing leaves the machine, so results are reproducible offline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SyncIssuesBenchmark {
+    private static final int LIMIT = 1_000;
+
+    @Param({"1", "4"})
+    public int fetchParallelism;
+
+    @Param({"false", "true"})
+    public boolean pipelineEnabled;
+
+    private GitHubStubServer gitHubStubServer;
+    private InMemoryFirestore inMemoryFirestore;
+    private GitHubClient gitHubClient;
+    private GitHubIssueToFirestoreSyncAdapterImpl syncAdapter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // 1,500 entries of which 1,200 are issues, so the limit is reached before the listing ends
+        gitHubStubServer = new GitHubStubServer(1_500);
+        inMemoryFirestore = new InMemoryFirestore();
+        RestTemplate restTemplate = GitHubHttpConfig.restTemplate(GitHubHttpTransport.JDK, Duration.ofSeconds(5),
+                Duration.ofSeconds(30), true, new GitHubHttpMetrics());
+        gitHubClient = new GitHubClient(restTemplate, "", gitHubStubServer.baseUrl(), GitHubStubServer.ISSUES_URL,
+                GitHubStubServer.ISSUES_SINCE_URL, GitHubStubServer.ORG_REPOS_URL, new GitHubResponseCache(500),
+                new GitHubRateLimiter(1_000_000, 1_000_000, 0, 1, 3), fetchParallelism, 100, 8,
+                new SimpleMeterRegistry());
+        // every invocation syncs the same issues; without the content hash cache each one writes them all
+        FirestoreClient firestoreClient = new FirestoreClient(inMemoryFirestore.firestore(),
+                inMemoryFirestore.firestore(), "github-issues", "github-sync-checkpoints", 500, 1_000, 5,
+                new IssueContentHashCache(false, 1, 1), new IssueSnapshotStore(false, "", 0, 1),
+                new IssueQueryCache(false, 1, 1), new SimpleMeterRegistry());
+        syncAdapter = new GitHubIssueToFirestoreSyncAdapterImpl(new GitHubIssueFetcherFactory(List.of(gitHubClient)),
+                GitHubFetchStrategy.REST, firestoreClient, new IssueSpool(firestoreClient, false, "", 1, 1, 0),
+                pipelineEnabled, 4, 0, new SyncRunObserver(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        syncAdapter.shutdown();
+        gitHubClient.shutdown();
+        gitHubStubServer.close();
+    }
+
+    @Benchmark
+    public SyncIssuesResponse syncIssues() throws Exception {
+        SyncIssuesRequest syncIssuesRequest = new SyncIssuesRequest();
+        syncIssuesRequest.setOwner("octocat");
+        syncIssuesRequest.setRepository("hello-world");
+        syncIssuesRequest.setSyncIssuesType(SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE.name());
+        syncIssuesRequest.setLimit(LIMIT);
+        return syncAdapter.syncIssues(syncIssuesRequest);
+    }
+
+    @Benchmark
+    public Map<String, Issue> fetchTopIssues() {
+        return gitHubClient.fetchTopIssues("octocat", "hello-world", LIMIT);
+    }
+}
@@ -0,0 +1,121 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.enums.SyncIssueAdapterType;
+import com.savantlabs.adapters.enums.SyncJobStatus;
+import com.savantlabs.adapters.helpers.GitHubClient;
+import com.savantlabs.adapters.model.BatchSyncIssuesRequest;
+import com.savantlabs.adapters.model.BatchSyncIssuesResponse;
+import com.savantlabs.adapters.model.RepositoryRef;
+import com.savantlabs.adapters.model.RepositorySyncResult;
+import com.savantlabs.adapters.model.SyncIssuesRequest;
+import com.savantlabs.adapters.model.SyncIssuesResponse;
+import com.savantlabs.adapters.service.SyncIssueAdapterService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchSyncServiceTest {
+    private final SyncJobService syncJobService = new SyncJobService(4, 10, 100);
+    private final GitHubClient gitHubClient = mock(GitHubClient.class);
+    private final BatchSyncService batchSyncService = new BatchSyncService(syncJobService, gitHubClient, 2, 10);
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final List<SyncIssuesRequest> requests = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        syncJobService.shutdown();
+        batchSyncService.shutdown();
+    }
+
+    @Test
+    void syncsListedAndOrganizationRepositoriesWithBoundedConcurrency() {
+        CountDownLatch organizationListed = new CountDownLatch(1);
+        when(gitHubClient.listOrganizationRepositories("octo-org")).thenAnswer(invocation -> {
+            organizationListed.await(5, TimeUnit.SECONDS);
+            return List.of("spoon-knife", "linguist", "broken");
+        });
+        BatchSyncIssuesRequest batchRequest = new BatchSyncIssuesRequest();
+        batchRequest.setSyncIssuesType(SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE.name());
+        batchRequest.setLimit(10);
+        batchRequest.setResumable(true);
+        batchRequest.setOrganization("octo-org");
+        batchRequest.setRepositories(List.of(
+                new RepositoryRef("octocat", "hello-world"),
+                new RepositoryRef("Octo-Org", "Spoon-Knife")));
+
+        BatchSyncIssuesResponse submitted = batchSyncService.submitAll(countingAdapter, batchRequest);
+        // returns before the syncs finish and before the organization is listed, with the listed repositories
+        // submitted
+        assertThat(submitted.getStatus()).isEqualTo(SyncJobStatus.RUNNING);
+        assertThat(submitted.getRepositories()).extracting(RepositorySyncResult::getJobId).hasSize(2)
+                .doesNotContainNull();
+        organizationListed.countDown();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> batchSyncService.getBatch(submitted.getId())
+                .orElseThrow().getStatus() == SyncJobStatus.COMPLETED);
+        BatchSyncIssuesResponse response = batchSyncService.getBatch(submitted.getId()).orElseThrow();
+        assertThat(response.getRepositories()).extracting(RepositorySyncResult::getRepository)
+                .containsExactly("hello-world", "Spoon-Knife", "linguist", "broken");
+        assertThat(response.getCompleted()).isEqualTo(3);
+        assertThat(response.getFailedRepositories()).isEqualTo(1);
+        assertThat(response.getSaved()).isEqualTo(15);
+        assertThat(response.getRepositories().get(3).getStatus()).isEqualTo(SyncJobStatus.FAILED);
+        assertThat(response.getRepositories().get(3).getError()).isEqualTo("Not Found");
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+        assertThat(requests).allSatisfy(request -> assertThat(request.getResumable()).isTrue());
+    }
+
+    @Test
+    void failsTheBatchOnceItsRepositoriesFinishedIfTheOrganizationCouldNotBeListed() {
+        when(gitHubClient.listOrganizationRepositories("octo-org")).thenThrow(new IllegalStateException("Not Found"));
+        BatchSyncIssuesRequest batchRequest = new BatchSyncIssuesRequest();
+        batchRequest.setLimit(10);
+        batchRequest.setOrganization("octo-org");
+        batchRequest.setRepositories(List.of(new RepositoryRef("octocat", "hello-world")));
+
+        String id = batchSyncService.submitAll(countingAdapter, batchRequest).getId();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> batchSyncService.getBatch(id)
+                .orElseThrow().getStatus() == SyncJobStatus.FAILED);
+        BatchSyncIssuesResponse response = batchSyncService.getBatch(id).orElseThrow();
+        assertThat(response.getCompleted()).isEqualTo(1);
+        assertThat(response.getError()).isEqualTo("Could not list the repositories of octo-org: Not Found");
+    }
+
+    private final SyncIssueAdapterService countingAdapter = new SyncIssueAdapterService() {
+        @Override
+        public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest) throws InterruptedException {
+            requests.add(syncIssuesRequest);
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                if (syncIssuesRequest.getRepository().equals("broken")) {
+                    throw new IllegalStateException("Not Found");
+                }
+                SyncIssuesResponse syncIssuesResponse = new SyncIssuesResponse();
+                syncIssuesResponse.setSaved(5);
+                syncIssuesResponse.setFailed(0);
+                return syncIssuesResponse;
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        @Override
+        public SyncIssueAdapterType getRepository() {
+            return SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE;
+        }
+    };
+}
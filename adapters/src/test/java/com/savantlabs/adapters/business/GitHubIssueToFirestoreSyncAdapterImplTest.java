@@ -0,0 +1,180 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.enums.GitHubFetchStrategy;
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.helpers.FirestoreClient;
+import com.savantlabs.adapters.helpers.IssueContentHashCache;
+import com.savantlabs.adapters.helpers.IssueQueryCache;
+import com.savantlabs.adapters.helpers.IssueSnapshotStore;
+import com.savantlabs.adapters.helpers.IssueSpool;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.SyncIssuesRequest;
+import com.savantlabs.adapters.model.SyncIssuesResponse;
+import com.savantlabs.adapters.service.GitHubIssueFetcher;
+import com.savantlabs.adapters.support.InMemoryFirestore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GitHubIssueToFirestoreSyncAdapterImplTest {
+    private static final Instant START = Instant.parse("2025-09-01T00:00:00Z");
+
+    private final GitHubIssueFetcher issueFetcher = mock(GitHubIssueFetcher.class);
+    private final InMemoryFirestore inMemoryFirestore = new InMemoryFirestore();
+    private FirestoreClient firestoreClient;
+    private GitHubIssueToFirestoreSyncAdapterImpl syncAdapter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(issueFetcher.getStrategy()).thenReturn(GitHubFetchStrategy.REST);
+        firestoreClient = new FirestoreClient(inMemoryFirestore.firestore(), inMemoryFirestore.firestore(),
+                "issues", "checkpoints", 10, 500, 3, new IssueContentHashCache(true, 10, 100),
+                new IssueSnapshotStore(false, "", 0, 1), new IssueQueryCache(false, 1, 1), new SimpleMeterRegistry());
+        syncAdapter = new GitHubIssueToFirestoreSyncAdapterImpl(
+                new GitHubIssueFetcherFactory(List.of(issueFetcher)), GitHubFetchStrategy.REST, firestoreClient,
+                new IssueSpool(firestoreClient, false, "", 1, 1, 0), false, 1, 0,
+                new SyncRunObserver(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+    }
+
+    @AfterEach
+    void tearDown() {
+        syncAdapter.shutdown();
+    }
+
+    @Test
+    void incrementalSyncFetchesSinceTheCheckpointAndMovesIt() throws Exception {
+        // the first incremental sync has no checkpoint yet and falls back to a full fetch
+        when(issueFetcher.fetchTopIssues(eq("octocat"), eq("hello-world"), anyInt(), any()))
+                .thenReturn(issues(0, 3));
+        assertThat(syncAdapter.syncIssues(incrementalRequest()).getSaved()).isEqualTo(3);
+        verify(issueFetcher, never()).fetchIssuesUpdatedSince(any(), any(), any(), anyInt(), any());
+        Instant checkpoint = START.plusSeconds(2 * 3600);
+        assertThat(firestoreClient.getLastUpdatedAt("octocat", "hello-world")).contains(checkpoint);
+
+        // the next one asks GitHub only for issues updated since then, one of them without updated_at
+        Map<String, Issue> changed = issues(2, 3);
+        changed.get("1003").updatedAt = null;
+        when(issueFetcher.fetchIssuesUpdatedSince(eq("octocat"), eq("hello-world"), eq(checkpoint), anyInt(), any()))
+                .thenReturn(changed);
+        SyncIssuesResponse syncIssuesResponse = syncAdapter.syncIssues(incrementalRequest());
+
+        assertThat(syncIssuesResponse.getSaved()).isEqualTo(2);
+        assertThat(syncIssuesResponse.getSkipped()).isEqualTo(1);
+        assertThat(syncIssuesResponse.getFailed()).isZero();
+        // 1002 is the issue at the checkpoint, fetched again, and 1003 has no updatedAt to tell
+        assertThat(syncIssuesResponse.getChanged()).isEqualTo(1);
+        assertThat(inMemoryFirestore.document("issues", "1003").get("updatedAt")).isNull();
+        assertThat(firestoreClient.getLastUpdatedAt("octocat", "hello-world")).contains(START.plusSeconds(4 * 3600));
+
+        // without changes, only the issue at the checkpoint comes back
+        when(issueFetcher.fetchIssuesUpdatedSince(eq("octocat"), eq("hello-world"), eq(START.plusSeconds(4 * 3600)),
+                anyInt(), any())).thenReturn(issues(4, 1));
+        syncIssuesResponse = syncAdapter.syncIssues(incrementalRequest());
+        assertThat(syncIssuesResponse.getSkipped()).isEqualTo(1);
+        assertThat(syncIssuesResponse.getChanged()).isZero();
+    }
+
+    @Test
+    void rejectsAMissingOrNonPositiveLimit() {
+        SyncIssuesRequest syncIssuesRequest = incrementalRequest();
+        syncIssuesRequest.setLimit(null);
+        assertThatThrownBy(() -> syncAdapter.syncIssues(syncIssuesRequest))
+                .isInstanceOfSatisfying(CustomException.class,
+                        ex -> assertThat(ex.getStatus().value()).isEqualTo(400));
+        syncIssuesRequest.setLimit(0);
+        assertThatThrownBy(() -> syncAdapter.syncIssues(syncIssuesRequest))
+                .isInstanceOfSatisfying(CustomException.class,
+                        ex -> assertThat(ex.getStatus().value()).isEqualTo(400));
+    }
+
+    @Test
+    void refusesToStartWithBothTheSpoolAndThePipelineEnabled(@TempDir Path spoolDirectory) throws Exception {
+        IssueSpool issueSpool = new IssueSpool(firestoreClient, true, spoolDirectory.toString(), 64, 10, 10);
+        try {
+            assertThatThrownBy(() -> new GitHubIssueToFirestoreSyncAdapterImpl(
+                    new GitHubIssueFetcherFactory(List.of(issueFetcher)), GitHubFetchStrategy.REST, firestoreClient,
+                    issueSpool, true, 1, 0, new SyncRunObserver(new SimpleMeterRegistry(), ObservationRegistry.NOOP)))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("mutually exclusive");
+        } finally {
+            issueSpool.close();
+        }
+    }
+
+    @Test
+    void spooledSyncLeavesTheCheckpointAloneWhilePagesArePending(@TempDir Path spoolDirectory) throws Exception {
+        // the spool drainer cannot write until Firestore is released
+        CountDownLatch firestoreBlocked = new CountDownLatch(1);
+        FirestoreClient drainerClient = mock(FirestoreClient.class);
+        when(drainerClient.upsertAll(anyCollection())).thenAnswer(invocation -> {
+            firestoreBlocked.await();
+            return firestoreClient.upsertAll(invocation.getArgument(0));
+        });
+        IssueSpool issueSpool = new IssueSpool(drainerClient, true, spoolDirectory.toString(), 64, 10, 10);
+        GitHubIssueToFirestoreSyncAdapterImpl spooledAdapter = new GitHubIssueToFirestoreSyncAdapterImpl(
+                new GitHubIssueFetcherFactory(List.of(issueFetcher)), GitHubFetchStrategy.REST, firestoreClient,
+                issueSpool, false, 1, 0, new SyncRunObserver(new SimpleMeterRegistry(), ObservationRegistry.NOOP));
+        when(issueFetcher.streamTopIssues(eq("octocat"), eq("hello-world"), anyInt()))
+                .thenAnswer(invocation -> Stream.of(List.copyOf(issues(0, 3).values())));
+        try {
+            SyncIssuesResponse syncIssuesResponse = spooledAdapter.syncIssues(incrementalRequest());
+
+            assertThat(syncIssuesResponse.getPending()).isEqualTo(3);
+            assertThat(firestoreClient.getLastUpdatedAt("octocat", "hello-world")).isEmpty();
+            firestoreBlocked.countDown();
+            await().atMost(Duration.ofSeconds(5)).until(() -> inMemoryFirestore.count("issues") == 3);
+        } finally {
+            firestoreBlocked.countDown();
+            spooledAdapter.shutdown();
+            issueSpool.close();
+        }
+    }
+
+    private static SyncIssuesRequest incrementalRequest() {
+        SyncIssuesRequest syncIssuesRequest = new SyncIssuesRequest();
+        syncIssuesRequest.setOwner("octocat");
+        syncIssuesRequest.setRepository("hello-world");
+        syncIssuesRequest.setLimit(100);
+        syncIssuesRequest.setIncremental(true);
+        return syncIssuesRequest;
+    }
+
+    private static Map<String, Issue> issues(int from, int count) {
+        Map<String, Issue> issues = new LinkedHashMap<>();
+        for (int i = from; i < from + count; i++) {
+            Issue issue = new Issue();
+            issue.id = String.valueOf(1000 + i);
+            issue.title = "Issue " + i;
+            issue.state = "open";
+            issue.htmlUrl = "https://github.com/octocat/hello-world/issues/" + i;
+            issue.createdAt = START;
+            issue.updatedAt = START.plusSeconds(i * 3600L);
+            issues.put(issue.id, issue.withOwnerRepo("octocat", "hello-world"));
+        }
+        return issues;
+    }
+}
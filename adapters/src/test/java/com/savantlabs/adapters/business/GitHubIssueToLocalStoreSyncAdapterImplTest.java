@@ -0,0 +1,111 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.enums.GitHubFetchStrategy;
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.helpers.LocalIssueStore;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.SyncIssuesRequest;
+import com.savantlabs.adapters.model.SyncIssuesResponse;
+import com.savantlabs.adapters.service.GitHubIssueFetcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GitHubIssueToLocalStoreSyncAdapterImplTest {
+    private static final Instant START = Instant.parse("2025-09-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private final GitHubIssueFetcher issueFetcher = mock(GitHubIssueFetcher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LocalIssueStore localIssueStore;
+    private GitHubIssueToLocalStoreSyncAdapterImpl syncAdapter;
+
+    @BeforeEach
+    void setUp() {
+        when(issueFetcher.getStrategy()).thenReturn(GitHubFetchStrategy.REST);
+        localIssueStore = new LocalIssueStore(directory.toString(), 1024, false, 1024, 5_000);
+        syncAdapter = new GitHubIssueToLocalStoreSyncAdapterImpl(
+                new GitHubIssueFetcherFactory(List.of(issueFetcher)), GitHubFetchStrategy.REST, localIssueStore,
+                new SyncRunObserver(meterRegistry, ObservationRegistry.NOOP));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        localIssueStore.close();
+    }
+
+    @Test
+    void incrementalSyncWritesPagesMovesTheCheckpointAndRecordsTheRate() throws Exception {
+        when(issueFetcher.streamTopIssues(eq("octocat"), eq("hello-world"), anyInt()))
+                .thenAnswer(invocation -> Stream.of(issues(0, 3), issues(3, 2)));
+        SyncIssuesResponse syncIssuesResponse = syncAdapter.syncIssues(incrementalRequest());
+
+        assertThat(syncIssuesResponse.getSaved()).isEqualTo(5);
+        assertThat(syncIssuesResponse.getSkipped()).isZero();
+        assertThat(syncIssuesResponse.getFailed()).isZero();
+        assertThat(syncIssuesResponse.getPending()).isZero();
+        assertThat(localIssueStore.getLastUpdatedAt("octocat", "hello-world")).contains(START.plusSeconds(4 * 3600));
+
+        // the next run starts at the checkpoint; unchanged issues are skipped
+        when(issueFetcher.streamIssuesUpdatedSince(eq("octocat"), eq("hello-world"), eq(START.plusSeconds(4 * 3600)),
+                anyInt())).thenAnswer(invocation -> Stream.of(issues(4, 2)));
+        syncIssuesResponse = syncAdapter.syncIssues(incrementalRequest());
+
+        assertThat(syncIssuesResponse.getSaved()).isEqualTo(1);
+        assertThat(syncIssuesResponse.getSkipped()).isEqualTo(1);
+        assertThat(localIssueStore.getLastUpdatedAt("octocat", "hello-world")).contains(START.plusSeconds(5 * 3600));
+        assertThat(meterRegistry.get("github.sync.issues.rate").summary().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsAMissingLimit() {
+        SyncIssuesRequest syncIssuesRequest = incrementalRequest();
+        syncIssuesRequest.setLimit(null);
+
+        assertThatThrownBy(() -> syncAdapter.syncIssues(syncIssuesRequest))
+                .isInstanceOfSatisfying(CustomException.class,
+                        ex -> assertThat(ex.getStatus().value()).isEqualTo(400));
+    }
+
+    private static SyncIssuesRequest incrementalRequest() {
+        SyncIssuesRequest syncIssuesRequest = new SyncIssuesRequest();
+        syncIssuesRequest.setOwner("octocat");
+        syncIssuesRequest.setRepository("hello-world");
+        syncIssuesRequest.setLimit(100);
+        syncIssuesRequest.setIncremental(true);
+        return syncIssuesRequest;
+    }
+
+    private static List<Issue> issues(int from, int count) {
+        List<Issue> issues = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            Issue issue = new Issue();
+            issue.id = String.valueOf(1000 + i);
+            issue.title = "Issue " + i;
+            issue.state = "open";
+            issue.htmlUrl = "https://github.com/octocat/hello-world/issues/" + i;
+            issue.createdAt = START;
+            issue.updatedAt = START.plusSeconds(i * 3600L);
+            issues.add(issue.withOwnerRepo("octocat", "hello-world"));
+        }
+        return issues;
+    }
+}
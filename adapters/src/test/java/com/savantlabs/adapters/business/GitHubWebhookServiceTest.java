@@ -0,0 +1,154 @@
+package com.savantlabs.adapters.business;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.helpers.FirestoreClient;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.UpsertResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GitHubWebhookServiceTest {
+    private static final byte[] SECRET = "It's a Secret to Everybody".getBytes(StandardCharsets.UTF_8);
+
+    private final List<List<Issue>> batches = new CopyOnWriteArrayList<>();
+    // updatedAt of the written issues, by id
+    private final Map<String, Instant> stored = new ConcurrentHashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GitHubWebhookService webhookService;
+
+    @SuppressWarnings("unchecked")
+    GitHubWebhookServiceTest() throws Exception {
+        FirestoreClient firestoreClient = mock(FirestoreClient.class);
+        when(firestoreClient.upsertAll(anyCollection())).thenAnswer(invocation -> {
+            List<Issue> batch = new ArrayList<>((Collection<Issue>) invocation.getArgument(0));
+            if (!batch.isEmpty()) batches.add(batch);
+            UpsertResult result = new UpsertResult();
+            batch.forEach(issue -> {
+                stored.put(issue.id, issue.updatedAt);
+                result.recordWritten();
+            });
+            return result;
+        });
+        when(firestoreClient.notOlderThanStored(anyCollection())).thenAnswer(invocation -> ((Collection<Issue>)
+                invocation.getArgument(0)).stream()
+                .filter(issue -> !stored.containsKey(issue.id) || !issue.updatedAt.isBefore(stored.get(issue.id)))
+                .toList());
+        webhookService = new GitHubWebhookService(firestoreClient, new ObjectMapper(),
+                new String(SECRET, StandardCharsets.UTF_8), 200, 3, meterRegistry);
+    }
+
+    @AfterEach
+    void shutdown() {
+        webhookService.shutdown();
+    }
+
+    @Test
+    void matchesTheSignatureGitHubDocuments() {
+        // example from GitHub's "Validating webhook deliveries" guide
+        assertThat(GitHubWebhookService.sign(SECRET, "Hello, World!".getBytes(StandardCharsets.UTF_8)))
+                .isEqualTo("sha256=757107ea0eb2509fc211221cce984b8a37570b6d7586c22c46f4379c8b043e17");
+    }
+
+    @Test
+    void rejectsDeliveriesWithAWrongOrMissingSignature() {
+        byte[] body = issuesEvent("edited", 1, "Title", "2025-09-07T10:00:00Z");
+
+        assertThatThrownBy(() -> webhookService.handle("issues", null, body))
+                .isInstanceOfSatisfying(CustomException.class,
+                        ex -> assertThat(ex.getStatus().value()).isEqualTo(401));
+        byte[] tampered = issuesEvent("edited", 1, "Tampered", "2025-09-07T10:00:00Z");
+        assertThatThrownBy(() -> webhookService.handle("issues", GitHubWebhookService.sign(SECRET, body), tampered))
+                .isInstanceOf(CustomException.class);
+
+        assertThat(meterRegistry.get("github.webhook.events").tag("result", "rejected").counter().count())
+                .isEqualTo(2);
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    void coalescesEventsIntoBatchedWritesOfTheLatestIssueState() {
+        assertThat(deliver("ping", "{\"zen\":\"Keep it logically awesome.\"}".getBytes(StandardCharsets.UTF_8)))
+                .isFalse();
+        assertThat(deliver("issues", issuesEvent("opened", 1, "First", "2025-09-07T10:00:00Z"))).isTrue();
+        assertThat(deliver("issues", issuesEvent("edited", 1, "Renamed", "2025-09-07T10:05:00Z"))).isTrue();
+        // a redelivery of an older event does not overwrite the newer state
+        assertThat(deliver("issues", issuesEvent("opened", 1, "First", "2025-09-07T10:00:00Z"))).isTrue();
+        assertThat(deliver("issues", issuesEvent("deleted", 2, "Gone", "2025-09-07T10:06:00Z"))).isFalse();
+        assertThat(deliver("issues", issuesEvent("closed", 3, "Third", "2025-09-07T10:07:00Z"))).isTrue();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> batches.size() == 1);
+        List<Issue> batch = batches.get(0);
+        assertThat(batch).extracting(issue -> issue.id).containsExactly("1", "3");
+        assertThat(batch.get(0).title).isEqualTo("Renamed");
+        assertThat(batch.get(0).owner).isEqualTo("octocat");
+        assertThat(batch.get(0).repo).isEqualTo("Hello-World");
+        assertThat(batch.get(1).state).isEqualTo("closed");
+
+        // a full batch is written without waiting for the window to end
+        for (int id = 10; id < 13; id++) {
+            deliver("issues", issuesEvent("opened", id, "Issue " + id, "2025-09-07T11:00:00Z"));
+        }
+        await().atMost(Duration.ofMillis(150)).until(() -> batches.size() == 2);
+        assertThat(batches.get(1)).hasSize(3);
+    }
+
+    @Test
+    void dropsEventsOlderThanTheStoredIssueAfterTheirWindowWasFlushed() throws Exception {
+        deliver("issues", issuesEvent("edited", 1, "Renamed", "2025-09-07T10:05:00Z"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> batches.size() == 1);
+
+        // redelivered in a later window, together with a newer change of another issue
+        deliver("issues", issuesEvent("opened", 1, "First", "2025-09-07T10:00:00Z"));
+        deliver("issues", issuesEvent("opened", 2, "Second", "2025-09-07T10:01:00Z"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> batches.size() == 2);
+
+        assertThat(batches.get(1)).extracting(issue -> issue.id).containsExactly("2");
+        assertThat(stored).containsEntry("1", Instant.parse("2025-09-07T10:05:00Z"));
+    }
+
+    @Test
+    void rejectsDeliveriesWithoutARepositoryOwner() {
+        byte[] body = new String(issuesEvent("opened", 1, "First", "2025-09-07T10:00:00Z"), StandardCharsets.UTF_8)
+                .replace("\"owner\":{\"login\":\"octocat\"}", "\"owner\":{}").getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> deliver("issues", body))
+                .isInstanceOfSatisfying(CustomException.class,
+                        ex -> assertThat(ex.getStatus().value()).isEqualTo(400));
+    }
+
+    private boolean deliver(String event, byte[] body) {
+        return webhookService.handle(event, GitHubWebhookService.sign(SECRET, body), body);
+    }
+
+    private static byte[] issuesEvent(String action, int id, String title, String updatedAt) {
+        String state = "closed".equals(action) ? "closed" : "open";
+        return ("""
+                {"action":"%s",
+                 "issue":{"id":%d,"number":%d,"title":"%s","state":"%s",
+                  "html_url":"https://github.com/octocat/Hello-World/issues/%d",
+                  "created_at":"2025-09-07T09:00:00Z","updated_at":"%s","body":"Details",
+                  "user":{"login":"octocat"}},
+                 "repository":{"id":1296269,"name":"Hello-World","owner":{"login":"octocat"}},
+                 "sender":{"login":"octocat"}}
+                """).formatted(action, id, id, title, state, id, updatedAt).getBytes(StandardCharsets.UTF_8);
+    }
+}
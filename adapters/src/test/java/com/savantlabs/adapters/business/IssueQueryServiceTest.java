@@ -0,0 +1,190 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.helpers.FirestoreClient;
+import com.savantlabs.adapters.helpers.IssueContentHashCache;
+import com.savantlabs.adapters.helpers.IssueQueryCache;
+import com.savantlabs.adapters.helpers.IssueSnapshot;
+import com.savantlabs.adapters.helpers.IssueSnapshotStore;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.support.InMemoryFirestore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class IssueQueryServiceTest {
+    private static final Instant START = Instant.parse("2025-09-01T00:00:00Z");
+
+    private final InMemoryFirestore inMemoryFirestore = new InMemoryFirestore();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IssueQueryCache queryCache = new IssueQueryCache(true, 2, 100);
+    private final FirestoreClient firestoreClient = spy(new FirestoreClient(inMemoryFirestore.firestore(),
+            inMemoryFirestore.firestore(), "issues", "checkpoints", 10, 500, 3,
+            new IssueContentHashCache(true, 10, 100), new IssueSnapshotStore(false, "", 0, 1), queryCache,
+            meterRegistry));
+    private final IssueQueryService issueQueryService = new IssueQueryService(firestoreClient, queryCache);
+
+    IssueQueryServiceTest() {
+        queryCache.bindTo(meterRegistry);
+    }
+
+    @Test
+    void readsARepositoryFromFirestoreOnceAndQueriesItFromMemory() throws Exception {
+        firestoreClient.upsertAll(issues("hello-world", 0, 30));
+        firestoreClient.upsertAll(issues("spoon-knife", 100, 5));
+
+        IssueSnapshot.QueryResult open = issueQueryService.query("octocat", "hello-world", "open",
+                START.plusSeconds(10 * 3600), START.plusSeconds(20 * 3600), 3);
+        // issues 10 to 19, the even ones are open
+        assertThat(open.matched()).isEqualTo(5);
+        assertThat(open.issues()).extracting(issue -> issue.id).containsExactly("1018", "1016", "1014");
+        assertThat(open.issues().get(0).syncedAt).isNotNull();
+
+        IssueSnapshot.QueryResult all = issueQueryService.query("octocat", "hello-world", null, null, null, 100);
+        assertThat(all.matched()).isEqualTo(30);
+        assertThat(all.issues().get(0).id).isEqualTo("1029");
+        assertThat(issueQueryService.query("octocat", "hello-world", "locked", null, null, 10).matched()).isZero();
+        assertThat(issueQueryService.query("octocat", "spoon-knife", null, null, null, 10).matched()).isEqualTo(5);
+
+        verify(firestoreClient, times(1)).findIssues("octocat", "hello-world");
+        assertThat(meterRegistry.get("firestore.query-cache.requests").tag("result", "hit").functionCounter()
+                .count()).isEqualTo(2);
+        assertThatThrownBy(() -> issueQueryService.query("octocat", "unknown", null, null, null, 10))
+                .isInstanceOfSatisfying(CustomException.class,
+                        ex -> assertThat(ex.getStatus().value()).isEqualTo(404));
+    }
+
+    @Test
+    void updatesCachedRepositoriesInPlaceWhenIssuesAreWritten() throws Exception {
+        firestoreClient.upsertAll(issues("hello-world", 0, 10));
+        assertThat(issueQueryService.query("octocat", "hello-world", "open", null, null, 100).matched())
+                .isEqualTo(5);
+
+        List<Issue> updates = issues("hello-world", 8, 4);
+        updates.forEach(issue -> issue.state = "closed");
+        firestoreClient.upsertAll(updates);
+
+        IssueSnapshot.QueryResult open = issueQueryService.query("octocat", "hello-world", "open", null, null, 100);
+        assertThat(open.issues()).extracting(issue -> issue.id).containsExactly("1006", "1004", "1002", "1000");
+        assertThat(issueQueryService.query("octocat", "hello-world", "closed", null, null, 100).matched())
+                .isEqualTo(8);
+        verify(firestoreClient, times(1)).findIssues("octocat", "hello-world");
+    }
+
+    @Test
+    void queriesOversizedRepositoriesInFirestoreWithTheirFilters() throws Exception {
+        firestoreClient.upsertAll(issues("hello-world", 0, 150));
+
+        // the first query counts the repository and finds it too large for the cache, without reading it all
+        assertThat(issueQueryService.query("octocat", "hello-world", null, null, null, 1).matched()).isEqualTo(150);
+        IssueSnapshot.QueryResult open = issueQueryService.query("octocat", "hello-world", "open",
+                START.plusSeconds(10 * 3600), START.plusSeconds(20 * 3600), 3);
+        assertThat(open.matched()).isEqualTo(5);
+        assertThat(open.issues()).extracting(issue -> issue.id).containsExactly("1018", "1016", "1014");
+        assertThat(issueQueryService.query("octocat", "hello-world", "locked", null, null, 10).matched()).isZero();
+
+        verify(firestoreClient, never()).findIssues(any(), any());
+        verify(firestoreClient, times(3)).queryIssues(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void queriesFirestoreWithTheFiltersWhileTheCacheIsDisabled() throws Exception {
+        IssueQueryService uncached = new IssueQueryService(firestoreClient, new IssueQueryCache(false, 2, 100));
+        firestoreClient.upsertAll(issues("hello-world", 0, 30));
+
+        IssueSnapshot.QueryResult all = uncached.query("octocat", "hello-world", null, null, null, 2);
+        assertThat(all.matched()).isEqualTo(30);
+        assertThat(all.issues()).extracting(issue -> issue.id).containsExactly("1029", "1028");
+        assertThat(uncached.query("octocat", "hello-world", "open", START.plusSeconds(40 * 3600), null, 10)
+                .matched()).isZero();
+        assertThatThrownBy(() -> uncached.query("octocat", "unknown", null, null, null, 10))
+                .isInstanceOfSatisfying(CustomException.class,
+                        ex -> assertThat(ex.getStatus().value()).isEqualTo(404));
+        verify(firestoreClient, never()).findIssues(any(), any());
+    }
+
+    @Test
+    void queriesFirestoreIgnoringCaseAndFractionsOfASecondInTheBounds() throws Exception {
+        IssueQueryService uncached = new IssueQueryService(firestoreClient, new IssueQueryCache(false, 2, 100));
+        firestoreClient.upsertAll(issues("hello-world", 0, 30));
+
+        // issues 10 to 19 are created on the hour; the bounds fall half a second after 10 and 20
+        IssueSnapshot.QueryResult result = uncached.query("Octocat", "Hello-World", null,
+                START.plusSeconds(10 * 3600).plusMillis(500), START.plusSeconds(20 * 3600).plusMillis(500), 100);
+        assertThat(result.matched()).isEqualTo(10);
+        assertThat(result.issues()).extracting(issue -> issue.id).first().isEqualTo("1020");
+        assertThat(result.issues()).extracting(issue -> issue.id).last().isEqualTo("1011");
+    }
+
+    @Test
+    void concurrentQueriesOfAnUncachedRepositoryShareOneLoad() throws Exception {
+        firestoreClient.upsertAll(issues("hello-world", 0, 10));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(firestoreClient).findIssues(any(), any());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<IssueSnapshot.QueryResult>> results = new ArrayList<>();
+            results.add(executor.submit(() -> issueQueryService.query("octocat", "hello-world", null, null, null,
+                    10)));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> issueQueryService.query("Octocat", "Hello-World", "open", null,
+                        null, 10)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(results.get(0).get(5, TimeUnit.SECONDS).matched()).isEqualTo(10);
+            for (Future<IssueSnapshot.QueryResult> result : results.subList(1, 4)) {
+                assertThat(result.get(5, TimeUnit.SECONDS).matched()).isEqualTo(5);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(firestoreClient, times(1)).findIssues(any(), any());
+        // differently cased names hit the same cached repository
+        assertThat(issueQueryService.query("OCTOCAT", "HELLO-WORLD", null, null, null, 1).matched()).isEqualTo(10);
+        verify(firestoreClient, times(1)).findIssues(any(), any());
+    }
+
+    private static List<Issue> issues(String repo, int from, int count) {
+        List<Issue> issues = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            Issue issue = new Issue();
+            issue.id = String.valueOf(1000 + i);
+            issue.owner = "octocat";
+            issue.repo = repo;
+            issue.title = "Issue " + i;
+            issue.state = i % 2 == 0 ? "open" : "closed";
+            issue.htmlUrl = "https://github.com/octocat/" + repo + "/issues/" + i;
+            issue.createdAt = START.plusSeconds(i * 3600L);
+            issue.updatedAt = issue.createdAt.plusSeconds(90);
+            issues.add(issue);
+        }
+        return issues;
+    }
+}
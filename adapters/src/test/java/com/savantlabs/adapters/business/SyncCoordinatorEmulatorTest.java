@@ -0,0 +1,42 @@
+package com.savantlabs.adapters.business;
+
+import com.google.cloud.NoCredentials;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.util.UUID;
+
+/**
+ * Runs the {@link SyncCoordinatorTest} instances against the Firestore emulator, whose transactions contend like
+ * Firestore's instead of running one at a time. Skipped unless {@code FIRESTORE_EMULATOR_HOST} points at a running
+ * emulator, e.g. {@code gcloud emulators firestore start --host-port=localhost:8081}.
+ */
+@EnabledIfEnvironmentVariable(named = "FIRESTORE_EMULATOR_HOST", matches = ".+")
+class SyncCoordinatorEmulatorTest extends SyncCoordinatorTest {
+    private final String prefix = "test-" + UUID.randomUUID() + "-";
+    private final Firestore firestore = FirestoreOptions.newBuilder()
+            .setProjectId("savantlabs-test")
+            .setEmulatorHost(System.getenv("FIRESTORE_EMULATOR_HOST"))
+            .setCredentials(NoCredentials.getInstance())
+            .build()
+            .getService();
+
+    @AfterEach
+    @Override
+    void shutdown() throws Exception {
+        super.shutdown();
+        firestore.close();
+    }
+
+    @Override
+    Firestore firestore() {
+        return firestore;
+    }
+
+    @Override
+    String collection(String name) {
+        return prefix + name;
+    }
+}
@@ -0,0 +1,297 @@
+package com.savantlabs.adapters.business;
+
+import com.google.cloud.firestore.Firestore;
+import com.savantlabs.adapters.enums.SyncIssueAdapterType;
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.helpers.FirestoreCoordinationClient;
+import com.savantlabs.adapters.model.SyncIssuesRequest;
+import com.savantlabs.adapters.model.SyncIssuesResponse;
+import com.savantlabs.adapters.model.SyncScheduleRequest;
+import com.savantlabs.adapters.service.SyncIssueAdapterService;
+import com.savantlabs.adapters.service.SyncProgressListener;
+import com.savantlabs.adapters.support.InMemoryFirestore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs several coordinated instances in one process against one shared in-memory Firestore.
+ */
+class SyncCoordinatorTest {
+    private static final long LEASE_TTL_MILLIS = 500;
+
+    private final InMemoryFirestore inMemoryFirestore = new InMemoryFirestore();
+    private final List<Runnable> shutdowns = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void shutdown() throws Exception {
+        shutdowns.forEach(Runnable::run);
+    }
+
+    @Test
+    void splitsRepositoriesEvenlyAcrossLiveInstances() {
+        List<SyncCoordinator> instances = List.of(start("a"), start("b"), start("c"));
+        awaitMembers(instances, 3);
+
+        Map<String, Integer> shares = new ConcurrentHashMap<>();
+        for (int i = 0; i < 600; i++) {
+            String repository = "repository-" + i;
+            List<SyncCoordinator> owners = instances.stream()
+                    .filter(instance -> instance.isOwner("octocat", repository))
+                    .toList();
+            assertThat(owners).hasSize(1);
+            shares.merge(owners.get(0).getInstanceId(), 1, Integer::sum);
+        }
+        assertThat(shares.values()).allSatisfy(share -> assertThat(share).isBetween(120, 300));
+    }
+
+    @Test
+    void letsOneSyncAtATimeHoldTheLeaseOfARepository() throws Exception {
+        SyncCoordinator a = start("a");
+        SyncCoordinator b = start("b");
+        awaitMembers(List.of(a, b), 2);
+
+        SyncCoordinator.Lease lease = a.acquire("octocat", "hello-world");
+        assertConflict(() -> b.acquire("Octocat", "Hello-World"));
+        assertConflict(() -> a.acquire("octocat", "hello-world"));
+        // heartbeats keep renewing the lease while it is held
+        Thread.sleep(2 * LEASE_TTL_MILLIS);
+        assertConflict(() -> b.acquire("octocat", "hello-world"));
+
+        lease.close();
+        b.acquire("octocat", "hello-world").close();
+    }
+
+    @Test
+    void movesTheRepositoriesAndLeasesOfADeadInstanceToLiveOnes() {
+        SyncCoordinator a = start("a");
+        SyncCoordinator b = start("b");
+        SyncCoordinator c = start("c");
+        awaitMembers(List.of(a, b, c), 3);
+        String repository = IntStream.range(0, 100).mapToObj(i -> "repository-" + i)
+                .filter(name -> c.isOwner("octocat", name))
+                .findFirst().orElseThrow();
+        c.acquire("octocat", repository);
+
+        c.halt();
+        awaitMembers(List.of(a, b), 2);
+        SyncCoordinator successor = a.isOwner("octocat", repository) ? a : b;
+        assertThat((successor == a ? b : a).isOwner("octocat", repository)).isFalse();
+        // the lease of the dead instance expires, since nobody renews it any more
+        await().atMost(Duration.ofSeconds(5)).ignoreException(CustomException.class)
+                .until(() -> {
+                    successor.acquire("octocat", repository).close();
+                    return true;
+                });
+
+        // an instance shutting down cleanly leaves at once
+        (successor == a ? b : a).shutdown();
+        awaitMembers(List.of(successor), 1);
+        assertThat(successor.isOwner("octocat", repository)).isTrue();
+    }
+
+    @Test
+    void stopsASyncWhoseLeaseWasTakenOverBeforeItsNextPage() throws Exception {
+        SyncCoordinator a = start("a");
+        SyncCoordinator b = start("b");
+        awaitMembers(List.of(a, b), 2);
+        AtomicInteger pages = new AtomicInteger();
+        SyncIssueAdapterService adapter = new SyncIssueAdapterService() {
+            @Override
+            public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest, SyncProgressListener listener)
+                    throws Exception {
+                for (int page = 0; page < 500; page++) {
+                    listener.onPageFetched();
+                    pages.incrementAndGet();
+                    Thread.sleep(10);
+                }
+                return new SyncIssuesResponse();
+            }
+
+            @Override
+            public SyncIssueAdapterType getRepository() {
+                return SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE;
+            }
+        };
+        CompletableFuture<SyncIssuesResponse> sync = CompletableFuture.supplyAsync(() -> {
+            try {
+                return new LeasedSyncIssueAdapterService(adapter, a).syncIssues(syncRequest());
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        });
+        await().atMost(Duration.ofSeconds(5)).until(() -> pages.get() > 0);
+
+        // as if a's renewals had been failing for longer than the TTL: the lease expired and b took it
+        FirestoreCoordinationClient client = coordinationClient();
+        await().atMost(Duration.ofSeconds(5)).ignoreException(CustomException.class).until(() -> {
+            client.releaseLease("octocat:hello-world", "a");
+            b.acquire("octocat", "hello-world");
+            return true;
+        });
+
+        assertThatThrownBy(() -> sync.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(CustomException.class)
+                .cause().satisfies(ex -> assertThat(((CustomException) ex).getStatus().value()).isEqualTo(409));
+        int stoppedAt = pages.get();
+        assertThat(stoppedAt).isLessThan(500);
+        Thread.sleep(100);
+        assertThat(pages.get()).isEqualTo(stoppedAt);
+    }
+
+    @Test
+    void holdsTheLeaseUntilTheIssuesLeftPendingAreStored() throws Exception {
+        SyncCoordinator a = start("a");
+        SyncCoordinator b = start("b");
+        awaitMembers(List.of(a, b), 2);
+        CompletableFuture<Void> stored = new CompletableFuture<>();
+        SyncIssueAdapterService adapter = new SyncIssueAdapterService() {
+            @Override
+            public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest) {
+                SyncIssuesResponse syncIssuesResponse = new SyncIssuesResponse();
+                syncIssuesResponse.setSaved(0);
+                syncIssuesResponse.setPending(10);
+                return syncIssuesResponse;
+            }
+
+            @Override
+            public CompletableFuture<Void> whenStored(String owner, String repository) {
+                return stored;
+            }
+
+            @Override
+            public SyncIssueAdapterType getRepository() {
+                return SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE;
+            }
+        };
+
+        new LeasedSyncIssueAdapterService(adapter, a).syncIssues(syncRequest());
+        Thread.sleep(2 * LEASE_TTL_MILLIS);
+        assertConflict(() -> b.acquire("octocat", "hello-world"));
+
+        stored.complete(null);
+        await().atMost(Duration.ofSeconds(5)).ignoreException(CustomException.class).until(() -> {
+            b.acquire("octocat", "hello-world").close();
+            return true;
+        });
+    }
+
+    @Test
+    void sharesSchedulesAndRunsEachRepositoryOnTheInstanceOwningIt() {
+        Map<String, List<String>> runs = new ConcurrentHashMap<>();
+        SyncCoordinator first = start("a");
+        SyncCoordinator second = start("b");
+        awaitMembers(List.of(first, second), 2);
+        SyncScheduler a = scheduler(first, runs);
+        SyncScheduler b = scheduler(second, runs);
+        for (int i = 0; i < 10; i++) {
+            a.register(request("repository-" + i));
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> b.list().size() == 10);
+        // every repository runs once a second, on one of the two instances only
+        await().atMost(Duration.ofSeconds(10)).until(() -> runs.keySet().size() == 10);
+        assertThat(runs).allSatisfy((repository, instances) -> assertThat(instances).containsOnly(instances.get(0)));
+        assertThat(runs.values().stream().map(instances -> instances.get(0)).distinct()).hasSize(2);
+
+        b.remove("octocat", "repository-0");
+        await().atMost(Duration.ofSeconds(5)).until(() -> a.list().size() == 9);
+    }
+
+    /**
+     * @return the database the instances share
+     */
+    Firestore firestore() {
+        return inMemoryFirestore.firestore();
+    }
+
+    /**
+     * @return the name of a coordination collection, kept apart from those of other tests sharing the database
+     */
+    String collection(String name) {
+        return name;
+    }
+
+    private FirestoreCoordinationClient coordinationClient() {
+        return new FirestoreCoordinationClient(firestore(), collection("sync-members"), collection("sync-leases"),
+                collection("sync-schedules"));
+    }
+
+    private SyncCoordinator start(String instanceId) {
+        SyncCoordinator coordinator = new SyncCoordinator(coordinationClient(), true, instanceId, LEASE_TTL_MILLIS,
+                50, 128);
+        shutdowns.add(coordinator::shutdown);
+        return coordinator;
+    }
+
+    private SyncScheduler scheduler(SyncCoordinator coordinator, Map<String, List<String>> runs) {
+        SyncJobService syncJobService = new SyncJobService(2, 100, 100);
+        SyncIssueAdapterService adapter = new SyncIssueAdapterService() {
+            @Override
+            public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest) {
+                runs.computeIfAbsent(syncIssuesRequest.getRepository(), repository -> new CopyOnWriteArrayList<>())
+                        .add(coordinator.getInstanceId());
+                SyncIssuesResponse syncIssuesResponse = new SyncIssuesResponse();
+                syncIssuesResponse.setSaved(0);
+                return syncIssuesResponse;
+            }
+
+            @Override
+            public SyncIssueAdapterType getRepository() {
+                return SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE;
+            }
+        };
+        SyncScheduler scheduler = new SyncScheduler(new SyncIssuesAdapterFactory(List.of(adapter), coordinator),
+                syncJobService, coordinator, 1, 1, 0);
+        shutdowns.add(0, syncJobService::shutdown);
+        shutdowns.add(0, scheduler::shutdown);
+        return scheduler;
+    }
+
+    private static SyncScheduleRequest request(String repository) {
+        SyncScheduleRequest syncScheduleRequest = new SyncScheduleRequest();
+        syncScheduleRequest.setOwner("octocat");
+        syncScheduleRequest.setRepository(repository);
+        syncScheduleRequest.setSyncIssuesType(SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE.name());
+        syncScheduleRequest.setLimit(10);
+        syncScheduleRequest.setIntervalSeconds(1L);
+        return syncScheduleRequest;
+    }
+
+    private static SyncIssuesRequest syncRequest() {
+        SyncIssuesRequest syncIssuesRequest = new SyncIssuesRequest();
+        syncIssuesRequest.setOwner("octocat");
+        syncIssuesRequest.setRepository("hello-world");
+        syncIssuesRequest.setSyncIssuesType(SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE.name());
+        return syncIssuesRequest;
+    }
+
+    private static void awaitMembers(List<SyncCoordinator> instances, int members) {
+        await().atMost(Duration.ofSeconds(5)).until(() -> instances.stream()
+                .allMatch(instance -> instance.getMembers().size() == members));
+    }
+
+    private static void assertConflict(Runnable acquire) {
+        assertThatThrownBy(acquire::run).isInstanceOfSatisfying(CustomException.class,
+                ex -> assertThat(ex.getStatus().value()).isEqualTo(409));
+    }
+}
@@ -0,0 +1,102 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.enums.SyncIssueAdapterType;
+import com.savantlabs.adapters.enums.SyncJobStatus;
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.model.SyncIssuesRequest;
+import com.savantlabs.adapters.model.SyncIssuesResponse;
+import com.savantlabs.adapters.model.SyncJob;
+import com.savantlabs.adapters.service.SyncIssueAdapterService;
+import com.savantlabs.adapters.service.SyncProgressListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class SyncJobServiceTest {
+    private final SyncJobService syncJobService = new SyncJobService(2, 10, 100);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        syncJobService.shutdown();
+    }
+
+    @Test
+    void mergesRequestsForARepositoryWithAnActiveJob() {
+        SyncJob first = syncJobService.submit(blockingAdapter, request("octocat", "hello-world"));
+        SyncJob duplicate = syncJobService.submit(blockingAdapter, request("Octocat", "Hello-World"));
+        SyncJob other = syncJobService.submit(blockingAdapter, request("octocat", "spoon-knife"));
+
+        assertThat(duplicate).isSameAs(first);
+        assertThat(other).isNotSameAs(first);
+
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> first.getStatus().isFinished());
+        assertThat(first.getStatus()).isEqualTo(SyncJobStatus.COMPLETED);
+        assertThat(first.getPagesFetched()).isEqualTo(1);
+        assertThat(first.getIssuesWritten()).isEqualTo(3);
+        assertThat(syncJobService.getJob(first.getId())).contains(first);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> other.getStatus().isFinished());
+        SyncJob next = syncJobService.submit(blockingAdapter, request("octocat", "hello-world"));
+        assertThat(next).isNotSameAs(first);
+    }
+
+    @Test
+    void rejectsADifferentSyncOfARepositoryWithAnActiveJob() {
+        SyncJob first = syncJobService.submit(blockingAdapter, request("octocat", "hello-world"));
+        SyncIssuesRequest larger = request("octocat", "hello-world");
+        larger.setLimit(500);
+        SyncIssuesRequest incremental = request("octocat", "hello-world");
+        incremental.setIncremental(true);
+
+        for (SyncIssuesRequest conflicting : List.of(larger, incremental)) {
+            assertThatThrownBy(() -> syncJobService.submit(blockingAdapter, conflicting))
+                    .isInstanceOfSatisfying(CustomException.class,
+                            ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        }
+
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> first.getStatus().isFinished());
+        assertThat(syncJobService.submit(blockingAdapter, larger)).isNotSameAs(first);
+    }
+
+    private final SyncIssueAdapterService blockingAdapter = new SyncIssueAdapterService() {
+        @Override
+        public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest, SyncProgressListener listener)
+                throws InterruptedException {
+            release.await(5, TimeUnit.SECONDS);
+            listener.onPageFetched();
+            listener.onIssuesWritten(3, 0);
+            return new SyncIssuesResponse();
+        }
+
+        @Override
+        public SyncIssueAdapterType getRepository() {
+            return SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE;
+        }
+    };
+
+    private SyncIssuesRequest request(String owner, String repository) {
+        SyncIssuesRequest syncIssuesRequest = new SyncIssuesRequest();
+        syncIssuesRequest.setOwner(owner);
+        syncIssuesRequest.setRepository(repository);
+        syncIssuesRequest.setSyncIssuesType(SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE.name());
+        syncIssuesRequest.setLimit(10);
+        return syncIssuesRequest;
+    }
+}
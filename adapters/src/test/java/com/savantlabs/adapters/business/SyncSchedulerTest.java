@@ -0,0 +1,164 @@
+package com.savantlabs.adapters.business;
+
+import com.savantlabs.adapters.enums.SyncIssueAdapterType;
+import com.savantlabs.adapters.model.SyncIssuesRequest;
+import com.savantlabs.adapters.model.SyncIssuesResponse;
+import com.savantlabs.adapters.model.SyncSchedule;
+import com.savantlabs.adapters.model.SyncScheduleRequest;
+import com.savantlabs.adapters.service.SyncIssueAdapterService;
+import com.savantlabs.adapters.service.SyncProgressListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class SyncSchedulerTest {
+    private static final long HOUR = 3_600;
+
+    private final SyncJobService syncJobService = new SyncJobService(2, 10, 100);
+    private final SyncCoordinator syncCoordinator = new SyncCoordinator(null, false, "", 1, 1, 1);
+    private final SyncScheduler syncScheduler = new SyncScheduler(
+            new SyncIssuesAdapterFactory(List.of(new StubAdapter()), syncCoordinator), syncJobService,
+            syncCoordinator, 60, 8 * HOUR, 0.1);
+    private final AtomicInteger saved = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    // null for an adapter that does not report changed issues
+    private final AtomicReference<Integer> changed = new AtomicReference<>();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    @AfterEach
+    void shutdown() {
+        syncScheduler.shutdown();
+        syncJobService.shutdown();
+    }
+
+    @Test
+    void skipsARunWhileThePreviousOneIsStillRunning() {
+        // the interval is far longer than the test, so runs only start through trigger()
+        syncScheduler.register(request("octocat", "hello-world", true));
+        release = new CountDownLatch(1);
+
+        SyncSchedule schedule = syncScheduler.trigger("octocat", "hello-world").orElseThrow();
+        syncScheduler.trigger("Octocat", "Hello-World");
+        assertThat(schedule.getRuns()).isEqualTo(1);
+        assertThat(schedule.getSkippedRuns()).isEqualTo(1);
+
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> schedule.getLastFinishedAt() != null);
+        syncScheduler.trigger("octocat", "hello-world");
+        assertThat(schedule.getRuns()).isEqualTo(2);
+        assertThat(schedule.getSkippedRuns()).isEqualTo(1);
+    }
+
+    @Test
+    void adaptsTheIntervalToHowOftenTheRepositoryChanges() {
+        SyncSchedule schedule = syncScheduler.register(request("octocat", "hello-world", true));
+
+        saved.set(5);
+        runAndAwait(schedule);
+        assertThat(schedule.getCurrentIntervalSeconds()).isEqualTo(HOUR / 2);
+        assertThat(schedule.getLastChanged()).isEqualTo(5);
+
+        saved.set(0);
+        runAndAwait(schedule);
+        runAndAwait(schedule);
+        assertThat(schedule.getCurrentIntervalSeconds()).isEqualTo(2 * HOUR);
+
+        // bounded by the configured maximum
+        for (int run = 0; run < 5; run++) {
+            runAndAwait(schedule);
+        }
+        assertThat(schedule.getCurrentIntervalSeconds()).isEqualTo(8 * HOUR);
+
+        // issues updated after the checkpoint changed on GitHub, even if skipped as unchanged in Firestore
+        changed.set(3);
+        skipped.set(3);
+        runAndAwait(schedule);
+        assertThat(schedule.getCurrentIntervalSeconds()).isEqualTo(4 * HOUR);
+        assertThat(schedule.getLastChanged()).isEqualTo(3);
+
+        // the issue at the checkpoint, fetched again by every incremental run, is no change
+        changed.set(0);
+        skipped.set(1);
+        runAndAwait(schedule);
+        assertThat(schedule.getCurrentIntervalSeconds()).isEqualTo(8 * HOUR);
+        assertThat(schedule.getLastChanged()).isZero();
+
+        SyncSchedule fixed = syncScheduler.register(request("octocat", "spoon-knife", false));
+        runAndAwait(fixed);
+        assertThat(fixed.getCurrentIntervalSeconds()).isEqualTo(HOUR);
+    }
+
+    @Test
+    void spreadsTheFirstRunsOfRepositoriesAcrossTheInterval() {
+        Instant before = Instant.now();
+        List<Instant> firstRuns = IntStream.range(0, 20)
+                .mapToObj(i -> syncScheduler.register(request("octocat", "repository-" + i, true)).getNextRunAt())
+                .toList();
+
+        // phase within [0, 1h) plus 10% jitter either way
+        assertThat(firstRuns).allSatisfy(nextRunAt -> assertThat(nextRunAt)
+                .isBetween(before.minusSeconds(HOUR / 10), before.plusSeconds(HOUR + HOUR / 10)));
+        long firstHalf = firstRuns.stream().filter(nextRunAt -> nextRunAt.isBefore(before.plusSeconds(HOUR / 2)))
+                .count();
+        assertThat(firstHalf).isBetween(3L, 17L);
+        assertThat(syncScheduler.list()).hasSize(20);
+
+        assertThat(syncScheduler.remove("octocat", "repository-0")).isPresent();
+        assertThat(syncScheduler.get("octocat", "repository-0")).isEmpty();
+        assertThat(syncScheduler.list()).hasSize(19);
+    }
+
+    private void runAndAwait(SyncSchedule schedule) {
+        int runs = schedule.getRuns();
+        Instant lastFinishedAt = schedule.getLastFinishedAt();
+        syncScheduler.trigger(schedule.getOwner(), schedule.getRepository());
+        assertThat(schedule.getRuns()).isEqualTo(runs + 1);
+        await().atMost(Duration.ofSeconds(5)).until(() -> schedule.getLastFinishedAt() != lastFinishedAt);
+    }
+
+    private SyncScheduleRequest request(String owner, String repository, boolean adaptive) {
+        SyncScheduleRequest syncScheduleRequest = new SyncScheduleRequest();
+        syncScheduleRequest.setOwner(owner);
+        syncScheduleRequest.setRepository(repository);
+        syncScheduleRequest.setSyncIssuesType(SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE.name());
+        syncScheduleRequest.setLimit(10);
+        syncScheduleRequest.setIntervalSeconds(HOUR);
+        syncScheduleRequest.setAdaptive(adaptive);
+        return syncScheduleRequest;
+    }
+
+    private class StubAdapter implements SyncIssueAdapterService {
+        @Override
+        public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SyncIssuesResponse syncIssues(SyncIssuesRequest syncIssuesRequest, SyncProgressListener listener)
+                throws InterruptedException {
+            assertThat(syncIssuesRequest.getIncremental()).isTrue();
+            release.await(5, TimeUnit.SECONDS);
+            SyncIssuesResponse syncIssuesResponse = new SyncIssuesResponse();
+            syncIssuesResponse.setSaved(saved.get());
+            syncIssuesResponse.setSkipped(skipped.get());
+            syncIssuesResponse.setChanged(changed.get());
+            return syncIssuesResponse;
+        }
+
+        @Override
+        public SyncIssueAdapterType getRepository() {
+            return SyncIssueAdapterType.GIT_HUB_REPOSITORY_FIRESTORE;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.savantlabs.adapters.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+    private static final int KEYS = 10_000;
+
+    @Test
+    void spreadsKeysEvenlyAndMovesOnlyTheNewMembersShare() {
+        ConsistentHashRing three = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+        ConsistentHashRing four = new ConsistentHashRing(List.of("c", "b", "a", "d"), 128);
+
+        Map<String, Integer> shares = new HashMap<>();
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "octocat:repository-" + i;
+            String before = three.ownerOf(key);
+            String after = four.ownerOf(key);
+            shares.merge(before, 1, Integer::sum);
+            if (!before.equals(after)) {
+                // keys only ever move to the new member
+                assertThat(after).isEqualTo("d");
+                moved++;
+            }
+        }
+        assertThat(shares.values()).allSatisfy(share -> assertThat(share).isBetween(KEYS / 4, KEYS / 2));
+        // the new member takes about a quarter of the keys
+        assertThat(moved).isBetween(KEYS / 6, KEYS / 3);
+        // the member order does not matter
+        assertThat(new ConsistentHashRing(List.of("b", "a", "c"), 128).ownerOf("octocat:hello-world"))
+                .isEqualTo(three.ownerOf("octocat:hello-world"));
+    }
+}
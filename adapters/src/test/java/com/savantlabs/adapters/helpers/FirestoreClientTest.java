@@ -0,0 +1,169 @@
+package com.savantlabs.adapters.helpers;
+
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.BulkWriterOptions;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.WriteResult;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.PagingCursor;
+import com.savantlabs.adapters.model.UpsertResult;
+import com.savantlabs.adapters.support.InMemoryFirestore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FirestoreClientTest {
+    private final Firestore firestore = mock(Firestore.class);
+    private final BulkWriter bulkWriter = mock(BulkWriter.class);
+    private final CollectionReference collectionReference = mock(CollectionReference.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        when(firestore.bulkWriter(any(BulkWriterOptions.class))).thenReturn(bulkWriter);
+        when(firestore.collection(anyString())).thenReturn(collectionReference);
+        when(collectionReference.document(anyString())).thenAnswer(invocation -> {
+            DocumentReference documentReference = mock(DocumentReference.class);
+            when(documentReference.getId()).thenReturn(invocation.getArgument(0));
+            return documentReference;
+        });
+    }
+
+    @Test
+    void upsertAllReportsWrittenAndFailedDocuments() throws Exception {
+        when(bulkWriter.set(any(DocumentReference.class), anyMap(), any(SetOptions.class))).thenAnswer(invocation -> {
+            DocumentReference documentReference = invocation.getArgument(0);
+            return "2".equals(documentReference.getId())
+                    ? ApiFutures.immediateFailedFuture(new IllegalStateException("permission denied"))
+                    : ApiFutures.immediateFuture(mock(WriteResult.class));
+        });
+        FirestoreClient firestoreClient = firestoreClient();
+
+        UpsertResult result = firestoreClient.upsertAll(issues(5));
+
+        assertThat(result.getWritten()).isEqualTo(4);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getFailures()).containsEntry("2", "permission denied");
+        verify(bulkWriter).close();
+    }
+
+    @Test
+    void upsertAllSkipsIssuesWhoseContentWasAlreadyWritten() throws Exception {
+        when(bulkWriter.set(any(DocumentReference.class), anyMap(), any(SetOptions.class))).thenAnswer(invocation -> {
+            DocumentReference documentReference = invocation.getArgument(0);
+            return "2".equals(documentReference.getId())
+                    ? ApiFutures.immediateFailedFuture(new IllegalStateException("unavailable"))
+                    : ApiFutures.immediateFuture(mock(WriteResult.class));
+        });
+        FirestoreClient firestoreClient = firestoreClient();
+        assertThat(firestoreClient.upsertAll(issues(5)).getWritten()).isEqualTo(4);
+
+        // same content, new sync time: only the failed issue and the edited one are written again
+        List<Issue> resynced = issues(5);
+        resynced.get(2).title = "issue 3, edited";
+        clearInvocations(bulkWriter);
+        UpsertResult result = firestoreClient.upsertAll(resynced);
+
+        assertThat(result.getWritten()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getSkipped()).isEqualTo(3);
+        assertThat(meterRegistry.get("firestore.documents").tag("result", "skipped").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("firestore.write").timer().count()).isEqualTo(2);
+        verify(bulkWriter, times(2)).set(any(DocumentReference.class), anyMap(), any(SetOptions.class));
+    }
+
+    @Test
+    void contentHashIgnoresSyncTime() {
+        FirestoreClient firestoreClient = firestoreClient();
+        Issue issue = issues(1).get(0);
+        Map<String, Object> first = firestoreClient.issueToMap(issue);
+        issue.syncedAt = issue.syncedAt.plusSeconds(60);
+        Map<String, Object> second = firestoreClient.issueToMap(issue);
+        issue.state = "closed";
+        Map<String, Object> closed = firestoreClient.issueToMap(issue);
+
+        assertThat(first.get("contentHash")).isNotNull().isEqualTo(second.get("contentHash"));
+        assertThat(closed.get("contentHash")).isNotEqualTo(first.get("contentHash"));
+    }
+
+    @Test
+    void pagingCursorIsStoredUntilTheResumableSyncCompletes() throws Exception {
+        InMemoryFirestore inMemoryFirestore = new InMemoryFirestore();
+        FirestoreClient firestoreClient = new FirestoreClient(inMemoryFirestore.firestore(),
+                inMemoryFirestore.firestore(), "issues", "checkpoints", 2, 500, 3,
+                new IssueContentHashCache(true, 10, 100), new IssueSnapshotStore(false, "", 0, 1),
+                new IssueQueryCache(false, 1, 1), meterRegistry);
+        assertThat(firestoreClient.getPagingCursor("octocat", "hello-world")).isEmpty();
+
+        PagingCursor cursor = new PagingCursor(Instant.parse("2025-09-07T10:29:25Z"), 3, Set.of("7", "8"));
+        firestoreClient.savePagingCursor("octocat", "hello-world", cursor);
+        PagingCursor stored = firestoreClient.getPagingCursor("octocat", "hello-world").orElseThrow();
+        assertThat(stored.getSince()).isEqualTo(cursor.getSince());
+        assertThat(stored.getPage()).isEqualTo(3);
+        assertThat(stored.getSeenIds()).containsExactlyInAnyOrder("7", "8");
+
+        firestoreClient.completePagingCursor("octocat", "hello-world", cursor.getSince());
+        assertThat(firestoreClient.getPagingCursor("octocat", "hello-world")).isEmpty();
+        assertThat(firestoreClient.getLastUpdatedAt("octocat", "hello-world")).contains(cursor.getSince());
+    }
+
+    @Test
+    void leavesOutIssuesOlderThanTheirStoredDocument() throws Exception {
+        InMemoryFirestore inMemoryFirestore = new InMemoryFirestore();
+        FirestoreClient firestoreClient = new FirestoreClient(inMemoryFirestore.firestore(),
+                inMemoryFirestore.firestore(), "issues", "checkpoints", 2, 500, 3,
+                new IssueContentHashCache(true, 10, 100), new IssueSnapshotStore(false, "", 0, 1),
+                new IssueQueryCache(false, 1, 1), meterRegistry);
+        List<Issue> stored = issues(2);
+        stored.forEach(issue -> issue.updatedAt = issue.createdAt.plusSeconds(60));
+        firestoreClient.upsertAll(stored);
+
+        // issue 1 is older than its document, 2 is as recent, and 3 has no document yet
+        List<Issue> delivered = issues(3);
+        delivered.get(1).updatedAt = stored.get(1).updatedAt;
+        assertThat(firestoreClient.notOlderThanStored(delivered)).extracting(issue -> issue.id)
+                .containsExactly("2", "3");
+    }
+
+    private FirestoreClient firestoreClient() {
+        return new FirestoreClient(firestore, firestore, "issues", "checkpoints", 2, 500, 3,
+                new IssueContentHashCache(true, 10, 100), new IssueSnapshotStore(false, "", 0, 1),
+                new IssueQueryCache(false, 1, 1), meterRegistry);
+    }
+
+    private List<Issue> issues(int count) {
+        List<Issue> issues = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            Issue issue = new Issue();
+            issue.id = String.valueOf(i);
+            issue.title = "issue " + i;
+            issue.state = "open";
+            issue.htmlUrl = "https://github.com/octocat/hello-world/issues/" + i;
+            issue.createdAt = Instant.parse("2025-09-07T10:29:25Z");
+            issue.updatedAt = issue.createdAt;
+            issue.syncedAt = Instant.now();
+            issues.add(issue.withOwnerRepo("octocat", "hello-world"));
+        }
+        return issues;
+    }
+}
@@ -0,0 +1,414 @@
+package com.savantlabs.adapters.helpers;
+
+import com.savantlabs.adapters.config.GitHubHttpConfig;
+import com.savantlabs.adapters.enums.GitHubHttpTransport;
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.PagingCursor;
+import com.savantlabs.adapters.model.ResumableIssuePage;
+import com.savantlabs.adapters.support.GitHubStubServer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs GitHubClient against a local stub of the list-issues endpoint serving 250 issues, newest first,
+ * where every tenth entry is a pull request.
+ */
+class GitHubClientTest {
+    private static final int TOTAL_ISSUES = 250;
+    private static final String ISSUES_URL =
+            "%s/repos/%s/%s/issues?state=all&sort=created&direction=desc&per_page=%d&page=%d";
+    private static final String ISSUES_SINCE_URL =
+            "%s/repos/%s/%s/issues?state=all&sort=updated&direction=asc&since=%s&per_page=%d&page=%d";
+    private static final String ORG_REPOS_URL = "%s/orgs/%s/repos?type=all&per_page=%d&page=%d";
+
+    private static final Instant BASE = Instant.parse("2025-09-07T10:00:00Z");
+
+    private final AtomicBoolean throttled = new AtomicBoolean();
+    private final Map<Integer, Instant> updatedAt = new ConcurrentHashMap<>();
+    private volatile Runnable afterFirstPage = () -> { };
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/repos/octocat/hello-world/issues", this::listIssues);
+        server.createContext("/orgs/octo-org/repos", this::listOrganizationRepositories);
+        server.createContext("/repos/octocat/throttled/issues", this::throttleOnce);
+        server.createContext("/repos/octocat/evolving/issues", this::listIssuesByUpdateTime);
+        server.createContext("/repos/octocat/etagged/issues", this::listIssuesWithETag);
+        server.createContext("/repos/octocat/disabled/issues", this::issuesDisabled);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void parallelFetchKeepsNewestFirstOrderAndSkipsPullRequests() {
+        Map<String, Issue> serial = gitHubClient(1).fetchTopIssues("octocat", "hello-world", 150);
+        Map<String, Issue> parallel = gitHubClient(4).fetchTopIssues("octocat", "hello-world", 150);
+
+        assertThat(parallel).hasSize(150);
+        assertThat(new ArrayList<>(parallel.keySet())).isEqualTo(new ArrayList<>(serial.keySet()));
+        assertThat(parallel.keySet()).first().isEqualTo(String.valueOf(TOTAL_ISSUES - 1));
+        assertThat(parallel.keySet()).noneMatch(id -> Integer.parseInt(id) % 10 == 0);
+    }
+
+    @Test
+    void parallelFetchStopsAtLastPage() {
+        Map<String, Issue> issues = gitHubClient(4).fetchTopIssues("octocat", "hello-world", 1_000);
+
+        assertThat(issues).hasSize(TOTAL_ISSUES - TOTAL_ISSUES / 10);
+    }
+
+    @Test
+    void streamEmitsPagesLazilyUpToTheLimit() {
+        List<List<Issue>> pages = gitHubClient(1).streamTopIssues("octocat", "hello-world", 150).toList();
+
+        assertThat(pages).hasSize(2);
+        assertThat(pages.stream().mapToInt(List::size).sum()).isEqualTo(150);
+        assertThat(pages.get(0).get(0).id).isEqualTo(String.valueOf(TOTAL_ISSUES - 1));
+    }
+
+    @Test
+    void retriesRateLimitedRequestsAfterRetryAfter() {
+        long start = System.nanoTime();
+        Map<String, Issue> issues = gitHubClient(1).fetchTopIssues("octocat", "throttled", 50);
+
+        assertThat(issues).hasSize(50);
+        assertThat(throttled).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+        assertThat(meterRegistry.get("github.retries").tag("reason", "rate_limited").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("github.page.fetch").tag("api", "rest").timer().count()).isPositive();
+        assertThat(meterRegistry.get("github.ratelimit.wait").timer().totalTime(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(900);
+    }
+
+    @Test
+    void cursorPagingNeitherSkipsNorRepeatsIssuesThatChangeDuringTheSync() {
+        resetEvolvingRepository();
+        // issue 5 is updated and issue 151 deleted once the first page has been served
+        afterFirstPage = () -> {
+            updatedAt.put(5, BASE.plusSeconds(1_000));
+            updatedAt.remove(151);
+        };
+
+        List<ResumablePage> pages = streamFrom(PagingCursor.startingAt(Instant.EPOCH), 1_000);
+
+        List<Integer> ids = pages.stream().flatMap(page -> page.issues().stream()).toList();
+        List<Integer> expected = new ArrayList<>(evolvingIssueIds());
+        expected.add(5); // read again in its new state
+        assertThat(ids).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(ids).last().isEqualTo(5);
+    }
+
+    @Test
+    void cursorPagingResumesAfterTheLastPageRead() {
+        resetEvolvingRepository();
+
+        // the limit stops the first run within the 130 issues updated in the same second
+        List<ResumablePage> firstRun = streamFrom(PagingCursor.startingAt(Instant.EPOCH), 120);
+        PagingCursor cursor = firstRun.get(firstRun.size() - 1).cursor();
+        List<ResumablePage> secondRun = streamFrom(cursor, 1_000);
+
+        List<Integer> ids = new ArrayList<>();
+        firstRun.forEach(page -> ids.addAll(page.issues()));
+        assertThat(ids).hasSize(120);
+        secondRun.forEach(page -> ids.addAll(page.issues()));
+        assertThat(ids).containsExactlyInAnyOrderElementsOf(evolvingIssueIds());
+    }
+
+    @Test
+    void organizationListingSkipsArchivedRepositoriesAndRepositoriesWithoutIssues() {
+        List<String> repositories = gitHubClient(1).listOrganizationRepositories("octo-org");
+
+        assertThat(repositories).containsExactly("hello-world", "spoon-knife");
+    }
+
+    @Test
+    void bothTransportsDecompressGzippedPages() {
+        GitHubHttpMetrics jdkMetrics = new GitHubHttpMetrics();
+        GitHubHttpMetrics simpleMetrics = new GitHubHttpMetrics();
+
+        Map<String, Issue> overJdk = gitHubClient(restTemplate(GitHubHttpTransport.JDK, jdkMetrics), 4)
+                .fetchTopIssues("octocat", "hello-world", 150);
+        Map<String, Issue> overSimple = gitHubClient(restTemplate(GitHubHttpTransport.SIMPLE, simpleMetrics), 4)
+                .fetchTopIssues("octocat", "hello-world", 150);
+
+        assertThat(new ArrayList<>(overJdk.keySet())).isEqualTo(new ArrayList<>(overSimple.keySet()));
+        assertThat(jdkMetrics.getRequests()).isEqualTo(2);
+        assertThat(jdkMetrics.getCompressedResponses()).isEqualTo(2);
+        assertThat(simpleMetrics.getCompressedResponses()).isEqualTo(2);
+        assertThat(jdkMetrics.getInFlight()).isZero();
+    }
+
+    @Test
+    void decodesGzippedPagesOfTheStubServerOverTheJdkTransport() throws IOException {
+        GitHubHttpMetrics metrics = new GitHubHttpMetrics();
+        try (GitHubStubServer stub = new GitHubStubServer(250)) {
+            Map<String, Issue> issues = stubClient(stub, restTemplate(GitHubHttpTransport.JDK, metrics),
+                    new GitHubResponseCache(100)).fetchTopIssues("octocat", "hello-world", 250);
+
+            assertThat(issues).hasSize(stub.issueCount());
+            assertThat(metrics.getRequests()).isPositive();
+            assertThat(metrics.getCompressedResponses()).isEqualTo(metrics.getRequests());
+        }
+    }
+
+    @Test
+    void acceptsEmptyNotModifiedAnswersLabelledGzip() throws IOException {
+        GitHubHttpMetrics metrics = new GitHubHttpMetrics();
+        GitHubResponseCache responseCache = new GitHubResponseCache(100);
+        try (GitHubStubServer stub = new GitHubStubServer(250).serveETags()) {
+            GitHubClient gitHubClient = stubClient(stub, restTemplate(GitHubHttpTransport.JDK, metrics),
+                    responseCache);
+            Map<String, Issue> first = gitHubClient.fetchTopIssues("octocat", "hello-world", 250);
+            long pages = metrics.getRequests();
+
+            Map<String, Issue> second = gitHubClient.fetchTopIssues("octocat", "hello-world", 250);
+
+            // every page came back 304, with Content-Encoding: gzip and no body
+            assertThat(responseCache.getHits()).isEqualTo(pages);
+            assertThat(metrics.getCompressedResponses()).isEqualTo(2 * pages);
+            assertThat(metrics.getFailures()).isZero();
+            assertThat(new ArrayList<>(second.keySet())).isEqualTo(new ArrayList<>(first.keySet()));
+        }
+    }
+
+    @Test
+    void notModifiedPagesAreServedAsCopiesOfTheCachedPage() {
+        GitHubResponseCache responseCache = new GitHubResponseCache(100);
+        GitHubClient gitHubClient = new GitHubClient(restTemplate(), "", baseUrl, ISSUES_URL, ISSUES_SINCE_URL,
+                ORG_REPOS_URL, responseCache, new GitHubRateLimiter(1_000, 1_000, 0, 1, 3), 1, 10, 8, meterRegistry);
+        Map<String, Issue> first = gitHubClient.fetchTopIssues("octocat", "etagged", 50);
+        // callers change the issues they get, e.g. to stamp the sync time
+        first.values().forEach(issue -> issue.title = "changed by the caller");
+
+        Map<String, Issue> second = gitHubClient.fetchTopIssues("octocat", "etagged", 50);
+
+        // both pages came back 304 Not Modified
+        assertThat(responseCache.getHits()).isEqualTo(2);
+        assertThat(second).hasSize(50);
+        assertThat(second.values()).allSatisfy(issue -> {
+            assertThat(issue.title).isEqualTo("Issue " + issue.id);
+            assertThat(issue).isNotSameAs(first.get(issue.id));
+        });
+    }
+
+    @Test
+    void errorsKeepTheGitHubErrorMessage() {
+        assertThatThrownBy(() -> gitHubClient(1).fetchTopIssues("octocat", "disabled", 10))
+                .isInstanceOfSatisfying(CustomException.class, ex -> {
+                    assertThat(ex.getStatus()).isEqualTo(HttpStatus.GONE);
+                    assertThat(ex.getMessage()).contains("Issues are disabled for this repo");
+                });
+    }
+
+    private List<ResumablePage> streamFrom(PagingCursor cursor, int limit) {
+        GitHubClient gitHubClient = gitHubClient(1);
+        try (Stream<ResumableIssuePage> pages = gitHubClient.streamIssuesFrom("octocat", "evolving", cursor, limit)) {
+            return pages.map(page -> new ResumablePage(
+                    page.getIssues().stream().map(issue -> Integer.parseInt(issue.id)).toList(),
+                    page.getCursor())).toList();
+        }
+    }
+
+    private record ResumablePage(List<Integer> issues, PagingCursor cursor) {
+    }
+
+    /**
+     * Issues 0 to 249 of the evolving repository, every tenth a pull request. Issue i is updated i seconds after
+     * {@code BASE}, except issues 100 to 229, which were all updated in the same second.
+     */
+    private void resetEvolvingRepository() {
+        updatedAt.clear();
+        for (int id = 0; id < TOTAL_ISSUES; id++) {
+            updatedAt.put(id, BASE.plusSeconds(id >= 100 && id < 230 ? 100 : id));
+        }
+    }
+
+    private List<Integer> evolvingIssueIds() {
+        return updatedAt.keySet().stream().filter(id -> id % 10 != 0).toList();
+    }
+
+    private void listIssuesByUpdateTime(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        int perPage = intParam(query, "per_page");
+        int page = intParam(query, "page");
+        Matcher sinceParam = Pattern.compile("since=([^&]+)").matcher(query);
+        Instant since = sinceParam.find() ? Instant.parse(sinceParam.group(1)) : Instant.EPOCH;
+
+        List<String> entries = updatedAt.entrySet().stream()
+                .filter(entry -> !entry.getValue().isBefore(since))
+                .sorted(Map.Entry.<Integer, Instant>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .skip((long) (page - 1) * perPage)
+                .limit(perPage)
+                .map(entry -> issueJson(entry.getKey(), entry.getValue()))
+                .toList();
+        byte[] body = ("[" + String.join(",", entries) + "]").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        Runnable mutation = afterFirstPage;
+        afterFirstPage = () -> { };
+        mutation.run();
+    }
+
+    private GitHubClient gitHubClient(int parallelism) {
+        return gitHubClient(restTemplate(), parallelism);
+    }
+
+    private GitHubClient gitHubClient(RestTemplate restTemplate, int parallelism) {
+        return new GitHubClient(restTemplate, "", baseUrl, ISSUES_URL, ISSUES_SINCE_URL, ORG_REPOS_URL,
+                new GitHubResponseCache(100), new GitHubRateLimiter(1_000, 1_000, 0, 1, 3), parallelism, 10, 8,
+                meterRegistry);
+    }
+
+    private GitHubClient stubClient(GitHubStubServer stub, RestTemplate restTemplate,
+                                    GitHubResponseCache responseCache) {
+        return new GitHubClient(restTemplate, "", stub.baseUrl(), GitHubStubServer.ISSUES_URL,
+                GitHubStubServer.ISSUES_SINCE_URL, GitHubStubServer.ORG_REPOS_URL, responseCache,
+                new GitHubRateLimiter(1_000, 1_000, 0, 1, 3), 1, 10, 8, meterRegistry);
+    }
+
+    static RestTemplate restTemplate() {
+        return restTemplate(GitHubHttpTransport.JDK, new GitHubHttpMetrics());
+    }
+
+    private static RestTemplate restTemplate(GitHubHttpTransport transport, GitHubHttpMetrics metrics) {
+        return GitHubHttpConfig.restTemplate(transport, Duration.ofSeconds(5), Duration.ofSeconds(10), true, metrics);
+    }
+
+    private void listIssues(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        int perPage = intParam(query, "per_page");
+        int page = intParam(query, "page");
+        int lastPage = (TOTAL_ISSUES + perPage - 1) / perPage;
+
+        List<String> entries = new ArrayList<>();
+        // ids count down from TOTAL_ISSUES - 1 so page 1 holds the newest issues
+        for (int index = (page - 1) * perPage; index < Math.min(page * perPage, TOTAL_ISSUES); index++) {
+            entries.add(issueJson(TOTAL_ISSUES - 1 - index));
+        }
+        byte[] body = ("[" + String.join(",", entries) + "]").getBytes(StandardCharsets.UTF_8);
+        if ("gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"))) {
+            body = gzip(body);
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("X-RateLimit-Remaining", "4999");
+        exchange.getResponseHeaders().add("Link",
+                "<" + baseUrl + "/repos/octocat/hello-world/issues?per_page=" + perPage + "&page=" + lastPage
+                        + ">; rel=\"last\"");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void listIssuesWithETag(HttpExchange exchange) throws IOException {
+        if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        listIssues(exchange);
+    }
+
+    private void issuesDisabled(HttpExchange exchange) throws IOException {
+        byte[] body = "{\"message\":\"Issues are disabled for this repo\"}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(410, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void throttleOnce(HttpExchange exchange) throws IOException {
+        if (!throttled.compareAndSet(false, true)) {
+            listIssues(exchange);
+            return;
+        }
+        exchange.getResponseHeaders().add("Retry-After", "1");
+        exchange.getResponseHeaders().add("X-RateLimit-Remaining", "4000");
+        exchange.sendResponseHeaders(429, -1);
+        exchange.close();
+    }
+
+    private void listOrganizationRepositories(HttpExchange exchange) throws IOException {
+        String body = intParam(exchange.getRequestURI().getQuery(), "page") > 1 ? "[]" : "["
+                + "{\"name\":\"hello-world\",\"archived\":false,\"has_issues\":true},"
+                + "{\"name\":\"old-project\",\"archived\":true,\"has_issues\":true},"
+                + "{\"name\":\"docs\",\"archived\":false,\"has_issues\":false},"
+                + "{\"name\":\"spoon-knife\",\"archived\":false,\"has_issues\":true}]";
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    private String issueJson(int id) {
+        return issueJson(id, Instant.parse("2025-09-07T10:29:25Z"));
+    }
+
+    private String issueJson(int id, Instant updatedAt) {
+        String pullRequest = id % 10 == 0
+                ? ",\"pull_request\":{\"url\":\"https://api.github.com/pulls/" + id + "\"}" : "";
+        return "{\"id\":" + id + ",\"title\":\"Issue " + id + "\",\"state\":\"open\","
+                + "\"html_url\":\"https://github.com/octocat/hello-world/issues/" + id + "\","
+                + "\"created_at\":\"2025-09-07T10:29:25Z\",\"updated_at\":\"" + updatedAt + "\""
+                + pullRequest + "}";
+    }
+
+    private int intParam(String query, String name) {
+        Matcher matcher = Pattern.compile("(?:^|&)" + name + "=(\\d+)").matcher(query);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+    }
+}
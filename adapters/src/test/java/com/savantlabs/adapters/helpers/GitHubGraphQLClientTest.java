@@ -0,0 +1,135 @@
+package com.savantlabs.adapters.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.model.Issue;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs GitHubGraphQLClient against a local stub of the GraphQL endpoint serving 250 issues, newest first.
+ */
+class GitHubGraphQLClientTest {
+    private static final int TOTAL_ISSUES = 250;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<JsonNode> queries = new ArrayList<>();
+    private HttpServer server;
+    private GitHubGraphQLClient graphQLClient;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/graphql", this::query);
+        server.start();
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+        GitHubClient gitHubClient = new GitHubClient(GitHubClientTest.restTemplate(), "", baseUrl, "", "", "",
+                new GitHubResponseCache(100), new GitHubRateLimiter(1_000, 1_000, 0, 1, 3), 1, 10, 8,
+                new SimpleMeterRegistry());
+        graphQLClient = new GitHubGraphQLClient(gitHubClient, baseUrl, "%s/graphql", 3, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void pagesThroughTheIssueConnectionWithItsCursor() {
+        Map<String, Issue> issues = graphQLClient.fetchTopIssues("octocat", "hello-world", 150, () -> { });
+
+        assertThat(issues).hasSize(150);
+        assertThat(issues.keySet()).first().isEqualTo(String.valueOf(TOTAL_ISSUES - 1));
+        Issue issue = issues.values().iterator().next();
+        assertThat(issue.state).isEqualTo("open");
+        assertThat(issue.owner).isEqualTo("octocat");
+        assertThat(issue.htmlUrl).endsWith("/issues/" + (TOTAL_ISSUES - 1));
+
+        assertThat(queries).hasSize(2);
+        assertThat(queries.get(0).path("query").asText()).contains("databaseId").contains("rateLimit");
+        assertThat(queries.get(0).path("variables").path("first").asInt()).isEqualTo(100);
+        assertThat(queries.get(1).path("variables").path("first").asInt()).isEqualTo(50);
+        assertThat(queries.get(1).path("variables").path("after").asText()).isEqualTo("99");
+    }
+
+    @Test
+    void incrementalQueriesFilterAndOrderByUpdatedAt() {
+        List<List<Issue>> pages = graphQLClient
+                .streamIssuesUpdatedSince("octocat", "hello-world", Instant.parse("2025-09-01T00:00:00Z"), 1_000)
+                .toList();
+
+        assertThat(pages).hasSize(3);
+        assertThat(pages.stream().mapToInt(List::size).sum()).isEqualTo(TOTAL_ISSUES);
+        JsonNode variables = queries.get(0).path("variables");
+        assertThat(variables.path("since").asText()).isEqualTo("2025-09-01T00:00:00Z");
+        assertThat(variables.path("orderBy").path("field").asText()).isEqualTo("UPDATED_AT");
+    }
+
+    @Test
+    void reportsMissingRepositoriesAsNotFound() {
+        assertThatThrownBy(() -> graphQLClient.fetchTopIssues("octocat", "missing", 10, () -> { }))
+                .isInstanceOfSatisfying(CustomException.class,
+                        ex -> assertThat(ex.getStatus()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+
+    private void query(HttpExchange exchange) throws IOException {
+        JsonNode request;
+        try (InputStream in = exchange.getRequestBody()) {
+            request = objectMapper.readTree(in);
+        }
+        queries.add(request);
+        JsonNode variables = request.path("variables");
+
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode data = response.putObject("data");
+        data.putObject("rateLimit").put("cost", 1).put("remaining", 4999).put("resetAt", "2030-01-01T00:00:00Z");
+        if (variables.path("name").asText().equals("missing")) {
+            data.putNull("repository");
+            response.putArray("errors").addObject().put("type", "NOT_FOUND")
+                    .put("message", "Could not resolve to a Repository");
+        } else {
+            int first = variables.path("first").asInt();
+            int start = variables.path("after").isNull() ? 0 : variables.path("after").asInt() + 1;
+            int end = Math.min(start + first, TOTAL_ISSUES);
+            ObjectNode issues = data.putObject("repository").putObject("issues");
+            ArrayNode nodes = issues.putArray("nodes");
+            // ids count down from TOTAL_ISSUES - 1 so the first page holds the newest issues
+            for (int index = start; index < end; index++) {
+                int id = TOTAL_ISSUES - 1 - index;
+                nodes.addObject().put("databaseId", id).put("title", "Issue " + id).put("state", "OPEN")
+                        .put("url", "https://github.com/octocat/hello-world/issues/" + id)
+                        .put("createdAt", "2025-09-07T10:29:25Z").put("updatedAt", "2025-09-07T10:29:25Z");
+            }
+            issues.putObject("pageInfo").put("hasNextPage", end < TOTAL_ISSUES)
+                    .put("endCursor", String.valueOf(end - 1));
+        }
+
+        byte[] body = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("X-RateLimit-Resource", "graphql");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
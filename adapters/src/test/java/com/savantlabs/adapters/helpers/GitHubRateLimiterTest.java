@@ -0,0 +1,72 @@
+package com.savantlabs.adapters.helpers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitHubRateLimiterTest {
+
+    @Test
+    void spacesRequestsOnceTheBurstIsUsed() throws InterruptedException {
+        GitHubRateLimiter rateLimiter = new GitHubRateLimiter(20, 2, 0, 60, 3);
+
+        assertThat(timeToAcquire(rateLimiter, 2)).isLessThan(Duration.ofMillis(40));
+        assertThat(timeToAcquire(rateLimiter, 4)).isGreaterThanOrEqualTo(Duration.ofMillis(150));
+    }
+
+    @Test
+    void spreadsALowRemainingQuotaUntilTheReset() throws InterruptedException {
+        GitHubRateLimiter rateLimiter = new GitHubRateLimiter(1_000, 1, 100, 60, 3);
+        rateLimiter.update(rateLimitHeaders(10, Instant.now().plusSeconds(3)));
+        rateLimiter.acquire();
+
+        // ten requests left for two to three seconds: one every 200 to 300 ms
+        assertThat(timeToAcquire(rateLimiter, 3)).isGreaterThanOrEqualTo(Duration.ofMillis(350));
+        assertThat(rateLimiter.getRemaining()).isEqualTo(6);
+    }
+
+    @Test
+    void holdsRequestsBackForRetryAfter() throws InterruptedException {
+        GitHubRateLimiter rateLimiter = new GitHubRateLimiter(1_000, 10, 0, 60, 3);
+        HttpHeaders headers = rateLimitHeaders(4000, Instant.now().plusSeconds(3600));
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+
+        assertThat(rateLimiter.isRateLimited(HttpStatus.FORBIDDEN, headers, null)).isTrue();
+        rateLimiter.update(headers);
+        assertThat(rateLimiter.onRateLimited()).isGreaterThan(Duration.ofMillis(900));
+        assertThat(timeToAcquire(rateLimiter, 1)).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+    }
+
+    @Test
+    void tellsRateLimitsFromMissingAccess() {
+        GitHubRateLimiter rateLimiter = new GitHubRateLimiter(1_000, 10, 0, 60, 3);
+        HttpHeaders headers = rateLimitHeaders(4000, Instant.now().plusSeconds(3600));
+
+        assertThat(rateLimiter.isRateLimited(HttpStatus.FORBIDDEN, headers, "Resource not accessible")).isFalse();
+        assertThat(rateLimiter.isRateLimited(HttpStatus.FORBIDDEN, headers,
+                "You have exceeded a secondary rate limit")).isTrue();
+        assertThat(rateLimiter.isRateLimited(HttpStatus.TOO_MANY_REQUESTS, headers, null)).isTrue();
+        assertThat(rateLimiter.isRateLimited(HttpStatus.FORBIDDEN, rateLimitHeaders(0, Instant.now()), null))
+                .isTrue();
+    }
+
+    private Duration timeToAcquire(GitHubRateLimiter rateLimiter, int requests) throws InterruptedException {
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            rateLimiter.acquire();
+        }
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    private HttpHeaders rateLimitHeaders(int remaining, Instant reset) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining));
+        headers.set("X-RateLimit-Reset", String.valueOf(reset.getEpochSecond()));
+        return headers;
+    }
+}
@@ -0,0 +1,185 @@
+package com.savantlabs.adapters.helpers;
+
+import com.savantlabs.adapters.exception.CustomException;
+import com.savantlabs.adapters.model.Issue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IssueSnapshotStoreTest {
+    private static final Instant START = Instant.parse("2025-09-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsIssuesThroughTheColumnarFile() throws Exception {
+        Path file = directory.resolve("hello-world.snapshot");
+        List<Issue> issues = issues(0, 50);
+        issues.get(3).title = "Ünïcödé title ✓";
+        issues.get(4).htmlUrl = null;
+        IssueSnapshot.write(file, issues);
+
+        IssueSnapshot snapshot = IssueSnapshot.open(file);
+        assertThat(snapshot.size()).isEqualTo(50);
+        List<Issue> read = snapshot.readAll();
+        assertThat(read).extracting(issue -> issue.id)
+                .containsExactlyElementsOf(issues.stream().map(issue -> issue.id).toList());
+        Issue issue = read.get(3);
+        assertThat(issue.title).isEqualTo("Ünïcödé title ✓");
+        assertThat(issue.owner).isEqualTo("octocat");
+        assertThat(issue.repo).isEqualTo("Hello-World");
+        assertThat(issue.state).isEqualTo("closed");
+        assertThat(issue.createdAt).isEqualTo(START.plusSeconds(3 * 3600));
+        assertThat(issue.updatedAt).isEqualTo(START.plusSeconds(3 * 3600 + 90));
+        assertThat(read.get(4).htmlUrl).isEmpty();
+        // 3 dictionary entries instead of a string per row, and small varint deltas for the timestamps
+        assertThat(Files.size(file)).isLessThan(50L * (8 + 3 * 2 + 2 + 1 + 2 * 4) + 50L * 60 + 200);
+    }
+
+    @Test
+    void filtersByStateAndCreatedAtNewestFirst() throws Exception {
+        Path file = directory.resolve("hello-world.snapshot");
+        IssueSnapshot.write(file, issues(0, 100));
+        IssueSnapshot snapshot = IssueSnapshot.open(file);
+
+        IssueSnapshot.QueryResult open = snapshot.query("open", START.plusSeconds(10 * 3600),
+                START.plusSeconds(20 * 3600), 3);
+        // issues 10 to 19, the even ones are open
+        assertThat(open.matched()).isEqualTo(5);
+        assertThat(open.issues()).extracting(issue -> issue.id).containsExactly("1018", "1016", "1014");
+        assertThat(snapshot.query(null, null, null, 1000).matched()).isEqualTo(100);
+        assertThat(snapshot.query("locked", null, null, 10).matched()).isZero();
+    }
+
+    @Test
+    void mergesRecordedIssuesIntoTheSnapshotOfTheirRepository() throws Exception {
+        IssueSnapshotStore snapshotStore = new IssueSnapshotStore(true, directory.toString(), 60_000, 8);
+        assertThat(snapshotStore.get("octocat", "Hello-World")).isEmpty();
+
+        snapshotStore.record(issues(0, 10));
+        snapshotStore.flush();
+        List<Issue> updates = issues(5, 10);
+        updates.forEach(issue -> issue.state = "closed");
+        snapshotStore.record(updates);
+        snapshotStore.close();
+
+        RepositorySnapshot snapshot = snapshotStore.get("OctoCat", "hello-world").orElseThrow();
+        assertThat(snapshot.size()).isEqualTo(15);
+        assertThat(snapshot.query("open", null, null, 100).issues()).extracting(issue -> issue.id)
+                .containsExactly("1004", "1002", "1000");
+        assertThat(Files.exists(directory.resolve("octocat").resolve("hello-world.snapshot"))).isTrue();
+        assertThatThrownBy(() -> snapshotStore.get("..", "hello-world"))
+                .isInstanceOfSatisfying(CustomException.class,
+                        ex -> assertThat(ex.getStatus().value()).isEqualTo(400));
+    }
+
+    @Test
+    void leavesIssuesWithoutCreatedAtOutOfTheFlush() throws Exception {
+        IssueSnapshotStore snapshotStore = new IssueSnapshotStore(true, directory.toString(), 60_000, 8);
+        List<Issue> issues = issues(0, 10);
+        issues.get(4).createdAt = null;
+
+        snapshotStore.record(issues);
+        snapshotStore.flush();
+
+        RepositorySnapshot snapshot = snapshotStore.get("octocat", "hello-world").orElseThrow();
+        assertThat(snapshot.size()).isEqualTo(9);
+        assertThat(snapshot.query(null, null, null, 100).issues()).extracting(issue -> issue.id)
+                .doesNotContain("1004").contains("1003", "1005");
+    }
+
+    @Test
+    void startsTheScanAtTheBlockTheCreatedAtRangeBeginsIn() throws Exception {
+        // 1000 rows span 4 blocks; rows 500 to 599 share one createdAt across the block boundary at row 512
+        List<Issue> issues = issues(0, 1000);
+        for (int i = 500; i < 600; i++) {
+            issues.get(i).createdAt = START.plusSeconds(500 * 3600L);
+            issues.get(i).updatedAt = issues.get(i).createdAt.plusSeconds(i);
+        }
+        Path file = directory.resolve("hello-world.snapshot");
+        IssueSnapshot.write(file, issues);
+        IssueSnapshot snapshot = IssueSnapshot.open(file);
+
+        IssueSnapshot.QueryResult result = snapshot.query(null, START.plusSeconds(500 * 3600L),
+                START.plusSeconds(700 * 3600L), 1000);
+        assertThat(result.matched()).isEqualTo(200);
+        assertThat(result.issues().get(199).id).isEqualTo("1500");
+        assertThat(result.issues().get(199).updatedAt).isEqualTo(START.plusSeconds(500 * 3600L + 500));
+        assertThat(snapshot.query(null, START.plusSeconds(900 * 3600L), null, 1).issues())
+                .extracting(issue -> issue.id).containsExactly("1999");
+        assertThat(snapshot.query(null, START.plusSeconds(2000 * 3600L), null, 10).matched()).isZero();
+    }
+
+    @Test
+    void appendsDeltasAndCompactsThemIntoTheBase() throws Exception {
+        IssueSnapshotStore snapshotStore = new IssueSnapshotStore(true, directory.toString(), 60_000, 3);
+        Path base = directory.resolve("octocat").resolve("hello-world.snapshot");
+        Path deltas = directory.resolve("octocat").resolve("hello-world.deltas");
+        // the first flush has no base yet, so it becomes the base right away
+        snapshotStore.record(issues(0, 100));
+        snapshotStore.flush();
+        long baseSize = Files.size(base);
+        assertThat(deltaFiles(deltas)).isZero();
+
+        // later flushes only write the recorded issues; a newer delta hides the older rows of the same issue
+        List<Issue> closed = issues(0, 2);
+        closed.forEach(issue -> issue.state = "closed");
+        snapshotStore.record(closed);
+        snapshotStore.flush();
+        snapshotStore.record(issues(100, 1));
+        snapshotStore.flush();
+        assertThat(deltaFiles(deltas)).isEqualTo(2);
+        assertThat(Files.size(base)).isEqualTo(baseSize);
+        RepositorySnapshot snapshot = snapshotStore.get("octocat", "hello-world").orElseThrow();
+        assertThat(snapshot.size()).isEqualTo(101);
+        assertThat(snapshot.query("open", null, START.plusSeconds(5 * 3600L), 10).issues())
+                .extracting(issue -> issue.id).containsExactly("1004", "1002");
+        assertThat(snapshot.query(null, null, null, 3).issues()).extracting(issue -> issue.id)
+                .containsExactly("1100", "1099", "1098");
+
+        // the third delta is compacted into the base together with the other two
+        List<Issue> reopened = issues(1, 1);
+        reopened.get(0).state = "open";
+        snapshotStore.record(reopened);
+        snapshotStore.close();
+        assertThat(deltaFiles(deltas)).isZero();
+        snapshot = snapshotStore.get("octocat", "hello-world").orElseThrow();
+        assertThat(snapshot.size()).isEqualTo(101);
+        assertThat(snapshot.query("open", null, START.plusSeconds(5 * 3600L), 10).issues())
+                .extracting(issue -> issue.id).containsExactly("1004", "1002", "1001");
+    }
+
+    private static long deltaFiles(Path deltas) throws IOException {
+        try (Stream<Path> files = Files.list(deltas)) {
+            return files.count();
+        }
+    }
+
+    private static List<Issue> issues(int from, int count) {
+        List<Issue> issues = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            Issue issue = new Issue();
+            issue.id = String.valueOf(1000 + i);
+            issue.owner = "octocat";
+            issue.repo = "Hello-World";
+            issue.title = "Issue " + i;
+            issue.state = i % 2 == 0 ? "open" : "closed";
+            issue.htmlUrl = "https://github.com/octocat/Hello-World/issues/" + i;
+            issue.createdAt = START.plusSeconds(i * 3600L);
+            issue.updatedAt = issue.createdAt.plusSeconds(90);
+            issues.add(issue);
+        }
+        return issues;
+    }
+}
@@ -0,0 +1,229 @@
+package com.savantlabs.adapters.helpers;
+
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.UpsertResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IssueSpoolTest {
+    @TempDir
+    Path directory;
+
+    private final List<Issue> written = new CopyOnWriteArrayList<>();
+
+    @Test
+    void drainsPagesInOrderAcrossSegments() throws Exception {
+        // 4 KB segments hold one page of 20 issues each, so every append rolls over to a new segment
+        IssueSpool issueSpool = issueSpool(firestoreClient(issue -> true));
+        List<CompletableFuture<UpsertResult>> pages = new ArrayList<>();
+        for (int page = 0; page < 5; page++) {
+            pages.add(issueSpool.append(issues(page * 20, 20)));
+        }
+
+        for (CompletableFuture<UpsertResult> page : pages) {
+            assertThat(page.get(5, TimeUnit.SECONDS).getWritten()).isEqualTo(20);
+        }
+        issueSpool.close();
+
+        assertThat(written).extracting(issue -> issue.id)
+                .containsExactlyElementsOf(issues(0, 100).stream().map(issue -> issue.id).toList());
+        Issue first = written.get(0);
+        assertThat(first.owner).isEqualTo("octocat");
+        assertThat(first.title).isEqualTo("Issue 0");
+        assertThat(first.createdAt).isEqualTo(Instant.parse("2025-09-07T10:29:25.123456789Z"));
+        assertThat(issueSpool.getBacklogBytes()).isZero();
+        try (Stream<Path> files = Files.list(directory)) {
+            // drained segments are deleted
+            assertThat(files.filter(file -> file.getFileName().toString().startsWith("segment-"))).hasSize(1);
+        }
+    }
+
+    @Test
+    void resumesFromThePersistedOffsetAfterARestart() throws Exception {
+        // Firestore goes down after the first page
+        IssueSpool issueSpool = issueSpool(firestoreClient(issue -> Integer.parseInt(issue.id) < 20));
+        CompletableFuture<UpsertResult> firstPage = issueSpool.append(issues(0, 20));
+        CompletableFuture<UpsertResult> secondPage = issueSpool.append(issues(20, 20));
+        assertThat(firstPage.get(5, TimeUnit.SECONDS).getWritten()).isEqualTo(20);
+        Thread.sleep(100);
+        issueSpool.close();
+        assertThat(secondPage).isNotDone();
+        assertThat(issueSpool.getBacklogBytes()).isPositive();
+
+        written.clear();
+        IssueSpool restarted = issueSpool(firestoreClient(issue -> true));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (restarted.getBacklogBytes() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        restarted.close();
+
+        // only the page that was not written before the restart is written
+        assertThat(restarted.getBacklogBytes()).isZero();
+        assertThat(written).extracting(issue -> issue.id)
+                .containsExactlyElementsOf(issues(20, 20).stream().map(issue -> issue.id).toList());
+    }
+
+    @Test
+    void waitsForThePagesLeftFromBeforeARestartToDrain() throws Exception {
+        IssueSpool issueSpool = issueSpool(firestoreClient(issue -> false));
+        issueSpool.append(issues(0, 20));
+        issueSpool.close();
+
+        CountDownLatch firestoreBlocked = new CountDownLatch(1);
+        FirestoreClient firestoreClient = mock(FirestoreClient.class);
+        when(firestoreClient.upsertAll(anyCollection())).thenAnswer(invocation -> {
+            firestoreBlocked.await();
+            return write(invocation.getArgument(0), issue -> true);
+        });
+        IssueSpool restarted = issueSpool(firestoreClient);
+        CompletableFuture<Void> drained = restarted.whenDrained("octocat", "hello-world");
+        assertThat(drained).isNotDone();
+        assertThat(restarted.whenDrained("octocat", "spoon-knife")).isDone();
+
+        firestoreBlocked.countDown();
+        drained.get(5, TimeUnit.SECONDS);
+        restarted.close();
+        assertThat(written).hasSize(20);
+    }
+
+    @Test
+    void needsAnAbsoluteDirectory() {
+        assertThatThrownBy(() -> new IssueSpool(mock(FirestoreClient.class), true, "data/issue-spool", 4, 1, 10))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void setsAFailingPageAsideWithoutHoldingUpOtherRepositoriesOrDroppingIt() throws Exception {
+        AtomicBoolean helloWorldAvailable = new AtomicBoolean();
+        IssueSpool issueSpool = new IssueSpool(
+                firestoreClient(issue -> !issue.repo.equals("hello-world") || helloWorldAvailable.get()),
+                true, directory.toString(), 4, 2, 10);
+        CompletableFuture<UpsertResult> failingPage = issueSpool.append(issues(0, 20));
+        CompletableFuture<UpsertResult> laterPage = issueSpool.append(issues(20, 20));
+        CompletableFuture<UpsertResult> otherRepository = issueSpool.append(issues("spoon-knife", 40, 20));
+
+        assertThat(otherRepository.get(5, TimeUnit.SECONDS).getWritten()).isEqualTo(20);
+        // reported as failed after max-attempts, but kept in the spool, with the later page of its repository behind it
+        assertThat(failingPage.get(5, TimeUnit.SECONDS).getFailed()).isEqualTo(20);
+        assertThat(laterPage).isNotDone();
+        assertThat(issueSpool.getRetryingPages()).isEqualTo(2);
+        assertThat(issueSpool.getBacklogBytes()).isPositive();
+        assertThat(issueSpool.whenDrained("Octocat", "Spoon-Knife")).isDone();
+        CompletableFuture<Void> helloWorldDrained = issueSpool.whenDrained("octocat", "hello-world");
+        assertThat(helloWorldDrained).isNotDone();
+
+        helloWorldAvailable.set(true);
+        assertThat(laterPage.get(5, TimeUnit.SECONDS).getWritten()).isEqualTo(20);
+        helloWorldDrained.get(5, TimeUnit.SECONDS);
+        issueSpool.close();
+
+        assertThat(issueSpool.getRetryingPages()).isZero();
+        assertThat(issueSpool.getBacklogBytes()).isZero();
+        assertThat(written).extracting(issue -> issue.id)
+                .containsExactlyElementsOf(Stream.of(issues("spoon-knife", 40, 20), issues(0, 20), issues(20, 20))
+                        .flatMap(List::stream).map(issue -> issue.id).toList());
+    }
+
+    @Test
+    void failsThePagesInFlightAndStartsOverWhenTheDrainerFails() throws Exception {
+        CountDownLatch firestoreBlocked = new CountDownLatch(1);
+        FirestoreClient firestoreClient = mock(FirestoreClient.class);
+        when(firestoreClient.upsertAll(anyCollection())).thenAnswer(invocation -> {
+            firestoreBlocked.await();
+            return write(invocation.getArgument(0), issue -> true);
+        });
+        IssueSpool issueSpool = issueSpool(firestoreClient);
+        CompletableFuture<UpsertResult> firstPage = issueSpool.append(issues(0, 20));
+        CompletableFuture<UpsertResult> secondPage = issueSpool.append(issues(20, 20));
+
+        // the drained position can no longer be persisted once the first page is written
+        Path offsetFile = directory.resolve("drained.offset");
+        Files.move(directory, directory.resolveSibling(directory.getFileName() + "-moved"));
+        firestoreBlocked.countDown();
+        assertThat(firstPage.get(5, TimeUnit.SECONDS).getWritten()).isEqualTo(20);
+        assertThatThrownBy(() -> secondPage.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+
+        Files.move(directory.resolveSibling(directory.getFileName() + "-moved"), directory);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (issueSpool.getBacklogBytes() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        issueSpool.close();
+
+        // both pages were written after the drainer started over, the first one for the second time
+        assertThat(issueSpool.getBacklogBytes()).isZero();
+        assertThat(offsetFile).exists();
+        assertThat(written).extracting(issue -> issue.id)
+                .containsExactlyElementsOf(Stream.of(issues(0, 20), issues(0, 20), issues(20, 20))
+                        .flatMap(List::stream).map(issue -> issue.id).toList());
+    }
+
+    private IssueSpool issueSpool(FirestoreClient firestoreClient) throws IOException {
+        return new IssueSpool(firestoreClient, true, directory.toString(), 4, 1_000, 10);
+    }
+
+    /**
+     * @return a FirestoreClient that writes the issues matching {@code available} and fails the others
+     */
+    private FirestoreClient firestoreClient(Predicate<Issue> available) throws InterruptedException {
+        FirestoreClient firestoreClient = mock(FirestoreClient.class);
+        when(firestoreClient.upsertAll(anyCollection()))
+                .thenAnswer(invocation -> write(invocation.getArgument(0), available));
+        return firestoreClient;
+    }
+
+    private UpsertResult write(Collection<Issue> issues, Predicate<Issue> available) {
+        UpsertResult result = new UpsertResult();
+        for (Issue issue : issues) {
+            if (available.test(issue)) {
+                written.add(issue);
+                result.recordWritten();
+            } else {
+                result.recordFailure(issue.id, "unavailable");
+            }
+        }
+        return result;
+    }
+
+    private static List<Issue> issues(int from, int count) {
+        return issues("hello-world", from, count);
+    }
+
+    private static List<Issue> issues(String repo, int from, int count) {
+        List<Issue> issues = new ArrayList<>();
+        for (int id = from; id < from + count; id++) {
+            Issue issue = new Issue();
+            issue.id = String.valueOf(id);
+            issue.title = "Issue " + id;
+            issue.state = "open";
+            issue.htmlUrl = "https://github.com/octocat/" + repo + "/issues/" + id;
+            issue.createdAt = Instant.parse("2025-09-07T10:29:25.123456789Z");
+            issue.updatedAt = issue.createdAt;
+            issues.add(issue.withOwnerRepo("octocat", repo));
+        }
+        return issues;
+    }
+}
@@ -0,0 +1,79 @@
+package com.savantlabs.adapters.helpers;
+
+import com.savantlabs.adapters.model.Issue;
+import com.savantlabs.adapters.model.UpsertResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalIssueStoreTest {
+    private static final Instant START = Instant.parse("2025-09-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void upsertsIssuesByIdAndSkipsUnchangedOnes() throws Exception {
+        Path storeDirectory = directory.resolve("local-store");
+        LocalIssueStore localIssueStore = new LocalIssueStore(storeDirectory.toString(), 1024, true, 1024, 5_000);
+        // opened on first use
+        assertThat(Files.exists(storeDirectory)).isFalse();
+
+        UpsertResult first = localIssueStore.upsertAll(issues(0, 10));
+        assertThat(first.getWritten()).isEqualTo(10);
+
+        List<Issue> again = issues(5, 10);
+        again.get(0).state = "closed";
+        UpsertResult second = localIssueStore.upsertAll(again);
+        // issue 5 changed, 6 to 9 did not, 10 to 14 are new
+        assertThat(second.getWritten()).isEqualTo(6);
+        assertThat(second.getSkipped()).isEqualTo(4);
+
+        Issue stored = localIssueStore.get("1005").orElseThrow();
+        assertThat(stored.state).isEqualTo("closed");
+        assertThat(stored.title).isEqualTo("Issue 5");
+        assertThat(stored.createdAt).isEqualTo(START.plusSeconds(5 * 3600));
+        assertThat(stored.syncedAt).isEqualTo(again.get(0).syncedAt);
+        assertThat(localIssueStore.get("9999")).isEmpty();
+        localIssueStore.close();
+    }
+
+    @Test
+    void keepsIncrementalCheckpointsAcrossRestarts() throws Exception {
+        LocalIssueStore localIssueStore = new LocalIssueStore(directory.toString(), 1024, true, 1024, 5_000);
+        assertThat(localIssueStore.getLastUpdatedAt("octocat", "hello-world")).isEmpty();
+        localIssueStore.upsertAll(issues(0, 3));
+        localIssueStore.saveLastUpdatedAt("octocat", "hello-world", START.plusSeconds(90));
+        localIssueStore.close();
+
+        LocalIssueStore restarted = new LocalIssueStore(directory.toString(), 1024, true, 1024, 5_000);
+        assertThat(restarted.getLastUpdatedAt("octocat", "hello-world")).contains(START.plusSeconds(90));
+        assertThat(restarted.getLastUpdatedAt("octocat", "spoon-knife")).isEmpty();
+        assertThat(restarted.get("1002")).isPresent();
+        restarted.close();
+    }
+
+    private static List<Issue> issues(int from, int count) {
+        List<Issue> issues = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            Issue issue = new Issue();
+            issue.id = String.valueOf(1000 + i);
+            issue.owner = "octocat";
+            issue.repo = "hello-world";
+            issue.title = "Issue " + i;
+            issue.state = "open";
+            issue.htmlUrl = "https://github.com/octocat/hello-world/issues/" + i;
+            issue.createdAt = START.plusSeconds(i * 3600L);
+            issue.updatedAt = issue.createdAt.plusSeconds(90);
+            issues.add(issue);
+        }
+        return issues;
+    }
+}
@@ -0,0 +1,107 @@
+package com.savantlabs.adapters.helpers;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogStructuredStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void keepsTheLatestValueOfEachKeyAcrossARestart() throws Exception {
+        LogStructuredStore store = LogStructuredStore.open(directory, 1 << 20, true, 1 << 20);
+        store.putAll(Map.of("a", bytes("1"), "b", bytes("2"))).get(5, TimeUnit.SECONDS);
+        store.putAll(Map.of("a", bytes("3"))).get(5, TimeUnit.SECONDS);
+        assertThat(store.get("a")).isEqualTo(bytes("3"));
+        assertThat(store.get("missing")).isNull();
+        store.close();
+
+        // a crash in the middle of the next commit leaves a torn record behind
+        try (Stream<Path> files = Files.list(directory)) {
+            Path segment = files.findFirst().orElseThrow();
+            Files.write(segment, new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+        }
+
+        LogStructuredStore reopened = LogStructuredStore.open(directory, 1 << 20, true, 1 << 20);
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.get("a")).isEqualTo(bytes("3"));
+        assertThat(reopened.get("b")).isEqualTo(bytes("2"));
+        reopened.putAll(Map.of("c", bytes("4"))).get(5, TimeUnit.SECONDS);
+        reopened.close();
+
+        LogStructuredStore again = LogStructuredStore.open(directory, 1 << 20, true, 1 << 20);
+        assertThat(again.get("c")).isEqualTo(bytes("4"));
+        again.close();
+    }
+
+    @Test
+    void commitsConcurrentWritersTogether() throws Exception {
+        LogStructuredStore store = LogStructuredStore.open(directory, 1 << 20, true, 1 << 20);
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        List<Future<?>> done = new ArrayList<>();
+        for (int writer = 0; writer < 8; writer++) {
+            int id = writer;
+            done.add(writers.submit(() -> {
+                for (int put = 0; put < 50; put++) {
+                    store.putAll(Map.of(id + ":" + put, bytes("value " + put))).join();
+                }
+            }));
+        }
+        for (Future<?> writer : done) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        writers.shutdown();
+
+        assertThat(store.size()).isEqualTo(400);
+        assertThat(store.get("7:49")).isEqualTo(bytes("value 49"));
+        // every commit was forced to disk once, and waiting writers shared the commits
+        assertThat(store.getSyncs()).isEqualTo(store.getGroupCommits());
+        assertThat(store.getGroupCommits()).isLessThanOrEqualTo(400);
+        store.close();
+    }
+
+    @Test
+    void compactsSegmentsOfOverwrittenRecords() throws Exception {
+        // about 40 records of 100 bytes per segment
+        LogStructuredStore store = LogStructuredStore.open(directory, 4096, true, 1 << 20);
+        List<CompletableFuture<Void>> puts = new ArrayList<>();
+        for (int round = 0; round < 10; round++) {
+            for (int key = 0; key < 20; key++) {
+                puts.add(store.putAll(Map.of("key-" + key, bytes(round + "-".repeat(80)))));
+            }
+        }
+        CompletableFuture.allOf(puts.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        // compaction runs after each commit, so wait for one more
+        store.putAll(Map.of("last", bytes("x"))).get(5, TimeUnit.SECONDS);
+
+        assertThat(store.getCompactions()).isPositive();
+        assertThat(store.getDiskBytes()).isLessThan(10 * 20 * 100);
+        assertThat(store.get("key-5")).isEqualTo(bytes(9 + "-".repeat(80)));
+        store.close();
+
+        LogStructuredStore reopened = LogStructuredStore.open(directory, 4096, true, 1 << 20);
+        assertThat(reopened.size()).isEqualTo(21);
+        assertThat(reopened.get("key-19")).isEqualTo(bytes(9 + "-".repeat(80)));
+        reopened.close();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,41 @@
+package com.savantlabs.adapters.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IssueMapperTest {
+
+    @Test
+    void streamingParserMatchesTreeMapping() throws IOException {
+        byte[] payload = fixture();
+        List<Issue> expected = new ArrayList<>();
+        for (JsonNode jsonNode : new ObjectMapper().readTree(payload)) {
+            if (!IssueMapper.isPullRequest(jsonNode)) expected.add(IssueMapper.toIssue(jsonNode));
+        }
+
+        IssuePage issuePage;
+        try (JsonParser parser = new JsonFactory().createParser(payload)) {
+            issuePage = IssueMapper.readPage(parser);
+        }
+
+        assertThat(issuePage.getEntryCount()).isEqualTo(100);
+        assertThat(issuePage.getIssues()).hasSize(80);
+        assertThat(issuePage.getIssues()).usingRecursiveFieldByFieldElementComparator().isEqualTo(expected);
+    }
+
+    private byte[] fixture() throws IOException {
+        try (InputStream fixture = getClass().getResourceAsStream("/fixtures/github/issues-page.json")) {
+            return fixture.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.savantlabs.adapters.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PagingCursorTest {
+    private static final Instant START = Instant.parse("2025-09-07T10:00:00Z");
+
+    @Test
+    void issuesWithoutUpdatedAtDoNotMoveTheCursor() {
+        PagingCursor cursor = PagingCursor.startingAt(START);
+
+        assertThat(cursor.afterIssues(List.of(issue("1", null)))).isSameAs(cursor);
+
+        PagingCursor moved = cursor.afterIssues(List.of(issue("2", START.plusSeconds(5)), issue("3", null)));
+        assertThat(moved.getSince()).isEqualTo(START.plusSeconds(5));
+        assertThat(moved.getPage()).isEqualTo(1);
+        assertThat(moved.getSeenIds()).containsExactly("2");
+    }
+
+    private static Issue issue(String id, Instant updatedAt) {
+        Issue issue = new Issue();
+        issue.id = id;
+        issue.updatedAt = updatedAt;
+        return issue;
+    }
+}
@@ -0,0 +1,148 @@
+package com.savantlabs.adapters.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.savantlabs.adapters.helpers.DaemonThreadFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for the GitHub list-issues endpoint. It serves {@code totalIssues} entries newest first by
+ * repeating the recorded fixture page with unique ids, so syncs can be run and measured offline. Pages are
+ * gzip-compressed when the client asks for it, and with {@link #serveETags()} they carry an ETag that a
+ * conditional request gets an empty 304 for.
+ */
+public class GitHubStubServer implements AutoCloseable {
+    public static final String ISSUES_URL =
+            "%s/repos/%s/%s/issues?state=all&sort=created&direction=desc&per_page=%d&page=%d";
+    public static final String ISSUES_SINCE_URL =
+            "%s/repos/%s/%s/issues?state=all&sort=updated&direction=asc&since=%s&per_page=%d&page=%d";
+    public static final String ORG_REPOS_URL = "%s/orgs/%s/repos?type=all&per_page=%d&page=%d";
+    public static final String FIXTURE = "/fixtures/github/issues-page.json";
+
+    static {
+        // without TCP_NODELAY small (gzipped) responses stall on delayed ACKs, which would dominate the timings;
+        // read once when the first HttpServer starts
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ArrayNode fixture;
+    private final int totalIssues;
+    private final Map<String, byte[]> pages = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private volatile boolean etags;
+
+    public GitHubStubServer(int totalIssues) throws IOException {
+        this.totalIssues = totalIssues;
+        try (InputStream in = GitHubStubServer.class.getResourceAsStream(FIXTURE)) {
+            this.fixture = (ArrayNode) objectMapper.readTree(in);
+        }
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8, new DaemonThreadFactory("github-stub-")));
+        server.createContext("/", this::listIssues);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Fixture entries are pull requests when they carry a {@code pull_request} field; this is how many of the
+     * served entries are real issues.
+     */
+    public int issueCount() {
+        int pullRequests = 0;
+        for (int index = 0; index < totalIssues; index++) {
+            if (fixture.get(index % fixture.size()).has("pull_request")) pullRequests++;
+        }
+        return totalIssues - pullRequests;
+    }
+
+    /**
+     * Tags every page with an ETag and answers requests that send it back with 304 Not Modified, labelled gzip like
+     * the page it stands for, as GitHub does.
+     */
+    public GitHubStubServer serveETags() {
+        etags = true;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void listIssues(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        int perPage = intParam(query, "per_page", 30);
+        int page = intParam(query, "page", 1);
+        int lastPage = Math.max(1, (totalIssues + perPage - 1) / perPage);
+        boolean gzip = "gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+        byte[] body = pages.computeIfAbsent(perPage + ":" + page + (gzip ? ":gzip" : ""),
+                key -> gzip ? gzip(page(perPage, page)) : page(perPage, page));
+
+        if (gzip) exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        if (etags) {
+            String etag = "\"" + perPage + ":" + page + "\"";
+            exchange.getResponseHeaders().add("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().add("X-RateLimit-Remaining", "4999");
+        exchange.getResponseHeaders().add("Link", "<" + baseUrl() + exchange.getRequestURI().getPath()
+                + "?per_page=" + perPage + "&page=" + lastPage + ">; rel=\"last\"");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private byte[] page(int perPage, int page) {
+        ArrayNode entries = objectMapper.createArrayNode();
+        for (int index = (page - 1) * perPage; index < Math.min(page * perPage, totalIssues); index++) {
+            ObjectNode entry = (ObjectNode) fixture.get(index % fixture.size()).deepCopy();
+            entry.put("id", entry.get("id").asLong() * 1_000 + index / fixture.size());
+            entries.add(entry);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(entries);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return compressed.toByteArray();
+    }
+
+    private int intParam(String query, String name, int defaultValue) {
+        Matcher matcher = Pattern.compile("(?:^|&)" + name + "=(\\d+)").matcher(query == null ? "" : query);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : defaultValue;
+    }
+}
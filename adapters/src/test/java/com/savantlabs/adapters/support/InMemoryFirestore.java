@@ -0,0 +1,286 @@
+package com.savantlabs.adapters.support;
+
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.AggregateQuery;
+import com.google.cloud.firestore.AggregateQuerySnapshot;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.BulkWriterOptions;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.Transaction;
+import com.google.cloud.firestore.WriteResult;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * In-memory stand-in for Firestore covering the calls FirestoreClient and FirestoreCoordinationClient make: document
+ * get/set/delete, batched gets, BulkWriter set, queries with equality and range filters, order, limit and count, and
+ * transactions. Transactions run one at a time, which gives them the isolation Firestore guarantees.
+ * Documents are kept per collection; set with merge semantics merges fields into the stored document, and fields
+ * set to {@link FieldValue#delete()} are removed.
+ * <p>
+ * The mocks are stub-only: they record no invocations, so the fake keeps a flat heap and little overhead when
+ * benchmarks send millions of writes through it.
+ */
+public class InMemoryFirestore {
+    private final Map<String, Map<String, Map<String, Object>>> collections = new ConcurrentHashMap<>();
+    private final Map<String, CollectionReference> collectionReferences = new ConcurrentHashMap<>();
+    private final Map<String, DocumentReference> documentReferences = new ConcurrentHashMap<>();
+    private final Firestore firestore = stub(Firestore.class);
+    private final WriteResult writeResult = stub(WriteResult.class);
+    private final Object transactionLock = new Object();
+
+    public InMemoryFirestore() {
+        when(firestore.collection(anyString()))
+                .thenAnswer(invocation -> collectionReference(invocation.getArgument(0)));
+        when(firestore.bulkWriter(any(BulkWriterOptions.class))).thenAnswer(invocation -> bulkWriter());
+        when(firestore.getAll(any(DocumentReference[].class))).thenAnswer(invocation -> {
+            List<DocumentSnapshot> snapshots = new ArrayList<>();
+            for (Object document : invocation.getArguments()) {
+                snapshots.add(((DocumentReference) document).get().get());
+            }
+            return ApiFutures.immediateFuture(snapshots);
+        });
+        when(firestore.runTransaction(any())).thenAnswer(invocation -> {
+            Transaction.Function<?> function = invocation.getArgument(0);
+            synchronized (transactionLock) {
+                try {
+                    return ApiFutures.immediateFuture(function.updateCallback(transaction()));
+                } catch (Exception ex) {
+                    return ApiFutures.immediateFailedFuture(ex);
+                }
+            }
+        });
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    public Firestore firestore() {
+        return firestore;
+    }
+
+    public Map<String, Object> document(String collection, String id) {
+        return documents(collection).get(id);
+    }
+
+    public int count(String collection) {
+        return documents(collection).size();
+    }
+
+    public void clear() {
+        collections.clear();
+    }
+
+    private Map<String, Map<String, Object>> documents(String collection) {
+        return collections.computeIfAbsent(collection, name -> new ConcurrentHashMap<>());
+    }
+
+    private void merge(String path, Map<String, Object> data) {
+        int separator = path.indexOf('/');
+        documents(path.substring(0, separator))
+                .compute(path.substring(separator + 1), (id, stored) -> {
+                    Map<String, Object> document = stored == null ? new HashMap<>() : stored;
+                    data.forEach((field, value) -> {
+                        if (FieldValue.delete().equals(value)) {
+                            document.remove(field);
+                        } else {
+                            document.put(field, value);
+                        }
+                    });
+                    return document;
+                });
+    }
+
+    private CollectionReference collectionReference(String collection) {
+        return collectionReferences.computeIfAbsent(collection, name -> {
+            CollectionReference collectionReference = stub(CollectionReference.class);
+            when(collectionReference.document(anyString()))
+                    .thenAnswer(invocation -> documentReference(name, invocation.getArgument(0)));
+            Query all = query(name, List.of(), null, Integer.MAX_VALUE);
+            when(collectionReference.get()).thenAnswer(invocation -> all.get());
+            when(collectionReference.whereEqualTo(anyString(), any())).thenAnswer(invocation ->
+                    all.whereEqualTo(invocation.<String>getArgument(0), invocation.getArgument(1)));
+            return collectionReference;
+        });
+    }
+
+    private Query query(String collection, List<Predicate<Map<String, Object>>> filters,
+                        Comparator<Map<String, Object>> order, int limit) {
+        Query query = stub(Query.class);
+        when(query.whereEqualTo(anyString(), any())).thenAnswer(invocation -> query(collection,
+                narrowed(filters, data -> Objects.equals(data.get(invocation.<String>getArgument(0)),
+                        invocation.getArgument(1))), order, limit));
+        when(query.whereGreaterThanOrEqualTo(anyString(), any())).thenAnswer(invocation -> query(collection,
+                narrowed(filters, inRange(invocation.getArgument(0), invocation.getArgument(1), 0, 1)), order, limit));
+        when(query.whereLessThan(anyString(), any())).thenAnswer(invocation -> query(collection,
+                narrowed(filters, inRange(invocation.getArgument(0), invocation.getArgument(1), -1, -1)), order,
+                limit));
+        when(query.orderBy(anyString(), any(Query.Direction.class))).thenAnswer(invocation -> {
+            String field = invocation.getArgument(0);
+            Comparator<Map<String, Object>> byField = (left, right) -> compare(left.get(field), right.get(field));
+            return query(collection, filters, invocation.getArgument(1) == Query.Direction.DESCENDING
+                    ? byField.reversed() : byField, limit);
+        });
+        when(query.limit(anyInt()))
+                .thenAnswer(invocation -> query(collection, filters, order, invocation.<Integer>getArgument(0)));
+        when(query.get()).thenAnswer(invocation -> {
+            List<QueryDocumentSnapshot> matches = matches(collection, filters, order, limit).stream()
+                    .map(this::queryDocumentSnapshot)
+                    .toList();
+            QuerySnapshot querySnapshot = stub(QuerySnapshot.class);
+            when(querySnapshot.getDocuments()).thenReturn(matches);
+            when(querySnapshot.isEmpty()).thenReturn(matches.isEmpty());
+            return ApiFutures.immediateFuture(querySnapshot);
+        });
+        when(query.count()).thenAnswer(invocation -> {
+            AggregateQuery aggregateQuery = stub(AggregateQuery.class);
+            when(aggregateQuery.get()).thenAnswer(ignored -> {
+                AggregateQuerySnapshot aggregateQuerySnapshot = stub(AggregateQuerySnapshot.class);
+                when(aggregateQuerySnapshot.getCount())
+                        .thenReturn((long) matches(collection, filters, order, limit).size());
+                return ApiFutures.immediateFuture(aggregateQuerySnapshot);
+            });
+            return aggregateQuery;
+        });
+        return query;
+    }
+
+    private List<Map<String, Object>> matches(String collection, List<Predicate<Map<String, Object>>> filters,
+                                              Comparator<Map<String, Object>> order, int limit) {
+        Stream<Map<String, Object>> matches = documents(collection).values().stream()
+                .map(data -> (Map<String, Object>) new HashMap<>(data))
+                .filter(data -> filters.stream().allMatch(filter -> filter.test(data)));
+        if (order != null) matches = matches.sorted(order);
+        return matches.limit(limit).toList();
+    }
+
+    private static List<Predicate<Map<String, Object>>> narrowed(List<Predicate<Map<String, Object>>> filters,
+                                                                 Predicate<Map<String, Object>> filter) {
+        List<Predicate<Map<String, Object>>> narrowed = new ArrayList<>(filters);
+        narrowed.add(filter);
+        return narrowed;
+    }
+
+    /**
+     * @return a filter matching documents whose field compares to {@code bound} with a sign from {@code lowest} to
+     * {@code highest}; like in Firestore, a document without the field matches no range filter
+     */
+    private static Predicate<Map<String, Object>> inRange(String field, Object bound, int lowest, int highest) {
+        return data -> {
+            Object value = data.get(field);
+            if (value == null) return false;
+            int sign = Integer.signum(compare(value, bound));
+            return sign >= lowest && sign <= highest;
+        };
+    }
+
+    // a document without the field sorts first
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object value, Object bound) {
+        if (value == null || bound == null) return value == bound ? 0 : value == null ? -1 : 1;
+        return ((Comparable) value).compareTo(bound);
+    }
+
+    private QueryDocumentSnapshot queryDocumentSnapshot(Map<String, Object> data) {
+        QueryDocumentSnapshot snapshot = stub(QueryDocumentSnapshot.class);
+        when(snapshot.getData()).thenReturn(data);
+        when(snapshot.getString(anyString()))
+                .thenAnswer(invocation -> (String) data.get(invocation.<String>getArgument(0)));
+        when(snapshot.getLong(anyString()))
+                .thenAnswer(invocation -> (Long) data.get(invocation.<String>getArgument(0)));
+        when(snapshot.getBoolean(anyString()))
+                .thenAnswer(invocation -> (Boolean) data.get(invocation.<String>getArgument(0)));
+        return snapshot;
+    }
+
+    private DocumentReference documentReference(String collection, String id) {
+        return documentReferences.computeIfAbsent(collection + "/" + id, path -> {
+            DocumentReference documentReference = stub(DocumentReference.class);
+            when(documentReference.getId()).thenReturn(id);
+            when(documentReference.getPath()).thenReturn(path);
+            when(documentReference.get())
+                    .thenAnswer(invocation -> ApiFutures.immediateFuture(snapshot(collection, id)));
+            when(documentReference.set(anyMap(), any(SetOptions.class))).thenAnswer(invocation -> {
+                merge(path, invocation.getArgument(0));
+                return ApiFutures.immediateFuture(writeResult);
+            });
+            when(documentReference.delete()).thenAnswer(invocation -> {
+                documents(collection).remove(id);
+                return ApiFutures.immediateFuture(writeResult);
+            });
+            return documentReference;
+        });
+    }
+
+    private DocumentSnapshot snapshot(String collection, String id) {
+        Map<String, Object> data = document(collection, id);
+        DocumentSnapshot snapshot = stub(DocumentSnapshot.class);
+        when(snapshot.getId()).thenReturn(id);
+        when(snapshot.exists()).thenReturn(data != null);
+        when(snapshot.getData()).thenReturn(data);
+        when(snapshot.getString(anyString()))
+                .thenAnswer(invocation -> data == null ? null : (String) data.get(invocation.<String>getArgument(0)));
+        when(snapshot.getLong(anyString()))
+                .thenAnswer(invocation -> data == null ? null : (Long) data.get(invocation.<String>getArgument(0)));
+        when(snapshot.get(anyString()))
+                .thenAnswer(invocation -> data == null ? null : data.get(invocation.<String>getArgument(0)));
+        return snapshot;
+    }
+
+    private Transaction transaction() {
+        Transaction transaction = stub(Transaction.class);
+        when(transaction.get(any(DocumentReference.class)))
+                .thenAnswer(invocation -> invocation.<DocumentReference>getArgument(0).get());
+        when(transaction.set(any(DocumentReference.class), anyMap())).thenAnswer(invocation -> {
+            String path = invocation.<DocumentReference>getArgument(0).getPath();
+            int separator = path.indexOf('/');
+            // set without merge replaces the whole document
+            documents(path.substring(0, separator)).remove(path.substring(separator + 1));
+            merge(path, invocation.getArgument(1));
+            return transaction;
+        });
+        when(transaction.delete(any(DocumentReference.class))).thenAnswer(invocation -> {
+            String path = invocation.<DocumentReference>getArgument(0).getPath();
+            int separator = path.indexOf('/');
+            documents(path.substring(0, separator)).remove(path.substring(separator + 1));
+            return transaction;
+        });
+        return transaction;
+    }
+
+    private BulkWriter bulkWriter() {
+        BulkWriter bulkWriter = stub(BulkWriter.class);
+        when(bulkWriter.set(any(DocumentReference.class), anyMap(), any(SetOptions.class))).thenAnswer(invocation -> {
+            DocumentReference documentReference = invocation.getArgument(0);
+            merge(documentReference.getPath(), invocation.getArgument(1));
+            return ApiFutures.immediateFuture(writeResult);
+        });
+        when(bulkWriter.flush()).thenReturn(ApiFutures.immediateFuture(null));
+        return bulkWriter;
+    }
+}